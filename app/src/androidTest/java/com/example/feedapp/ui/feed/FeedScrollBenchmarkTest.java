@@ -0,0 +1,211 @@
+package com.example.feedapp.ui.feed;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.feedapp.MainActivity;
+import com.example.feedapp.R;
+import com.example.feedapp.data.remote.FeedRemoteDataSource;
+import com.example.feedapp.data.remote.NetworkProfile;
+import com.example.feedapp.data.remote.SyntheticFeedGenerator;
+import com.example.feedapp.perf.FeedMetrics;
+import com.example.feedapp.perf.LatencyHistogram;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 脚本化的滑动基准：冷启动 MainActivity，按固定脚本 fling 整个信息流，统计帧 / bind / 分页耗时。
+ *
+ * - 数据源：本地模拟的「服务端」（FeedRemoteDataSource）换成固定种子的合成数据（SyntheticFeedGenerator），
+ *   网络固定 50ms、不限带宽、不失败：每次运行拿到的卡片完全一样，也去掉了网络的随机性，量到的是客户端自己的开销；
+ * - 启动前删掉本地缓存 / 首屏快照，每次都从「网络第一页」开始，不受上一次运行留下的数据影响；
+ * - 脚本（SCRIPT）：每一步是一次 fling 的纵向速度（正数往下、负数往回），每步之后等列表停下；
+ *   往下滑会不断触发加载更多，所以也覆盖了「追加一页 + diff + bind 新卡片」；
+ * - 网格 / 瀑布流各跑一次；
+ * - 统计直接读 FeedMetrics（ScrollFrameRecorder 只记滑动中的帧，FeedAdapter 记 bind，Repository 记分页）。
+ *
+ * 结果（JSON）：
+ * - 写到 additionalTestOutputDir（AGP 跑 connectedAndroidTest 时会拉回
+ *   app/build/outputs/connected_android_test_additional_output/），没有时写到 App 的 external files 目录；
+ * - 同时写 logcat（tag = FeedScrollBenchmark）并通过 instrumentation status 输出，方便在 CI 里解析。
+ */
+@RunWith(AndroidJUnit4.class)
+public class FeedScrollBenchmarkTest {
+
+    private static final String TAG = "FeedScrollBenchmark";
+    /** 和 MainActivity 里的排版开关一致 */
+    private static final String PREFS_NAME = "feed_settings";
+    private static final String KEY_WATERFALL = "waterfall";
+    /** 固定 50ms、不限带宽：分页耗时稳定，又不至于一点等待都没有 */
+    private static final NetworkProfile BENCH_NETWORK =
+            new NetworkProfile("bench-50ms", 50, 50, 50, 0, 0);
+    /** fling 脚本：纵向速度（px/s） */
+    private static final int[] SCRIPT = {
+            8000, 8000, 12000, 12000, 8000, -6000, -6000, 12000, 12000, 16000, -8000, 16000
+    };
+
+    private boolean previousWaterfall;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        previousWaterfall = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                .getBoolean(KEY_WATERFALL, false);
+        new File(context.getFilesDir(), "feed_cache.json").delete();
+        new File(context.getFilesDir(), "feed_first_screen.json").delete();
+        FeedRemoteDataSource.setEndpoint(null);
+        FeedRemoteDataSource.setFailMode(FeedRemoteDataSource.FailMode.NONE);
+        FeedRemoteDataSource.setNetworkProfile(BENCH_NETWORK);
+        FeedRemoteDataSource.setSyntheticFeed(SyntheticFeedGenerator.DEFAULT_SEED,
+                SyntheticFeedGenerator.DEFAULT_CARD_COUNT);
+    }
+
+    @After
+    public void tearDown() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putBoolean(KEY_WATERFALL, previousWaterfall).commit();
+        FeedRemoteDataSource.setNetworkProfile(NetworkProfile.FIXED_2S);
+        FeedRemoteDataSource.clearSyntheticFeed();
+    }
+
+    @Test
+    public void scriptedScroll_grid() {
+        run("grid", false);
+    }
+
+    @Test
+    public void scriptedScroll_waterfall() {
+        run("waterfall", true);
+    }
+
+    private void run(String label, boolean waterfall) {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putBoolean(KEY_WATERFALL, waterfall).commit();
+
+        FeedMetrics metrics = FeedMetrics.get();
+        AtomicInteger itemCount = new AtomicInteger();
+        long startMs;
+        try (ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class)) {
+            waitForFirstPage(scenario);
+            // 只统计脚本部分：首页加载 / 首帧布局不算
+            metrics.reset();
+            startMs = SystemClock.uptimeMillis();
+            for (int velocity : SCRIPT) {
+                scenario.onActivity(activity -> {
+                    RecyclerView rv = activity.findViewById(R.id.recyclerView);
+                    rv.fling(0, velocity);
+                });
+                waitForIdle(scenario);
+            }
+            scenario.onActivity(activity -> {
+                RecyclerView rv = activity.findViewById(R.id.recyclerView);
+                itemCount.set(rv.getAdapter() == null ? 0 : rv.getAdapter().getItemCount());
+            });
+        }
+        long elapsedMs = SystemClock.uptimeMillis() - startMs;
+
+        LatencyHistogram.Metrics frames = metrics.frames();
+        assertTrue("没有收集到任何滑动帧", frames.count > 0);
+        report(label, waterfall, elapsedMs, itemCount.get(), metrics);
+    }
+
+    /** 轮询直到列表里出现数据，最多等 10 秒 */
+    private void waitForFirstPage(ActivityScenario<MainActivity> scenario) {
+        AtomicInteger count = new AtomicInteger();
+        long deadline = SystemClock.uptimeMillis() + 10_000;
+        while (SystemClock.uptimeMillis() < deadline) {
+            scenario.onActivity(activity -> {
+                RecyclerView rv = activity.findViewById(R.id.recyclerView);
+                RecyclerView.Adapter<?> adapter = rv.getAdapter();
+                count.set(adapter == null ? 0 : adapter.getItemCount());
+            });
+            if (count.get() > 0) break;
+            SystemClock.sleep(100);
+        }
+        assertTrue("首页数据没有在 10 秒内到达", count.get() > 0);
+        SystemClock.sleep(500);
+    }
+
+    /** 等这一次 fling 停下（最多 5 秒），再留一点时间给加载更多的数据落地 */
+    private void waitForIdle(ActivityScenario<MainActivity> scenario) {
+        AtomicBoolean idle = new AtomicBoolean();
+        long deadline = SystemClock.uptimeMillis() + 5_000;
+        SystemClock.sleep(100);
+        while (SystemClock.uptimeMillis() < deadline) {
+            scenario.onActivity(activity -> {
+                RecyclerView rv = activity.findViewById(R.id.recyclerView);
+                idle.set(rv.getScrollState() == RecyclerView.SCROLL_STATE_IDLE);
+            });
+            if (idle.get()) break;
+            SystemClock.sleep(50);
+        }
+        SystemClock.sleep(200);
+    }
+
+    private void report(String label, boolean waterfall, long elapsedMs, int itemCount, FeedMetrics metrics) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("benchmark", "scroll." + label);
+        json.put("waterfall", waterfall);
+        json.put("network", "bench-50ms");
+        json.put("seed", SyntheticFeedGenerator.DEFAULT_SEED);
+        json.put("flings", SCRIPT.length);
+        json.put("elapsedMs", elapsedMs);
+        json.put("itemCount", itemCount);
+        json.put("frames", metrics.frames());
+        json.put("jankyFrames", metrics.jankyFrames());
+        json.put("binds", metrics.binds());
+        json.put("pageLoads", metrics.pageLoads());
+        json.put("pageFailures", metrics.pageFailures());
+        String text = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(json);
+
+        File file = writeJson("scroll_" + label + ".json", text);
+        Log.i(TAG, label + " -> " + file + "\n" + metrics.summary());
+
+        Bundle status = new Bundle();
+        status.putString(TAG + "." + label, new Gson().toJson(json));
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+    }
+
+    private static File writeJson(String name, String text) {
+        String dir = InstrumentationRegistry.getArguments().getString("additionalTestOutputDir");
+        File outDir = dir != null
+                ? new File(dir)
+                : new File(InstrumentationRegistry.getInstrumentation().getTargetContext()
+                        .getExternalFilesDir(null), "benchmark-results");
+        outDir.mkdirs();
+        File file = new File(outDir, name);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(text);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return file;
+    }
+}
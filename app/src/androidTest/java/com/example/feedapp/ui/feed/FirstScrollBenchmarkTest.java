@@ -0,0 +1,123 @@
+package com.example.feedapp.ui.feed;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.feedapp.MainActivity;
+import com.example.feedapp.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 启动后「第一次 fling」的帧耗时基准：
+ *
+ * - 冷启动 MainActivity，等首页数据到达（列表出现 item）；
+ * - 通过 Window.OnFrameMetricsAvailableListener 收集 fling 过程中每一帧的 TOTAL_DURATION；
+ * - 分别在「开启 / 关闭 ViewHolder 预热」两种情况下各跑一次，输出 p50 / p90 / max / 掉帧数。
+ *
+ * 结果写到 logcat（tag = FirstScrollBenchmark），同时通过 instrumentation status 输出，
+ * 方便在 CI 里 grep 或解析。
+ */
+@RunWith(AndroidJUnit4.class)
+public class FirstScrollBenchmarkTest {
+
+    private static final String TAG = "FirstScrollBenchmark";
+    /** 60Hz 下一帧的预算 */
+    private static final long FRAME_BUDGET_NS = 16_666_667L;
+
+    @Test
+    public void firstFling_withPrewarm() {
+        runFirstFling(true);
+    }
+
+    @Test
+    public void firstFling_withoutPrewarm() {
+        runFirstFling(false);
+    }
+
+    private void runFirstFling(boolean prewarm) {
+        ViewHolderPrewarmer.setEnabled(prewarm);
+        List<Long> frameNs = Collections.synchronizedList(new ArrayList<>());
+        HandlerThread metricsThread = new HandlerThread("frame-metrics");
+        metricsThread.start();
+        Window.OnFrameMetricsAvailableListener listener = (window, metrics, dropped) ->
+                frameNs.add(metrics.getMetric(FrameMetrics.TOTAL_DURATION));
+
+        try (ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class)) {
+            waitForFirstPage(scenario);
+
+            scenario.onActivity(activity -> {
+                activity.getWindow().addOnFrameMetricsAvailableListener(
+                        listener, new Handler(metricsThread.getLooper()));
+                RecyclerView rv = activity.findViewById(R.id.recyclerView);
+                rv.fling(0, 12000);
+            });
+            // 等 fling 结束（惯性滑动一般在 1~2 秒内停下）
+            SystemClock.sleep(2500);
+            scenario.onActivity(activity ->
+                    activity.getWindow().removeOnFrameMetricsAvailableListener(listener));
+        } finally {
+            metricsThread.quitSafely();
+            ViewHolderPrewarmer.setEnabled(true);
+        }
+
+        report(prewarm ? "prewarm" : "no_prewarm", new ArrayList<>(frameNs));
+    }
+
+    /** 轮询直到列表里出现数据（模拟网络有 2 秒延迟），最多等 10 秒 */
+    private void waitForFirstPage(ActivityScenario<MainActivity> scenario) {
+        AtomicInteger count = new AtomicInteger();
+        long deadline = SystemClock.uptimeMillis() + 10_000;
+        while (SystemClock.uptimeMillis() < deadline) {
+            scenario.onActivity(activity -> {
+                RecyclerView rv = activity.findViewById(R.id.recyclerView);
+                RecyclerView.Adapter<?> adapter = rv.getAdapter();
+                count.set(adapter == null ? 0 : adapter.getItemCount());
+            });
+            if (count.get() > 0) break;
+            SystemClock.sleep(100);
+        }
+        assertTrue("首页数据没有在 10 秒内到达", count.get() > 0);
+        // 让首帧布局 + 预热任务有机会跑完
+        SystemClock.sleep(500);
+    }
+
+    private void report(String label, List<Long> frames) {
+        assertTrue("没有收集到任何帧数据", !frames.isEmpty());
+        Collections.sort(frames);
+        long p50 = frames.get(frames.size() / 2);
+        long p90 = frames.get(Math.min(frames.size() - 1, frames.size() * 9 / 10));
+        long max = frames.get(frames.size() - 1);
+        int janky = 0;
+        for (long ns : frames) {
+            if (ns > FRAME_BUDGET_NS) janky++;
+        }
+
+        String line = String.format(java.util.Locale.US,
+                "%s frames=%d p50=%.2fms p90=%.2fms max=%.2fms janky=%d",
+                label, frames.size(), p50 / 1e6, p90 / 1e6, max / 1e6, janky);
+        Log.i(TAG, line);
+
+        Bundle status = new Bundle();
+        status.putString(TAG + "." + label, line);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+    }
+}
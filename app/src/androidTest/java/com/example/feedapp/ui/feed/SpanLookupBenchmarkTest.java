@@ -0,0 +1,158 @@
+package com.example.feedapp.ui.feed;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedCardStore;
+import com.example.feedapp.image.FeedImageLoader;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 混排 GridLayoutManager 的「深位置 scrollToPosition」基准：
+ *
+ * - 2 万张文字卡片（约 1/4 单列），放进一个不挂在窗口上的 RecyclerView，手动 measure / layout；
+ * - 依次 scrollToPosition 到 5000 / 10000 / 15000 / 19999，每次都重新 layout，记录耗时；
+ * - 中间插一次 Footer 显示 / 隐藏（notifyItemInserted / Removed），模拟加载更多时缓存被清空；
+ * - 三种 SpanSizeLookup 各跑一次：
+ *   legacy           ：以前 Fragment 里的匿名类，默认算法，不开缓存；
+ *   legacy_cached    ：同上，打开 setSpanIndexCacheEnabled / setSpanGroupIndexCacheEnabled；
+ *   feed_lookup      ：FeedSpanSizeLookup（预计算表）。
+ *
+ * 结果写到 logcat（tag = SpanLookupBenchmark），同时通过 instrumentation status 输出。
+ */
+@RunWith(AndroidJUnit4.class)
+public class SpanLookupBenchmarkTest {
+
+    private static final String TAG = "SpanLookupBenchmark";
+    private static final int SPAN_COUNT = 2;
+    private static final int CARD_COUNT = 20_000;
+    private static final int[] TARGETS = {5_000, 10_000, 15_000, CARD_COUNT - 1};
+    private static final int WIDTH_PX = 1080;
+    private static final int HEIGHT_PX = 2200;
+
+    @Test
+    public void deepScroll_legacy() {
+        run("legacy", adapter -> legacyLookup(adapter, false));
+    }
+
+    @Test
+    public void deepScroll_legacyCached() {
+        run("legacy_cached", adapter -> legacyLookup(adapter, true));
+    }
+
+    @Test
+    public void deepScroll_feedLookup() {
+        run("feed_lookup", adapter -> new FeedSpanSizeLookup(adapter, SPAN_COUNT));
+    }
+
+    private interface LookupFactory {
+        GridLayoutManager.SpanSizeLookup create(FeedAdapter adapter);
+    }
+
+    /** 以前 FeedFragment 里的写法：只覆盖 getSpanSize，行内起始列 / 行号走默认的逐个累加 */
+    private static GridLayoutManager.SpanSizeLookup legacyLookup(FeedAdapter adapter, boolean cached) {
+        GridLayoutManager.SpanSizeLookup lookup = new GridLayoutManager.SpanSizeLookup() {
+            @Override
+            public int getSpanSize(int position) {
+                if (adapter.getItemViewType(position) == FeedAdapter.VIEW_TYPE_FOOTER) return SPAN_COUNT;
+                int layoutType = adapter.getLayoutTypeAt(position);
+                if (layoutType < 0) return SPAN_COUNT;
+                return layoutType == FeedCard.LAYOUT_SINGLE ? SPAN_COUNT : 1;
+            }
+        };
+        lookup.setSpanIndexCacheEnabled(cached);
+        lookup.setSpanGroupIndexCacheEnabled(cached);
+        return lookup;
+    }
+
+    private void run(String label, LookupFactory factory) {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        FeedCardStore store = new FeedCardStore();
+        store.replaceAll(cards(CARD_COUNT));
+        FeedCardStore.Snapshot snapshot = store.snapshot();
+        long[] elapsedNs = new long[TARGETS.length];
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            FeedAdapter adapter = new FeedAdapter(
+                    new FeedImageLoader(context, SPAN_COUNT), new TextLayoutCache(context, SPAN_COUNT));
+            // 从空列表提交是同步生效的（不走后台 DiffUtil）
+            adapter.submitList(snapshot);
+            assertEquals(CARD_COUNT, adapter.getCurrentList().size());
+
+            RecyclerView rv = new RecyclerView(context);
+            GridLayoutManager layoutManager = new GridLayoutManager(context, SPAN_COUNT);
+            layoutManager.setSpanSizeLookup(factory.create(adapter));
+            rv.setLayoutManager(layoutManager);
+            rv.setAdapter(adapter);
+            layout(rv);
+
+            for (int i = 0; i < TARGETS.length; i++) {
+                // 模拟加载更多：Footer 显示 / 隐藏会让 GridLayoutManager 清空自带的 span 缓存
+                adapter.setShowFooter(i % 2 == 0);
+                long start = SystemClock.elapsedRealtimeNanos();
+                rv.scrollToPosition(TARGETS[i]);
+                layout(rv);
+                elapsedNs[i] = SystemClock.elapsedRealtimeNanos() - start;
+            }
+        });
+
+        report(label, elapsedNs);
+    }
+
+    private static void layout(RecyclerView rv) {
+        rv.measure(View.MeasureSpec.makeMeasureSpec(WIDTH_PX, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT_PX, View.MeasureSpec.EXACTLY));
+        rv.layout(0, 0, WIDTH_PX, HEIGHT_PX);
+    }
+
+    /** 只用文字卡片：不触发图片加载，测到的基本就是布局（含 span 查询）本身 */
+    private static List<FeedCard> cards(int count) {
+        Random random = new Random(46);
+        List<FeedCard> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new FeedCard.Builder()
+                    .id(UUID.randomUUID())
+                    .cardType(FeedCard.TYPE_TEXT)
+                    .layoutType(random.nextInt(4) == 0 ? FeedCard.LAYOUT_SINGLE : FeedCard.LAYOUT_DOUBLE)
+                    .title("标题 " + i)
+                    .content("内容 " + i)
+                    .build());
+        }
+        return list;
+    }
+
+    private void report(String label, long[] elapsedNs) {
+        StringBuilder sb = new StringBuilder(label);
+        long total = 0;
+        for (int i = 0; i < TARGETS.length; i++) {
+            sb.append(String.format(Locale.US, " @%d=%.2fms", TARGETS[i], elapsedNs[i] / 1e6));
+            total += elapsedNs[i];
+        }
+        sb.append(String.format(Locale.US, " total=%.2fms", total / 1e6));
+        String line = sb.toString();
+        Log.i(TAG, line);
+
+        Bundle status = new Bundle();
+        status.putString(TAG + "." + label, line);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.feedapp;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
 import android.view.View;
+import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -9,6 +14,8 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.feedapp.exposure.ExposureEvent;
 import com.example.feedapp.exposure.ExposureLogger;
+import com.example.feedapp.perf.FeedMetrics;
+import com.example.feedapp.perf.StartupTracer;
 import com.example.feedapp.ui.debug.LogAdapter;
 import com.example.feedapp.ui.feed.FeedFragment;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
@@ -17,6 +24,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import android.app.AlertDialog;
+import android.content.SharedPreferences;
 import android.widget.Toast;
 
 import com.example.feedapp.data.remote.FeedRemoteDataSource;
@@ -41,6 +49,9 @@ import com.example.feedapp.data.remote.FeedRemoteDataSource;
  */
 
 public class MainActivity extends AppCompatActivity implements ExposureLogger.Listener {
+    /** 列表排版的选择（网格 / 瀑布流）存在这里，下次启动沿用 */
+    private static final String PREFS_NAME = "feed_settings";
+    private static final String KEY_WATERFALL = "waterfall";
     /** 曝光调试悬浮层的根 View（一般是一个全屏半透明背景 + 内部一个 RecyclerView） */
     private View exposureOverlay;
     /** 用于显示曝光日志列表的 RecyclerView（在悬浮层内部） */
@@ -49,10 +60,27 @@ public class MainActivity extends AppCompatActivity implements ExposureLogger.Li
     private LogAdapter logAdapter;
     /** 内存中的日志字符串列表（按时间倒序插入，最新的在 index=0） */
     private final List<String> logs = new ArrayList<>();
+    /** 性能统计的刷新间隔 */
+    private static final long PERF_REFRESH_MS = 500;
+    /** 悬浮层里的性能统计（帧耗时 / bind 耗时 / 分页耗时），面板打开时定时刷新 */
+    private TextView tvPerfSummary;
+    private final Handler perfHandler = new Handler(Looper.getMainLooper());
+    private final Runnable perfRefresh = new Runnable() {
+        @Override
+        public void run() {
+            if (tvPerfSummary == null) return;
+            tvPerfSummary.setText(FeedMetrics.get().summary());
+            perfHandler.postDelayed(this, PERF_REFRESH_MS);
+        }
+    };
     // -------------------- Activity 生命周期：onCreate --------------------
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        // 冷启动打点：以进程启动为 0 点，列表第一次画出内容时由 FeedFragment 输出汇总
+        StartupTracer tracer = StartupTracer.get();
+        tracer.begin(Process.getStartUptimeMillis());
+        tracer.mark(StartupTracer.ACTIVITY_CREATE, SystemClock.uptimeMillis());
         super.onCreate(savedInstanceState);
         // 使用 activity_main.xml 作为当前 Activity 的布局
         setContentView(R.layout.activity_main);
@@ -65,7 +93,7 @@ public class MainActivity extends AppCompatActivity implements ExposureLogger.Li
             getSupportFragmentManager()
                     .beginTransaction()
                     // R.id.container 是 activity_main.xml 中的 Fragment 容器（FrameLayout）
-                    .replace(R.id.container, new FeedFragment())
+                    .replace(R.id.container, FeedFragment.newInstance(isWaterfall()))
                     .commit();
         }
 
@@ -87,6 +115,16 @@ public class MainActivity extends AppCompatActivity implements ExposureLogger.Li
             rvExposureLog.setAdapter(logAdapter);
         }
 
+        // 2.4 性能统计：长按清空，方便只看接下来这一次滑动的数据
+        tvPerfSummary = findViewById(R.id.tvPerfSummary);
+        if (tvPerfSummary != null) {
+            tvPerfSummary.setOnLongClickListener(v -> {
+                FeedMetrics.get().reset();
+                tvPerfSummary.setText(FeedMetrics.get().summary());
+                return true;
+            });
+        }
+
         // 3. 设置右下角 FloatingActionButton 的点击事件：
         //    - 点击时打开/关闭曝光调试面板；
         //    - 同时在打开时注册曝光监听器，关闭时取消监听。
@@ -103,12 +141,20 @@ public class MainActivity extends AppCompatActivity implements ExposureLogger.Li
                 "正常模式（不故意失败）",
                 "刷新必失败（page=0）",
                 "加载更多必失败（page>0）",
-                "随机失败（50% 概率）"
+                "随机失败（50% 概率）",
+                "读取超时（等满 5 秒）",
+                "服务端返回 HTTP 500",
+                "响应 JSON 被截断",
+                isWaterfall() ? "排版：切回网格" : "排版：切到瀑布流"
         };
 
         new AlertDialog.Builder(this)
                 .setTitle("网络错误调试模式")
                 .setItems(items, (dialog, which) -> {
+                    if (which == items.length - 1) {
+                        toggleFeedLayout();
+                        return;
+                    }
                     FeedRemoteDataSource.FailMode mode;
                     String toastText;
                     switch (which) {
@@ -124,6 +170,18 @@ public class MainActivity extends AppCompatActivity implements ExposureLogger.Li
                             mode = FeedRemoteDataSource.FailMode.RANDOM_FAIL;
                             toastText = "已切到：随机失败";
                             break;
+                        case 4:
+                            mode = FeedRemoteDataSource.FailMode.TIMEOUT;
+                            toastText = "已切到：读取超时";
+                            break;
+                        case 5:
+                            mode = FeedRemoteDataSource.FailMode.HTTP_500;
+                            toastText = "已切到：HTTP 500";
+                            break;
+                        case 6:
+                            mode = FeedRemoteDataSource.FailMode.MALFORMED_JSON;
+                            toastText = "已切到：JSON 截断";
+                            break;
                         case 0:
                         default:
                             mode = FeedRemoteDataSource.FailMode.NONE;
@@ -136,6 +194,27 @@ public class MainActivity extends AppCompatActivity implements ExposureLogger.Li
                 .show();
     }
 
+    // -------------------- 列表排版：网格 / 瀑布流 --------------------
+
+    private boolean isWaterfall() {
+        return getSharedPreferences(PREFS_NAME, MODE_PRIVATE).getBoolean(KEY_WATERFALL, false);
+    }
+
+    /**
+     * 切换网格 / 瀑布流：记住选择，并换一个新的 FeedFragment（LayoutManager、封面尺寸都在创建时决定）。
+     * 新页面走正常的首屏流程：先画首屏快照，再刷新。
+     */
+    private void toggleFeedLayout() {
+        boolean waterfall = !isWaterfall();
+        SharedPreferences prefs = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
+        prefs.edit().putBoolean(KEY_WATERFALL, waterfall).apply();
+        getSupportFragmentManager()
+                .beginTransaction()
+                .replace(R.id.container, FeedFragment.newInstance(waterfall))
+                .commit();
+        Toast.makeText(this, waterfall ? "已切到：瀑布流" : "已切到：网格", Toast.LENGTH_SHORT).show();
+    }
+
     // -------------------- 悬浮曝光面板的开关逻辑 --------------------
 
     /**
@@ -155,10 +234,13 @@ public class MainActivity extends AppCompatActivity implements ExposureLogger.Li
             // 当前是“开启”状态 -> 关闭悬浮窗，并取消监听
             exposureOverlay.setVisibility(View.GONE);
             ExposureLogger.removeListener(this);
+            perfHandler.removeCallbacks(perfRefresh);
         } else {
-            // 当前是“关闭”状态 -> 打开悬浮窗，并开始监听曝光事件
+            // 当前是“关闭”状态 -> 打开悬浮窗，并开始监听曝光事件、定时刷新性能统计
             exposureOverlay.setVisibility(View.VISIBLE);
             ExposureLogger.addListener(this);
+            perfHandler.removeCallbacks(perfRefresh);
+            perfHandler.post(perfRefresh);
         }
     }
 
@@ -201,5 +283,6 @@ public class MainActivity extends AppCompatActivity implements ExposureLogger.Li
     protected void onDestroy() {
         super.onDestroy();
         ExposureLogger.removeListener(this);
+        perfHandler.removeCallbacks(perfRefresh);
     }
 }
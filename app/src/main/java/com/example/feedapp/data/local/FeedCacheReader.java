@@ -0,0 +1,97 @@
+package com.example.feedapp.data.local;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FeedCacheReader：feed_cache.json 的流式读取（文件格式不变，仍然是一个 FeedCard 数组）。
+ *
+ * 之前 loadCache 用 gson.fromJson 一次性把整个数组读成 List<FeedCard> 才返回，
+ * 缓存有几千张卡片时，第一屏要等整个文件解析完。现在：
+ * - 基于 JsonReader 一张一张解析（每张卡片仍然走 FeedCardTypeAdapter）；
+ * - 凑够 firstChunkSize 张（默认 20，差不多一屏）就先回调一次，之后每 chunkSize 张回调一次；
+ * - 文件尾部被截断 / 损坏（写到一半断电、磁盘错误）时，已经解析出来的卡片照常交付，
+ *   只丢掉坏掉的那一张和它后面的内容。
+ *
+ * 回调在调用 read 的线程上同步执行，每次给的是一个新的 List（只包含这一块），接收方可以直接持有。
+ */
+public final class FeedCacheReader {
+
+    /** 第一块的大小：够填满第一屏即可 */
+    public static final int DEFAULT_FIRST_CHUNK_SIZE = 20;
+    /** 后续每块的大小：块太小会让 UI 频繁刷新，太大则后面的卡片到得慢 */
+    public static final int DEFAULT_CHUNK_SIZE = 200;
+
+    /**
+     * 每解析出一块卡片回调一次。
+     */
+    public interface ChunkListener {
+        void onChunk(List<FeedCard> chunk);
+    }
+
+    private final TypeAdapter<FeedCard> adapter;
+    private final int firstChunkSize;
+    private final int chunkSize;
+
+    public FeedCacheReader(Gson gson) {
+        this(gson, DEFAULT_FIRST_CHUNK_SIZE, DEFAULT_CHUNK_SIZE);
+    }
+
+    public FeedCacheReader(Gson gson, int firstChunkSize, int chunkSize) {
+        this.adapter = gson.getAdapter(FeedCard.class);
+        this.firstChunkSize = Math.max(1, firstChunkSize);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * 从 in 流式读取卡片数组，按块回调 listener。不负责关闭 in。
+     *
+     * @return 一共交付了多少张卡片（文件为空 / 不是数组时为 0）
+     */
+    public int read(Reader in, ChunkListener listener) {
+        JsonReader reader = new JsonReader(in);
+        try {
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) return 0;
+            reader.beginArray();
+        } catch (IOException | RuntimeException e) {
+            // 空文件或者开头就坏了：当作没有缓存
+            return 0;
+        }
+
+        int delivered = 0;
+        int limit = firstChunkSize;
+        List<FeedCard> chunk = new ArrayList<>(limit);
+        while (true) {
+            FeedCard card;
+            try {
+                if (!reader.hasNext()) break;
+                card = adapter.read(reader);
+            } catch (IOException | RuntimeException e) {
+                // 尾部截断 / 损坏：保留已经解析出来的部分，打印日志即可
+                e.printStackTrace();
+                break;
+            }
+            if (card == null) continue;
+            chunk.add(card);
+            if (chunk.size() >= limit) {
+                delivered += chunk.size();
+                listener.onChunk(chunk);
+                limit = chunkSize;
+                chunk = new ArrayList<>(limit);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            delivered += chunk.size();
+            listener.onChunk(chunk);
+        }
+        return delivered;
+    }
+}
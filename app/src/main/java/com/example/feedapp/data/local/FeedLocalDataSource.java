@@ -4,14 +4,17 @@ import android.content.Context;
 
 import com.example.feedapp.data.model.FeedCard;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.lang.reflect.Type;
-import java.util.Collections;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -24,22 +27,35 @@ import java.util.List;
  *
  * 这里采用最简单的实现：
  * - 使用 Gson 把 List<FeedCard> 转成 json 字符串；
- * - 把 json 写到 app 私有目录下的一个文件中；
- * - 读取时再反序列化回来。
+ * - 把 json 写到 app 私有目录下的一个文件中（先写临时文件再 rename，写到一半崩溃也不会留下半个文件）；
+ * - 读取时用 FeedCacheReader 流式反序列化，边解析边分块交付（第一屏不用等整个文件读完）。
+ *
+ * 线程：saveCache 是整文件写入，只应该由 FeedPersistenceWriter 的 writer 线程调用。
  */
 public class FeedLocalDataSource {
 
+    private static final String TEMP_SUFFIX = ".tmp";
+
     /** 缓存文件在本地的路径：例如 /data/data/你的包名/files/feed_cache.json */
     private final File cacheFile;
 
     /** 用于 json 序列化 / 反序列化的工具类 */
     private final Gson gson = new Gson();
+    /** 流式读取缓存文件 */
+    private final FeedCacheReader cacheReader = new FeedCacheReader(gson);
 
     public FeedLocalDataSource(Context context) {
         // context.getFilesDir() 是 app 私有的 files 目录：
         // - 不需要存储权限；
         // - app 卸载时会一并被删除。
-        File dir = context.getFilesDir();
+        this(context.getFilesDir());
+    }
+
+    /**
+     * 指定缓存目录（缓存文件为 dir/feed_cache.json）。
+     * JVM 基准 / 单元测试里没有 Context，传一个临时目录即可。
+     */
+    public FeedLocalDataSource(File dir) {
         this.cacheFile = new File(dir, "feed_cache.json");
     }
 
@@ -51,37 +67,65 @@ public class FeedLocalDataSource {
      * - 或者首次加载网络成功时，写入缓存。
      *
      * 注意这里做的是「整列表覆盖」，不是增量更新，
+     *
+     * 原子写入：
+     * - 先完整写到 feed_cache.json.tmp 并 fsync；
+     * - 再 rename 覆盖正式文件（同一目录下的 rename 是原子的）；
+     * - 所以 loadCache 读到的要么是旧文件，要么是新文件，不会是写了一半的文件。
      */
     public void saveCache(List<FeedCard> cards) {
         if (cards == null) return;
-        try (FileWriter writer = new FileWriter(cacheFile)) {
+        File tmp = new File(cacheFile.getPath() + TEMP_SUFFIX);
+        try (FileOutputStream out = new FileOutputStream(tmp);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
             gson.toJson(cards, writer);
+            writer.flush();
+            out.getFD().sync();
         } catch (Exception e) {
-            // 缓存失败不是致命错误，这里简单打印日志即可。
+            // 缓存失败不是致命错误，这里简单打印日志即可；旧的缓存文件保持不变。
             e.printStackTrace();
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(cacheFile)) {
+            tmp.delete();
         }
     }
 
     /**
-     * 从本地缓存文件中读取上一次保存的列表。
+     * 从本地缓存文件中流式读取上一次保存的列表，边解析边分块回调。
      *
      * 调用时机（通常由 Repository 控制）：
-     * - 当网络请求失败时，Repository 会先尝试 loadCache()，
-     *   如果返回的列表非空，就用它来填充 UI；
-     * - 如果返回空列表，就说明本地也没有可以用的兜底数据。
+     * - 当网络请求失败时，Repository 会用它读取缓存：
+     *   第一块（约一屏）一到就交给 UI，剩下的继续在后台解析、陆续追加；
+     * - 回调在调用线程上同步执行，所以不要在主线程调用。
+     *
+     * 文件尾部损坏时，前面已经解析出来的卡片照常交付。
+     *
+     * @return 一共读到多少张卡片；0 表示本地没有可以用的兜底数据
      */
-    public List<FeedCard> loadCache() {
+    public int loadCache(FeedCacheReader.ChunkListener listener) {
         if (!cacheFile.exists()) {
-            // 从未缓存过，返回空列表即可。
-            return Collections.emptyList();
+            // 从未缓存过
+            return 0;
         }
-        try (BufferedReader reader = new BufferedReader(new FileReader(cacheFile))) {
-            Type type = new TypeToken<List<FeedCard>>() {}.getType();
-            return gson.fromJson(reader, type);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(cacheFile), StandardCharsets.UTF_8))) {
+            return cacheReader.read(reader, listener);
         } catch (Exception e) {
             e.printStackTrace();
-            // 解析失败时不要让 app 崩掉，直接返回空列表。
-            return Collections.emptyList();
+            // 打不开文件时不要让 app 崩掉，当作没有缓存。
+            return 0;
         }
     }
+
+    /**
+     * 一次性读取整个缓存列表（内部同样是流式解析，尾部损坏时返回已经解析出来的部分）。
+     * 读不到时返回空列表。
+     */
+    public List<FeedCard> loadCache() {
+        List<FeedCard> cards = new ArrayList<>();
+        loadCache(cards::addAll);
+        return cards;
+    }
 }
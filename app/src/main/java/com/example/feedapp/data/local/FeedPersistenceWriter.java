@@ -0,0 +1,175 @@
+package com.example.feedapp.data.local;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FeedPersistenceWriter：本地缓存的「单写者」。
+ *
+ * 之前每次刷新 / 加载更多 / 删除都直接整列表写一次 feed_cache.json：
+ * - 删除在主线程，写文件直接卡 UI；
+ * - 刷新 / 加载更多在 Repository 的线程池里写，后面排队的网络请求要等文件写完。
+ *
+ * 现在所有保存都交给这里：
+ * - save(cards) 只记下「最新要写的快照」，立即返回，任何线程都可以调；
+ * - 专用的单线程（"feed-persist"）负责真正写盘，同一时刻只有一个写者；
+ * - 防抖合并：第一次 save 之后等 debounceMs 再写，窗口内的多次 save 只写最后一份
+ *   （连续删除 10 张只写 1 次文件）；
+ * - 写入本身由 Sink 完成（FeedLocalDataSource 用「临时文件 + rename」保证原子性）；
+ * - writePendingNow()：把还在防抖的写入提前，不等待（页面进入后台时用）；
+ * - flush(timeout)：屏障，等到调用之前的所有 save 都写完（测试 / 进程退出前用）；
+ * - shutdown()：立即写掉还在防抖的快照，然后停止线程（不阻塞调用方）。
+ */
+public final class FeedPersistenceWriter {
+
+    /** 默认防抖窗口：连续操作（快速删除多张、刷新后马上加载更多）合并成一次写入 */
+    public static final long DEFAULT_DEBOUNCE_MS = 300;
+
+    /**
+     * 真正的写入动作，在 writer 线程上执行。
+     * 抛出的异常只会被打印，不会影响后续的保存。
+     */
+    public interface Sink {
+        void write(List<FeedCard> cards) throws Exception;
+    }
+
+    private final Sink sink;
+    private final long debounceMs;
+    private final ScheduledExecutorService executor;
+
+    // 下面的状态都由 this 锁保护
+
+    /** 等待写入的最新快照（null 表示没有） */
+    private List<FeedCard> pending;
+    /** 已经安排好的防抖写入任务（null 表示没有） */
+    private ScheduledFuture<?> scheduled;
+    /** 调用过多少次 save */
+    private long requestedCount;
+    /** 前多少次 save 已经落盘（被合并掉的也算） */
+    private long writtenCount;
+    /** 实际写了多少次文件（调试 / 测试用） */
+    private int writeCount;
+    private boolean shutdown;
+
+    public FeedPersistenceWriter(Sink sink) {
+        this(sink, DEFAULT_DEBOUNCE_MS);
+    }
+
+    public FeedPersistenceWriter(Sink sink, long debounceMs) {
+        this.sink = sink;
+        this.debounceMs = Math.max(0, debounceMs);
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "feed-persist");
+            t.setDaemon(true);
+            return t;
+        });
+        // 取消的防抖任务直接移出队列；shutdown 之前已经排进队列的写入仍然会执行（默认策略）
+        executor.setRemoveOnCancelPolicy(true);
+        this.executor = executor;
+    }
+
+    // -------------------- 保存 --------------------
+
+    /**
+     * 提交一份要保存的快照，立即返回。
+     * cards 必须是不可变的（例如 FeedCardStore.Snapshot），writer 线程会在稍后读取它。
+     */
+    public synchronized void save(List<FeedCard> cards) {
+        if (cards == null || shutdown) return;
+        pending = cards;
+        requestedCount++;
+        if (scheduled == null) {
+            scheduled = executor.schedule(this::drain, debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 把还在防抖的写入提前到现在，不等它写完（任何线程都可以调用，包括主线程）。
+     * 用于页面进入后台（onSaveInstanceState）时：进程随时可能被杀，别让最后一次修改停在防抖窗口里。
+     */
+    public synchronized void writePendingNow() {
+        if (pending == null || shutdown) return;
+        writeNow();
+    }
+
+    /**
+     * 屏障：把还在防抖的写入提前到现在，并等到调用之前的所有 save 都落盘。
+     * 不能在 writer 线程上调用；主线程上调用会阻塞，只用于测试 / 进程退出前。
+     *
+     * @return 在超时之前是否全部写完
+     */
+    public boolean flush(long timeoutMs) throws InterruptedException {
+        long target;
+        synchronized (this) {
+            target = requestedCount;
+            if (writtenCount >= target) return true;
+            // shutdown 时已经改成立即写了，线程池也不再接收新任务
+            if (!shutdown) writeNow();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        synchronized (this) {
+            while (writtenCount < target) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) return false;
+                wait(remainingMs);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 停止接收新的保存：还在防抖的快照立即安排写入，写完后 writer 线程退出。
+     * 不阻塞调用方；需要确认落盘的话先调 flush。
+     */
+    public synchronized void shutdown() {
+        if (shutdown) return;
+        shutdown = true;
+        if (pending != null) writeNow();
+        executor.shutdown();
+    }
+
+    /** 实际写文件的次数（被合并掉的 save 不算） */
+    public synchronized int getWriteCount() {
+        return writeCount;
+    }
+
+    // -------------------- writer 线程 --------------------
+
+    /** 取消防抖等待，改为马上写（调用方持有 this 锁） */
+    private void writeNow() {
+        if (scheduled != null && !scheduled.cancel(false)) {
+            // 已经在执行了，写完会唤醒 flush
+            return;
+        }
+        scheduled = executor.schedule(this::drain, 0, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain() {
+        List<FeedCard> cards;
+        long covered;
+        synchronized (this) {
+            cards = pending;
+            covered = requestedCount;
+            pending = null;
+            scheduled = null;
+        }
+        if (cards != null) {
+            try {
+                sink.write(cards);
+            } catch (Exception e) {
+                // 缓存失败不是致命错误，这里简单打印日志即可。
+                e.printStackTrace();
+            }
+        }
+        synchronized (this) {
+            if (cards != null) writeCount++;
+            writtenCount = Math.max(writtenCount, covered);
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.feedapp.data.local;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.google.gson.Gson;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * FirstScreenStore：冷启动用的「首屏快照」，和 feed_cache.json 分开单独存一个小文件。
+ *
+ * 冷启动原来的路径：MainActivity → FeedFragment → FeedViewModel → Repository.refresh → 等网络（默认档位约 2 秒），
+ * 这期间屏幕上只有一个下拉刷新的圈。完整缓存只在网络失败时才读，而且几千张卡片的文件也不适合在主线程读。
+ *
+ * 这里只存列表最前面的 MAX_CARDS 张（几 KB），格式和 feed_cache.json 一样（FeedCard 数组，走 FeedCardTypeAdapter）：
+ * - load() 在 onViewCreated 里同步读一次，ViewModel 立刻把它放进界面状态，第一帧就能画出内容；
+ *   网络结果到了再整体替换（DiffUtil 会把没变的卡片保留下来）；
+ * - save() 跟着本地缓存一起在 FeedPersistenceWriter 的 writer 线程上执行：前 MAX_CARDS 张没变（只是加载更多 /
+ *   删掉了后面的卡片）就不写；写入同样是「临时文件 + rename」；
+ * - 单列 / 双列（占几个 span）由卡片自己的 layoutType 决定，跟着卡片一起存下来，首帧不用再等任何计算。
+ *
+ * 文件损坏 / 截断时返回能解析出来的部分（FeedCacheReader 的容错），读不到就是空列表，按原来的路径走。
+ */
+public final class FirstScreenStore {
+
+    /** 首屏快照存几张：一屏最多放下 6~8 张双列卡片，多存两张给第一次小幅滑动 */
+    public static final int MAX_CARDS = 10;
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File file;
+    private final Gson gson = new Gson();
+    private final FeedCacheReader reader = new FeedCacheReader(gson, MAX_CARDS, MAX_CARDS);
+    /**
+     * 上一次写下去的前 MAX_CARDS 张的签名（张数 + 每张的 id / 内容 hash），相同就跳过写入。
+     * 本进程还没写过时为 null（不能用 0：空列表的签名就是 0，会被当成「和上次一样」）。
+     * 只在 writer 线程上访问。
+     */
+    private Long lastSignature;
+
+    public FirstScreenStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * 读首屏快照（主线程可以调用：最多 MAX_CARDS 张，一次小文件读取）。
+     *
+     * @return 快照里的卡片；没有快照 / 解析失败时返回空列表
+     */
+    public List<FeedCard> load() {
+        if (!file.exists()) return Collections.emptyList();
+        List<FeedCard> cards = new ArrayList<>(MAX_CARDS);
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            reader.read(in, cards::addAll);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+        return cards.size() > MAX_CARDS ? new ArrayList<>(cards.subList(0, MAX_CARDS)) : cards;
+    }
+
+    /**
+     * 用当前列表的前 MAX_CARDS 张更新首屏快照（只应该在 writer 线程上调用）。
+     * 列表为空（卡片全删光了）时删掉快照文件，下次冷启动不会再画出旧的卡片。
+     *
+     * @return true 表示真的写了（或删了）文件；前几张和上次一样时返回 false
+     */
+    public boolean save(List<FeedCard> cards) {
+        if (cards == null) return false;
+        if (cards.isEmpty()) {
+            if (!file.exists()) return false;
+            lastSignature = null;
+            return file.delete();
+        }
+        List<FeedCard> head = new ArrayList<>(cards.subList(0, Math.min(MAX_CARDS, cards.size())));
+        long signature = signatureOf(head);
+        if (lastSignature != null && signature == lastSignature && file.exists()) return false;
+
+        File tmp = new File(file.getPath() + TEMP_SUFFIX);
+        try (FileOutputStream out = new FileOutputStream(tmp);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            gson.toJson(head, writer);
+            writer.flush();
+            out.getFD().sync();
+        } catch (Exception e) {
+            // 和 feed_cache.json 一样：写失败不是致命错误，旧的快照保持不变
+            e.printStackTrace();
+            tmp.delete();
+            return false;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            return false;
+        }
+        lastSignature = signature;
+        return true;
+    }
+
+    private static long signatureOf(List<FeedCard> head) {
+        long h = head.size();
+        for (FeedCard card : head) {
+            h = h * 31 + card.getStableId();
+            h = h * 31 + card.getContentHash();
+        }
+        return h;
+    }
+}
@@ -1,17 +1,28 @@
 package com.example.feedapp.data.model;
 
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.UUID;
+
 /**
  * FeedCard 表示「信息流列表」中的一张卡片的数据结构。
  *
  * 它只关心「数据长什么样」，完全不关心「怎么展示」——展示逻辑在 RecyclerView 的 Adapter 里。
  *
  * 本项目中，FeedCard 会在以下位置被使用：
- * 1. FeedRemoteDataSource：模拟服务端返回的一页列表数据时，会 new 出很多 FeedCard。
- * 2. FeedLocalDataSource ：做本地缓存时，会把 List<FeedCard> 序列化到 json 文件中。
+ * 1. FeedRemoteDataSource：模拟服务端返回的一页列表数据时，会通过 Builder 创建很多 FeedCard。
+ * 2. FeedLocalDataSource ：做本地缓存时，会把 List<FeedCard> 序列化到 json 文件中（见 FeedCardTypeAdapter）。
  * 3. FeedRepository / FeedViewModel：作为界面状态的一部分，暴露给 UI 层。
  * 4. FeedAdapter        ：根据 FeedCard 的 cardType 决定用哪种 ViewHolder 渲染。
+ *
+ * 不可变值对象：
+ * - 所有字段都是 final，只能通过 Builder 创建，需要修改时用 toBuilder() 复制一份再改；
+ * - 创建时就把内容 hash 算好，diff 时比较一个 long 即可；
+ * - id 如果是标准 UUID 字符串，只存成两个 long（16 字节），不再每张卡片带一个 36 字符的 String；
+ * - 文案 / 图片地址经过 StringPool 去重，刷新、读缓存时重复出现的相同字符串只保留一份。
  */
-public class FeedCard {
+@JsonAdapter(FeedCardTypeAdapter.class)
+public final class FeedCard {
 
     // -------------------- 卡片类型常量 --------------------
 
@@ -43,42 +54,52 @@ public class FeedCard {
     // -------------------- 数据字段 --------------------
 
     /**
-     * 卡片的唯一标识：
-     * - 在模拟服务端中使用 UUID 随机生成；
-     * - 在 DiffUtil 中用来判断「是不是同一条卡片」。
+     * 卡片的唯一标识（紧凑形式）：
+     * - 在模拟服务端中使用 UUID 随机生成，存成高 64 位 / 低 64 位两个 long；
+     * - 如果 id 不是标准 UUID 字符串（比如以后接入的后端 itemId），
+     *   原样保存在 rawId 中，此时 idHigh 是 rawId 的 64 位 hash，idLow 为 0；
+     * - 在 DiffUtil 中用来判断「是不是同一条卡片」（见 isSameId）。
+     */
+    private final long idHigh;
+    private final long idLow;
+    /** 非 UUID 形式的原始 id；标准 UUID 时为 null */
+    private final String rawId;
+    /**
+     * getId() 第一次格式化出来的 UUID 字符串，之后直接返回。
+     * 没有加锁：多个线程同时第一次调用，最坏是各自格式化一次，结果相同（和 String.hashCode 的缓存一样）。
      */
-    private String id;
+    private String idString;
 
     /**
      * 卡片类型，对应上面的 TYPE_TEXT / TYPE_IMAGE / TYPE_VIDEO。
      * RecyclerView.Adapter 会根据它选择对应的 ViewHolder 类型。
      */
-    private int cardType;
+    private final int cardType;
 
     /**
      * 排版类型，对应 LAYOUT_SINGLE / LAYOUT_DOUBLE。
-     * 如果你后面实现双列布局，可以用这个字段控制 spanSize。
+     * GridLayoutManager 的 SpanSizeLookup 用这个字段控制 spanSize。
      */
-    private int layoutType;
+    private final int layoutType;
 
     /**
      * 标题文案，例如「今日头条推荐」「某某新闻」。
      * 文字卡片、图片卡片、视频卡片都会用到。
      */
-    private String title;
+    private final String title;
 
     /**
      * 副标题 / 来源信息，例如「来自：XXX」「推荐于 5 分钟前」。
      * 目前主要用于文字卡片。
      */
-    private String subTitle;
+    private final String subTitle;
 
     /**
      * 主体内容 / 简要描述。
      * 对于文本卡片：展示在正文区域；
      * 对于图片 / 视频卡片：可以作为下方说明文字或不展示。
      */
-    private String content;
+    private final String content;
 
     /**
      * 图片 URL：
@@ -87,7 +108,7 @@ public class FeedCard {
      *
      * 我们使用的是 picsum.photos 的免费图片接口来做 mock。
      */
-    private String imageUrl;
+    private final String imageUrl;
 
     /**
      * 本地视频资源 ID：
@@ -95,75 +116,299 @@ public class FeedCard {
      * - 只在 TYPE_VIDEO 卡片中有意义；
      * - ExoPlayer 在播放本地视频时会依赖这个字段构造 MediaItem。
      */
-    private int videoResId;
+    private final int videoResId;
 
+    /**
+     * 所有字段的 64 位内容 hash，创建时计算：
+     * FeedAdapter 的 diff 用它判断「内容是否相同」，不用逐个比较 content 这类长字符串。
+     */
+    private final long contentHash;
+
+    private FeedCard(Builder b) {
+        this.idHigh = b.idHigh;
+        this.idLow = b.idLow;
+        this.rawId = b.rawId;
+        this.cardType = b.cardType;
+        this.layoutType = b.layoutType;
+        this.title = StringPool.intern(b.title);
+        this.subTitle = StringPool.intern(b.subTitle);
+        this.content = StringPool.intern(b.content);
+        this.imageUrl = StringPool.intern(b.imageUrl);
+        this.videoResId = b.videoResId;
+        this.contentHash = computeContentHash();
+    }
+
+    /**
+     * FeedCardStore 从列存数据还原卡片时使用：
+     * 字符串在写入列存时已经去重过、hash 也已经算好，这里直接赋值，不再重复计算。
+     */
+    FeedCard(long idHigh, long idLow, String rawId, int cardType, int layoutType,
+             String title, String subTitle, String content, String imageUrl,
+             int videoResId, long contentHash) {
+        this.idHigh = idHigh;
+        this.idLow = idLow;
+        this.rawId = rawId;
+        this.cardType = cardType;
+        this.layoutType = layoutType;
+        this.title = title;
+        this.subTitle = subTitle;
+        this.content = content;
+        this.imageUrl = imageUrl;
+        this.videoResId = videoResId;
+        this.contentHash = contentHash;
+    }
 
-    // -------------------- Getter / Setter --------------------
-    // 下面都是很常规的 Java Bean 写法，方便：
-    // - Gson 进行序列化 / 反序列化；
-    // - Adapter / ViewModel 读写这些字段。
+    // -------------------- Getter --------------------
 
+    /**
+     * 字符串形式的 id（持久化、磁盘缓存 key、删除时使用）。
+     * 标准 UUID 在第一次调用时格式化出来并缓存在这个对象上，之后的调用不再分配；
+     * 只是判断「是不是同一张卡片」时仍然优先用 isSameId / getStableId。
+     */
     public String getId() {
+        if (rawId != null) return rawId;
+        String id = idString;
+        if (id == null) {
+            if (idHigh == 0 && idLow == 0) return null;
+            id = new UUID(idHigh, idLow).toString();
+            idString = id;
+        }
         return id;
     }
 
-    public void setId(String id) {
-        this.id = id;
+    /** 是不是同一张卡片（id 相同），不分配任何对象 */
+    public boolean isSameId(FeedCard other) {
+        if (other == null) return false;
+        if (idHigh != other.idHigh || idLow != other.idLow) return false;
+        return rawId == null ? other.rawId == null : rawId.equals(other.rawId);
     }
 
-    public int getCardType() {
-        return cardType;
+    /**
+     * id 的 64 位摘要，用作 RecyclerView 的 stable id：
+     * 同一张卡片永远得到同一个值；UUID 的 128 位压成 64 位，冲突概率可以忽略。
+     */
+    public long getStableId() {
+        return idHigh ^ idLow;
     }
 
-    public void setCardType(int cardType) {
-        this.cardType = cardType;
+    /**
+     * 计算字符串 id 对应的 stable id，和 getStableId() 的结果一致，
+     * 用于「只知道 id 字符串」时去 FeedCardStore 的索引里查行号。
+     */
+    public static long stableIdOf(String id) {
+        if (id == null) return 0;
+        UUID uuid = parseCanonicalUuid(id);
+        if (uuid != null) {
+            return uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+        }
+        return fnv64(id);
     }
 
-    public int getLayoutType() {
-        return layoutType;
+    // 紧凑 id 的三个组成部分：只给 FeedCardStore 写列存用
+    long idHigh() {
+        return idHigh;
     }
 
-    public void setLayoutType(int layoutType) {
-        this.layoutType = layoutType;
+    long idLow() {
+        return idLow;
     }
 
-    public String getTitle() {
-        return title;
+    String rawId() {
+        return rawId;
     }
 
-    public void setTitle(String title) {
-        this.title = title;
+    public int getCardType() {
+        return cardType;
     }
 
-    public String getSubTitle() {
-        return subTitle;
+    public int getLayoutType() {
+        return layoutType;
     }
 
-    public void setSubTitle(String subTitle) {
-        this.subTitle = subTitle;
+    public String getTitle() {
+        return title;
     }
 
-    public String getContent() {
-        return content;
+    public String getSubTitle() {
+        return subTitle;
     }
 
-    public void setContent(String content) {
-        this.content = content;
+    public String getContent() {
+        return content;
     }
 
     public String getImageUrl() {
         return imageUrl;
     }
 
-    public void setImageUrl(String imageUrl) {
-        this.imageUrl = imageUrl;
-    }
-
     public int getVideoResId() {
         return videoResId;
     }
 
-    public void setVideoResId(int videoResId) {
-        this.videoResId = videoResId;
+    /**
+     * 所有字段（id / 类型 / 排版 / 文案 / 图片 / 视频）的 64 位 hash。
+     * 两张卡片 hash 相同即视为内容相同（64 位下碰撞概率可以忽略）。
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    /** 以当前卡片为模板创建 Builder，用于「改几个字段得到新卡片」 */
+    public Builder toBuilder() {
+        Builder b = new Builder();
+        b.idHigh = idHigh;
+        b.idLow = idLow;
+        b.rawId = rawId;
+        b.cardType = cardType;
+        b.layoutType = layoutType;
+        b.title = title;
+        b.subTitle = subTitle;
+        b.content = content;
+        b.imageUrl = imageUrl;
+        b.videoResId = videoResId;
+        return b;
+    }
+
+    // -------------------- Builder --------------------
+
+    /**
+     * FeedCard 的构造器，用法：
+     * <pre>
+     * FeedCard card = new FeedCard.Builder()
+     *         .id(uuid)
+     *         .cardType(FeedCard.TYPE_TEXT)
+     *         .title("标题")
+     *         .build();
+     * </pre>
+     */
+    public static final class Builder {
+        private long idHigh;
+        private long idLow;
+        private String rawId;
+        private int cardType;
+        private int layoutType;
+        private String title;
+        private String subTitle;
+        private String content;
+        private String imageUrl;
+        private int videoResId;
+
+        /** 直接使用 UUID 的两个 long，不经过字符串 */
+        public Builder id(UUID uuid) {
+            this.idHigh = uuid.getMostSignificantBits();
+            this.idLow = uuid.getLeastSignificantBits();
+            this.rawId = null;
+            return this;
+        }
+
+        /**
+         * 字符串 id：标准（小写、36 字符）UUID 压缩成两个 long，其他格式原样保存，
+         * 保证 getId() 总能还原出同一个字符串。
+         */
+        public Builder id(String id) {
+            this.rawId = null;
+            this.idHigh = 0;
+            this.idLow = 0;
+            if (id == null) return this;
+            UUID uuid = parseCanonicalUuid(id);
+            if (uuid != null) {
+                return id(uuid);
+            }
+            this.rawId = id;
+            this.idHigh = fnv64(id);
+            return this;
+        }
+
+        public Builder cardType(int cardType) {
+            this.cardType = cardType;
+            return this;
+        }
+
+        public Builder layoutType(int layoutType) {
+            this.layoutType = layoutType;
+            return this;
+        }
+
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        public Builder subTitle(String subTitle) {
+            this.subTitle = subTitle;
+            return this;
+        }
+
+        public Builder content(String content) {
+            this.content = content;
+            return this;
+        }
+
+        public Builder imageUrl(String imageUrl) {
+            this.imageUrl = imageUrl;
+            return this;
+        }
+
+        public Builder videoResId(int videoResId) {
+            this.videoResId = videoResId;
+            return this;
+        }
+
+        public FeedCard build() {
+            return new FeedCard(this);
+        }
+    }
+
+    // -------------------- 内部实现 --------------------
+
+    private long computeContentHash() {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, idHigh);
+        hash = mix(hash, idLow);
+        hash = mix(hash, rawId);
+        hash = mix(hash, cardType);
+        hash = mix(hash, layoutType);
+        hash = mix(hash, title);
+        hash = mix(hash, subTitle);
+        hash = mix(hash, content);
+        hash = mix(hash, imageUrl);
+        hash = mix(hash, videoResId);
+        return hash;
+    }
+
+    /** FNV-1a：逐字符混入；null 和 "" 用不同的分隔值区分开 */
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            return (hash ^ 0xff) * 0x100000001b3L;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return (hash ^ 0xfe) * 0x100000001b3L;
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ (value & 0xffffffffL)) * 0x100000001b3L;
+        return (hash ^ (value >>> 32)) * 0x100000001b3L;
+    }
+
+    private static long fnv64(String value) {
+        return mix(0xcbf29ce484222325L, value);
+    }
+
+    /**
+     * 只接受 UUID.toString() 的标准输出（小写、带 4 个 '-'、36 字符），
+     * 其他格式（大写、省略前导 0 等）返回 null，按原始字符串保存。
+     */
+    private static UUID parseCanonicalUuid(String id) {
+        if (id.length() != 36) return null;
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : !((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return null;
+            }
+        }
+        return UUID.fromString(id);
     }
 }
@@ -0,0 +1,466 @@
+package com.example.feedapp.data.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * FeedCardStore：信息流列表的「列存」内存结构，替代 FeedRepository 里的 ArrayList<FeedCard>。
+ *
+ * ArrayList<FeedCard> 每张卡片是一个对象 + 一串字段引用，扫描（比如按 id 删除）要一个个对象跳着读。
+ * 这里把每个字段单独存成一列：
+ * - cardType / layoutType / videoResId：int[]；
+ * - id：两列 long[]（UUID 的高 / 低 64 位），非 UUID 的原始 id 单独一列 String[]；
+ * - title / subTitle / content / imageUrl：String[]（已经经过 StringPool 去重）；
+ * - contentHash：long[]，diff 直接读这一列；
+ * - IdIndex：stable id → 行号，每份列数组自带一个，按 id 查找 / 删除是 O(1) 定位。
+ *
+ * 删除（墓碑）：
+ * - remove 不挪动任何行，也不改 IdIndex，只把行号记进一个有序的小数组 tombstones；
+ *   主线程长按删除的开销和列表长度无关（5 万张卡片也是微秒级）；
+ * - 「位置」（Adapter 看到的下标）和「行号」之间差的就是前面墓碑的个数，两个方向都按墓碑数组二分换算；
+ * - 墓碑攒多了由 compactIfNeeded() 在后台线程整理（复制一份不含墓碑的列数组 + 重建索引）；
+ *   remove 自己从不整理，主线程删除不会碰到 O(n) 的复制。
+ *
+ * 重复卡片：
+ * - 同一个 stable id 在列表里最多只有一行（Adapter 的 stable id 不会重复，按 id 删除也不会漏掉）；
+ * - 追加时 id 已经在列表里的卡片直接丢掉（先到的留着）；
+ * - id 对应的是一行墓碑（删掉之后又出现）时，先整理掉墓碑再追加，索引里才能放新的一行。
+ *
+ * 快照（Snapshot）：
+ * - snapshot() 是 O(1) 的：只记录「当前这一份列数组 + 行数 + 墓碑数组」，不复制任何数据；
+ * - 列数组（连同它的 IdIndex）里已经写入的行永远不会被改写：
+ *   追加只写在所有快照的行数之后；删除只换一份新的墓碑数组；整理 / 整体替换会换一份新的列数组；
+ *   所以快照可以安全地交给主线程读（包括按 id 查位置），不需要加锁；
+ * - Snapshot 本身是一个只读的 List<FeedCard>，get(i) 时才把这一行还原成 FeedCard；
+ *   Adapter 只需要类型 / 排版 / id 的地方可以直接读列（cardTypeAt 等），完全不创建对象。
+ *
+ * 线程：所有修改方法都在 this 锁内执行（Repository 的后台线程 / 主线程删除都可能调用）。
+ */
+public final class FeedCardStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+    /** 每份列数组附带的「已还原卡片」缓存槽位数（2 的幂），覆盖一屏 + 预取范围足够了 */
+    private static final int VIEW_CACHE_SIZE = 256;
+    /** 墓碑数达到这个值，后台整理时才真的去整理（整理是 O(n) 的复制） */
+    static final int COMPACT_THRESHOLD = 32;
+    private static final int[] NO_TOMBSTONES = new int[0];
+
+    /**
+     * 一份列数组：所有数组长度相同（= capacity），只有 [0, 写入行数) 有效。
+     * ids 是这份列数组自己的 id 索引：容量按 capacity 一次分配好，只追加、不删除、不扩容，
+     * 和列一样「写入之后不再改动」，快照不加锁直接查。
+     */
+    private static final class Columns {
+        final long[] idHigh;
+        final long[] idLow;
+        final String[] rawId;
+        final int[] cardType;
+        final int[] layoutType;
+        final int[] videoResId;
+        final String[] title;
+        final String[] subTitle;
+        final String[] content;
+        final String[] imageUrl;
+        final long[] contentHash;
+        final IdIndex ids;
+        /**
+         * 最近还原出来的 FeedCard（直接映射，按行号取模）：
+         * 短时间内对同一行多次 get 拿到的是同一个对象（Adapter 的 bind / 长按回调、diff 的引用比较都受益）。
+         * 行内容不会变，所以多线程下最坏只是缓存没命中，再还原一次。
+         */
+        final FeedCard[] views = new FeedCard[VIEW_CACHE_SIZE];
+
+        Columns(int capacity) {
+            idHigh = new long[capacity];
+            idLow = new long[capacity];
+            rawId = new String[capacity];
+            cardType = new int[capacity];
+            layoutType = new int[capacity];
+            videoResId = new int[capacity];
+            title = new String[capacity];
+            subTitle = new String[capacity];
+            content = new String[capacity];
+            imageUrl = new String[capacity];
+            contentHash = new long[capacity];
+            ids = new IdIndex(capacity);
+        }
+
+        int capacity() {
+            return cardType.length;
+        }
+
+        /**
+         * 复制 [0, rowCount) 到一份容量为 capacity 的新列数组，跳过 skipRows 里的行（有序），并建好新的 id 索引。
+         */
+        Columns copy(int capacity, int rowCount, int[] skipRows) {
+            Columns c = new Columns(capacity);
+            int from = 0;
+            int to = 0;
+            for (int skip : skipRows) {
+                copyRange(this, from, c, to, skip - from);
+                to += skip - from;
+                from = skip + 1;
+            }
+            copyRange(this, from, c, to, rowCount - from);
+            int copied = rowCount - skipRows.length;
+            for (int r = 0; r < copied; r++) {
+                c.ids.put(c.idHigh[r] ^ c.idLow[r], r);
+            }
+            return c;
+        }
+
+        void set(int row, FeedCard card) {
+            idHigh[row] = card.idHigh();
+            idLow[row] = card.idLow();
+            rawId[row] = card.rawId();
+            cardType[row] = card.getCardType();
+            layoutType[row] = card.getLayoutType();
+            videoResId[row] = card.getVideoResId();
+            title[row] = card.getTitle();
+            subTitle[row] = card.getSubTitle();
+            content[row] = card.getContent();
+            imageUrl[row] = card.getImageUrl();
+            contentHash[row] = card.getContentHash();
+            ids.put(card.getStableId(), row);
+            views[row & (VIEW_CACHE_SIZE - 1)] = card;
+        }
+
+        /**
+         * id → [0, rowCount) 里的行号（含墓碑行），不存在返回 -1。
+         * 快照不加锁调用时，rowCount 之后的行可能正在被追加：只认 rowCount 以内、
+         * 并且列里的 id 和要找的一致的结果。
+         */
+        int rowOf(String id, int rowCount) {
+            long stableId = FeedCard.stableIdOf(id);
+            int row = ids.get(stableId);
+            if (row < 0 || row >= rowCount || (idHigh[row] ^ idLow[row]) != stableId) return -1;
+            // 非 UUID 的 id 只存了 hash，这里再核对一次原始字符串
+            String raw = rawId[row];
+            return raw == null || raw.equals(id) ? row : -1;
+        }
+
+        FeedCard get(int row) {
+            int slot = row & (VIEW_CACHE_SIZE - 1);
+            FeedCard cached = views[slot];
+            if (cached != null
+                    && cached.getContentHash() == contentHash[row]
+                    && cached.idHigh() == idHigh[row]
+                    && cached.idLow() == idLow[row]) {
+                return cached;
+            }
+            FeedCard card = new FeedCard(idHigh[row], idLow[row], rawId[row],
+                    cardType[row], layoutType[row],
+                    title[row], subTitle[row], content[row], imageUrl[row],
+                    videoResId[row], contentHash[row]);
+            views[slot] = card;
+            return card;
+        }
+
+        private static void copyRange(Columns from, int fromRow, Columns to, int toRow, int count) {
+            if (count <= 0) return;
+            System.arraycopy(from.idHigh, fromRow, to.idHigh, toRow, count);
+            System.arraycopy(from.idLow, fromRow, to.idLow, toRow, count);
+            System.arraycopy(from.rawId, fromRow, to.rawId, toRow, count);
+            System.arraycopy(from.cardType, fromRow, to.cardType, toRow, count);
+            System.arraycopy(from.layoutType, fromRow, to.layoutType, toRow, count);
+            System.arraycopy(from.videoResId, fromRow, to.videoResId, toRow, count);
+            System.arraycopy(from.title, fromRow, to.title, toRow, count);
+            System.arraycopy(from.subTitle, fromRow, to.subTitle, toRow, count);
+            System.arraycopy(from.content, fromRow, to.content, toRow, count);
+            System.arraycopy(from.imageUrl, fromRow, to.imageUrl, toRow, count);
+            System.arraycopy(from.contentHash, fromRow, to.contentHash, toRow, count);
+        }
+    }
+
+    private Columns columns = new Columns(INITIAL_CAPACITY);
+    /** 已经写入的行数（含墓碑行） */
+    private int rowCount = 0;
+    /** 已删除的行号，升序；每次删除换一份新数组，旧快照手里的那份不受影响 */
+    private int[] tombstones = NO_TOMBSTONES;
+
+    /**
+     * 结构版本号：除「末尾追加」和「整理」以外的任何修改（删除 / 整体替换）都会 +1。
+     * 两个快照版本号相同，说明较短的那个一定是较长那个的前缀。
+     */
+    private int structureVersion = 0;
+    /** 最近一次结构修改如果是「删除一行」：删的是哪个位置、删之前有几张；否则为 -1 */
+    private int lastRemovedPosition = -1;
+    private int sizeBeforeRemoval = -1;
+
+    // -------------------- 修改 --------------------
+
+    /** 用 cards 整体替换当前内容（下拉刷新） */
+    public synchronized void replaceAll(List<FeedCard> cards) {
+        int n = cards == null ? 0 : cards.size();
+        columns = new Columns(Math.max(INITIAL_CAPACITY, n));
+        rowCount = 0;
+        tombstones = NO_TOMBSTONES;
+        structureVersion++;
+        lastRemovedPosition = -1;
+        sizeBeforeRemoval = -1;
+        if (n > 0) appendRows(cards);
+    }
+
+    /**
+     * 在末尾追加一页（加载更多）：不改变结构版本号，已有快照仍然是新快照的前缀。
+     * id 已经在列表里的卡片会被丢掉（见类注释「重复卡片」），实际追加了几张以 size() 的变化为准。
+     */
+    public synchronized void appendAll(List<FeedCard> cards) {
+        if (cards == null || cards.isEmpty()) return;
+        appendRows(cards);
+    }
+
+    /**
+     * 按 id 删除一张卡片：O(1) 定位行号，只打一个墓碑，不挪动任何行，也从不整理。
+     * 主线程直接调用是安全的：开销只和墓碑数有关（复制一份墓碑数组），和列表长度无关；
+     * 调用方负责之后在后台线程调用 compactIfNeeded()，墓碑数才不会一直涨。
+     *
+     * @return 是否真的删掉了
+     */
+    public synchronized boolean remove(String id) {
+        int row = rowOf(id);
+        if (row < 0) return false;
+        int position = row - countBefore(tombstones, row);
+        tombstones = insertSorted(tombstones, row);
+        sizeBeforeRemoval = size() + 1;
+        lastRemovedPosition = position;
+        structureVersion++;
+        return true;
+    }
+
+    /**
+     * 墓碑数达到 COMPACT_THRESHOLD 时整理一次：复制一份不含墓碑的列数组并重建索引，O(n)。
+     * 应该在后台线程调用（Repository 在删除落盘的任务里顺手调用）。
+     * 整理不改变列表内容，整理前后的快照之间仍然是「什么都没变」。
+     *
+     * @return 是否真的整理了
+     */
+    public synchronized boolean compactIfNeeded() {
+        if (tombstones.length < COMPACT_THRESHOLD) return false;
+        compact();
+        return true;
+    }
+
+    // -------------------- 查询 --------------------
+
+    public synchronized int size() {
+        return rowCount - tombstones.length;
+    }
+
+    /** 当前墓碑数（测试 / 调试用） */
+    synchronized int tombstoneCount() {
+        return tombstones.length;
+    }
+
+    /**
+     * id → 当前位置，不存在返回 -1。
+     * 通过 stable id 查索引（UUID 的 128 位压成 64 位，冲突概率可以忽略），再减去前面的墓碑数。
+     * 和 snapshot().indexOf(id) 结果相同。
+     */
+    public synchronized int indexOf(String id) {
+        int row = rowOf(id);
+        return row < 0 ? -1 : row - countBefore(tombstones, row);
+    }
+
+    /** 当前列表里有没有这个 stable id（已删除的不算），O(1) */
+    public synchronized boolean containsStableId(long stableId) {
+        int row = columns.ids.get(stableId);
+        return row >= 0 && row < rowCount && Arrays.binarySearch(tombstones, row) < 0;
+    }
+
+    /** O(1) 创建一份只读快照 */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(this, columns, rowCount, tombstones, structureVersion,
+                lastRemovedPosition, sizeBeforeRemoval);
+    }
+
+    // -------------------- 快照 --------------------
+
+    /**
+     * 某一时刻列表内容的只读视图：
+     * - 作为 List<FeedCard> 交给 ViewModel / Adapter，get(i) 时才还原出 FeedCard；
+     * - cardTypeAt / layoutTypeAt / stableIdAt / contentHashAt 直接读列，不创建对象；
+     * - appendedAfter / removedFrom 让 diff 不用逐项比较就知道两份快照之间发生了什么。
+     */
+    public static final class Snapshot extends AbstractList<FeedCard> implements RandomAccess {
+        private final FeedCardStore store;
+        private final Columns columns;
+        private final int rowCount;
+        private final int[] tombstones;
+        private final int size;
+        private final int structureVersion;
+        private final int removedPosition;
+        private final int sizeBeforeRemoval;
+
+        Snapshot(FeedCardStore store, Columns columns, int rowCount, int[] tombstones,
+                 int structureVersion, int removedPosition, int sizeBeforeRemoval) {
+            this.store = store;
+            this.columns = columns;
+            this.rowCount = rowCount;
+            this.tombstones = tombstones;
+            this.size = rowCount - tombstones.length;
+            this.structureVersion = structureVersion;
+            this.removedPosition = removedPosition;
+            this.sizeBeforeRemoval = sizeBeforeRemoval;
+        }
+
+        @Override
+        public FeedCard get(int position) {
+            return columns.get(rowAt(position));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        public int cardTypeAt(int position) {
+            return columns.cardType[rowAt(position)];
+        }
+
+        public int layoutTypeAt(int position) {
+            return columns.layoutType[rowAt(position)];
+        }
+
+        public long stableIdAt(int position) {
+            int row = rowAt(position);
+            return columns.idHigh[row] ^ columns.idLow[row];
+        }
+
+        public long contentHashAt(int position) {
+            return columns.contentHash[rowAt(position)];
+        }
+
+        /**
+         * id → 在这份快照中的位置，不存在返回 -1。
+         * 查的是这份快照自己的列数组的索引，再按快照的墓碑数组换算：O(1) + O(log 墓碑数)，不拿 store 的锁，
+         * 主线程查询不会被后台线程正在进行的追加 / 整理挡住。
+         * 结果只反映这份快照：快照之后才删掉的卡片在这里仍然能找到（和 get(i) 一致）。
+         */
+        public int indexOf(String id) {
+            if (id == null) return -1;
+            int row = columns.rowOf(id, rowCount);
+            if (row < 0 || Arrays.binarySearch(tombstones, row) >= 0) return -1;
+            return row - countBefore(tombstones, row);
+        }
+
+        /** 这份快照里所有卡片的 id 字符串（用于钉住离线封面缓存） */
+        public List<String> ids() {
+            List<String> ids = new ArrayList<>(size);
+            Columns c = columns;
+            int skipped = 0;
+            for (int r = 0; r < rowCount; r++) {
+                if (skipped < tombstones.length && tombstones[skipped] == r) {
+                    skipped++;
+                    continue;
+                }
+                ids.add(c.rawId[r] != null ? c.rawId[r] : new UUID(c.idHigh[r], c.idLow[r]).toString());
+            }
+            return ids;
+        }
+
+        /**
+         * 如果 older 是这份快照的前缀（两者之间只发生过末尾追加 / 整理），返回追加开始的位置，否则返回 -1。
+         */
+        public int appendedAfter(Snapshot older) {
+            if (older.store != store || older.structureVersion != structureVersion) return -1;
+            return older.size <= size ? older.size : -1;
+        }
+
+        /**
+         * 如果这份快照正好是 older 删掉一张得到的，返回被删的位置，否则返回 -1。
+         */
+        public int removedFrom(Snapshot older) {
+            if (older.store != store || removedPosition < 0) return -1;
+            if (structureVersion != older.structureVersion + 1) return -1;
+            if (older.size != sizeBeforeRemoval || size != sizeBeforeRemoval - 1) return -1;
+            return removedPosition;
+        }
+
+        /**
+         * 位置 → 行号：row = position + 排在这一张前面的墓碑数。
+         * 第 i 个墓碑前面有 tombstones[i] - i 张存活的卡片，这个数单调不减，
+         * 所以「前面的墓碑数」就是满足 tombstones[i] - i <= position 的 i 的个数，二分即可，O(log 墓碑数)。
+         */
+        private int rowAt(int position) {
+            if (position < 0 || position >= size) {
+                throw new IndexOutOfBoundsException("position=" + position + ", size=" + size);
+            }
+            int[] t = tombstones;
+            int lo = 0;
+            int hi = t.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (t[mid] - mid <= position) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return position + lo;
+        }
+    }
+
+    // -------------------- 内部实现 --------------------
+
+    private void appendRows(List<FeedCard> cards) {
+        int needed = rowCount + cards.size();
+        if (needed > columns.capacity()) {
+            int capacity = columns.capacity();
+            while (capacity < needed) capacity <<= 1;
+            // 扩容本来就要整体复制一遍，顺便去掉墓碑
+            if (tombstones.length > 0) {
+                columns = columns.copy(capacity, rowCount, tombstones);
+                rowCount -= tombstones.length;
+                tombstones = NO_TOMBSTONES;
+            } else {
+                columns = columns.copy(capacity, rowCount, NO_TOMBSTONES);
+            }
+        }
+        for (FeedCard card : cards) {
+            if (card == null) continue;
+            int existing = columns.ids.get(card.getStableId());
+            if (existing >= 0) {
+                // 已经在列表里：丢掉后来的这一份
+                if (Arrays.binarySearch(tombstones, existing) < 0) continue;
+                // 删掉之后又出现：旧行还占着索引，先整理掉（很少见，整理后容量只会更宽裕）
+                compact();
+            }
+            columns.set(rowCount, card);
+            rowCount++;
+        }
+    }
+
+    private void compact() {
+        if (tombstones.length == 0) return;
+        columns = columns.copy(columns.capacity(), rowCount, tombstones);
+        rowCount -= tombstones.length;
+        tombstones = NO_TOMBSTONES;
+    }
+
+    /** id → 当前行号（不含墓碑行），不存在返回 -1 */
+    private int rowOf(String id) {
+        if (id == null) return -1;
+        int row = columns.rowOf(id, rowCount);
+        return row < 0 || Arrays.binarySearch(tombstones, row) >= 0 ? -1 : row;
+    }
+
+    /** sorted 里小于 row 的元素个数（二分） */
+    private static int countBefore(int[] sorted, int row) {
+        int i = Arrays.binarySearch(sorted, row);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private static int[] insertSorted(int[] sorted, int row) {
+        int at = countBefore(sorted, row);
+        int[] result = new int[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, at);
+        result[at] = row;
+        System.arraycopy(sorted, at, result, at + 1, sorted.length - at);
+        return result;
+    }
+}
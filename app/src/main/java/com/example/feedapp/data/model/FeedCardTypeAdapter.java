@@ -0,0 +1,87 @@
+package com.example.feedapp.data.model;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * FeedCard 的 Gson 序列化规则（通过 @JsonAdapter 绑定到 FeedCard 上）。
+ *
+ * FeedCard 变成不可变对象、id 存成两个 long 之后，Gson 的反射方式既不能调用 Builder，
+ * 也会把 idHigh / idLow 这些内部字段写进文件。这里手写读写，保证：
+ * - feed_cache.json 的格式和以前完全一样（"id" 仍然是 UUID 字符串），旧版本写下的缓存可以直接读；
+ * - 读取时走 Builder：id 压缩、字符串去重、内容 hash 都在这里完成；
+ * - 不认识的字段直接跳过，以后加字段不会让旧代码解析失败。
+ */
+public class FeedCardTypeAdapter extends TypeAdapter<FeedCard> {
+
+    @Override
+    public void write(JsonWriter out, FeedCard card) throws IOException {
+        if (card == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        String id = card.getId();
+        if (id != null) out.name("id").value(id);
+        out.name("cardType").value(card.getCardType());
+        out.name("layoutType").value(card.getLayoutType());
+        if (card.getTitle() != null) out.name("title").value(card.getTitle());
+        if (card.getSubTitle() != null) out.name("subTitle").value(card.getSubTitle());
+        if (card.getContent() != null) out.name("content").value(card.getContent());
+        if (card.getImageUrl() != null) out.name("imageUrl").value(card.getImageUrl());
+        out.name("videoResId").value(card.getVideoResId());
+        out.endObject();
+    }
+
+    @Override
+    public FeedCard read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        FeedCard.Builder builder = new FeedCard.Builder();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    builder.id(in.nextString());
+                    break;
+                case "cardType":
+                    builder.cardType(in.nextInt());
+                    break;
+                case "layoutType":
+                    builder.layoutType(in.nextInt());
+                    break;
+                case "title":
+                    builder.title(in.nextString());
+                    break;
+                case "subTitle":
+                    builder.subTitle(in.nextString());
+                    break;
+                case "content":
+                    builder.content(in.nextString());
+                    break;
+                case "imageUrl":
+                    builder.imageUrl(in.nextString());
+                    break;
+                case "videoResId":
+                    builder.videoResId(in.nextInt());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return builder.build();
+    }
+}
@@ -10,7 +10,7 @@ import java.util.List;
  * - FeedRepository 再把它拆开，更新：
  *      - 当前列表 List<FeedCard>
  *      - 是否还有更多 hasMore
- *      - 下一页页码 nextPage
+ *      - 下一页的游标 nextCursor
  *
  * 这样做的好处是：
  * - 结构清晰：网络层只关心“这一页”，UI 层再决定“是覆盖还是追加”；
@@ -32,11 +32,20 @@ public class FeedPageResult {
     private boolean hasMore;
 
     /**
-     * 下一页的页码：
-     * - 比如当前 page = 1，这里会是 2；
+     * 下一页的游标（不透明字符串，客户端只负责原样带回去）：
+     * - 以前用页码 page，服务端按 page * pageSize 算偏移；
+     *   刷新之后服务端又有新内容插到最前面，偏移就整体漂移了，下一页会和已经拿到的内容重叠 / 漏掉一段；
+     * - 游标由服务端编码「上一页最后一条在哪」，不管期间插入了多少新内容，下一页都从它后面接着取；
      * - 如果 hasMore = false，这个值即使设置了也不会被继续使用。
      */
-    private int nextPage;
+    private String nextCursor;
+
+    /**
+     * 服务端的去重提示：这一页里「可能已经下发过」的卡片 id（例如被重新推荐的热门内容）。
+     * - 只是提示：客户端的 SeenIdFilter 对每一张都查，布隆命中再精确核对，不会因为服务端漏标放过重复卡片；
+     * - 为 null 表示服务端不提供提示（老接口）。
+     */
+    private List<String> dedupHints;
 
     // -------------------- Getter / Setter --------------------
 
@@ -56,11 +65,19 @@ public class FeedPageResult {
         this.hasMore = hasMore;
     }
 
-    public int getNextPage() {
-        return nextPage;
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public List<String> getDedupHints() {
+        return dedupHints;
     }
 
-    public void setNextPage(int nextPage) {
-        this.nextPage = nextPage;
+    public void setDedupHints(List<String> dedupHints) {
+        this.dedupHints = dedupHints;
     }
 }
@@ -0,0 +1,74 @@
+package com.example.feedapp.data.model;
+
+import java.util.Arrays;
+
+/**
+ * IdIndex：卡片 stable id（long）→ 行号（int）的哈希表，FeedCardStore 的每份列数组各有一个。
+ *
+ * 用 HashMap<Long, Integer> 的话每张卡片要多出 Long + Integer + Node 三个对象；
+ * 这里是开放寻址 + 线性探测，两个基本类型数组就够了：
+ * - 容量在创建时按最多能放的条目数一次分配好（2 的幂，装载因子不超过 0.5），之后不扩容；
+ * - 只追加：写过的槽位不再改动，同一个 key 不能写两次（FeedCardStore 追加前会先剔除重复卡片），
+ *   也不支持删除，删除由 FeedCardStore 的墓碑数组表达。
+ *
+ * 线程：put 由 FeedCardStore 在自己的锁里调用；get 可以不加锁和 put 并发——
+ * 在 put 之前就写好的 key，查找链上的槽位都不会再变，一定能查到；
+ * 正在写的槽位可能读到一半，调用方要核对结果（见 FeedCardStore.Columns.rowOf）。
+ */
+final class IdIndex {
+
+    private static final int NO_ROW = -1;
+
+    private final long[] keys;
+    /** rows[i] == NO_ROW 表示空槽 */
+    private final int[] rows;
+    private int size;
+
+    /** @param maxEntries 最多会写入的条目数 */
+    IdIndex(int maxEntries) {
+        int capacity = 16;
+        while (capacity < maxEntries * 2) capacity <<= 1;
+        keys = new long[capacity];
+        rows = new int[capacity];
+        Arrays.fill(rows, NO_ROW);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** 查找 key 对应的行号，不存在时返回 -1 */
+    int get(long key) {
+        int mask = rows.length - 1;
+        for (int i = slotOf(key, mask); rows[i] != NO_ROW; i = (i + 1) & mask) {
+            if (keys[i] == key) return rows[i];
+        }
+        return NO_ROW;
+    }
+
+    /** 写入 key 对应的行号；key 已经存在时抛 IllegalArgumentException（调用方要先 get 检查） */
+    void put(long key, int row) {
+        if ((size + 1) * 2 > rows.length) {
+            throw new IllegalStateException("IdIndex is full: size=" + size);
+        }
+        int mask = rows.length - 1;
+        int i = slotOf(key, mask);
+        while (rows[i] != NO_ROW) {
+            if (keys[i] == key) {
+                throw new IllegalArgumentException("duplicate key: " + key);
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        rows[i] = row;
+        size++;
+    }
+
+    // -------------------- 内部实现 --------------------
+
+    /** UUID 的 bit 本身已经很随机，这里再混合一次，防止非 UUID id 的 hash 分布不均 */
+    private static int slotOf(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.feedapp.data.model;
+
+/**
+ * StringPool：卡片文案的字符串去重池。
+ *
+ * 为什么需要：
+ * - 下拉刷新会重新生成一批「标题 0」「副标题 0」……，和列表里已有的卡片文案完全相同；
+ * - 从 feed_cache.json 反序列化时，每张卡片的每个字段都是一个新的 String 对象；
+ * 同样内容的字符串在堆里存了好几份。
+ *
+ * 实现：
+ * - 固定大小的「直接映射」表：按 hashCode 选槽位，槽里是同样内容的字符串就复用，否则覆盖；
+ * - 内存占用有上限（SLOT_COUNT 个引用），不会像 String.intern() 一样只增不减；
+ * - 不加锁：数组元素的读写本身是原子的，最坏情况只是少去重一次，不影响正确性。
+ */
+final class StringPool {
+
+    /** 槽位数（2 的幂）：一屏 + 几页卡片的文案足够放下 */
+    private static final int SLOT_COUNT = 1 << 13;
+
+    private static final String[] SLOTS = new String[SLOT_COUNT];
+
+    private StringPool() {
+    }
+
+    /**
+     * 返回一个和 value 内容相同的「共享实例」；value 为 null 时返回 null。
+     */
+    static String intern(String value) {
+        if (value == null) return null;
+        int h = value.hashCode();
+        int index = (h ^ (h >>> 16)) & (SLOT_COUNT - 1);
+        String cached = SLOTS[index];
+        if (cached != null && cached.equals(value)) {
+            return cached;
+        }
+        SLOTS[index] = value;
+        return value;
+    }
+}
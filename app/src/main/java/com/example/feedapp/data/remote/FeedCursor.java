@@ -0,0 +1,46 @@
+package com.example.feedapp.data.remote;
+
+/**
+ * FeedCursor：「服务端」分页游标的编码 / 解码（只有服务端这一侧会解析，客户端当作不透明字符串原样带回）。
+ *
+ * 游标里记两件事：
+ * - sessionHead：这一轮刷新时最新一条内容的序号（之后再发布的新内容不属于这一轮）；
+ * - next：下一页从哪个序号开始往更旧的方向取。
+ *
+ * 格式："v1." + sessionHead(36 进制) + "." + next(36 进制)。
+ * 不用 java.util.Base64：它要求 API 26，而 minSdk 是 24。
+ */
+final class FeedCursor {
+
+    private static final String VERSION = "v1";
+
+    final long sessionHead;
+    final long next;
+
+    FeedCursor(long sessionHead, long next) {
+        this.sessionHead = sessionHead;
+        this.next = next;
+    }
+
+    String encode() {
+        return VERSION + "." + Long.toString(sessionHead, 36) + "." + Long.toString(next, 36);
+    }
+
+    /**
+     * @throws IllegalArgumentException 游标不是这个服务端签发的（格式 / 版本不对）
+     */
+    static FeedCursor decode(String cursor) {
+        String[] parts = cursor == null ? new String[0] : cursor.split("\\.");
+        if (parts.length != 3 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("bad cursor: " + cursor);
+        }
+        try {
+            long head = Long.parseLong(parts[1], 36);
+            long next = Long.parseLong(parts[2], 36);
+            if (next > head) throw new IllegalArgumentException("bad cursor: " + cursor);
+            return new FeedCursor(head, next);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.feedapp.data.remote;
+
+import com.example.feedapp.data.model.FeedPageResult;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+
+/**
+ * FeedHttpClient：真正走 HTTP 的分页请求（HttpURLConnection，不引入额外的网络库）。
+ *
+ * 请求：GET {baseUrl}/feed?pageSize=20[&cursor=上一页的 nextCursor]
+ * 响应：200 + FeedPageCodec 格式的 JSON；其他状态码抛 FeedHttpException。
+ *
+ * 用途：
+ * - 测试里配合本地 HTTP 服务（FeedTestServer）端到端地测一页数据的加载耗时：
+ *   连接 + 首包延迟 + 按带宽传输 + 流式解析；
+ * - App 里可以通过 FeedRemoteDataSource.setEndpoint(...) 切到任意兼容的服务。
+ */
+public final class FeedHttpClient {
+
+    public static final int DEFAULT_CONNECT_TIMEOUT_MS = 3000;
+    public static final int DEFAULT_READ_TIMEOUT_MS = 5000;
+
+    private final String baseUrl;
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+    private final FeedPageCodec codec = new FeedPageCodec();
+
+    public FeedHttpClient(String baseUrl) {
+        this(baseUrl, DEFAULT_CONNECT_TIMEOUT_MS, DEFAULT_READ_TIMEOUT_MS);
+    }
+
+    public FeedHttpClient(String baseUrl, int connectTimeoutMs, int readTimeoutMs) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    /**
+     * 请求一页数据。
+     *
+     * @throws java.net.SocketTimeoutException 连接 / 读取超时
+     * @throws FeedHttpException               状态码不是 200
+     * @throws IOException                     其他网络错误，或者响应体不是合法的分页 JSON
+     */
+    public FeedPageResult loadFeedPage(String cursor, int pageSize) throws IOException {
+        StringBuilder spec = new StringBuilder(baseUrl).append("/feed?pageSize=").append(pageSize);
+        if (cursor != null) {
+            spec.append("&cursor=").append(URLEncoder.encode(cursor, "UTF-8"));
+        }
+        URL url = new URL(spec.toString());
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setConnectTimeout(connectTimeoutMs);
+            connection.setReadTimeout(readTimeoutMs);
+            connection.setRequestProperty("Accept", "application/json");
+            int code = connection.getResponseCode();
+            if (code != HttpURLConnection.HTTP_OK) {
+                throw new FeedHttpException(code);
+            }
+            try (InputStream in = new BufferedInputStream(connection.getInputStream())) {
+                return codec.decode(in);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
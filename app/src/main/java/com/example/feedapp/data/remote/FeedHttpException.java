@@ -0,0 +1,22 @@
+package com.example.feedapp.data.remote;
+
+import java.io.IOException;
+
+/**
+ * 服务端返回了非 200 的状态码（例如 500）。
+ */
+public class FeedHttpException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    public FeedHttpException(int statusCode) {
+        super("HTTP " + statusCode);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
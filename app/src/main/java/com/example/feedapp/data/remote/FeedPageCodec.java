@@ -0,0 +1,53 @@
+package com.example.feedapp.data.remote;
+
+import com.example.feedapp.data.model.FeedPageResult;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * FeedPageCodec：一页数据在「线上」的 JSON 格式。
+ *
+ * {"cards":[{...FeedCard...}, ...], "hasMore":true, "nextCursor":"v1.255s.2531", "dedupHints":["..."]}
+ *
+ * - 卡片的格式和 feed_cache.json 里的完全一样（都走 FeedCardTypeAdapter）；
+ * - decode 直接从输入流边读边解析，不先把整个响应体读成 String；
+ * - 响应体不完整 / 不是合法 JSON 时抛 IOException，和网络错误一样交给上层处理。
+ */
+public final class FeedPageCodec {
+
+    private final Gson gson = new Gson();
+
+    public byte[] encode(FeedPageResult page) {
+        return gson.toJson(page).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 从输入流解析一页数据（不负责关闭 in）。
+     *
+     * @throws IOException 读取失败，或者响应体不是一个完整的分页 JSON
+     */
+    public FeedPageResult decode(InputStream in) throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        FeedPageResult result;
+        try {
+            result = gson.fromJson(reader, FeedPageResult.class);
+            // 后面还有多余的内容，也说明响应体有问题
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new IOException("malformed page: trailing data");
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("malformed page: " + e.getMessage(), e);
+        }
+        if (result == null || result.getCards() == null) {
+            throw new IOException("malformed page: no cards");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.feedapp.data.remote;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedPageResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * FeedPageGenerator：「服务端」生成分页数据的规则（纯 Java，不依赖 Android）。
+ *
+ * App 内的模拟网络（FeedRemoteDataSource）和测试里的本地 HTTP 服务用的是同一套规则：
+ * - 服务端的内容是一条按「发布序号」排列的流，序号越大越新，列表从最新的往旧的方向翻；
+ * - 每条内容的 id 由序号决定（同一条内容无论第几次下发都是同一个 id），这样重复才看得出来；
+ * - 模拟「一直有新内容发布」：每处理一次请求，最新序号往前长 newItemsPerRequest 条；
+ *   以前的 page * pageSize 偏移在这种情况下会漂移，下一页和上一页重叠，现在改成游标（FeedCursor）；
+ * - 模拟「热门内容重新推荐」：非第一页里会夹一条这一轮已经下发过的内容，并写进 dedupHints 提示客户端。
+ *
+ * 视频资源 id 由调用方传进来（App 里是 R.raw.videoX，测试里随便给几个数字即可）。
+ */
+public final class FeedPageGenerator {
+
+    /** 服务端启动时的最新序号：足够大，往旧的方向可以一直翻（hasMore 几乎总是 true） */
+    static final long INITIAL_HEAD = 100_000;
+    /** 每处理一次请求，新发布几条内容 */
+    static final int DEFAULT_NEW_ITEMS_PER_REQUEST = 2;
+    /** id 的高 64 位里混入的常量，避免和别的 UUID 撞在一起 */
+    private static final long ID_SALT = 0x6665656461707031L;
+    /**
+     * 封面尺寸（宽 / 高）：横图、方图、竖图轮流出现，按序号决定，同一条内容永远是同一个尺寸。
+     * 尺寸写在地址末尾（picsum 的 /宽/高），瀑布流据此在 bind 前算出封面高度（CardHeightPredictor）。
+     */
+    private static final int[][] COVER_SIZES = {
+            {400, 300}, {400, 400}, {400, 560}, {400, 225}, {400, 500}
+    };
+
+    private final int[] videoResIds;
+    private final int newItemsPerRequest;
+    private final boolean resurfacing;
+    /** 当前最新一条内容的序号 */
+    private long head = INITIAL_HEAD;
+
+    public FeedPageGenerator(int[] videoResIds) {
+        this(videoResIds, DEFAULT_NEW_ITEMS_PER_REQUEST, true);
+    }
+
+    /**
+     * @param newItemsPerRequest 每次请求新发布几条内容（0 表示内容不变）
+     * @param resurfacing        非第一页里是否夹带一条重新推荐的旧内容
+     */
+    public FeedPageGenerator(int[] videoResIds, int newItemsPerRequest, boolean resurfacing) {
+        this.videoResIds = videoResIds.clone();
+        this.newItemsPerRequest = Math.max(0, newItemsPerRequest);
+        this.resurfacing = resurfacing;
+    }
+
+    /**
+     * 按游标取一页：cursor 为 null 表示第一页（刷新）。
+     *
+     * @throws IllegalArgumentException 游标无法识别
+     */
+    public FeedPageResult load(String cursor, int pageSize) {
+        long sessionHead;
+        long next;
+        if (cursor == null) {
+            synchronized (this) {
+                head += newItemsPerRequest;
+                sessionHead = head;
+            }
+            next = sessionHead;
+        } else {
+            FeedCursor decoded = FeedCursor.decode(cursor);
+            synchronized (this) {
+                head += newItemsPerRequest;
+            }
+            sessionHead = decoded.sessionHead;
+            next = decoded.next;
+        }
+
+        List<FeedCard> list = new ArrayList<>(pageSize);
+        List<String> hints = new ArrayList<>(1);
+        // 非第一页、这一轮已经下发过足够多内容时，在中间夹一条重新推荐的旧内容
+        long resurfaced = -1;
+        if (resurfacing && cursor != null && sessionHead - next >= pageSize) {
+            resurfaced = next + 1 + (sessionHead - next - 1) / 2;
+        }
+        long ordinal = next;
+        while (list.size() < pageSize && ordinal >= 0) {
+            if (resurfaced >= 0 && list.size() == pageSize / 2) {
+                FeedCard card = cardAt(resurfaced);
+                list.add(card);
+                hints.add(card.getId());
+                resurfaced = -1;
+                continue;
+            }
+            list.add(cardAt(ordinal));
+            ordinal--;
+        }
+
+        FeedPageResult result = new FeedPageResult();
+        result.setCards(list);
+        result.setHasMore(ordinal >= 0);
+        result.setNextCursor(new FeedCursor(sessionHead, Math.max(ordinal, 0)).encode());
+        result.setDedupHints(hints.isEmpty() ? Collections.emptyList() : hints);
+        return result;
+    }
+
+    /** 当前最新一条内容的序号（测试用） */
+    synchronized long head() {
+        return head;
+    }
+
+    /**
+     * 序号为 ordinal 的内容。同一个序号每次生成的卡片完全一样。
+     */
+    FeedCard cardAt(long ordinal) {
+        FeedCard.Builder card = new FeedCard.Builder()
+                .id(new UUID(ID_SALT ^ (ordinal * 0x9E3779B97F4A7C15L), ordinal))
+                .title("标题 " + ordinal)
+                .subTitle("副标题 " + ordinal)
+                .content("这是第 " + ordinal + " 条卡片的内容，用来模拟服务端返回的文案。");
+
+        //  使用 picsum 生成一张随机图片（尺寸轮流取 COVER_SIZES）
+        int[] size = COVER_SIZES[(int) ((ordinal / 3) % COVER_SIZES.length)];
+        String imageUrl = "https://picsum.photos/seed/" + ordinal + "/" + size[0] + "/" + size[1];
+
+        // 模拟服务器控制卡片类型
+        int typeMod = (int) (ordinal % 3);
+        if (typeMod == 0) {
+            card.cardType(FeedCard.TYPE_TEXT);
+        } else if (typeMod == 1) {
+            card.cardType(FeedCard.TYPE_IMAGE)
+                    .imageUrl(imageUrl);          // 图片卡片显示这张图片
+        } else {
+            card.cardType(FeedCard.TYPE_VIDEO)
+                    .imageUrl(imageUrl);
+
+            //  轮流使用本地的几个视频
+            if (videoResIds.length > 0) {
+                int index = (int) ((ordinal / 3) % videoResIds.length);
+                card.videoResId(videoResIds[index]);
+            }
+        }
+
+        // -------- 排版方式：单列 / 双列 --------
+        // 每 5 条有 1 条单列（占一整行），其余双列（占半行）
+        if (ordinal % 5 == 0) {
+            card.layoutType(FeedCard.LAYOUT_SINGLE);
+        } else {
+            card.layoutType(FeedCard.LAYOUT_DOUBLE);
+        }
+        return card.build();
+    }
+}
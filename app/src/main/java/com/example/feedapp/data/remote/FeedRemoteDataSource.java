@@ -2,12 +2,13 @@ package com.example.feedapp.data.remote;
 
 import android.os.SystemClock;
 
-import com.example.feedapp.data.model.FeedCard;
 import com.example.feedapp.data.model.FeedPageResult;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.Random;
 import com.example.feedapp.R;
 
 
@@ -19,8 +20,22 @@ import com.example.feedapp.R;
  * - 这样可以不依赖后端，也能完整跑通：
  *      下拉刷新 / 加载更多 / 多种卡片样式 / 单列双列排版 / 视频卡片 等功能。
  *
+ * 模拟尽量贴近真实的一次请求（默认 NetworkProfile.FIXED_2S，和以前一样固定 2 秒）：
+ * 1. 按 NetworkProfile 抽样首包延迟（百分位分布 + 抖动）；
+ * 2. 按 FailMode 决定是否失败（普通异常 / 超时 / HTTP 500 / 响应体被截断）；
+ * 3. FeedPageGenerator 生成一页，FeedPageCodec 序列化成 JSON 字节；
+ * 4. 按带宽算出传输时间再 sleep；
+ * 5. 把 JSON 字节流式解析回 FeedPageResult —— 序列化 / 解析的开销是真实的。
+ *
+ * 如果通过 setEndpoint 配置了服务地址，则改走 FeedHttpClient 发真正的 HTTP 请求
+ * （延迟 / 带宽 / 失败都由服务端决定；Android 9+ 访问 http:// 需要允许明文流量）。
+ *
+ * 性能测试可以通过 setSyntheticFeed 换成可重放的合成数据（SyntheticFeedGenerator）：
+ * 第 3 步改由它生成一页；延迟抽样和 RANDOM_FAIL 也改用同一个种子的 Random，
+ * 同样的种子 + 同样的请求顺序，拿到的卡片、延迟、失败都一样。
+ *
  * 对外暴露一个主要方法：
- * - loadPage(int page, int pageSize)：根据页码返回一页 FeedPageResult。
+ * - loadFeedPage(String cursor, int pageSize)：按游标返回一页 FeedPageResult（cursor 为 null 表示第一页）。
  *
  * 它和：
  * - FeedRepository：组合 Remote + Local 数据源；
@@ -30,8 +45,6 @@ import com.example.feedapp.R;
  */
 public class FeedRemoteDataSource {
 
-    private static final long NETWORK_DELAY_MS = 2000L;
-
     /**
      * 用来模拟「视频资源池」：
      * - 实际是 5 个 res/raw 目录下的本地 mp4；
@@ -50,108 +63,137 @@ public class FeedRemoteDataSource {
             R.raw.video5
     };
 
+    private final FeedPageGenerator generator = new FeedPageGenerator(VIDEO_RES_IDS);
+    private final FeedPageCodec codec = new FeedPageCodec();
+    /** 延迟抽样 / 随机失败用的随机数（没有合成数据时用，不固定种子） */
+    private final Random defaultRandom = new Random();
+    /** 合成数据对应的随机数：换了一个 SyntheticFeedGenerator 就按它的种子重新创建 */
+    private Random seededRandom;
+    private SyntheticFeedGenerator seededFor;
+
     /**
      * 模拟一次分页网络请求。
      *
-     * @param page     第几页，从 1 开始
+     * @param cursor   上一页返回的 nextCursor；null 表示第一页（刷新）
      * @param pageSize 每页多少条
      * @return FeedPageResult，包含：
      *          - 本页的 List<FeedCard>
      *          - 是否还有更多 hasMore
-     *          - 下一页页码 nextPage
+     *          - 下一页的游标 nextCursor 和去重提示 dedupHints
+     * @throws IOException 超时 / HTTP 错误 / 响应体解析失败
      */
-    public FeedPageResult loadFeedPage(int page, int pageSize) {
-        // -------------------- 1. 模拟网络耗时 --------------------
+    public FeedPageResult loadFeedPage(String cursor, int pageSize) throws IOException {
+        String url = endpoint;
+        if (url != null) {
+            return new FeedHttpClient(url).loadFeedPage(cursor, pageSize);
+        }
+        boolean firstPage = cursor == null;
+
+        NetworkProfile profile = networkProfile;
+        FailMode mode = failMode;
+        SyntheticFeedGenerator synthetic = syntheticFeed;
+        Random random = randomFor(synthetic);
+
+        // -------------------- 1. 模拟首包延迟 --------------------
         // SystemClock.sleep 会阻塞当前线程，这里用来营造「网络请求」的感觉，
         // 方便你在加载更多 / 下拉刷新时看到 loading 状态。
-        SystemClock.sleep(NETWORK_DELAY_MS);
+        SystemClock.sleep(profile.sampleLatencyMs(random));
 
         // -------------------- 调试：根据 failMode 决定是否“故意失败” --------------------
-        if (shouldFail(page)) {
-            throw new RuntimeException("模拟网络异常，page=" + page);
+        if (shouldFail(mode, firstPage, random)) {
+            throw new RuntimeException("模拟网络异常，cursor=" + cursor);
+        }
+        if (mode == FailMode.TIMEOUT) {
+            // 服务端一直不回包：等满读超时再报错
+            SystemClock.sleep(FeedHttpClient.DEFAULT_READ_TIMEOUT_MS);
+            throw new SocketTimeoutException("模拟读取超时，cursor=" + cursor);
+        }
+        if (mode == FailMode.HTTP_500) {
+            throw new FeedHttpException(500);
         }
 
-        // -------------------- 2. 构造本页的卡片列表 --------------------
-        List<FeedCard> list = new ArrayList<>();
-        int start = page * pageSize;
-        int end = start + pageSize;
-
-
-        // 这里用一个非常简单的规则来生成 mock 数据：
-        // - 每一条的 id 用 UUID 保证唯一；
-        // - cardType 根据 index 取模，交替生成：文字 / 图片 / 视频；
-        // - layoutType 根据 index 决定单列 or 双列。
-        for (int i = start; i < end; i++) {
-            FeedCard card = new FeedCard();
-            card.setId(UUID.randomUUID().toString());
-            card.setTitle("标题 " + i);
-            card.setSubTitle("副标题 " + i);
-            card.setContent("这是第 " + i + " 条卡片的内容，用来模拟服务端返回的文案。");
-
-            //  使用 picsum 生成一张随机图片
-            String imageUrl = "https://picsum.photos/seed/" + i + "/400/300";
-
-            // 模拟服务器控制卡片类型
-            int typeMod = i % 3;
-            if (typeMod == 0) {
-                card.setCardType(FeedCard.TYPE_TEXT);
-            } else if (typeMod == 1) {
-                card.setCardType(FeedCard.TYPE_IMAGE);
-                card.setImageUrl(imageUrl);          // 图片卡片显示这张图片
-            } else {
-                card.setCardType(FeedCard.TYPE_VIDEO);
-                card.setImageUrl(imageUrl);
-
-                //  轮流使用本地 5 个视频
-                int index = (i / 3) % VIDEO_RES_IDS.length;
-                card.setVideoResId(VIDEO_RES_IDS[index]);
-            }
-
-
-            // -------- 排版方式：单列 / 双列 --------
-            // 这里只是简单地做一个例子：
-            // - 偶数 index 用单列
-            // - 奇数 index 用双列
-            if (i % 5 == 0) {
-                card.setLayoutType(FeedCard.LAYOUT_SINGLE); // 占一整行
-            } else {
-                card.setLayoutType(FeedCard.LAYOUT_DOUBLE); // 占半行
-            }
-
-            list.add(card);
+        // -------------------- 2. 服务端生成一页并序列化 --------------------
+        FeedPageResult page = synthetic != null
+                ? synthetic.load(cursor, pageSize)
+                : generator.load(cursor, pageSize);
+        byte[] body = codec.encode(page);
+        if (mode == FailMode.MALFORMED_JSON) {
+            // 响应体只传了一半
+            body = Arrays.copyOf(body, body.length / 2);
         }
 
-        // -------------------- 3. 组装分页结果 --------------------
-        FeedPageResult result = new FeedPageResult();
-        result.setCards(list);
-//        result.setHasMore(page < 10);  // 假设最多 10 页
-        result.setHasMore(true);        // 无限生成
-        result.setNextPage(page + 1);
-        return result;
+        // -------------------- 3. 按带宽传输，再流式解析 --------------------
+        SystemClock.sleep(profile.transferTimeMs(body.length));
+        return codec.decode(new ByteArrayInputStream(body));
     }
 
     // ======= 调试用的失败模式开关 =======
     public enum FailMode {
         NONE,               // 正常模式
-        REFRESH_ALWAYS_FAIL,// 只有刷新（page=0）会失败
-        LOAD_MORE_ALWAYS_FAIL, // 只有加载更多（page>0）会失败
-        RANDOM_FAIL         // 随机失败
+        REFRESH_ALWAYS_FAIL,// 只有刷新（第一页）会失败
+        LOAD_MORE_ALWAYS_FAIL, // 只有加载更多（带游标）会失败
+        RANDOM_FAIL,        // 随机失败
+        TIMEOUT,            // 每次请求都读取超时
+        HTTP_500,           // 服务端返回 500
+        MALFORMED_JSON      // 响应体被截断，解析失败
     }
 
-    private static FailMode failMode = FailMode.NONE;
+    private static volatile FailMode failMode = FailMode.NONE;
+    private static volatile NetworkProfile networkProfile = NetworkProfile.FIXED_2S;
+    /** 非空时走真正的 HTTP 请求，例如 "http://10.0.2.2:8080" */
+    private static volatile String endpoint;
+    /** 非空时用合成数据代替 FeedPageGenerator */
+    private static volatile SyntheticFeedGenerator syntheticFeed;
 
     public static void setFailMode(FailMode mode) {
         failMode = mode;
     }
 
-    private boolean shouldFail(int page) {
-        switch (failMode) {
+    /** 切换模拟的网络环境（只影响本地模拟，不影响 setEndpoint 之后的真实请求） */
+    public static void setNetworkProfile(NetworkProfile profile) {
+        networkProfile = profile == null ? NetworkProfile.FIXED_2S : profile;
+    }
+
+    /** 设置真实服务地址；传 null 回到本地模拟 */
+    public static void setEndpoint(String baseUrl) {
+        endpoint = baseUrl;
+    }
+
+    /**
+     * 换成可重放的合成数据：一共 cardCount 张卡片，内容 / 延迟 / 随机失败都由 seed 决定。
+     * 只影响之后的请求；已经在列表里的卡片要下拉刷新一次才会换掉。
+     */
+    public static void setSyntheticFeed(long seed, long cardCount) {
+        syntheticFeed = new SyntheticFeedGenerator(seed, cardCount, VIDEO_RES_IDS);
+    }
+
+    /** 回到默认的 FeedPageGenerator */
+    public static void clearSyntheticFeed() {
+        syntheticFeed = null;
+    }
+
+    /**
+     * 这次请求用哪个 Random：合成数据模式下用按种子创建的那个，
+     * 切换到另一个 SyntheticFeedGenerator 时重新播种（Repository 的请求都在同一个线程上，顺序是确定的）。
+     */
+    private synchronized Random randomFor(SyntheticFeedGenerator synthetic) {
+        if (synthetic == null) return defaultRandom;
+        if (synthetic != seededFor) {
+            seededFor = synthetic;
+            seededRandom = new Random(synthetic.getSeed());
+        }
+        return seededRandom;
+    }
+
+    /** 旧的几种失败模式：直接抛普通异常（TIMEOUT 等新模式在 loadFeedPage 里单独处理） */
+    private boolean shouldFail(FailMode mode, boolean firstPage, Random random) {
+        switch (mode) {
             case REFRESH_ALWAYS_FAIL:
-                return page == 0;
+                return firstPage;
             case LOAD_MORE_ALWAYS_FAIL:
-                return page > 0;
+                return !firstPage;
             case RANDOM_FAIL:
-                return Math.random() < 0.5;  // 50% 概率失败
+                return random.nextDouble() < 0.5;  // 50% 概率失败
             case NONE:
             default:
                 return false;
@@ -0,0 +1,115 @@
+package com.example.feedapp.data.remote;
+
+import java.util.Random;
+
+/**
+ * NetworkProfile：模拟网络环境的参数（延迟分布 + 抖动 + 带宽）。
+ *
+ * 之前 FeedRemoteDataSource 固定 sleep 2 秒，所有请求一样慢，看不出「长尾」和「包越大越慢」。
+ * 这里用几个百分位描述延迟分布：
+ * - p50 / p90 / p99：首包延迟的中位数 / 90 分位 / 99 分位（毫秒）；
+ * - 按分段线性的分布抽样：[最小值, p50] 占 50%，[p50, p90] 占 40%，[p90, p99] 占 9%，[p99, 最大值] 占 1%；
+ *   最小值 = max(p50 / 2, p50 - (p90 - p50))，最大值 = p99 + (p99 - p90)；
+ * - jitterMs：在抽样结果上再叠加 ±jitterMs 的均匀抖动；
+ * - bytesPerSecond：下行带宽，响应体越大传输越久（0 表示不限速）。
+ *
+ * 同一个 profile 既给 App 内的模拟网络用（FeedRemoteDataSource），也给测试里的本地 HTTP 服务用。
+ */
+public final class NetworkProfile {
+
+    /** 和以前完全一样：每次固定 2 秒、不限带宽（默认，方便看 loading 状态） */
+    public static final NetworkProfile FIXED_2S = new NetworkProfile("fixed-2s", 2000, 2000, 2000, 0, 0);
+    /** 家用 Wi-Fi：约 20Mbps */
+    public static final NetworkProfile WIFI = new NetworkProfile("wifi", 40, 120, 400, 10, 2_500_000);
+    /** 4G：约 6Mbps，偶尔有几百毫秒的长尾 */
+    public static final NetworkProfile LTE = new NetworkProfile("4g", 120, 350, 1200, 30, 750_000);
+    /** 弱网 3G：约 400kbps，长尾明显 */
+    public static final NetworkProfile SLOW_3G = new NetworkProfile("3g", 400, 1500, 4000, 100, 50_000);
+
+    private final String name;
+    private final long p50Ms;
+    private final long p90Ms;
+    private final long p99Ms;
+    private final long jitterMs;
+    private final long bytesPerSecond;
+    private final long minMs;
+    private final long maxMs;
+
+    public NetworkProfile(String name, long p50Ms, long p90Ms, long p99Ms, long jitterMs, long bytesPerSecond) {
+        if (p50Ms < 0 || p90Ms < p50Ms || p99Ms < p90Ms || jitterMs < 0 || bytesPerSecond < 0) {
+            throw new IllegalArgumentException("invalid network profile: p50=" + p50Ms + ", p90=" + p90Ms
+                    + ", p99=" + p99Ms + ", jitter=" + jitterMs + ", bytesPerSecond=" + bytesPerSecond);
+        }
+        this.name = name;
+        this.p50Ms = p50Ms;
+        this.p90Ms = p90Ms;
+        this.p99Ms = p99Ms;
+        this.jitterMs = jitterMs;
+        this.bytesPerSecond = bytesPerSecond;
+        this.minMs = Math.max(p50Ms / 2, p50Ms - (p90Ms - p50Ms));
+        this.maxMs = p99Ms + (p99Ms - p90Ms);
+    }
+
+    /**
+     * 抽样一次首包延迟（毫秒，不含传输时间）。
+     */
+    public long sampleLatencyMs(Random random) {
+        double u = random.nextDouble();
+        double latency;
+        if (u < 0.5) {
+            latency = lerp(minMs, p50Ms, u / 0.5);
+        } else if (u < 0.9) {
+            latency = lerp(p50Ms, p90Ms, (u - 0.5) / 0.4);
+        } else if (u < 0.99) {
+            latency = lerp(p90Ms, p99Ms, (u - 0.9) / 0.09);
+        } else {
+            latency = lerp(p99Ms, maxMs, (u - 0.99) / 0.01);
+        }
+        if (jitterMs > 0) {
+            latency += (random.nextDouble() * 2 - 1) * jitterMs;
+        }
+        return Math.max(0, Math.round(latency));
+    }
+
+    /**
+     * 按带宽传输 bytes 字节需要多久（毫秒）；不限速时为 0。
+     */
+    public long transferTimeMs(long bytes) {
+        if (bytesPerSecond <= 0 || bytes <= 0) return 0;
+        return bytes * 1000 / bytesPerSecond;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getP50Ms() {
+        return p50Ms;
+    }
+
+    public long getP90Ms() {
+        return p90Ms;
+    }
+
+    public long getP99Ms() {
+        return p99Ms;
+    }
+
+    public long getJitterMs() {
+        return jitterMs;
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return name + "{p50=" + p50Ms + "ms, p90=" + p90Ms + "ms, p99=" + p99Ms + "ms, jitter=" + jitterMs
+                + "ms, bandwidth=" + (bytesPerSecond == 0 ? "unlimited" : bytesPerSecond + "B/s") + "}";
+    }
+
+    private static double lerp(double from, double to, double t) {
+        return from + (to - from) * t;
+    }
+}
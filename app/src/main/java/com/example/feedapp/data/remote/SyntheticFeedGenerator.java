@@ -0,0 +1,239 @@
+package com.example.feedapp.data.remote;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedPageResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * SyntheticFeedGenerator：可重放的合成信息流，用来做大规模 / 可重复的性能测试（纯 Java，不依赖 Android）。
+ *
+ * 和 FeedPageGenerator 的区别：
+ * - FeedPageGenerator 的文案是固定模板（"标题 123"），类型 / 排版按序号取模，每条卡片长得几乎一样，
+ *   量不出「标题长短不一、图文混排」时 bind / 排版 / diff 的真实开销；
+ * - 这里每张卡片的内容由 (seed, 序号) 决定：同一个 seed 生成的整条流每次都完全一样，换一个 seed 就是另一条流；
+ * - 不需要按顺序生成：cardAt(ordinal) 是随机访问（每张卡片用自己的 SplitMix64 随机数流），
+ *   几百万张的流不用先存下来，翻到哪一页就生成哪一页。
+ *
+ * 分布（大致参照常见信息流的线上数据，够用来压测即可）：
+ * - 类型：文字 35% / 图片 45% / 视频 20%；
+ * - 排版：单列比例按类型不同，文字 15%、图片 20%、视频 50%（整体约 1/4 单列）；
+ * - 标题长度：对数正态，中位数 16 字，限制在 [4, 64]；
+ * - 正文长度：文字卡中位数 80 字、限制在 [10, 600]；图片 / 视频卡 15% 没有正文，其余中位数 24 字、最多 200 字；
+ * - 副标题：中位数 8 字，限制在 [2, 20]；
+ * - 封面尺寸：横图 4:3 占 30%，方图 20%，竖图 5:7 占 20%，16:9 占 20%，4:5 占 10%（写在地址末尾，瀑布流据此预测高度）。
+ *
+ * 分页：和 FeedPageGenerator 一样用 FeedCursor，序号从 cardCount - 1 往 0 翻；内容不增长、不夹带重复推荐，
+ * 所以同一个游标永远得到同一页。
+ */
+public final class SyntheticFeedGenerator {
+
+    /** 默认种子：性能测试之间对比时用同一个 */
+    public static final long DEFAULT_SEED = 20240601L;
+    /** 默认流长度：100 万张 */
+    public static final long DEFAULT_CARD_COUNT = 1_000_000L;
+
+    private static final double TEXT_RATIO = 0.35;
+    private static final double IMAGE_RATIO = 0.45;
+    private static final double TEXT_SINGLE_RATIO = 0.15;
+    private static final double IMAGE_SINGLE_RATIO = 0.20;
+    private static final double VIDEO_SINGLE_RATIO = 0.50;
+    private static final double MEDIA_EMPTY_CONTENT_RATIO = 0.15;
+
+    /** 封面尺寸和各自的权重（百分比） */
+    private static final int[][] COVER_SIZES = {
+            {400, 300}, {400, 400}, {400, 560}, {400, 225}, {400, 500}
+    };
+    private static final int[] COVER_WEIGHTS = {30, 20, 20, 20, 10};
+
+    /**
+     * 拼文案用的词：长短不一，混一些英文 / 数字 / 标点，排版时的换行、测量开销更接近真实文案。
+     */
+    private static final String[] WORDS = {
+            "今天", "分享", "一个", "超级", "好用的", "小技巧", "周末", "去了", "城市", "公园",
+            "咖啡", "推荐", "新手", "入门", "教程", "Android", "性能", "优化", "RecyclerView", "实战",
+            "旅行", "攻略", "美食", "探店", "家常菜", "做法", "健身", "打卡", "第", "天",
+            "数码", "开箱", "评测", "2024", "年度", "总结", "读书", "笔记", "电影", "影评",
+            "猫咪", "日常", "摄影", "构图", "技巧", "通勤", "穿搭", "vlog", "记录", "生活",
+            "，", "，", "。", "！", "？", "、", "…", " ", "🔥", "✨"
+    };
+
+    private final long seed;
+    private final long cardCount;
+    private final int[] videoResIds;
+
+    public SyntheticFeedGenerator(long seed, long cardCount, int[] videoResIds) {
+        if (cardCount <= 0) {
+            throw new IllegalArgumentException("cardCount must be positive: " + cardCount);
+        }
+        this.seed = seed;
+        this.cardCount = cardCount;
+        this.videoResIds = videoResIds.clone();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getCardCount() {
+        return cardCount;
+    }
+
+    // -------------------- 分页 --------------------
+
+    /**
+     * 按游标取一页：cursor 为 null 表示第一页（刷新）。同一个 seed、同一个游标每次得到的页完全一样。
+     *
+     * @throws IllegalArgumentException 游标无法识别
+     */
+    public FeedPageResult load(String cursor, int pageSize) {
+        long head = cardCount - 1;
+        long next = head;
+        if (cursor != null) {
+            FeedCursor decoded = FeedCursor.decode(cursor);
+            if (decoded.sessionHead != head) {
+                throw new IllegalArgumentException("cursor from another feed: " + cursor);
+            }
+            next = decoded.next;
+        }
+        List<FeedCard> list = new ArrayList<>(pageSize);
+        long ordinal = next;
+        while (list.size() < pageSize && ordinal >= 0) {
+            list.add(cardAt(ordinal));
+            ordinal--;
+        }
+        FeedPageResult result = new FeedPageResult();
+        result.setCards(list);
+        result.setHasMore(ordinal >= 0);
+        result.setNextCursor(new FeedCursor(head, Math.max(ordinal, 0)).encode());
+        result.setDedupHints(Collections.emptyList());
+        return result;
+    }
+
+    /**
+     * 从最新的一张开始连续 count 张（不超过 cardCount），基准 / 测试里直接拿一整段列表用。
+     */
+    public List<FeedCard> first(int count) {
+        int n = (int) Math.min(count, cardCount);
+        List<FeedCard> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            list.add(cardAt(cardCount - 1 - i));
+        }
+        return list;
+    }
+
+    // -------------------- 单张卡片 --------------------
+
+    /**
+     * 序号为 ordinal（0 ~ cardCount - 1）的卡片：只由 (seed, ordinal) 决定。
+     */
+    public FeedCard cardAt(long ordinal) {
+        if (ordinal < 0 || ordinal >= cardCount) {
+            throw new IndexOutOfBoundsException("ordinal " + ordinal + " of " + cardCount);
+        }
+        SplitMix64 random = new SplitMix64(seed * 0x9E3779B97F4A7C15L + ordinal);
+        FeedCard.Builder card = new FeedCard.Builder()
+                .id(new UUID(random.nextLong(), ordinal));
+
+        double typeRoll = random.nextDouble();
+        int cardType;
+        double singleRatio;
+        if (typeRoll < TEXT_RATIO) {
+            cardType = FeedCard.TYPE_TEXT;
+            singleRatio = TEXT_SINGLE_RATIO;
+        } else if (typeRoll < TEXT_RATIO + IMAGE_RATIO) {
+            cardType = FeedCard.TYPE_IMAGE;
+            singleRatio = IMAGE_SINGLE_RATIO;
+        } else {
+            cardType = FeedCard.TYPE_VIDEO;
+            singleRatio = VIDEO_SINGLE_RATIO;
+        }
+        card.cardType(cardType)
+                .layoutType(random.nextDouble() < singleRatio ? FeedCard.LAYOUT_SINGLE : FeedCard.LAYOUT_DOUBLE)
+                .title(text(random, logNormalLength(random, 16, 0.5, 4, 64)))
+                .subTitle(text(random, logNormalLength(random, 8, 0.4, 2, 20)));
+
+        if (cardType == FeedCard.TYPE_TEXT) {
+            card.content(text(random, logNormalLength(random, 80, 0.8, 10, 600)));
+        } else {
+            boolean empty = random.nextDouble() < MEDIA_EMPTY_CONTENT_RATIO;
+            card.content(empty ? "" : text(random, logNormalLength(random, 24, 0.9, 1, 200)));
+            int[] size = COVER_SIZES[weightedIndex(random, COVER_WEIGHTS)];
+            card.imageUrl("https://picsum.photos/seed/s" + seed + "-" + ordinal + "/" + size[0] + "/" + size[1]);
+            if (cardType == FeedCard.TYPE_VIDEO && videoResIds.length > 0) {
+                card.videoResId(videoResIds[random.nextInt(videoResIds.length)]);
+            }
+        }
+        return card.build();
+    }
+
+    /** 对数正态分布的长度：median × e^(sigma × N(0,1))，再限制在 [min, max] */
+    static int logNormalLength(SplitMix64 random, int median, double sigma, int min, int max) {
+        long length = Math.round(median * Math.exp(sigma * random.nextGaussian()));
+        return (int) Math.max(min, Math.min(max, length));
+    }
+
+    private static int weightedIndex(SplitMix64 random, int[] weights) {
+        int total = 0;
+        for (int w : weights) total += w;
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    /** 用 WORDS 拼出正好 length 个 char 的文案（最后一个词放不下时截断） */
+    private static String text(SplitMix64 random, int length) {
+        StringBuilder sb = new StringBuilder(length + 12);
+        while (sb.length() < length) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        sb.setLength(length);
+        // 截断可能把 emoji 的代理对切成一半
+        if (length > 0 && Character.isHighSurrogate(sb.charAt(length - 1))) {
+            sb.setCharAt(length - 1, '…');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * SplitMix64：状态只有一个 long，输出质量足够做测试数据，算法固定，
+     * 不同 JDK / Android 版本上同一个种子得到的序列完全一样（java.util.Random 的 nextGaussian 等实现没有这个保证）。
+     */
+    static final class SplitMix64 {
+        private long state;
+
+        SplitMix64(long seed) {
+            this.state = seed;
+        }
+
+        long nextLong() {
+            long z = (state += 0x9E3779B97F4A7C15L);
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        /** [0, 1) */
+        double nextDouble() {
+            return (nextLong() >>> 11) * 0x1.0p-53;
+        }
+
+        /** [0, bound) */
+        int nextInt(int bound) {
+            return (int) ((nextLong() >>> 33) % bound);
+        }
+
+        /** 标准正态分布（Box-Muller，每次用两个均匀数，不缓存第二个结果） */
+        double nextGaussian() {
+            double u1 = 1.0 - nextDouble();
+            double u2 = nextDouble();
+            return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+        }
+    }
+}
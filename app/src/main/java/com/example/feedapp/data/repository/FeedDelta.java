@@ -0,0 +1,155 @@
+package com.example.feedapp.data.repository;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import java.util.List;
+
+/**
+ * FeedDelta：Repository 往 FeedDeltaQueue 里放的一个事件，ViewModel 取出来折叠成界面状态。
+ *
+ * 列表的三种变化：
+ * - RESET ：整份列表换掉（刷新成功、刷新失败回退到本地缓存的第一块、恢复的第一块、积压太多被合并）；
+ * - APPEND：在末尾追加了 [position, position + count) 这一段（加载更多、缓存的后续几块）；
+ * - REMOVE：删掉了 position 处 id 为 cardId 的一张。
+ *
+ * 每个列表变化都带着「变化之后的完整列表」list：
+ * - 它是 FeedCardStore 的只读快照，O(1) 创建，不复制任何数据；
+ * - 消费方直接拿最后一个列表变化的 list 当作当前列表即可，不用自己维护一份副本；
+ * - type / position / count / cardId 告诉消费方「这次只变了哪一段」，可以直接回放做局部刷新。
+ *
+ * 请求结束的两种事件（以前走 FeedRepository.Callback）：
+ * - COMPLETE：request 这次请求成功结束，hasMore 为之后还能不能加载更多；
+ * - ERROR   ：request 这次请求失败，error 为原因；showingCache 为 true 表示列表里留着本地缓存
+ *   （刷新失败回退到缓存、恢复时缓存和游标对不上）。
+ * 它们不带列表（list 为 null）：列表本身的变化已经在它之前放进了变化流。
+ * 同一页合并起来的多次 loadMore 只对应一个 COMPLETE / ERROR。
+ *
+ * 没有「更新某张卡片的字段」这种变化：仓库里还没有修改已有卡片的操作，
+ * 而 FeedCardStore 的快照和 store 共享列数组，原地改字段会改到已经发出去的快照。
+ */
+public final class FeedDelta {
+
+    public enum Type {
+        RESET,
+        APPEND,
+        REMOVE,
+        COMPLETE,
+        ERROR
+    }
+
+    /** COMPLETE / ERROR 对应的是哪一种请求 */
+    public enum Request {
+        REFRESH,
+        LOAD_MORE,
+        RESTORE
+    }
+
+    private final Type type;
+    private final List<FeedCard> list;
+    private final int position;
+    private final int count;
+    private final String cardId;
+    private final Request request;
+    private final boolean hasMore;
+    private final Throwable error;
+    private final boolean showingCache;
+
+    private FeedDelta(Type type, List<FeedCard> list, int position, int count, String cardId,
+                      Request request, boolean hasMore, Throwable error, boolean showingCache) {
+        this.type = type;
+        this.list = list;
+        this.position = position;
+        this.count = count;
+        this.cardId = cardId;
+        this.request = request;
+        this.hasMore = hasMore;
+        this.error = error;
+        this.showingCache = showingCache;
+    }
+
+    /** 整份列表换成 list */
+    public static FeedDelta reset(List<FeedCard> list) {
+        return new FeedDelta(Type.RESET, list, 0, list.size(), null, null, false, null, false);
+    }
+
+    /** list 是在旧列表末尾追加了 [from, list.size()) 之后的结果 */
+    public static FeedDelta append(List<FeedCard> list, int from) {
+        return new FeedDelta(Type.APPEND, list, from, list.size() - from, null, null, false, null, false);
+    }
+
+    /** list 是删掉了 position 处的 cardId 之后的结果 */
+    public static FeedDelta remove(List<FeedCard> list, int position, String cardId) {
+        return new FeedDelta(Type.REMOVE, list, position, 1, cardId, null, false, null, false);
+    }
+
+    /** request 成功结束 */
+    public static FeedDelta complete(Request request, boolean hasMore) {
+        return new FeedDelta(Type.COMPLETE, null, 0, 0, null, request, hasMore, null, false);
+    }
+
+    /** request 失败 */
+    public static FeedDelta error(Request request, Throwable error, boolean showingCache) {
+        return new FeedDelta(Type.ERROR, null, 0, 0, null, request, false, error, showingCache);
+    }
+
+    /** 是不是 COMPLETE / ERROR（不带列表） */
+    public boolean isStatus() {
+        return type == Type.COMPLETE || type == Type.ERROR;
+    }
+
+    // -------------------- Getter --------------------
+
+    public Type getType() {
+        return type;
+    }
+
+    /** 变化之后的完整列表（只读）；COMPLETE / ERROR 为 null */
+    public List<FeedCard> getList() {
+        return list;
+    }
+
+    /** APPEND：第一张新卡片的位置；REMOVE：被删卡片原来的位置；其他为 0 */
+    public int getPosition() {
+        return position;
+    }
+
+    /** APPEND：追加的张数；REMOVE：1；RESET：新列表的长度；COMPLETE / ERROR：0 */
+    public int getCount() {
+        return count;
+    }
+
+    /** REMOVE：被删卡片的 id；其他情况为 null */
+    public String getCardId() {
+        return cardId;
+    }
+
+    /** COMPLETE / ERROR：哪一种请求结束了；列表变化为 null */
+    public Request getRequest() {
+        return request;
+    }
+
+    /** COMPLETE：之后还能不能加载更多 */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    /** ERROR：失败原因；其他为 null */
+    public Throwable getError() {
+        return error;
+    }
+
+    /** ERROR：列表里是不是留着本地缓存 */
+    public boolean isShowingCache() {
+        return showingCache;
+    }
+
+    @Override
+    public String toString() {
+        if (isStatus()) {
+            return "FeedDelta{" + type + " " + request
+                    + (type == Type.COMPLETE ? " hasMore=" + hasMore : " cache=" + showingCache + " " + error) + "}";
+        }
+        return "FeedDelta{" + type + " position=" + position + " count=" + count
+                + (cardId != null ? " id=" + cardId : "") + " size=" + list.size() + "}";
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.feedapp.data.repository;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FeedDeltaQueue：Repository → ViewModel 的变化流（有界，带背压）。
+ *
+ * 生产方（Repository 后台线程 / 主线程删除）调用 offer，消费方（ViewModel）调用 drain 一次取走全部积压。
+ * 列表变化和请求结束（COMPLETE / ERROR）走同一条流，消费方看到的顺序就是它们发生的顺序。
+ *
+ * 通知：
+ * - 队列从「没有待取的变化」变成「有」时，调用一次 Listener.onDeltasAvailable；
+ * - 消费方 drain 之前，再来多少个变化都不会重复通知（一批变化只对应一次通知）。
+ *
+ * 背压（消费方没来得及 drain、或者还没设置 Listener 时）：
+ * - RESET 会让之前积压的列表变化作废，直接丢掉；
+ * - 积压达到 capacity 时，不再逐个保存：积压的列表变化合并成一个 RESET（带最新的列表），
+ *   getCollapsedCount() 加一；请求结束事件每种请求只留最新的一个。
+ * 这样积压占用的内存有上限，消费方也不用一个个回放已经过时的变化。
+ * 因为每个列表变化都带着变化之后的完整列表，合并不会丢内容，只是少了「这次只变了哪一段」的信息；
+ * 请求结束事件不会因为 RESET / 合并被丢掉，loading 状态总能结束。
+ */
+public final class FeedDeltaQueue {
+
+    /** 默认最多积压多少个变化 */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /** 有新的变化可以取了（在 offer 的线程上调用） */
+    public interface Listener {
+        void onDeltasAvailable();
+    }
+
+    private final int capacity;
+    private final ArrayDeque<FeedDelta> pending = new ArrayDeque<>();
+    /** 已经通知过、消费方还没来 drain */
+    private boolean signalled;
+    private int collapsedCount;
+    private volatile Listener listener;
+
+    public FeedDeltaQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FeedDeltaQueue(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity=" + capacity);
+        this.capacity = capacity;
+    }
+
+    /**
+     * 设置监听器，传 null 取消。设置时如果已经有积压的变化，立即通知一次。
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+        boolean notify;
+        synchronized (this) {
+            notify = listener != null && !pending.isEmpty();
+            if (notify) signalled = true;
+        }
+        if (notify) listener.onDeltasAvailable();
+    }
+
+    public void offer(FeedDelta delta) {
+        boolean notify;
+        synchronized (this) {
+            if (delta.getType() == FeedDelta.Type.RESET) {
+                // 整份替换：之前的列表变化都过时了（请求结束事件留着）
+                pending.removeIf(d -> !d.isStatus());
+            } else if (pending.size() >= capacity) {
+                // 消费跟不上：整批合并
+                collapse();
+            }
+            pending.addLast(delta);
+            notify = !signalled;
+            signalled = true;
+        }
+        Listener l = listener;
+        if (notify && l != null) l.onDeltasAvailable();
+    }
+
+    /**
+     * 取走全部积压的变化（按发生顺序）。没有积压时返回空列表。
+     */
+    public synchronized List<FeedDelta> drain() {
+        signalled = false;
+        if (pending.isEmpty()) return Collections.emptyList();
+        List<FeedDelta> out = new ArrayList<>(pending);
+        pending.clear();
+        return out;
+    }
+
+    /** 因为积压太多被合并成 RESET 的次数（调试 / 指标用） */
+    public synchronized int getCollapsedCount() {
+        return collapsedCount;
+    }
+
+    /** 列表变化合并成一个 RESET，请求结束事件每种只留最新的一个（调用方持有 this 锁） */
+    private void collapse() {
+        List<FeedCard> latest = null;
+        Map<FeedDelta.Request, FeedDelta> statuses = new EnumMap<>(FeedDelta.Request.class);
+        for (FeedDelta d : pending) {
+            if (d.isStatus()) {
+                statuses.put(d.getRequest(), d);
+            } else {
+                latest = d.getList();
+            }
+        }
+        pending.clear();
+        if (latest != null) {
+            pending.addLast(FeedDelta.reset(latest));
+            collapsedCount++;
+        }
+        pending.addAll(statuses.values());
+    }
+}
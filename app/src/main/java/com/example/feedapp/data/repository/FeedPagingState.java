@@ -0,0 +1,69 @@
+package com.example.feedapp.data.repository;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import java.util.List;
+
+/**
+ * FeedPagingState：已经加载到哪一页（不可变），进程被杀之后靠它接着往下加载。
+ *
+ * 只记几个很小的值，放进 onSaveInstanceState 的 Bundle 里：
+ * - nextCursor / hasMore：下一次加载更多从哪里继续；
+ * - count / tailId：保存时列表有多少张、最后一张是谁。卡片本身不进 Bundle（Bundle 有大小限制），
+ *   恢复时从本地缓存（feed_cache.json）读回来，再用这两个值核对缓存是不是和游标对得上。
+ *
+ * 为什么要核对：本地缓存是防抖写入的，进程如果恰好死在防抖窗口里，
+ * 缓存会比游标少最后一页（或者还留着刚删掉的卡片）。对不上时游标不能用，只能从网络重新刷新。
+ */
+public final class FeedPagingState {
+
+    private final String nextCursor;
+    private final boolean hasMore;
+    private final int count;
+    private final String tailId;
+
+    public FeedPagingState(String nextCursor, boolean hasMore, int count, String tailId) {
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+        this.count = count;
+        this.tailId = tailId;
+    }
+
+    /** 按当前列表和分页状态生成 */
+    static FeedPagingState of(List<FeedCard> cards, String nextCursor, boolean hasMore) {
+        String tailId = cards.isEmpty() ? null : cards.get(cards.size() - 1).getId();
+        return new FeedPagingState(nextCursor, hasMore, cards.size(), tailId);
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public String getTailId() {
+        return tailId;
+    }
+
+    /**
+     * 从本地缓存读回来的列表是否就是保存这个状态时的列表（张数相同、最后一张相同）。
+     * 空列表永远对不上：没有内容可以恢复。
+     */
+    public boolean matches(List<FeedCard> cards) {
+        if (cards == null || cards.isEmpty() || cards.size() != count) return false;
+        String lastId = cards.get(cards.size() - 1).getId();
+        return lastId != null && lastId.equals(tailId);
+    }
+
+    @Override
+    public String toString() {
+        return "FeedPagingState{count=" + count + " tail=" + tailId
+                + " cursor=" + nextCursor + " hasMore=" + hasMore + "}";
+    }
+}
@@ -1,5 +1,5 @@
 // 这一层是“数据仓库（Repository）”层：
-// - 负责把「远程数据 Remote」+「本地缓存 Local」+「内存中的当前列表 currentList」+「分页状态」统一管理起来。
+// - 负责把「远程数据 Remote」+「本地缓存 Local」+「内存中的当前列表 store」+「分页状态」统一管理起来。
 // - ViewModel / UI 不直接找 Remote / Local，而是通过 Repository 拿数据。
 // - 这样做符合常见的 MVVM 分层：UI <- ViewModel <- Repository <- DataSource(Remote/Local)
 package com.example.feedapp.data.repository;
@@ -7,14 +7,22 @@ package com.example.feedapp.data.repository;
 import android.content.Context;
 
 import com.example.feedapp.data.local.FeedLocalDataSource;
+import com.example.feedapp.data.local.FeedPersistenceWriter;
+import com.example.feedapp.data.local.FirstScreenStore;
 import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedCardStore;
 import com.example.feedapp.data.model.FeedPageResult;
 import com.example.feedapp.data.remote.FeedRemoteDataSource;
+import com.example.feedapp.image.CardImageDiskCache;
+import com.example.feedapp.perf.FeedMetrics;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -23,21 +31,28 @@ import java.util.concurrent.Executors;
  *
  * 1. 刷新数据（下拉刷新）：
  *    - 调用 RemoteDataSource 模拟“网络请求，拉第一页”；
- *    - 更新内存中的 currentList；
- *    - 将最新列表保存到 LocalDataSource 作为缓存；
- *    - 通过 Callback 把结果通知给 ViewModel。
+ *    - 更新内存中的列表 store；
+ *    - 将最新列表交给 FeedPersistenceWriter，在专用线程上保存到 LocalDataSource；
+ *    - 往 FeedDeltaQueue 放一个 RESET，再放一个 COMPLETE 告诉 ViewModel 这次请求结束了。
  *
  * 2. 加载更多（上拉 loadMore）：
- *    - 使用 nextPage 继续去 RemoteDataSource 拉取下一页；
- *    - 把新的卡片追加到 currentList；
- *    - 更新 hasMore / nextPage 状态；
+ *    - 带上上一页返回的 nextCursor 继续去 RemoteDataSource 拉取下一页；
+ *    - 用 SeenIdFilter 剔除这一轮已经见过的卡片，再把新的卡片追加到 store；
+ *    - 更新 hasMore / nextCursor 状态；
  *    - 失败时保持现有列表不变。
  *
  * 3. 删除卡片：
- *    - 从 currentList 中按 id 删除某个 FeedCard；
- *    - 同步更新本地缓存（LocalDataSource）。
+ *    - 从 store 中按 id 删除某个 FeedCard（主线程调用，只打墓碑，不阻塞）；
+ *    - 在后台线程整理墓碑；本地缓存交给 FeedPersistenceWriter 防抖合并后写入。
  *
- * 4. 封装“是否还能加载更多”、“当前列表快照”等状态：
+ * 4. 进程被杀之后恢复：
+ *    - savePagingState() 给出游标等几个小值，由 UI 放进 Bundle；
+ *    - restore(...) 从本地缓存读回列表、核对之后接上游标，不发网络请求。
+ *
+ * 列表本身的变化（RESET / APPEND / REMOVE）和「这次请求结束了、成功还是失败」（COMPLETE / ERROR）
+ * 都走 FeedDeltaQueue，按发生的顺序交给 ViewModel；refresh / loadMore / restore 不再带回调。
+ *
+ * 5. 封装“是否还能加载更多”、“当前列表快照”等状态：
  *    - ViewModel 和 UI 只需要和 Repository 交互，而不关心具体网络/缓存细节。
  *
  * 和其他类的关系：
@@ -48,26 +63,18 @@ import java.util.concurrent.Executors;
  */
 public class FeedRepository {
     /**
-     * Repository 对外暴露的回调接口：
-     *
-     * Repository 的所有耗时操作（网络 + IO）都在后台线程执行，
-     * 然后通过这个 Callback 把结果抛给上层（ViewModel）。
-     *
-     * onSuccess：
-     *   - 给 ViewModel 一个“当前最新列表”的快照（list）；
-     *   - 告诉 ViewModel 是否还有更多（hasMore）；
-     *   - 告诉下一页的页码（nextPage），以便后续 loadMore。
-     *
-     * onError：
-     *   - 把异常对象传给 ViewModel，用于展示错误提示；
-     *   - 同时提供一个 cache 列表（比如本地缓存数据）。
-     *     - 对于刷新失败：cache = LocalDataSource 中的缓存；
-     *     - 对于加载更多失败：cache = Collections.emptyList()，表示“列表不变”。
+     * 「一页数据到达」监听器，每一页分两次调用：
+     * - 前一屏（PageSizePolicy.itemsPerScreen() 张）：在 Repository 线程上、放进变化流之前同步调用，
+     *   这一页交给 UI 时马上要 bind 的就是它们，放到后面排队的话第一帧基本赶不上；
+     * - 剩下的：放进变化流之后，在单独的 pageListenerExecutor 线程上调用，
+     *   再慢也不会推迟这一页上屏，也不会占着 Repository 线程挡住下一次加载；
+     * - 参数只包含这次新到达的卡片（刷新 / 加载更多的那一页，或者本地缓存读出来的一块）；
+     * - 两个线程可能同时调用，实现要线程安全；
+     * - 用于后台预处理，例如 TextLayoutCache 的文字预排版：处理完之前 bind 到的卡片走普通路径，
+     *   之后 bind 到的直接用处理结果。
      */
-
-    public interface Callback {
-        void onSuccess(List<FeedCard> list, boolean hasMore, int nextPage);
-        void onError(Throwable t, List<FeedCard> cache);
+    public interface PageListener {
+        void onPageLoaded(List<FeedCard> page);
     }
     // -------------------- 数据源和线程池 --------------------
 
@@ -81,45 +88,111 @@ public class FeedRepository {
      * - 提供 saveCache / loadCache。
      */
     private final FeedLocalDataSource local;
+    /**
+     * 首屏快照：列表最前面的 10 张单独存一个小文件，冷启动时同步读出来先画第一帧。
+     * 跟着本地缓存一起在 writer 线程上保存。
+     */
+    private final FirstScreenStore firstScreen;
+    /**
+     * 封面离线缓存：每次保存本地快照时，把快照里的卡片「钉住」，
+     * 这样刷新失败回退到缓存列表时，封面也能离线展示。
+     */
+    private final CardImageDiskCache imageCache;
+    /**
+     * 本地缓存的单写者：
+     * - 所有保存都只是把快照交给它，立即返回（主线程删除、后台加载都不等文件写完）；
+     * - 防抖窗口内的多次保存合并成一次原子写入。
+     */
+    private final FeedPersistenceWriter persistence;
+    /**
+     * 变化流：刷新 / 加载更多 / 删除 / 缓存回退，每次列表变化都往这里放一个 FeedDelta，
+     * 每次请求结束再放一个 COMPLETE / ERROR。
+     * 列表变化在 synchronized(store) 中放入：主线程删除和后台追加交错时，流里的顺序和 store 的修改顺序一致，
+     * 消费方按 position 回放不会错位。
+     */
+    private final FeedDeltaQueue deltas = new FeedDeltaQueue();
     /**
      * 单线程线程池：
      * - 所有数据加载任务都丢到这个线程池执行，避免阻塞主线程；
      * - 使用 singleThread 的好处是：避免同时有多个加载任务互相抢状态。
      */
     private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    /**
+     * PageListener 专用的单线程线程池：预处理按页的先后顺序执行，和数据加载互不等待。
+     */
+    private final ExecutorService pageListenerExecutor = Executors.newSingleThreadExecutor();
 
     // -------------------- 内存中的状态 --------------------
 
     /**
-     * 当前已经加载到内存中的完整列表：
-     * - 刷新成功：会清空并重新填充；
+     * 当前已经加载到内存中的完整列表（列存，见 FeedCardStore）：
+     * - 刷新成功：整体替换；
      * - 加载更多成功：会在末尾追加；
-     * - 删除某卡片：会从这里移除；
+     * - 删除某卡片：按 id O(1) 定位后打墓碑，攒多了在后台线程整理；
      * - 本地缓存也会以它为基准进行保存。
      *
-     * 注意：所有对 currentList 的写操作都包裹在 synchronized 块中，
+     * 注意：分页状态（hasMore / nextCursor）和列表一起，都在 synchronized(store) 块中修改，
      *       保证多线程下不会出现并发问题。
      */
-    private final List<FeedCard> currentList = new ArrayList<>();
+    private final FeedCardStore store = new FeedCardStore();
+    /**
+     * 下一次加载更多时要带上的游标（服务端签发的不透明字符串）：
+     * - 刷新成功后由 Remote 返回的 nextCursor 设置；
+     * - 加载更多成功后再更新为下一页的游标；
+     * - loadMore 时会把它抓出来作为 cursorToLoad。
+     * 以前用的是页码 nextPage：刷新 / 删除之后服务端偏移会漂移，下一页和已有内容重叠或漏掉一段。
+     */
+    private String nextCursor;
     /**
-     * 下一次加载更多时应该请求的页码：
-     * - 刷新成功后由 Remote 返回的 nextPage 设置；
-     * - 加载更多成功后再更新为下一页的页码；
-     * - loadMore 时会把它抓出来作为 pageToLoad。
+     * 这一轮刷新以来见过的卡片 id（包括已经删掉的），加载更多时用来在进列表之前剔除重复卡片。
+     * 只在 executor 线程上访问。
      */
-    private int nextPage = 0;
+    private final SeenIdFilter seenIds = new SeenIdFilter();
+    /**
+     * 这一轮从 store 里删掉的卡片 stable id：SeenIdFilter 命中之后的精确核对要用
+     * （store 的 IdIndex 里已经查不到它们）。用户手动删的，数量很少；新一轮开始时清空。
+     * 在 synchronized(store) 中访问。
+     */
+    private final Set<Long> deletedIds = new HashSet<>();
+    /** 每次请求要多少张卡片：由一屏张数、请求耗时、滑动速度决定（以前写死 20） */
+    private final PageSizePolicy pageSizePolicy = new PageSizePolicy();
     /**
      * 是否还有更多数据：
      * - 由 RemoteDataSource 返回的 hasMore 决定；
      * - 为 false 时，loadMore 应该直接 return（避免多余请求）。
+     * - 在 synchronized(store) 中修改；canLoadMore 在主线程不加锁读，所以是 volatile。
      */
-    private boolean hasMore = true;
+    private volatile boolean hasMore = true;
     /**
-     * 当前是否正在进行“网络请求 + 数据加载”：
-     * - 避免用户连续触发多个刷新 / 加载更多请求，相互覆盖状态；
-     * - refresh 和 loadMore 开始时把 loading 置为 true，结束时 finally 中置回 false。
+     * 第几轮刷新：每次刷新成功（列表整体替换）加一。
+     * - 合并请求的 key 里带上它，旧一轮的加载更多不会和新一轮的混在一起；
+     * - 加载更多真正执行时发现已经换了一轮，就不再请求 / 追加（那一页接在旧列表后面）。
+     * 只在 executor 线程上修改（synchronized(store) 中），其他线程在 synchronized(store) 中读。
      */
-    private boolean loading = false;
+    private long generation;
+    /**
+     * 正在路上的刷新 / 加载更多请求：
+     * - 同一轮、同一个游标的请求只发一次，滑到底部时连续触发的 loadMore 都挂在同一次请求上，
+     *   结束时只放一个 COMPLETE / ERROR（ViewModel 的 loading 状态是一个开关，一个事件就能结束）；
+     * - 以前用一个 boolean loading 挡住重复请求：主线程读、后台线程写没有可见性保证，
+     *   被挡掉的调用方也收不到任何回调，加载更多进行中下拉刷新还会被直接忽略。
+     */
+    private final InFlightRequests<FetchKey, FeedDelta.Request> inFlight = new InFlightRequests<>();
+    /** 数据到达时的后台预处理监听器（可以为 null） */
+    private volatile PageListener pageListener;
+    /**
+     * 界面上显示着、但不在 store 里的列表（占位）：
+     * - 冷启动的首屏快照（网络结果到达之前）；
+     * - 刷新失败时兜底读出来的本地缓存。
+     * 占位期间的删除作用在它上面；刷新成功 / 恢复时清掉。在 synchronized(store) 中访问。
+     */
+    private FeedCardStore placeholder;
+    /**
+     * 占位期间删掉的卡片 id：之后的缓存块、下一次刷新成功的第一页里都要剔除，
+     * 否则网络结果一到，用户刚删掉的卡片又回来了。刷新成功（新列表已经写进缓存）后清空。
+     * 在 synchronized(store) 中访问。
+     */
+    private final Set<String> pendingDeletes = new HashSet<>();
 
     /**
      * Repository 构造函数：
@@ -127,16 +200,105 @@ public class FeedRepository {
      * - RemoteDataSource 不需要 Context，因为它只是模拟网络数据。
      */
     public FeedRepository(Context context) {
-        this.remote = new FeedRemoteDataSource();
-        this.local = new FeedLocalDataSource(context);
+        this(new FeedRemoteDataSource(),
+                new FeedLocalDataSource(context),
+                new FirstScreenStore(new File(context.getFilesDir(), "feed_first_screen.json")),
+                CardImageDiskCache.get(context));
+    }
+
+    /**
+     * 直接传入各个数据源（单元测试用：换成计数的 Remote、临时目录里的本地缓存）。
+     */
+    FeedRepository(FeedRemoteDataSource remote, FeedLocalDataSource local,
+                   FirstScreenStore firstScreen, CardImageDiskCache imageCache) {
+        this.remote = remote;
+        this.local = local;
+        this.firstScreen = firstScreen;
+        this.imageCache = imageCache;
+        this.persistence = new FeedPersistenceWriter(cards -> {
+            local.saveCache(cards);
+            firstScreen.save(cards);
+            imageCache.pinOnly(idsOf(cards));
+        });
+    }
+
+    /**
+     * 释放 Repository：还在防抖的缓存立即安排写入，然后停止后台线程。
+     * ViewModel.onCleared 时调用，不阻塞主线程。
+     */
+    public void close() {
+        persistence.shutdown();
+        executor.shutdown();
+        pageListenerExecutor.shutdown();
+    }
+
+    /** 单元测试用：等已经交给 writer 的本地缓存全部写完 */
+    boolean flushPersistence(long timeoutMs) throws InterruptedException {
+        return persistence.flush(timeoutMs);
     }
     /**
      * 提供一个简洁的“是否还能加载更多”的查询方法给 ViewModel / UI。
      *
-     * @return 当 hasMore == true 且 loading == false 时，才可以继续发起 loadMore。
+     * @return hasMore == true 时可以发起 loadMore；同一页已经在加载时再调用也没关系，会合并成一次请求。
      */
     public boolean canLoadMore() {
-        return hasMore && !loading;
+        return hasMore;
+    }
+
+    /**
+     * 设置「一页数据到达」监听器，传 null 表示取消。
+     */
+    public void setPageListener(PageListener listener) {
+        this.pageListener = listener;
+    }
+
+    /**
+     * 变化流：ViewModel 设置 Listener，收到通知后 drain，把列表变化和请求结束折叠成界面状态。
+     */
+    public FeedDeltaQueue getDeltas() {
+        return deltas;
+    }
+
+    /**
+     * 页大小策略：UI 通过它上报视口 / 滑动，调试面板通过它读指标。
+     */
+    public PageSizePolicy getPageSizePolicy() {
+        return pageSizePolicy;
+    }
+
+    /**
+     * 把这一页的前一屏交给 PageListener：在 Repository 线程上、数据放进变化流之前同步调用。
+     * 预处理失败不能影响数据本身的交付。
+     *
+     * @return 剩下还没处理的部分，放进变化流之后交给 dispatchPageLoaded
+     */
+    private List<FeedCard> precomputeFirstScreen(List<FeedCard> page) {
+        PageListener listener = pageListener;
+        if (listener == null || page == null || page.isEmpty()) return page;
+        int screen = pageSizePolicy.itemsPerScreen();
+        List<FeedCard> head = page.size() <= screen ? page : page.subList(0, screen);
+        try {
+            listener.onPageLoaded(head);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        return page.subList(head.size(), page.size());
+    }
+
+    /**
+     * 把这一页剩下的部分交给 PageListener：在数据放进变化流之后调用，只是排进 pageListenerExecutor，立即返回。
+     * 预处理失败不能影响数据本身的交付。
+     */
+    private void dispatchPageLoaded(List<FeedCard> page) {
+        PageListener listener = pageListener;
+        if (listener == null || page == null || page.isEmpty()) return;
+        pageListenerExecutor.execute(() -> {
+            try {
+                listener.onPageLoaded(page);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        });
     }
 
     // -------------------- 刷新（从第一页重新拉取） --------------------
@@ -147,51 +309,223 @@ public class FeedRepository {
      * - 对应 UI 上的下拉刷新动作。
      *
      * 流程：
-     * 1. 如果当前已经在 loading，则直接 return，防止重复请求；
-     * 2. 将 loading 置为 true；
+     * 1. 这一轮已经有刷新在路上：直接 return，等那次请求的结果（不重复请求）；
+     *    加载更多进行中时刷新照常发起，排在它后面执行；
+     * 2. 否则登记为这一轮的刷新请求；
      * 3. 在线程池中执行任务：
-     *    3.1 调用 remote.loadFeedPage(0, 20) 模拟“网络拉第一页”；
-     *    3.2 用 synchronized(currentList) 更新内存列表 + hasMore + nextPage；
-     *    3.3 把最新的 currentList 保存到 LocalDataSource 作为缓存；
-     *    3.4 调用 callback.onSuccess(...) 把结果通知给 ViewModel；
+     *    3.1 调用 remote.loadFeedPage(null, pageSize) 模拟“网络拉第一页”（不带游标）；
+     *    3.2 清空 SeenIdFilter 并记录第一页；用 synchronized(store) 更新内存列表 + hasMore + nextCursor，进入新的一轮；
+     *    3.3 把最新的列表快照交给 FeedPersistenceWriter 保存（不在这个线程写文件）；
+     *    3.4 往变化流放一个 RESET，再放一个 COMPLETE(REFRESH, hasMore)；
      * 4. 如果中间抛异常：
-     *    4.1 从本地缓存 local.loadCache() 读一份数据作为 cache；
-     *    4.2 调用 callback.onError(e, cache)。
-     * 5. 最后在 finally 中把 loading 恢复为 false。
+     *    4.1 从本地缓存 local.loadCache(listener) 流式读取；
+     *    4.2 读够第一块就放一个 RESET 和 ERROR(REFRESH, e, true)，之后每块放一个 APPEND；
+     *    4.3 缓存为空时放 ERROR(REFRESH, e, false)。
      *
      * 说明：
-     * - page 固定写成 0，表示“首页”；
-     * - pageSize 这里写死为 20，当然可以在构造函数中抽出来配置。
+     * - 游标传 null，表示“首页”；
+     * - pageSize 由 PageSizePolicy 决定：首页大约一屏半，先保证首屏快。
      */
-    public void refresh(Callback callback) {
-        // 正在加载中就不再重复发起刷新请求
-        if (loading) return;
-        loading = true;
+    public void refresh() {
+        final FetchKey key;
+        synchronized (store) {
+            key = new FetchKey(generation, true, null);
+        }
+        // 这一轮已经有刷新在路上：等它的结果，不再重复请求
+        if (!inFlight.join(key, FeedDelta.Request.REFRESH)) return;
         // 在线程池中进行“假装网络请求”
         executor.execute(() -> {
             try {
                 // 访问“服务端”：拉取第一页
-                FeedPageResult result = remote.loadFeedPage(0, 20);
+                FeedPageResult result = loadPage(null, pageSizePolicy.firstPageSize());
+                // 新一轮：忘掉上一轮见过的 id，第一页本身也要去一次重
+                seenIds.clear();
+                // 新的一轮没有「之前见过」的卡片（store 里还是上一轮的列表，不能拿来核对），只剔除页内重复
+                List<FeedCard> cards = seenIds.admit(result.getCards(), id -> false);
+                // 第一屏的文字先在这个线程上排好版，RESET 到达 UI 时 bind 直接命中
+                List<FeedCard> rest = precomputeFirstScreen(cards);
                 // 更新内存列表 + 分页状态
-                synchronized (currentList) {
-                    currentList.clear();
-                    currentList.addAll(result.getCards());
+                FeedCardStore.Snapshot snapshot;
+                synchronized (store) {
+                    // 占位期间删掉的卡片不要再出现；之后列表就是 store 本身了
+                    store.replaceAll(withoutPendingDeletes(cards));
+                    pendingDeletes.clear();
+                    deletedIds.clear();
+                    placeholder = null;
                     hasMore = result.isHasMore();
-                    nextPage = result.getNextPage();
-                    // 刷新成功后，把当前最新列表写入本地缓存
-                    local.saveCache(currentList);
+                    nextCursor = result.getNextCursor();
+                    generation++;
+                    snapshot = store.snapshot();
+                    // 把“当前最新列表的快照”作为 RESET 交给上层（ViewModel）。
+                    // 快照是只读的，调用方无法修改到内部的 store。
+                    deltas.offer(FeedDelta.reset(snapshot));
                 }
-                // 把“当前最新列表的快照”抛给上层（ViewModel）。
-                // 注意这里用 getCurrentSnapshot()，是为了返回一个新的 ArrayList，
-                // 避免调用方直接修改到内部的 currentList。
-                callback.onSuccess(getCurrentSnapshot(), hasMore, nextPage);
+                // 刷新成功后，把当前最新列表写入本地缓存（交给 writer 线程，不挡后面的网络请求）
+                persistSnapshot(snapshot);
+                // 剩下的已经交给上层之后再做预处理（文字预排版），不推迟第一页上屏
+                dispatchPageLoaded(rest);
+                inFlight.complete(key);
+                deltas.offer(FeedDelta.complete(FeedDelta.Request.REFRESH, result.isHasMore()));
             } catch (Exception e) {
-                // 刷新失败：从本地缓存拉一份兜底数据（如果有）
-                List<FeedCard> cache = local.loadCache();
-                callback.onError(e, cache);
-            } finally {
-                // 无论成功或失败，都要把 loading 标记恢复
-                loading = false;
+                // 刷新失败：从本地缓存拉一份兜底数据（如果有），第一屏读够就先交给上层
+                inFlight.complete(key);
+                deliverCache(e);
+            }
+        });
+    }
+
+    /**
+     * 刷新失败时流式读取本地缓存：
+     * - 读到的卡片追加进一个临时的 FeedCardStore，每次交付的是它的快照（后一次是前一次的前缀扩展）；
+     * - 这个临时 store 就是界面上的占位列表：用户在这期间删卡片删的是它（见 deleteCard）；
+     * - 第一块作为 RESET 放进变化流，紧接着放 ERROR(REFRESH, e, true)（UI 马上有一屏内容），后面的作为 APPEND；
+     * - 每块的前一屏在交给上层之前预处理（文字预排版），剩下的交给上层之后再排队处理。
+     */
+    private void deliverCache(Exception error) {
+        FeedCardStore cacheStore = new FeedCardStore();
+        int count = local.loadCache(chunk -> {
+            List<FeedCard> rest = precomputeFirstScreen(chunk);
+            int from;
+            synchronized (store) {
+                from = cacheStore.size();
+                cacheStore.appendAll(withoutPendingDeletes(chunk));
+                placeholder = cacheStore;
+                FeedCardStore.Snapshot snapshot = cacheStore.snapshot();
+                if (from == 0) {
+                    deltas.offer(FeedDelta.reset(snapshot));
+                } else if (snapshot.size() > from) {
+                    deltas.offer(FeedDelta.append(snapshot, from));
+                }
+            }
+            if (from == 0) {
+                deltas.offer(FeedDelta.error(FeedDelta.Request.REFRESH, error, true));
+            }
+            dispatchPageLoaded(rest);
+        });
+        if (count == 0) {
+            deltas.offer(FeedDelta.error(FeedDelta.Request.REFRESH, error, false));
+        }
+    }
+
+    // -------------------- 冷启动首屏 --------------------
+
+    /**
+     * 同步读取首屏快照（最多 10 张，一次小文件读取，可以在主线程调用）。
+     * 读出来的卡片不进 store，而是作为占位（placeholder）：之后的刷新 / 缓存回退会整体替换它；
+     * 在那之前删掉的卡片会记下来，替换时从新列表里剔除（见 deleteCard）。
+     *
+     * 读完不直接交给 UI：在 Repository 线程上先交给 PageListener（文字预排版），再作为 RESET 放进变化流，
+     * 首屏的文字卡第一次 bind 就能命中。这一步排在随后的刷新前面（同一个单线程线程池），
+     * 10 张卡片的预排版只有几毫秒，首屏最多晚一帧出现。
+     *
+     * @return 快照里的卡片（占位列表的快照）；没有快照时为空列表
+     */
+    public List<FeedCard> loadFirstScreen() {
+        List<FeedCard> cards = firstScreen.load();
+        if (cards.isEmpty()) return cards;
+        FeedCardStore shown;
+        List<FeedCard> snapshot;
+        synchronized (store) {
+            // 已经有真正的数据了（例如刷新抢先完成），首屏快照就没用了
+            if (generation != 0 || placeholder != null) return new ArrayList<>();
+            shown = new FeedCardStore();
+            shown.replaceAll(cards);
+            placeholder = shown;
+            snapshot = shown.snapshot();
+        }
+        executor.execute(() -> {
+            List<FeedCard> rest = precomputeFirstScreen(snapshot);
+            synchronized (store) {
+                // 排队期间刷新 / 缓存回退已经把占位换掉了：这份快照过时了，不再交给 UI
+                if (placeholder != shown) return;
+                // 排队期间删掉的卡片已经从占位里删了（REMOVE 带着的也是它的快照）
+                deltas.offer(FeedDelta.reset(shown.snapshot()));
+            }
+            dispatchPageLoaded(rest);
+        });
+        return snapshot;
+    }
+
+    // -------------------- 进程被杀之后恢复 --------------------
+
+    /**
+     * 页面进入后台时调用（onSaveInstanceState）：
+     * - 返回当前的分页状态（游标 + 张数 + 最后一张），交给 UI 放进 Bundle；
+     * - 同时把还在防抖的缓存写入提前到现在，让本地缓存尽快和这个状态对上（不等待写完）。
+     */
+    public FeedPagingState savePagingState() {
+        FeedPagingState state;
+        synchronized (store) {
+            state = FeedPagingState.of(store.snapshot(), nextCursor, hasMore);
+        }
+        persistence.writePendingNow();
+        return state;
+    }
+
+    /**
+     * 进程被杀、页面重建之后，不走网络，直接从本地缓存恢复列表和分页状态：
+     *
+     * 1. 在线程池中流式读取本地缓存，每块直接进 store：第一块放一个 RESET（UI 马上可以滚到原来的位置），
+     *    后面每块放一个 APPEND；读的过程中 hasMore = false，不会用不对的游标去加载更多；
+     * 2. 读完后用 saved.matches(...) 核对缓存和保存时的列表是否一致：
+     *    - 一致：恢复 nextCursor / hasMore，放 COMPLETE(RESTORE, hasMore)，之后加载更多从原来的游标继续；
+     *    - 缓存为空：放 ERROR(RESTORE, e, false)；
+     *    - 对不上（进程死在缓存的防抖窗口里）：放 ERROR(RESTORE, e, true)，列表先留着，由上层决定重新刷新。
+     *
+     * 和刷新一样算新的一轮（generation + 1）；SeenIdFilter 记下恢复出来的所有 id，
+     * 只记录不过滤：缓存里的卡片本来就不重复，过滤反而会因为误判丢掉几张。
+     */
+    public void restore(FeedPagingState saved) {
+        executor.execute(() -> {
+            seenIds.clear();
+            // 第一块整体替换 store，之后的追加
+            final boolean[] first = {true};
+            int count = local.loadCache(chunk -> {
+                for (FeedCard card : chunk) {
+                    seenIds.put(card.getStableId());
+                }
+                List<FeedCard> rest = precomputeFirstScreen(chunk);
+                synchronized (store) {
+                    int from = first[0] ? 0 : store.size();
+                    if (first[0]) {
+                        // 进入新的一轮；核对完之前没有可用的游标
+                        store.replaceAll(chunk);
+                        deletedIds.clear();
+                        placeholder = null;
+                        hasMore = false;
+                        nextCursor = null;
+                        generation++;
+                    } else {
+                        store.appendAll(chunk);
+                    }
+                    FeedCardStore.Snapshot snapshot = store.snapshot();
+                    if (first[0]) {
+                        deltas.offer(FeedDelta.reset(snapshot));
+                    } else if (snapshot.size() > from) {
+                        deltas.offer(FeedDelta.append(snapshot, from));
+                    }
+                }
+                dispatchPageLoaded(rest);
+                first[0] = false;
+            });
+            if (count == 0) {
+                deltas.offer(FeedDelta.error(FeedDelta.Request.RESTORE,
+                        new IOException("no local cache to restore from"), false));
+                return;
+            }
+            boolean matches;
+            synchronized (store) {
+                matches = saved.matches(store.snapshot());
+                if (matches) {
+                    hasMore = saved.isHasMore();
+                    nextCursor = saved.getNextCursor();
+                }
+            }
+            if (matches) {
+                deltas.offer(FeedDelta.complete(FeedDelta.Request.RESTORE, saved.isHasMore()));
+            } else {
+                deltas.offer(FeedDelta.error(FeedDelta.Request.RESTORE,
+                        new IOException("local cache does not match " + saved), true));
             }
         });
     }
@@ -201,93 +535,230 @@ public class FeedRepository {
     /**
      * 加载更多数据：
      * - 对应 UI 上的“滑到底部触发 loadMore”；
-     * - 使用当前的 nextPage 作为要请求的页码。
+     * - 使用当前的 nextCursor 作为要请求的游标。
      *
      * 流程：
-     * 1. 如果当前 loading == true 或 hasMore == false，则直接 return；
-     * 2. 把 loading 置为 true；
-     * 3. 记录下 pageToLoad = nextPage（避免多线程情况被改动）；
+     * 1. 如果 hasMore == false，则直接放一个 COMPLETE(LOAD_MORE, false) 并 return（不发请求；UI 的 loading 状态要能结束）；
+     * 2. 记录下 cursorToLoad = nextCursor 和当前是第几轮（避免多线程情况被改动）；
+     * 3. 同一轮、同一个游标已经在加载：直接 return，等那次请求的结果（滑到底部时连续触发只发一次请求）；
      * 4. 在线程池中执行：
-     *    4.1 调用 remote.loadPage(pageToLoad, 20)；
-     *    4.2 synchronized 块中把结果 append 到 currentList；
-     *    4.3 更新 hasMore / nextPage；
-     *    4.4 同步保存缓存；
-     *    4.5 调用 onSuccess(...) 把“追加后的完整列表快照”抛给上层；
+     *    4.0 排队期间刷新成功、已经换了一轮：不再请求，列表不变，直接放 COMPLETE；
+     *    4.1 调用 remote.loadFeedPage(cursorToLoad, pageSize)，pageSize 由 PageSizePolicy 按视口 / 延迟 / 滑动速度决定；
+     *    4.2 SeenIdFilter 剔除见过的卡片（布隆命中再查 store 和这一轮删掉的 id 精确核对），synchronized 块中 append 到 store；
+     *    4.3 更新 hasMore / nextCursor；
+     *    4.4 把快照交给 FeedPersistenceWriter 保存缓存；
+     *    4.5 往变化流放一个 APPEND（这一页全被去重掉时不放），再放一个 COMPLETE(LOAD_MORE, hasMore)；
      * 5. 出错时：
-     *    - 不修改 currentList（保持原样）；
-     *    - onError(e, Collections.emptyList()) 告诉上层“列表不变，只是报错”；
-     * 6. finally 里恢复 loading。
-     */
-    public void loadMore(Callback callback) {
-        // loading 中或已经没有更多了：都不应该继续发起请求
-        if (loading || !hasMore) return;
-        loading = true;
-        // 把当前的 nextPage 保存下来，避免在后台线程中被其他操作修改
-        final int pageToLoad = nextPage;
+     *    - 不修改 store（保持原样）；
+     *    - 放 ERROR(LOAD_MORE, e, false) 告诉上层“列表不变，只是报错”。
+     */
+    public void loadMore() {
+        // 把当前的 nextCursor 和轮次保存下来，避免在后台线程中被其他操作修改
+        final String cursorToLoad;
+        final FetchKey key;
+        synchronized (store) {
+            // 已经没有更多了：不应该继续发起请求
+            if (!hasMore) {
+                cursorToLoad = null;
+                key = null;
+            } else {
+                cursorToLoad = nextCursor;
+                key = new FetchKey(generation, false, cursorToLoad);
+            }
+        }
+        if (key == null) {
+            // ViewModel 看到 canLoadMore() == true 之后、到这里之前，最后一页刚好到达：
+            // 也要放一个 COMPLETE，否则底部 Footer 会一直转圈
+            deltas.offer(FeedDelta.complete(FeedDelta.Request.LOAD_MORE, false));
+            return;
+        }
+        // 同一页已经在路上：等它的结果，不再重复请求
+        if (!inFlight.join(key, FeedDelta.Request.LOAD_MORE)) return;
         executor.execute(() -> {
             try {
+                // 排队期间刷新成功了：这一页是接在旧列表后面的，不再请求。
+                // generation 只在这个线程上修改，这里直接读就是最新值。
+                if (key.generation != generation) {
+                    inFlight.complete(key);
+                    deltas.offer(FeedDelta.complete(FeedDelta.Request.LOAD_MORE, hasMore));
+                    return;
+                }
                 // 从“服务端”拉取下一页数据
-                FeedPageResult result = remote.loadFeedPage(pageToLoad, 20);
-                synchronized (currentList) {
-                    // 在现有列表后面追加新数据
-                    currentList.addAll(result.getCards());
+                FeedPageResult result = loadPage(cursorToLoad, pageSizePolicy.nextPageSize());
+                // 重复卡片在进列表之前就剔除，不用等 diff 去发现
+                List<FeedCard> cards = seenIds.admit(result.getCards(), this::seenThisRound);
+                // 滑到底部时马上露出来的是这一页的前一屏：先排好版再追加
+                List<FeedCard> rest = precomputeFirstScreen(cards);
+                FeedCardStore.Snapshot snapshot;
+                int from;
+                synchronized (store) {
+                    // 在现有列表后面追加新数据；APPEND 带的是 store 的快照，界面从这里开始显示 store
+                    from = store.size();
+                    store.appendAll(withoutPendingDeletes(cards));
+                    if (store.size() > from) placeholder = null;
                     hasMore = result.isHasMore();
-                    nextPage = result.getNextPage();
-                    // 同步保存到本地缓存：下次进 app 时可以直接展示一份较新的列表
-                    local.saveCache(currentList);
+                    nextCursor = result.getNextCursor();
+                    snapshot = store.snapshot();
+                    // 把「追加后的完整列表快照」和新增的区间作为 APPEND 交给上层（这一页全被去重掉时不放）
+                    if (snapshot.size() > from) {
+                        deltas.offer(FeedDelta.append(snapshot, from));
+                    }
                 }
-                // 把「追加后的完整列表快照」返回给上层
-                callback.onSuccess(getCurrentSnapshot(), hasMore, nextPage);
+                // 保存到本地缓存：下次进 app 时可以直接展示一份较新的列表
+                persistSnapshot(snapshot);
+                dispatchPageLoaded(rest);
+                inFlight.complete(key);
+                deltas.offer(FeedDelta.complete(FeedDelta.Request.LOAD_MORE, result.isHasMore()));
             } catch (Exception e) {
-                // 加载更多失败时：不改 currentList，只把错误回调出去。
-                // cache 这里传空列表，表示“列表没有变，UI 只需停止 loading、提示一下即可”。
-                callback.onError(e, Collections.emptyList());
-            } finally {
-                loading = false;
+                // 加载更多失败时：不改 store，只把错误放进变化流。
+                // showingCache 传 false，表示“列表没有变，UI 只需停止 loading、提示一下即可”。
+                inFlight.complete(key);
+                deltas.offer(FeedDelta.error(FeedDelta.Request.LOAD_MORE, e, false));
             }
         });
     }
 
+    // -------------------- 合并请求 --------------------
+
+    /**
+     * 合并请求用的 key：第几轮刷新 + 刷新还是加载更多 + 游标。
+     * 三者都相同的请求，结果一定相同，只需要发一次。
+     */
+    private static final class FetchKey {
+        final long generation;
+        final boolean refresh;
+        final String cursor;
+
+        FetchKey(long generation, boolean refresh, String cursor) {
+            this.generation = generation;
+            this.refresh = refresh;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FetchKey)) return false;
+            FetchKey other = (FetchKey) o;
+            return generation == other.generation
+                    && refresh == other.refresh
+                    && Objects.equals(cursor, other.cursor);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(generation, refresh, cursor);
+        }
+    }
+
     // -------------------- 删除卡片（长按删除） --------------------
 
     /**
      * 删除某一条卡片（通过 id）：
      * - 对应 UI 中“长按弹出删除确认框，点击确定后执行删除”；
-     * - Repository 负责从内存列表中删除，并同步更新本地缓存。
+     * - 在主线程调用，返回时内存列表已经删好，REMOVE 也已经放进变化流（ViewModel 紧接着在主线程 drain）；
+     * - 内存里只是 O(1) 打一个墓碑，和列表长度无关，5 万张卡片也远小于一帧；
+     * - 整理墓碑（O(n) 复制）丢到 Repository 的后台线程，重写本地缓存交给 writer 线程，都不阻塞主线程；
+     * - 界面上显示的是占位列表（首屏快照 / 缓存兜底）时，从占位列表里删，并记下 id，
+     *   等真正的列表到达时剔除；这时不写本地缓存（store 里还没有可以保存的列表）。
      *
      * @param id 被删除卡片的 id（FeedCard.getId()）
      */
     public void deleteCard(String id) {
-        synchronized (currentList) {
-            // 使用迭代器安全地删除列表中的某一项
-            Iterator<FeedCard> iterator = currentList.iterator();
-            while (iterator.hasNext()) {
-                FeedCard card = iterator.next();
-                if (card.getId().equals(id)) {
-                    iterator.remove();
-                    break;
-                }
+        // 通过 id 索引直接定位到行，不再逐个遍历比较，也不挪动后面的行
+        FeedCardStore.Snapshot snapshot;
+        boolean fromPlaceholder;
+        synchronized (store) {
+            fromPlaceholder = placeholder != null;
+            FeedCardStore target = fromPlaceholder ? placeholder : store;
+            int position = target.indexOf(id);
+            if (position < 0 || !target.remove(id)) return;
+            if (fromPlaceholder) {
+                pendingDeletes.add(id);
+            } else {
+                deletedIds.add(FeedCard.stableIdOf(id));
             }
-            // 删除后也更新一份缓存，保证下次打开 app 时能看到已经删除后的列表
-            local.saveCache(currentList);
+            snapshot = target.snapshot();
+            deltas.offer(FeedDelta.remove(snapshot, position, id));
         }
+        if (fromPlaceholder) return;
+        // 删除后也更新一份缓存，保证下次打开 app 时能看到已经删除后的列表。
+        // 连续删除多张时，防抖窗口内只会写最后一份快照。
+        persistSnapshot(snapshot);
+        // 墓碑攒够了在后台线程顺手整理，主线程不用付这个 O(n)
+        executor.execute(store::compactIfNeeded);
+    }
+
+    /**
+     * 保存本地快照，并把快照里的卡片封面钉在离线图片缓存中。
+     * 只是把不可变快照交给 FeedPersistenceWriter，立即返回，任何线程都可以调用。
+     */
+    private void persistSnapshot(FeedCardStore.Snapshot snapshot) {
+        persistence.save(snapshot);
     }
+
+    /** 这一轮是否真的见过这个 id：还在 store 里，或者被删掉了（SeenIdFilter 命中之后的精确核对） */
+    private boolean seenThisRound(long stableId) {
+        synchronized (store) {
+            return store.containsStableId(stableId) || deletedIds.contains(stableId);
+        }
+    }
+
+    /** 去掉占位期间删掉的卡片（调用方持有 store 锁） */
+    private List<FeedCard> withoutPendingDeletes(List<FeedCard> cards) {
+        if (pendingDeletes.isEmpty()) return cards;
+        List<FeedCard> kept = new ArrayList<>(cards.size());
+        for (FeedCard card : cards) {
+            if (!pendingDeletes.contains(card.getId())) kept.add(card);
+        }
+        return kept;
+    }
+
+    /** 快照里的卡片 id：Snapshot 直接读列，不还原 FeedCard 对象 */
+    private static List<String> idsOf(List<FeedCard> cards) {
+        if (cards instanceof FeedCardStore.Snapshot) {
+            return ((FeedCardStore.Snapshot) cards).ids();
+        }
+        List<String> ids = new ArrayList<>(cards.size());
+        for (FeedCard card : cards) {
+            ids.add(card.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * 请求一页，并把耗时交给 PageSizePolicy 和 FeedMetrics。
+     * 只统计成功的请求：失败（500 / 超时）的耗时说明不了正常情况下链路有多快，FeedMetrics 里只计次数。
+     */
+    private FeedPageResult loadPage(String cursor, int pageSize) throws IOException {
+        long start = System.nanoTime();
+        FeedPageResult result;
+        try {
+            result = remote.loadFeedPage(cursor, pageSize);
+        } catch (IOException | RuntimeException e) {
+            FeedMetrics.get().recordPageFailure();
+            throw e;
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        pageSizePolicy.onRequestFinished(elapsedMs);
+        FeedMetrics.get().recordPageLoad(elapsedMs);
+        return result;
+    }
+
     // -------------------- 工具方法：获取当前列表的快照 --------------------
 
     /**
      * 获取当前内存列表的“安全快照”：
      *
-     * - synchronized(currentList) 保证多线程读写安全；
-     * - 返回的是 new ArrayList<>(currentList)，而不是直接返回 currentList 本身，
-     *   这样调用方就算对返回的 List 做增删改，也不会影响内部真实状态。
+     * - 返回的是 FeedCardStore 的只读快照：O(1) 创建、不复制数据；
+     * - 之后 store 再追加 / 删除，都不会影响已经拿到的快照；
+     * - 调用方不能对返回的 List 做增删改（会抛 UnsupportedOperationException）。
      *
      * 典型使用场景：
      * - 刷新成功 / 加载更多成功后，
      *   Repository 会用这个方法把“当前最新列表”传给 ViewModel / UI。
      */
     public List<FeedCard> getCurrentSnapshot() {
-        synchronized (currentList) {
-            return new ArrayList<>(currentList);
-        }
+        return store.snapshot();
     }
 }
@@ -0,0 +1,64 @@
+package com.example.feedapp.data.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InFlightRequests：同一个请求在路上时，后来的调用方不再发新请求，而是排进等待列表，结果到了一起通知。
+ *
+ * 用法（Repository 里刷新 / 加载更多都是这个套路）：
+ * <pre>
+ *     if (!inFlight.join(key, waiter)) return;     // 已经有人在请求同一页，等它的结果
+ *     executor.execute(() -> {
+ *         result = remote.load(...);                // 只有第一个调用方真正发请求
+ *         for (W w : inFlight.complete(key)) ...     // 取走所有等待者，逐个通知
+ *     });
+ * </pre>
+ *
+ * 为什么不用 loading 标志位：
+ * - 以前 loading 是一个普通 boolean，主线程读、后台线程写，没有可见性保证；
+ * - 快滑到底时 onScrolled 一秒钟触发几十次 loadMore，后到的调用直接 return，它们的回调就丢了；
+ * - 加载更多进行中时刷新也被 loading 挡掉，下拉刷新「没反应」。
+ * 现在按 key（第几轮刷新 + 游标）区分：同一页合并成一次请求，不同的请求（比如刷新）照常发出。
+ *
+ * complete 之后这个 key 就从表里移除了：之后再来同一个 key 会重新发请求。
+ * 线程安全：join / complete 在任意线程调用。
+ */
+public final class InFlightRequests<K, W> {
+
+    private final Map<K, List<W>> waiters = new HashMap<>();
+
+    /**
+     * 登记一个等待者。
+     *
+     * @return true 表示这个 key 之前没有请求在路上，调用方负责真正发起请求并在结束时调用 complete；
+     *         false 表示已经有请求在路上，waiter 会在那次请求结束时一起被通知
+     */
+    public synchronized boolean join(K key, W waiter) {
+        List<W> list = waiters.get(key);
+        if (list != null) {
+            list.add(waiter);
+            return false;
+        }
+        list = new ArrayList<>(1);
+        list.add(waiter);
+        waiters.put(key, list);
+        return true;
+    }
+
+    /**
+     * 请求结束：取走这个 key 的全部等待者（按登记顺序）。之后再 join 同一个 key 会发起新的请求。
+     */
+    public synchronized List<W> complete(K key) {
+        List<W> list = waiters.remove(key);
+        return list == null ? Collections.emptyList() : list;
+    }
+
+    /** 正在路上的请求数（调试 / 测试用） */
+    public synchronized int size() {
+        return waiters.size();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.feedapp.data.repository;
+
+/**
+ * PageSizePolicy：每次请求要多少张卡片（以前 Repository 里写死 20）。
+ *
+ * 三个输入：
+ * - 一屏能放几张卡片（UI 按 GridLayoutManager 的可见范围上报，单列 / 双列混排时每屏张数差很多）；
+ * - 最近请求的耗时（EWMA 平滑）：链路越慢，一次多拿几屏，少跑几个来回；
+ * - 最近的滑动速度（张/秒，EWMA 平滑）：下一页到达之前用户还会滑过多少张，这一页至少要把它们补上。
+ *
+ * 规则：
+ * - 第一页：一屏半。首屏只要盖住第一屏，页越小响应体越小，首屏越快；
+ * - 加载更多：max(一屏张数 × (2 + 延迟秒数), 请求期间会滑过的张数 × 2)；
+ * - 最后都夹在 [MIN_PAGE_SIZE, MAX_PAGE_SIZE] 之间；什么都还没测到时和以前一样是 20。
+ *
+ * 线程：UI 线程上报视口 / 滑动，Repository 后台线程取页大小、上报耗时，所以方法都加锁（都是几次算术，开销可以忽略）。
+ * getMetrics() 暴露当前的页大小和各个输入，方便调试 / 上报时对比「吞吐 vs 首屏延迟」。
+ */
+public final class PageSizePolicy {
+
+    public static final int MIN_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 60;
+    /** 没有任何测量数据时的页大小（和以前写死的一样） */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /** 第一页覆盖几屏 */
+    static final double FIRST_PAGE_SCREENS = 1.5;
+    /** 加载更多至少覆盖几屏；链路每慢 1 秒再多一屏 */
+    static final double MIN_SCREENS_AHEAD = 2;
+    /** 请求期间会滑过的张数再乘一个余量，保证下一页到达时还没滑到底 */
+    static final double SCROLL_SAFETY_FACTOR = 2;
+    /** EWMA 的平滑系数：新样本占的权重 */
+    static final double EWMA_ALPHA = 0.3;
+    /** 两次滑动采样至少间隔多久，太短的间隔算出来的速度噪声很大 */
+    static final long MIN_SPEED_SAMPLE_MS = 100;
+    /** 超过这么久没有滑动，当作停下来过，速度样本按 0 算 */
+    static final long IDLE_RESET_MS = 1000;
+
+    private int itemsPerScreen;
+    private double latencyMs = -1;
+    private double scrollItemsPerSecond;
+    private int lastFirstVisible = -1;
+    private long lastScrollAtMs;
+    private int lastPageSize = DEFAULT_PAGE_SIZE;
+
+    // -------------------- 输入 --------------------
+
+    /**
+     * 上报当前视口：第一个可见位置和可见张数（由 GridLayoutManager 的可见范围算出，已经反映了 span 排版）。
+     * 连续上报之间第一个可见位置的变化用来估算滑动速度。
+     *
+     * @param nowMs 单调时钟（SystemClock.uptimeMillis()）
+     */
+    public synchronized void onViewport(int firstVisible, int visibleCount, long nowMs) {
+        if (visibleCount > 0) itemsPerScreen = visibleCount;
+        if (firstVisible < 0) return;
+        if (lastFirstVisible < 0) {
+            lastFirstVisible = firstVisible;
+            lastScrollAtMs = nowMs;
+            return;
+        }
+        long elapsed = nowMs - lastScrollAtMs;
+        if (elapsed < MIN_SPEED_SAMPLE_MS) return;
+        double sample = elapsed > IDLE_RESET_MS
+                ? 0
+                : Math.max(0, firstVisible - lastFirstVisible) * 1000d / elapsed;
+        scrollItemsPerSecond = ewma(scrollItemsPerSecond, sample);
+        lastFirstVisible = firstVisible;
+        lastScrollAtMs = nowMs;
+    }
+
+    /** 上报一次成功请求的耗时（发出请求到解析完） */
+    public synchronized void onRequestFinished(long elapsedMs) {
+        if (elapsedMs < 0) return;
+        latencyMs = latencyMs < 0 ? elapsedMs : ewma(latencyMs, elapsedMs);
+    }
+
+    // -------------------- 输出 --------------------
+
+    /** 刷新（第一页）要请求的张数 */
+    public synchronized int firstPageSize() {
+        int size = itemsPerScreen == 0
+                ? DEFAULT_PAGE_SIZE
+                : (int) Math.ceil(itemsPerScreen * FIRST_PAGE_SCREENS);
+        return remember(size);
+    }
+
+    /** 加载更多要请求的张数 */
+    public synchronized int nextPageSize() {
+        if (itemsPerScreen == 0 && latencyMs < 0) return remember(DEFAULT_PAGE_SIZE);
+        double perScreen = itemsPerScreen == 0
+                ? DEFAULT_PAGE_SIZE / MIN_SCREENS_AHEAD
+                : itemsPerScreen;
+        double latencySeconds = Math.max(0, latencyMs) / 1000d;
+        double byScreens = perScreen * (MIN_SCREENS_AHEAD + latencySeconds);
+        double byScroll = scrollItemsPerSecond * latencySeconds * SCROLL_SAFETY_FACTOR;
+        return remember((int) Math.ceil(Math.max(byScreens, byScroll)));
+    }
+
+    /** 一屏大约几张卡片（还没上报过视口时按 MIN_PAGE_SIZE 估算） */
+    public synchronized int itemsPerScreen() {
+        return itemsPerScreen == 0 ? MIN_PAGE_SIZE : itemsPerScreen;
+    }
+
+    // -------------------- 指标 --------------------
+
+    /**
+     * 当前页大小和各个输入的一份快照。
+     */
+    public synchronized Metrics getMetrics() {
+        return new Metrics(lastPageSize, itemsPerScreen, Math.max(0, latencyMs), scrollItemsPerSecond);
+    }
+
+    public static final class Metrics {
+        /** 最近一次请求用的页大小 */
+        public final int pageSize;
+        /** 一屏张数，0 表示还没测到 */
+        public final int itemsPerScreen;
+        /** 请求耗时的 EWMA，0 表示还没有样本 */
+        public final double latencyMs;
+        /** 滑动速度的 EWMA（张/秒） */
+        public final double scrollItemsPerSecond;
+
+        Metrics(int pageSize, int itemsPerScreen, double latencyMs, double scrollItemsPerSecond) {
+            this.pageSize = pageSize;
+            this.itemsPerScreen = itemsPerScreen;
+            this.latencyMs = latencyMs;
+            this.scrollItemsPerSecond = scrollItemsPerSecond;
+        }
+    }
+
+    // -------------------- 内部实现 --------------------
+
+    private int remember(int size) {
+        lastPageSize = Math.max(MIN_PAGE_SIZE, Math.min(MAX_PAGE_SIZE, size));
+        return lastPageSize;
+    }
+
+    private static double ewma(double current, double sample) {
+        return current + EWMA_ALPHA * (sample - current);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.feedapp.data.repository;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * SeenIdFilter：「这一轮刷新以来下发过的卡片 id」的布隆过滤器。
+ *
+ * 用途：加载更多拿到的新一页，在进入列表之前先剔除已经见过的卡片
+ * （服务端重新推荐的内容、被用户删掉后又被推回来的内容），不用等到 diff 再去比较。
+ *
+ * 为什么不用 HashSet<String>：
+ * - 需要记住的是「见过的全部 id」（包括已经被删掉的），一轮刷新下来可能有几万个；
+ * - 布隆过滤器每个 id 只占 ~14 bit（默认 10 万个 id、误判率 0.1% 时约 180KB），也不产生任何对象；
+ * - 「没见过」的判断是准确的，绝大多数新卡片查一次位数组就放行；
+ * - 「可能见过」有误判，所以每个命中都交给调用方做一次精确核对（Repository 查 store 的 IdIndex
+ *   和这一轮删掉的 id，O(1)），核对成立才剔除：真正重复的卡片一定被拦下，没见过的卡片也不会被误丢。
+ *   以前只核对服务端 dedupHints 里列出的 id，服务端漏标的重复卡片会直接放进列表，现在不再依赖提示。
+ *
+ * 直接用 FeedCard.getStableId()（UUID 高低 64 位异或）作为 key，两个哈希函数由它双重散列出 k 个位置。
+ *
+ * 非线程安全：只在 Repository 的后台线程里使用。
+ */
+public final class SeenIdFilter {
+
+    /** 默认按 10 万个 id 设计容量 */
+    public static final int DEFAULT_EXPECTED_IDS = 100_000;
+    /** 默认误判率 0.1% */
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+    private int insertedCount;
+    private int rejectedCount;
+
+    public SeenIdFilter() {
+        this(DEFAULT_EXPECTED_IDS, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    public SeenIdFilter(int expectedIds, double falsePositiveRate) {
+        if (expectedIds <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedIds=" + expectedIds + ", fpp=" + falsePositiveRate);
+        }
+        // m = -n * ln(p) / (ln 2)^2，k = m / n * ln 2
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-expectedIds * Math.log(falsePositiveRate) / (ln2 * ln2));
+        m = Math.max(64, (m + 63) / 64 * 64);
+        bits = new long[(int) (m / 64)];
+        bitCount = m;
+        hashCount = Math.max(1, (int) Math.round((double) m / expectedIds * ln2));
+    }
+
+    /**
+     * 过滤新到达的一页：记录这一页所有卡片的 id，并剔除已经见过的卡片。
+     * 布隆过滤器命中的卡片再精确核对一次：seenBefore 说见过、或者这一页前面已经有同一个 id，才剔除。
+     *
+     * @param seenBefore 精确判断「这一页之前是否见过」（只对布隆命中的卡片调用）
+     * @return 放行的卡片（保持原来的顺序）
+     */
+    public List<FeedCard> admit(List<FeedCard> page, LongPredicate seenBefore) {
+        List<FeedCard> accepted = new ArrayList<>(page.size());
+        for (FeedCard card : page) {
+            if (card == null) continue;
+            long id = card.getStableId();
+            if (put(id) && (seenBefore.test(id) || containsId(accepted, id))) {
+                rejectedCount++;
+                continue;
+            }
+            accepted.add(card);
+        }
+        return accepted;
+    }
+
+    /** 记录一个 id；返回 true 表示它之前「可能见过」 */
+    public boolean put(long stableId) {
+        long h1 = mix(stableId);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        boolean seen = true;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((bits[word] & mask) == 0) {
+                seen = false;
+                bits[word] |= mask;
+            }
+        }
+        if (!seen) insertedCount++;
+        return seen;
+    }
+
+    /** 这个 id 之前是否「可能见过」（false 一定准确） */
+    public boolean mightContain(long stableId) {
+        long h1 = mix(stableId);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /** 新一轮刷新：忘掉所有见过的 id */
+    public void clear() {
+        Arrays.fill(bits, 0L);
+        insertedCount = 0;
+    }
+
+    /** 累计被剔除的重复卡片数（调试 / 指标用，clear 不清零） */
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /** 记录过的（不同）id 个数，近似值 */
+    public int size() {
+        return insertedCount;
+    }
+
+    /** 这一页里已经放行的卡片有没有这个 id（只在布隆命中时线性扫一遍，一页几十张） */
+    private static boolean containsId(List<FeedCard> cards, long id) {
+        for (FeedCard card : cards) {
+            if (card.getStableId() == id) return true;
+        }
+        return false;
+    }
+
+    /** SplitMix64 的混合函数 */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
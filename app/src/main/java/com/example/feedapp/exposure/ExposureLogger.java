@@ -1,6 +1,7 @@
 package com.example.feedapp.exposure;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -29,8 +30,14 @@ public class ExposureLogger {
     public interface Listener {
         void onNewEvent(ExposureEvent event, String formatted);
     }
-    /** 内存中的日志文本列表（只保留最近若干条） */
-    private static final List<String> LOGS = new ArrayList<>();
+    /** 内存里最多保留多少条日志（调试面板只看最近的，老的直接丢掉） */
+    static final int MAX_LOGS = 500;
+    /**
+     * 内存中的日志文本（只保留最近 MAX_LOGS 条，最新的在队头）。
+     * 以前是 ArrayList + add(0, msg)：每记一条都要把整个列表往后挪一格，而且没有上限，
+     * 滑得越久 log 越慢、占的内存越多；ArrayDeque 两头增删都是 O(1)。
+     */
+    private static final ArrayDeque<String> LOGS = new ArrayDeque<>();
     /** 注册的监听器列表（例如你的曝光测试浮动窗） */
     private static final List<Listener> LISTENERS = new ArrayList<>();
     /** 时间格式化工具，用于在日志前面打印时间 */
@@ -78,7 +85,10 @@ public class ExposureLogger {
         );
         // 2. 存到内存日志列表里（加个简单的上限，避免无限增长）
         synchronized (LOGS) {
-            LOGS.add(0, msg); // 最新在最上面
+            LOGS.addFirst(msg); // 最新在最上面
+            if (LOGS.size() > MAX_LOGS) {
+                LOGS.removeLast();
+            }
         }
         // 3. 通知所有监听器
         synchronized (LISTENERS) {
@@ -90,7 +100,7 @@ public class ExposureLogger {
 
     /**
      * 获取当前已经记录的日志文本列表的一个拷贝。
-     * - 返回的是 new ArrayList<>(LOGS)，避免调用方修改内部列表。
+     * - 返回的是 new ArrayList<>(LOGS)（最新的在前），避免调用方修改内部列表。
      */
     public static List<String> getAllLogs() {
         synchronized (LOGS) {
@@ -3,7 +3,6 @@ package com.example.feedapp.exposure;
 import android.graphics.Rect;
 import android.view.View;
 
-import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.feedapp.data.model.FeedCard;
@@ -108,12 +107,9 @@ public class ExposureTracker extends RecyclerView.OnScrollListener
      * 4. 对于上一次可见但这一次不在可见集合内的 cardId，发 EXIT 事件。
      */
     private void dispatchExposure() {
-        RecyclerView.LayoutManager lm = recyclerView.getLayoutManager();
-        // 这里加一个类型判断，方便以后换布局管理器时扩展：
-        if (!(lm instanceof GridLayoutManager)) {
-            // 当前项目中我们用的是 GridLayoutManager（支持单列/双列混排）
-            // 其他 LayoutManager 如 LinearLayoutManager 也可以用同样思路来实现。
-            // 暂时直接 return，避免出错。
+        // 下面只用到 child 在屏幕上的矩形，和 LayoutManager 的类型无关：
+        // 网格（GridLayoutManager）和瀑布流（StaggeredGridLayoutManager）都适用，还没设置时跳过
+        if (recyclerView.getLayoutManager() == null) {
             return;
         }
         // RecyclerView 在屏幕中的可见区域 Rect
@@ -220,6 +216,9 @@ public class ExposureTracker extends RecyclerView.OnScrollListener
                         //
                         // 这里选择 2），方便你在日志中根据 position 快速定位卡片。
                         exitPosition = info.lastPosition;
+                        // 期间如果有卡片被删除，位置会前移：优先用 id 索引查到的当前位置
+                        int current = adapter.indexOfCard(id);
+                        if (current >= 0) exitPosition = current;
                         exitTitle = info.title;
                         exitCardType = info.cardType;
                     }
@@ -0,0 +1,132 @@
+package com.example.feedapp.image;
+
+import com.example.feedapp.data.model.FeedCard;
+
+/**
+ * CardHeightPredictor：在 bind 之前，只根据卡片数据（类型 + 封面宽高比）算出封面区域的展示尺寸。
+ *
+ * 两种排版：
+ * - 网格（GridLayoutManager）：封面高度固定，图片卡 feed_image_cover_height、视频卡 feed_video_height，和以前一样；
+ * - 瀑布流（StaggeredGridLayoutManager）：封面高度 = 展示宽度 × 宽高比，长图、方图、横图高低错落，
+ *   短的文字卡片下面不再留出一整块空白。
+ *
+ * 宽高比从哪里来：
+ * - 封面地址按 picsum / 常见 CDN 的约定以「/宽/高」结尾（例如 .../seed/12/400/600），直接从地址里解析，
+ *   不用等图片下载下来再量；
+ * - 地址里没有尺寸（本地文件、其他来源）时退回网格模式的固定高度。
+ *
+ * 为什么要提前算：
+ * - 瀑布流里每一列的高度由已经摆放的卡片决定，封面下载完再改高度会让 StaggeredGridLayoutManager
+ *   重新测量、重新分配列，列表会跳动；
+ * - bind 时就把封面 View 的高度设成这里的结果，之后图片到达只是填充内容，item 尺寸不再变化；
+ * - FeedImageLoader 用同一个尺寸解码，解码尺寸 = 展示尺寸，预加载进内存缓存的图 bind 时也能直接命中。
+ *
+ * 纯 Java，像素值由调用方（FeedImageLoader）从 dimens 里算好传进来，方便在 JVM 上测试。
+ */
+public final class CardHeightPredictor {
+
+    /** 瀑布流里双列卡片封面的高宽比范围：太细长的图裁成 3:2 竖图，太扁的裁成 2:1 横图 */
+    static final float MIN_ASPECT = 0.5f;
+    static final float MAX_ASPECT = 1.5f;
+    /** 瀑布流里占满一行的单列卡片：最高 4:3，避免一张竖图占掉大半屏 */
+    static final float MAX_FULL_SPAN_ASPECT = 0.75f;
+
+    private final boolean staggered;
+    private final int singleWidthPx;
+    private final int columnWidthPx;
+    private final int imageHeightPx;
+    private final int videoHeightPx;
+
+    /**
+     * @param staggered     是否是瀑布流排版
+     * @param singleWidthPx 单列（占满一行）卡片的封面宽度
+     * @param columnWidthPx 双列卡片的封面宽度
+     * @param imageHeightPx 网格模式下图片卡的封面高度
+     * @param videoHeightPx 网格模式下视频卡的封面高度
+     */
+    public CardHeightPredictor(boolean staggered, int singleWidthPx, int columnWidthPx,
+                               int imageHeightPx, int videoHeightPx) {
+        this.staggered = staggered;
+        this.singleWidthPx = Math.max(1, singleWidthPx);
+        this.columnWidthPx = Math.max(1, columnWidthPx);
+        this.imageHeightPx = imageHeightPx;
+        this.videoHeightPx = videoHeightPx;
+    }
+
+    public boolean isStaggered() {
+        return staggered;
+    }
+
+    /** 封面展示宽度：单列卡片占满一行，双列卡片占一列（两种排版一样） */
+    public int coverWidth(FeedCard card) {
+        return card.getLayoutType() == FeedCard.LAYOUT_SINGLE ? singleWidthPx : columnWidthPx;
+    }
+
+    /** 封面展示高度：网格模式按类型取固定值；瀑布流按宽高比算（解析不出宽高比时同网格） */
+    public int coverHeight(FeedCard card) {
+        int fixed = card.getCardType() == FeedCard.TYPE_VIDEO ? videoHeightPx : imageHeightPx;
+        if (!staggered) return fixed;
+        float aspect = aspectOf(card.getImageUrl());
+        if (aspect <= 0) return fixed;
+        boolean fullSpan = card.getLayoutType() == FeedCard.LAYOUT_SINGLE;
+        float max = fullSpan ? MAX_FULL_SPAN_ASPECT : MAX_ASPECT;
+        aspect = Math.max(MIN_ASPECT, Math.min(max, aspect));
+        return Math.round(coverWidth(card) * aspect);
+    }
+
+    /** 可能出现的最大封面尺寸（按字节估算预加载预算用） */
+    public int maxCoverWidth() {
+        return singleWidthPx;
+    }
+
+    public int maxCoverHeight() {
+        int fixed = Math.max(imageHeightPx, videoHeightPx);
+        if (!staggered) return fixed;
+        return Math.max(fixed, Math.max(
+                Math.round(columnWidthPx * MAX_ASPECT),
+                Math.round(singleWidthPx * MAX_FULL_SPAN_ASPECT)));
+    }
+
+    // -------------------- 解析封面地址里的宽高 --------------------
+
+    /**
+     * 从「.../宽/高」结尾的地址里解析高宽比（高 / 宽），忽略 ? 后面的查询参数。
+     * 逐字符扫描，不创建子串（每次 bind 都会调用）。
+     *
+     * @return 高 / 宽；地址里没有合法的宽高时返回 -1
+     */
+    static float aspectOf(String url) {
+        if (url == null) return -1;
+        int end = url.indexOf('?');
+        if (end < 0) end = url.length();
+
+        // 最后一段：高
+        int heightStart = end;
+        while (heightStart > 0 && isDigit(url.charAt(heightStart - 1))) heightStart--;
+        if (heightStart == end || heightStart == 0 || url.charAt(heightStart - 1) != '/') return -1;
+        // 倒数第二段：宽
+        int widthEnd = heightStart - 1;
+        int widthStart = widthEnd;
+        while (widthStart > 0 && isDigit(url.charAt(widthStart - 1))) widthStart--;
+        if (widthStart == widthEnd || widthStart == 0 || url.charAt(widthStart - 1) != '/') return -1;
+
+        long width = parse(url, widthStart, widthEnd);
+        long height = parse(url, heightStart, end);
+        if (width <= 0 || height <= 0) return -1;
+        return (float) height / width;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** 解析 [start, end) 的十进制数；位数太多（不像图片尺寸）时返回 -1 */
+    private static long parse(String s, int start, int end) {
+        if (end - start > 6) return -1;
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+        return value;
+    }
+}
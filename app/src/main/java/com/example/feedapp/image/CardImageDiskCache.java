@@ -0,0 +1,377 @@
+package com.example.feedapp.image;
+
+import android.content.Context;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CardImageDiskCache：按「卡片 id」存储封面原图的磁盘缓存，用于离线展示。
+ *
+ * 背景：
+ * - FeedRepository 刷新失败时会回退到 feed_cache.json 里的卡片，
+ *   但这些卡片的 imageUrl 仍然指向网络，离线时封面就是一片空白；
+ * - Glide 自己的磁盘缓存按 url + 参数做 key，既不知道哪些图属于「本地快照」，
+ *   也可能在空间紧张时把它们淘汰掉。
+ *
+ * 这里的策略：
+ * - 卡片被 bind 时，由 FeedImageLoader 把封面原图写进来（key = cardId）；
+ * - 总大小超过 maxBytes 时按 LRU 淘汰；
+ * - FeedRepository 每次保存本地快照时调用 pinOnly(ids)，快照里的卡片被「钉住」，永不淘汰
+ *   （如果钉住的图片本身就超过上限，允许暂时超出，等快照变化后再回收）；
+ * - 命中时 FeedImageLoader 直接加载本地 File，完全不走网络；
+ * - getMetrics() 暴露命中率和磁盘占用，方便调试 / 上报。
+ *
+ * 线程模型：
+ * - get / peek / contains 在主线程（bind / 预加载）调用：只查内存索引，不拿锁、不碰磁盘；
+ * - 所有磁盘操作（启动时重建索引、写入、淘汰删文件、写 pins.txt、核对文件是否还在）
+ *   都在自己的单线程 io 上串行执行，所以删文件不会和同一个 key 的写入互相踩；
+ * - 锁只保护内存里的计数（totalBytes / pinned），持锁期间不做任何 IO。
+ */
+public class CardImageDiskCache {
+
+    /** 默认磁盘上限：50MB，大约能放下几百张 400x300 的 jpg */
+    public static final long DEFAULT_MAX_BYTES = 50L * 1024 * 1024;
+
+    private static final String DIR_NAME = "card_images";
+    /** 记录「被钉住的 cardId」的文件，进程重启后仍然有效 */
+    private static final String PINS_FILE = "pins.txt";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static volatile CardImageDiskCache instance;
+
+    /**
+     * App 内共用一个实例：Repository 负责 pin，ImageLoader 负责读写。
+     * 索引在 io 线程上异步重建，这里不会扫描目录。
+     */
+    public static CardImageDiskCache get(Context context) {
+        if (instance == null) {
+            synchronized (CardImageDiskCache.class) {
+                if (instance == null) {
+                    File dir = new File(context.getApplicationContext().getFilesDir(), DIR_NAME);
+                    instance = new CardImageDiskCache(dir, DEFAULT_MAX_BYTES);
+                }
+            }
+        }
+        return instance;
+    }
+
+    private final File dir;
+    private final long maxBytes;
+    /** 所有磁盘操作都在这里串行执行 */
+    private final Executor io;
+
+    /** key（已经做过文件名转义）-> 条目；读不加锁，只在 io 线程上增删 */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /** 被钉住的 key，只在 io 线程上读写 */
+    private final Set<String> pinned = new HashSet<>();
+    /** 访问时钟：每次命中 / 写入取一个新值，淘汰时按它从小到大（最久未使用的先走） */
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private long totalBytes = 0;
+    private int pinnedCount = 0;
+
+    public CardImageDiskCache(File dir, long maxBytes) {
+        this(dir, maxBytes, Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "card-image-io");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    /**
+     * @param io 执行磁盘操作的线程，必须是串行的（测试里可以直接传 Runnable::run）
+     */
+    public CardImageDiskCache(File dir, long maxBytes, Executor io) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.io = io;
+        io.execute(() -> {
+            if (!dir.exists()) {
+                //noinspection ResultOfMethodCallIgnored
+                dir.mkdirs();
+            }
+            restoreIndex();
+        });
+    }
+
+    // -------------------- 读 --------------------
+
+    /**
+     * 查找某张卡片的封面文件（bind 时调用，计入命中率）。
+     * 只查内存索引；这个条目第一次命中时，到 io 线程上核对一下文件是否还在，
+     * 被系统 / 用户清掉的话把索引删掉，下一次 bind 就回到网络加载。
+     * 索引还没在后台重建完时一律按未命中处理。
+     *
+     * @return 命中时返回本地文件，否则返回 null
+     */
+    public File get(String cardId) {
+        if (cardId == null) return null;
+        String key = keyOf(cardId);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        entry.lastAccess = clock.incrementAndGet();
+        if (!entry.checked) {
+            entry.checked = true;
+            io.execute(() -> checkExists(key, entry));
+        }
+        hitCount.incrementAndGet();
+        return new File(dir, key);
+    }
+
+    /**
+     * 和 get 一样查内存索引，但不计入命中率、也不更新 LRU 顺序：给预加载用，
+     * 预加载只是「猜」用户会滑到那里，不应该影响统计和淘汰顺序。
+     */
+    public File peek(String cardId) {
+        if (cardId == null) return null;
+        String key = keyOf(cardId);
+        return entries.containsKey(key) ? new File(dir, key) : null;
+    }
+
+    public boolean contains(String cardId) {
+        return cardId != null && entries.containsKey(keyOf(cardId));
+    }
+
+    // -------------------- 写 --------------------
+
+    /**
+     * 把 source 复制一份存到 cardId 名下。
+     * 复制、登记、淘汰都在 io 线程上进行（先写临时文件再 rename），调用方不会被阻塞。
+     */
+    public void put(String cardId, File source) {
+        if (cardId == null || source == null) return;
+        String key = keyOf(cardId);
+        io.execute(() -> write(key, source));
+    }
+
+    // -------------------- 钉住本地快照里的卡片 --------------------
+
+    /**
+     * 用 cardIds 替换当前的「钉住集合」：
+     * - 通常由 FeedRepository 在保存本地快照时调用，参数就是快照中所有卡片的 id；
+     * - 之前钉住但这次不在集合里的卡片重新变成普通 LRU 条目；
+     * - 淘汰和写 pins.txt 都在 io 线程上执行。
+     */
+    public void pinOnly(Collection<String> cardIds) {
+        Set<String> keys = new HashSet<>();
+        for (String id : cardIds) {
+            if (id != null) keys.add(keyOf(id));
+        }
+        io.execute(() -> {
+            List<String> evicted;
+            synchronized (this) {
+                pinned.clear();
+                pinned.addAll(keys);
+                pinnedCount = pinned.size();
+                evicted = trimToSize();
+            }
+            deleteAll(evicted);
+            writePins(keys);
+        });
+    }
+
+    // -------------------- 指标 --------------------
+
+    /**
+     * 命中率和磁盘占用的一份快照。
+     */
+    public synchronized Metrics getMetrics() {
+        return new Metrics(hitCount.get(), missCount.get(), totalBytes, entries.size(), pinnedCount);
+    }
+
+    public static final class Metrics {
+        public final long hitCount;
+        public final long missCount;
+        public final long bytesOnDisk;
+        public final int entryCount;
+        public final int pinnedCount;
+
+        Metrics(long hitCount, long missCount, long bytesOnDisk, int entryCount, int pinnedCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.bytesOnDisk = bytesOnDisk;
+            this.entryCount = entryCount;
+            this.pinnedCount = pinnedCount;
+        }
+
+        /** 命中率（0 ~ 1），还没有任何查询时返回 0 */
+        public double getHitRatio() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0d : (double) hitCount / total;
+        }
+    }
+
+    // -------------------- 内部实现（io 线程） --------------------
+
+    private static final class Entry {
+        final long size;
+        /** 最近一次命中 / 写入的时钟值 */
+        volatile long lastAccess;
+        /** 本进程内是否已经核对过文件还在 */
+        volatile boolean checked;
+
+        Entry(long size, long lastAccess) {
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private void write(String key, File source) {
+        if (entries.containsKey(key) || !source.exists()) return;
+        File temp = new File(dir, key + TEMP_SUFFIX);
+        File target = new File(dir, key);
+        try {
+            copy(source, temp);
+        } catch (IOException e) {
+            e.printStackTrace();
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(target)) {
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            return;
+        }
+        List<String> evicted;
+        synchronized (this) {
+            entries.put(key, new Entry(target.length(), clock.incrementAndGet()));
+            totalBytes += target.length();
+            evicted = trimToSize();
+        }
+        deleteAll(evicted);
+    }
+
+    private void checkExists(String key, Entry entry) {
+        if (new File(dir, key).exists()) return;
+        synchronized (this) {
+            if (entries.remove(key, entry)) {
+                totalBytes -= entry.size;
+            }
+        }
+    }
+
+    /**
+     * 按 LRU 顺序（lastAccess 从小到大）把未被钉住的条目移出索引，直到总大小回到上限以内。
+     * 调用方需要持有 this 锁；返回被移出的 key，由调用方在锁外删文件。
+     */
+    private List<String> trimToSize() {
+        List<String> evicted = new ArrayList<>();
+        if (totalBytes <= maxBytes) return evicted;
+        List<Map.Entry<String, Entry>> candidates = new ArrayList<>();
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            if (!pinned.contains(e.getKey())) candidates.add(e);
+        }
+        candidates.sort((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess));
+        for (Map.Entry<String, Entry> e : candidates) {
+            if (totalBytes <= maxBytes) break;
+            entries.remove(e.getKey());
+            totalBytes -= e.getValue().size;
+            evicted.add(e.getKey());
+        }
+        return evicted;
+    }
+
+    private void deleteAll(List<String> keys) {
+        for (String key : keys) {
+            //noinspection ResultOfMethodCallIgnored
+            new File(dir, key).delete();
+        }
+    }
+
+    /**
+     * 启动时在 io 线程上扫描目录重建索引：按 lastModified（写入时间）从旧到新分配访问时钟。
+     * get 时不去改文件时间（bind 在主线程，不碰磁盘），所以重启后是近似的 LRU 顺序。
+     */
+    private void restoreIndex() {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        List<File> list = new ArrayList<>(Arrays.asList(files));
+        list.sort((a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        Set<String> pins = readPins();
+        synchronized (this) {
+            for (File f : list) {
+                String name = f.getName();
+                if (name.equals(PINS_FILE) || name.contains(TEMP_SUFFIX)) continue;
+                entries.put(name, new Entry(f.length(), clock.incrementAndGet()));
+                totalBytes += f.length();
+            }
+            pinned.addAll(pins);
+            pinnedCount = pinned.size();
+        }
+        for (File f : list) {
+            if (f.getName().contains(TEMP_SUFFIX)) {
+                // 上次进程在复制过程中被杀，残留的临时文件直接删掉
+                //noinspection ResultOfMethodCallIgnored
+                f.delete();
+            }
+        }
+    }
+
+    private Set<String> readPins() {
+        Set<String> keys = new HashSet<>();
+        File file = new File(dir, PINS_FILE);
+        if (!file.exists()) return keys;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) keys.add(line);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return keys;
+    }
+
+    private void writePins(Set<String> keys) {
+        File file = new File(dir, PINS_FILE);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            for (String key : keys) {
+                writer.write(key);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** 把 cardId 转成安全的文件名（UUID 本身就是安全的，这里只是兜底） */
+    private static String keyOf(String cardId) {
+        return cardId.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    private static void copy(File from, File to) throws IOException {
+        try (InputStream in = new FileInputStream(from);
+             OutputStream out = new FileOutputStream(to)) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.feedapp.image;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.widget.ImageView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.request.RequestOptions;
+import com.example.feedapp.R;
+import com.example.feedapp.data.model.FeedCard;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * FeedImageLoader：专门为信息流卡片封面定制的图片加载器。
+ *
+ * 之前 ViewHolder 里直接写 Glide.with(...).load(url).centerCrop().into(...)，问题有三个：
+ * 1. 解码尺寸由 ImageView 测量结果决定，首次 bind 时 View 还没测量，Glide 要等一次 layout；
+ * 2. 默认 ARGB_8888，双列小图也按每像素 4 字节解码；
+ * 3. 没有任何预加载，滑到哪里才开始下载哪里。
+ *
+ * 这里的做法：
+ * - 根据「屏幕宽度 + 单列/双列」直接算出每张封面的目标尺寸，load 和 preload 用同一个尺寸，
+ *   这样预加载进内存缓存的 Bitmap 在 bind 时能直接命中（Glide 的缓存 key 包含尺寸）；
+ * - 解码格式使用 RGB_565（封面都不透明）；
+ * - preloadAfter(...)：滚动时为「最后一个可见位置之后的 N 张」提前解码（区间和水位线见 PreloadWindow）；
+ * - 预加载数量受内存预算约束（见 FeedGlideModule），不会为了预加载把正在显示的图挤出缓存。
+ *
+ * 图片来源就是 FeedCard.getImageUrl()，http(s) / file:// / 本地路径都可以，
+ * 所以在测试里可以直接用本地 HTTP 服务或者文件 URL 替代 picsum。
+ *
+ * 离线兜底：
+ * - 卡片被 bind 时，后台把封面原图存进 CardImageDiskCache（key = cardId）；
+ * - 之后再加载这张卡片时，如果磁盘缓存命中，直接加载本地 File，完全不走网络。
+ */
+public class FeedImageLoader {
+
+    /** 默认向后预加载的卡片数：大约是双列布局下一屏的数量 */
+    public static final int DEFAULT_PRELOAD_AHEAD = 6;
+
+    private final RequestManager glide;
+    /** 按卡片 id 存储的离线封面缓存 */
+    private final CardImageDiskCache diskCache;
+    /** 后台写磁盘缓存的线程：单线程即可，写入频率就是 bind 的频率 */
+    private final ExecutorService cacheWriter = Executors.newSingleThreadExecutor();
+    /** 正在写入磁盘缓存的 cardId，避免同一张图被重复下载 / 复制 */
+    private final Set<String> pendingWrites = new HashSet<>();
+    /** 所有封面共用的解码参数 */
+    private final RequestOptions coverOptions = new RequestOptions()
+            .format(DecodeFormat.PREFER_RGB_565)
+            .centerCrop();
+
+    /**
+     * 每张卡片的封面展示尺寸（单列 / 双列宽度；网格模式固定高度，瀑布流按宽高比），
+     * FeedAdapter bind 时用同一个结果设置封面 View 的高度
+     */
+    private final CardHeightPredictor heightPredictor;
+    /** 预加载区间和水位线：避免每一帧滚动都重复发起预加载，换列表时重新开始 */
+    private final PreloadWindow preloadWindow;
+
+    public FeedImageLoader(Context context, int spanCount) {
+        this(context, spanCount, DEFAULT_PRELOAD_AHEAD);
+    }
+
+    public FeedImageLoader(Context context, int spanCount, int preloadAhead) {
+        this(context, spanCount, preloadAhead, false);
+    }
+
+    /**
+     * @param staggered 列表是不是瀑布流排版（封面高度按宽高比计算，见 CardHeightPredictor）
+     */
+    public FeedImageLoader(Context context, int spanCount, int preloadAhead, boolean staggered) {
+        this.glide = Glide.with(context.getApplicationContext());
+        this.diskCache = CardImageDiskCache.get(context);
+        this.preloadWindow = new PreloadWindow(preloadAhead);
+
+        Resources res = context.getResources();
+        int screenWidth = res.getDisplayMetrics().widthPixels;
+        int listPadding = res.getDimensionPixelSize(R.dimen.feed_list_padding);
+        int cardMargin = res.getDimensionPixelSize(R.dimen.feed_card_margin);
+
+        int contentWidth = screenWidth - listPadding * 2;
+        this.heightPredictor = new CardHeightPredictor(
+                staggered,
+                contentWidth - cardMargin * 2,
+                contentWidth / Math.max(1, spanCount) - cardMargin * 2,
+                res.getDimensionPixelSize(R.dimen.feed_image_cover_height),
+                res.getDimensionPixelSize(R.dimen.feed_video_height));
+    }
+
+    // -------------------- 加载 --------------------
+
+    /**
+     * 把卡片封面加载到 target 中，解码尺寸 = 卡片在列表中的实际展示尺寸。
+     * 如果这张封面还没进离线缓存，顺便在后台把原图存一份。
+     */
+    public void load(ImageView target, FeedCard card) {
+        Object model = resolveModel(card, false);
+        if (model == null) {
+            glide.clear(target);
+            return;
+        }
+        glide.load(model)
+                .apply(coverOptions)
+                .override(targetWidth(card), targetHeight(card))
+                .into(target);
+        if (!(model instanceof File)) {
+            cacheOriginal(card);
+        }
+    }
+
+    /**
+     * 滚动时调用：为 lastVisiblePosition 之后的若干张卡片提前解码封面。
+     *
+     * @param cards               当前列表
+     * @param lastVisiblePosition 当前最后一个可见的 position
+     */
+    public void preloadAfter(List<FeedCard> cards, int lastVisiblePosition) {
+        if (!preloadWindow.advance(cards, lastVisiblePosition, maxPreloadCount())) return;
+        for (int i = preloadWindow.from(); i < preloadWindow.to(); i++) {
+            FeedCard card = cards.get(i);
+            Object model = resolveModel(card, true);
+            if (model == null) continue;
+            int w = targetWidth(card);
+            int h = targetHeight(card);
+            glide.load(model)
+                    .apply(coverOptions)
+                    .override(w, h)
+                    .preload(w, h);
+        }
+    }
+
+    // -------------------- 尺寸 & 预算 --------------------
+
+    public int targetWidth(FeedCard card) {
+        return heightPredictor.coverWidth(card);
+    }
+
+    /** 封面展示高度，FeedAdapter bind 时按它设置封面 View 的高度 */
+    public int targetHeight(FeedCard card) {
+        return heightPredictor.coverHeight(card);
+    }
+
+    /** 在内存预算下允许预加载的张数（见 PreloadWindow.budgetCount） */
+    int maxPreloadCount() {
+        return preloadWindow.budgetCount(FeedGlideModule.getMemoryBudgetBytes(),
+                heightPredictor.maxCoverWidth(), heightPredictor.maxCoverHeight());
+    }
+
+    public CardImageDiskCache.Metrics getDiskCacheMetrics() {
+        return diskCache.getMetrics();
+    }
+
+    /**
+     * 决定一张卡片的封面从哪里加载：
+     * - 离线缓存命中：本地 File（不走网络）；
+     * - 否则：imageUrl。
+     * 只查磁盘缓存的内存索引，主线程上不碰磁盘；预加载用 peek，不计入命中率。
+     */
+    private Object resolveModel(FeedCard card, boolean preload) {
+        if (card == null) return null;
+        String url = card.getImageUrl();
+        if (url == null || url.isEmpty()) return null;
+        File cached = preload ? diskCache.peek(card.getId()) : diskCache.get(card.getId());
+        return cached != null ? cached : url;
+    }
+
+    /**
+     * 后台把封面原图写进离线缓存：
+     * - downloadOnly 会优先复用 Glide 自己磁盘缓存里的原始数据，
+     *   刚刚 into(...) 过的图不会再下载第二遍；
+     * - 拿到文件后复制到 CardImageDiskCache，key 是 cardId。
+     */
+    private void cacheOriginal(FeedCard card) {
+        String id = card.getId();
+        String url = card.getImageUrl();
+        if (id == null) return;
+        synchronized (pendingWrites) {
+            if (!pendingWrites.add(id)) return;
+        }
+        cacheWriter.execute(() -> {
+            try {
+                if (diskCache.contains(id)) return;
+                File original = glide.downloadOnly().load(url).submit().get();
+                diskCache.put(id, original);
+            } catch (Exception e) {
+                // 离线缓存写失败不影响正常展示，下次 bind 会再试
+                e.printStackTrace();
+            } finally {
+                synchronized (pendingWrites) {
+                    pendingWrites.remove(id);
+                }
+            }
+        });
+    }
+}
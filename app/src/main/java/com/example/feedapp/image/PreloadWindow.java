@@ -0,0 +1,81 @@
+package com.example.feedapp.image;
+
+import java.util.List;
+
+/**
+ * PreloadWindow：FeedImageLoader 预加载的「窗口」计算，纯 Java，方便在 JVM 上测试。
+ *
+ * - budgetCount(...)：在内存预算下最多能预加载几张；
+ * - advance(...)：滚动时给出这一次需要预加载的区间 [from, to)，
+ *   已经预加载过的位置不会重复发起（水位线 preloadedUntil）。
+ *
+ * 水位线什么时候作废：
+ * - 以前按「列表变短」判断，下拉刷新后新列表和旧列表一样长（或更长）时，
+ *   水位线还停在旧列表的位置，新卡片的封面就一直不预加载；
+ * - 现在按列表对象本身判断：FeedListDiffer 每次让一份新列表生效（RESET / 刷新 / 追加一页 / 删除一张），
+ *   当前列表都会换成另一个对象（FeedCardStore 的一份新快照），
+ *   只要对象变了就从最后一个可见位置之后重新开始。追加一页时前面几张会再发一次预加载，
+ *   它们已经在 Glide 的内存缓存里，请求直接命中，不会重新下载或解码。
+ */
+public final class PreloadWindow {
+
+    /** 配置的预加载数量上限 */
+    private final int preloadAhead;
+
+    /** 上一次预加载时的列表对象 */
+    private List<?> lastList;
+    /** 已经预加载到的最大 position */
+    private int preloadedUntil = -1;
+    private int from;
+    private int to;
+
+    public PreloadWindow(int preloadAhead) {
+        this.preloadAhead = Math.max(0, preloadAhead);
+    }
+
+    /**
+     * 在内存预算下允许预加载的张数：
+     * - 按最坏情况（最宽 × 最高的封面，RGB_565 每像素 2 字节）估算一张的大小；
+     * - 预加载最多占用内存预算的 1/4，剩下的留给屏幕上正在显示的图片。
+     */
+    public int budgetCount(long memoryBudgetBytes, int maxCoverWidth, int maxCoverHeight) {
+        long bytesPerCover = (long) maxCoverWidth * maxCoverHeight * 2L;
+        long allowed = (memoryBudgetBytes / 4) / Math.max(1L, bytesPerCover);
+        return (int) Math.min(preloadAhead, allowed);
+    }
+
+    /**
+     * 计算这一次需要预加载的区间，结果通过 from() / to() 读取。
+     *
+     * @param cards               当前列表
+     * @param lastVisiblePosition 当前最后一个可见的 position
+     * @param count               最多向后预加载几张（通常是 budgetCount 的结果）
+     * @return 区间非空时返回 true
+     */
+    public boolean advance(List<?> cards, int lastVisiblePosition, int count) {
+        from = 0;
+        to = 0;
+        if (cards == null || lastVisiblePosition < 0) return false;
+        if (cards != lastList) {
+            // 换了一份列表（RESET / 刷新 / 追加），之前的预加载进度作废
+            lastList = cards;
+            preloadedUntil = -1;
+        }
+        from = Math.max(lastVisiblePosition + 1, preloadedUntil + 1);
+        to = Math.min(cards.size(), lastVisiblePosition + 1 + count);
+        if (to <= from) {
+            to = from;
+            return false;
+        }
+        preloadedUntil = to - 1;
+        return true;
+    }
+
+    public int from() {
+        return from;
+    }
+
+    public int to() {
+        return to;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.feedapp.perf;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FeedMetrics：信息流的运行时性能统计（整个进程一份）。
+ *
+ * 记录三类数据，全部用 LatencyHistogram（固定数组 + 原子计数，记录时不分配对象）：
+ * - 帧耗时：列表滑动期间每一帧的总耗时（ScrollFrameRecorder 通过 FrameMetrics 上报），
+ *   超过一帧预算（按屏幕刷新率算）的记为掉帧；
+ * - bind 耗时：FeedAdapter 每次 onBindViewHolder 的耗时，按卡片类型分开（text / image / video）；
+ * - 分页耗时：FeedRepository 每次请求一页的耗时，失败的请求单独计数；
+ * 另外单独计数 ViewHolderPrewarmer 在后台 inflate 失败、退回主线程创建的 ViewHolder 个数。
+ *
+ * 展示：MainActivity 的曝光调试面板打开时，每 500ms 取一次 summary() 显示在日志列表上面；
+ * 长按那段文字 reset()，方便对比「某一次滑动」的数据。
+ *
+ * 纯 Java，不依赖 Android；时间都由调用方量好传进来。
+ */
+public final class FeedMetrics {
+
+    public static final String FRAME = "frame";
+    public static final String PAGE_LOAD = "page";
+    /** bind 耗时的名字前缀：bind.text / bind.image / bind.video */
+    public static final String BIND_PREFIX = "bind.";
+
+    private static final FeedMetrics INSTANCE = new FeedMetrics();
+
+    /** 整个进程共用一份 */
+    public static FeedMetrics get() {
+        return INSTANCE;
+    }
+
+    private final LatencyHistogram frames = new LatencyHistogram(FRAME);
+    private final LatencyHistogram pageLoads = new LatencyHistogram(PAGE_LOAD);
+    /** 卡片类型 → bind 耗时（按第一次出现的顺序） */
+    private final Map<String, LatencyHistogram> binds = new LinkedHashMap<>();
+    private final AtomicLong jankyFrames = new AtomicLong();
+    private final AtomicLong pageFailures = new AtomicLong();
+    private final AtomicLong prewarmFallbacks = new AtomicLong();
+
+    /** 测试里单独创建，App 里用 get() */
+    FeedMetrics() {
+    }
+
+    // -------------------- 记录 --------------------
+
+    /**
+     * 记录一帧。
+     *
+     * @param durationNs 这一帧的总耗时（FrameMetrics.TOTAL_DURATION）
+     * @param budgetNs   一帧的预算（1 秒 / 刷新率），超过记为掉帧
+     */
+    public void recordFrame(long durationNs, long budgetNs) {
+        frames.recordNanos(durationNs);
+        if (durationNs > budgetNs) jankyFrames.incrementAndGet();
+    }
+
+    /**
+     * 某种卡片的 bind 耗时直方图（没有就创建）。
+     * 调用方应该在初始化时取一次存起来，bind 时直接 recordNanos，不要每次都查 Map。
+     */
+    public LatencyHistogram bind(String cardKind) {
+        synchronized (binds) {
+            LatencyHistogram histogram = binds.get(cardKind);
+            if (histogram == null) {
+                histogram = new LatencyHistogram(BIND_PREFIX + cardKind);
+                binds.put(cardKind, histogram);
+            }
+            return histogram;
+        }
+    }
+
+    /** 一次成功的分页请求耗时 */
+    public void recordPageLoad(long elapsedMs) {
+        pageLoads.recordMillis(elapsedMs);
+    }
+
+    /** 一次失败的分页请求（超时 / 500 / 解析失败），耗时不进直方图 */
+    public void recordPageFailure() {
+        pageFailures.incrementAndGet();
+    }
+
+    /** ViewHolderPrewarmer 在后台 inflate 失败，剩下的 count 个 ViewHolder 改到主线程空闲时创建 */
+    public void recordPrewarmFallbacks(int count) {
+        prewarmFallbacks.addAndGet(count);
+    }
+
+    /** 清空所有统计 */
+    public void reset() {
+        frames.reset();
+        pageLoads.reset();
+        synchronized (binds) {
+            for (LatencyHistogram histogram : binds.values()) {
+                histogram.reset();
+            }
+        }
+        jankyFrames.set(0);
+        pageFailures.set(0);
+        prewarmFallbacks.set(0);
+    }
+
+    // -------------------- 读取 --------------------
+
+    public LatencyHistogram.Metrics frames() {
+        return frames.snapshot();
+    }
+
+    public long jankyFrames() {
+        return jankyFrames.get();
+    }
+
+    public LatencyHistogram.Metrics pageLoads() {
+        return pageLoads.snapshot();
+    }
+
+    public long pageFailures() {
+        return pageFailures.get();
+    }
+
+    public long prewarmFallbacks() {
+        return prewarmFallbacks.get();
+    }
+
+    public List<LatencyHistogram.Metrics> binds() {
+        List<LatencyHistogram.Metrics> result = new ArrayList<>();
+        synchronized (binds) {
+            for (LatencyHistogram histogram : binds.values()) {
+                result.add(histogram.snapshot());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 多行汇总（调试面板 / logcat 用），例如：
+     * frame n=1200 p50=10.5ms p90=14.2ms p99=31.0ms max=47.1ms jank=36 (3.0%)
+     * bind.image n=310 p50=253µs p90=407µs p99=2.7ms max=2.7ms
+     * page n=6 p50=622.6ms p90=1730.0ms p99=1730.0ms max=1730.0ms fail=1
+     * prewarm fallback=0
+     * 耗时一律按 LatencyHistogram.Metrics.format 输出（1ms 以上都用 ms，分页耗时也不换算成秒）。
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        LatencyHistogram.Metrics frame = frames();
+        long janky = jankyFrames();
+        sb.append(frame).append(String.format(Locale.US, " jank=%d (%.1f%%)",
+                janky, frame.count == 0 ? 0d : janky * 100d / frame.count));
+        for (LatencyHistogram.Metrics bind : binds()) {
+            sb.append('\n').append(bind);
+        }
+        sb.append('\n').append(pageLoads()).append(" fail=").append(pageFailures());
+        sb.append("\nprewarm fallback=").append(prewarmFallbacks());
+        return sb.toString();
+    }
+}
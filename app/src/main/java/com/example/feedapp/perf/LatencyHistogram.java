@@ -0,0 +1,174 @@
+package com.example.feedapp.perf;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram：低开销的耗时直方图（HdrHistogram 的「对数 + 线性」分桶思路，单位微秒）。
+ *
+ * 为什么不直接存每个样本：
+ * - 每帧、每次 bind 都要记一次，滑一分钟就是几千上万个样本，存 List 再排序既占内存又要分配对象；
+ * - 这里固定一个 long 数组，record 只是一次下标计算 + 一次原子自增，不分配对象，可以放在主线程的热路径上。
+ *
+ * 分桶：
+ * - 0 ~ 127µs：每 1µs 一个桶（精确）；
+ * - 再往上每翻一倍分成 64 个等宽的桶，相对误差不超过 1/64（约 1.6%）：
+ *   [2^k, 2^(k+1)) 里每个桶宽 2^(k-6)µs，比如 16ms 附近（[8192, 16384)µs）每个桶宽 128µs，
+ *   2 秒附近（[2^20, 2^21)µs）每个桶宽 16384µs（约 16ms）；
+ * - 超过 MAX_VALUE_US（约 19 小时）的按 MAX_VALUE_US 记（不会出现在正常数据里）。
+ * 百分位取「所在桶的上界」（和 HdrHistogram 的 highestEquivalentValue 一样），不会把慢的样本报快了。
+ *
+ * 线程安全：record 可以在任意线程并发调用（计数用 AtomicLongArray）；snapshot 得到的是某个时刻的近似一致视图，
+ * 统计展示足够用。
+ */
+public final class LatencyHistogram {
+
+    /** 线性区间和每个对数区间的精度：2^7 = 128 */
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    /** 能区分的最大值：2^36µs ≈ 19 小时 */
+    static final long MAX_VALUE_US = (1L << 36) - 1;
+    private static final int BUCKET_COUNT = indexOf(MAX_VALUE_US) + 1;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalUs = new AtomicLong();
+    private final AtomicLong maxUs = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // -------------------- 记录 --------------------
+
+    /** 记录一个耗时（微秒），负数按 0 记 */
+    public void recordMicros(long us) {
+        long value = Math.max(0, Math.min(MAX_VALUE_US, us));
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalUs.addAndGet(value);
+        long max = maxUs.get();
+        while (value > max && !maxUs.compareAndSet(max, value)) {
+            max = maxUs.get();
+        }
+    }
+
+    /** 记录一个耗时（纳秒，System.nanoTime() 的差值） */
+    public void recordNanos(long ns) {
+        recordMicros(ns / 1000);
+    }
+
+    /** 记录一个耗时（毫秒，SystemClock.uptimeMillis() 的差值） */
+    public void recordMillis(long ms) {
+        recordMicros(ms * 1000);
+    }
+
+    /** 清空（调试面板上手动重置统计时用） */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalUs.set(0);
+        maxUs.set(0);
+    }
+
+    // -------------------- 分桶 --------------------
+
+    /**
+     * value 落在哪个桶：
+     * - value < 128：下标就是 value；
+     * - 否则保留最高的 7 位：exp = 最高位位置 - 6，sub = value >>> exp（落在 [64, 128)），
+     *   下标 = 128 + (exp - 1) * 64 + (sub - 64)。
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int exp = msb - (SUB_BUCKET_BITS - 1);
+        int sub = (int) (value >>> exp);
+        return SUB_BUCKET_COUNT + (exp - 1) * SUB_BUCKET_HALF + (sub - SUB_BUCKET_HALF);
+    }
+
+    /** 下标为 index 的桶里能放的最大值 */
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int offset = index - SUB_BUCKET_COUNT;
+        int exp = offset / SUB_BUCKET_HALF + 1;
+        long sub = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((sub + 1) << exp) - 1;
+    }
+
+    // -------------------- 读取 --------------------
+
+    /** 当前统计的快照（会复制一遍计数数组，不要在每帧里调用） */
+    public Metrics snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        long max = maxUs.get();
+        long sum = totalUs.get();
+        return new Metrics(name, count,
+                percentile(copy, count, max, 0.50),
+                percentile(copy, count, max, 0.90),
+                percentile(copy, count, max, 0.99),
+                max,
+                count == 0 ? 0 : (double) sum / count);
+    }
+
+    private static long percentile(long[] counts, long total, long max, double p) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestValueAt(i), max);
+        }
+        return max;
+    }
+
+    /**
+     * 直方图快照（单位微秒）。
+     */
+    public static final class Metrics {
+        public final String name;
+        public final long count;
+        public final long p50Us;
+        public final long p90Us;
+        public final long p99Us;
+        public final long maxUs;
+        public final double meanUs;
+
+        Metrics(String name, long count, long p50Us, long p90Us, long p99Us, long maxUs, double meanUs) {
+            this.name = name;
+            this.count = count;
+            this.p50Us = p50Us;
+            this.p90Us = p90Us;
+            this.p99Us = p99Us;
+            this.maxUs = maxUs;
+            this.meanUs = meanUs;
+        }
+
+        /** 例如：frame n=1200 p50=8.3ms p90=14.1ms p99=33.0ms max=48.2ms */
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s n=%d p50=%s p90=%s p99=%s max=%s",
+                    name, count, format(p50Us), format(p90Us), format(p99Us), format(maxUs));
+        }
+
+        /** 1ms 以下用 µs，1ms 以上用 ms */
+        static String format(long us) {
+            if (us < 1000) return us + "µs";
+            return String.format(Locale.US, "%.1fms", us / 1000d);
+        }
+    }
+}
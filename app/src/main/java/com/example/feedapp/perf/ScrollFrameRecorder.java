@@ -0,0 +1,92 @@
+package com.example.feedapp.perf;
+
+import android.app.Activity;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.Display;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * ScrollFrameRecorder：列表滑动期间的帧耗时采集，结果记到 FeedMetrics。
+ *
+ * - 用 Window.OnFrameMetricsAvailableListener（API 24+）拿每一帧真实的 TOTAL_DURATION，
+ *   回调在单独的 HandlerThread 上，不占主线程；
+ * - 只统计列表在动（拖动 / 惯性滑动）时的帧：静止时偶尔的一帧（比如倒计时刷新）不代表滑动体验；
+ * - 一帧的预算按屏幕刷新率算（60Hz 16.7ms，120Hz 8.3ms）。
+ *
+ * 用法（FeedFragment）：onViewCreated 里 start(activity, recyclerView)，onDestroyView 里 stop()。
+ */
+public final class ScrollFrameRecorder extends RecyclerView.OnScrollListener
+        implements Window.OnFrameMetricsAvailableListener {
+
+    private final FeedMetrics metrics;
+    private HandlerThread thread;
+    private Window window;
+    private RecyclerView recyclerView;
+    private long budgetNs = 16_666_667L;
+    /** 列表是否在动：主线程写，FrameMetrics 线程读 */
+    private volatile boolean scrolling;
+
+    public ScrollFrameRecorder(FeedMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void start(Activity activity, RecyclerView rv) {
+        if (thread != null) return;
+        window = activity.getWindow();
+        recyclerView = rv;
+        Display display = displayOf(activity);
+        float refreshRate = display == null ? 0f : display.getRefreshRate();
+        if (refreshRate > 1f) {
+            budgetNs = (long) (1_000_000_000L / refreshRate);
+        }
+        thread = new HandlerThread("feed-frame-metrics");
+        thread.start();
+        window.addOnFrameMetricsAvailableListener(this, new Handler(thread.getLooper()));
+        rv.addOnScrollListener(this);
+    }
+
+    public void stop() {
+        if (thread == null) return;
+        try {
+            window.removeOnFrameMetricsAvailableListener(this);
+        } catch (IllegalArgumentException e) {
+            // 窗口已经销毁时监听已经不在了
+            e.printStackTrace();
+        }
+        recyclerView.removeOnScrollListener(this);
+        thread.quitSafely();
+        thread = null;
+        window = null;
+        recyclerView = null;
+        scrolling = false;
+    }
+
+    /**
+     * Activity 所在的屏幕：R（API 30）起用 Activity.getDisplay()（分屏 / 外接屏时是窗口实际所在的那块），
+     * 之前的版本只有 WindowManager.getDefaultDisplay()。
+     */
+    @SuppressWarnings("deprecation")
+    private static Display displayOf(Activity activity) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            return activity.getDisplay();
+        }
+        return activity.getWindowManager().getDefaultDisplay();
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView rv, int newState) {
+        scrolling = newState != RecyclerView.SCROLL_STATE_IDLE;
+    }
+
+    @Override
+    public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+        if (!scrolling) return;
+        metrics.recordFrame(frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION), budgetNs);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.feedapp.perf;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * StartupTracer：冷启动打点，回答「从进程启动到列表第一次画出内容用了多久」。
+ *
+ * 阶段（都以进程启动为 0 点，单调时钟 SystemClock.uptimeMillis()）：
+ * - ACTIVITY_CREATE   ：MainActivity.onCreate；
+ * - FIRST_SCREEN_READ ：FeedViewModel 读完首屏快照（附带读到几张、读了多久）；
+ * - FIRST_DRAW        ：FeedFragment 的列表第一次 draw（可能还是空的）；
+ * - FIRST_CONTENT_DRAW：列表第一次带着卡片 draw，也就是用户真正看到内容的时刻（time-to-first-draw）。
+ *
+ * 规则：
+ * - 只记每个阶段的第一次（旋转屏幕、页面重建不会覆盖冷启动的数据）；
+ * - begin 之前的打点直接忽略：没有 0 点，算出来的时间没有意义；
+ * - 全部阶段到齐后 report() 给出一行汇总，由 FeedFragment 打到 logcat（tag：FeedStartup）。
+ *
+ * 纯 Java，不依赖 Android；时间都由调用方传进来，方便在 JVM 上测试。
+ * 线程安全：各个阶段可能在不同线程上打点。
+ */
+public final class StartupTracer {
+
+    public static final String ACTIVITY_CREATE = "activity_create";
+    public static final String FIRST_SCREEN_READ = "first_screen_read";
+    public static final String FIRST_DRAW = "first_draw";
+    public static final String FIRST_CONTENT_DRAW = "first_content_draw";
+
+    private static final StartupTracer INSTANCE = new StartupTracer();
+
+    /** 整个进程共用一份（冷启动只有一次） */
+    public static StartupTracer get() {
+        return INSTANCE;
+    }
+
+    /** 进程启动时间，-1 表示还没 begin */
+    private long startMs = -1;
+    /** 阶段 → 时间点（按打点顺序） */
+    private final Map<String, Long> marks = new LinkedHashMap<>();
+    /** 阶段 → 附加说明（比如首屏快照读到了几张） */
+    private final Map<String, String> notes = new LinkedHashMap<>();
+
+    /** 测试里单独创建，App 里用 get() */
+    StartupTracer() {
+    }
+
+    /**
+     * 设置 0 点（进程启动时间，Process.getStartUptimeMillis()）。只有第一次调用有效。
+     */
+    public synchronized void begin(long processStartMs) {
+        if (startMs < 0) startMs = processStartMs;
+    }
+
+    /**
+     * 记录一个阶段到达的时间点。
+     *
+     * @return true 表示这是该阶段的第一次打点（被记下了）
+     */
+    public synchronized boolean mark(String phase, long nowMs) {
+        if (startMs < 0 || marks.containsKey(phase)) return false;
+        marks.put(phase, nowMs);
+        return true;
+    }
+
+    /** 给某个阶段附加一段说明（出现在 report 里这个阶段的后面）；同样只记第一次 */
+    public synchronized void note(String phase, String detail) {
+        if (startMs < 0 || notes.containsKey(phase)) return;
+        notes.put(phase, detail);
+    }
+
+    /** 从进程启动到这个阶段用了多少毫秒；还没到时返回 -1 */
+    public synchronized long elapsedMs(String phase) {
+        Long at = marks.get(phase);
+        return at == null ? -1 : at - startMs;
+    }
+
+    /** 是否已经看到内容（FIRST_CONTENT_DRAW 已经打点） */
+    public synchronized boolean isComplete() {
+        return marks.containsKey(FIRST_CONTENT_DRAW);
+    }
+
+    /**
+     * 一行汇总，例如：
+     * startup: activity_create +182ms, first_screen_read +231ms (10 cards in 3ms), first_draw +298ms, first_content_draw +298ms
+     */
+    public synchronized String report() {
+        StringBuilder sb = new StringBuilder("startup:");
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : marks.entrySet()) {
+            sb.append(first ? " " : ", ");
+            first = false;
+            sb.append(entry.getKey())
+                    .append(String.format(Locale.US, " +%dms", entry.getValue() - startMs));
+            String note = notes.get(entry.getKey());
+            if (note != null) sb.append(" (").append(note).append(')');
+        }
+        if (first) sb.append(" (no marks)");
+        return sb.toString();
+    }
+}
@@ -2,26 +2,32 @@ package com.example.feedapp.ui.feed;
 
 import android.net.Uri;
 import android.view.LayoutInflater;
+import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
 
-import com.bumptech.glide.Glide;
 import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedCardStore;
 import com.example.feedapp.databinding.ItemFeedFooterLoadingBinding;
 import com.example.feedapp.databinding.ItemFeedImageBinding;
 import com.example.feedapp.databinding.ItemFeedTextBinding;
 import com.example.feedapp.databinding.ItemFeedVideoBinding;
 import com.example.feedapp.exposure.ExposureStage;
+import com.example.feedapp.image.FeedImageLoader;
+import com.example.feedapp.perf.FeedMetrics;
+import com.example.feedapp.perf.LatencyHistogram;
 
 import androidx.media3.exoplayer.ExoPlayer;
 
 import android.os.Handler;
 import android.os.Looper;
 
+import java.util.List;
+
 
 
 /**
@@ -38,7 +44,7 @@ import android.os.Looper;
  * - 对视频卡片：使用 ExoPlayer 播放本地 raw 视频，并在右下角显示倒计时；
  * - 为曝光打点预留了 onExposureEvent(...) 接口。
  */
-public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder> {
+public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
 
     // -------------------- ViewType 常量 --------------------
 
@@ -51,6 +57,9 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
     /** 底部 Footer（加载更多） ViewType */
     public static final int VIEW_TYPE_FOOTER = 100;
 
+    /** Footer 的稳定 id：固定值，不会和卡片 id 的 64 位 hash 冲突到 RecyclerView.NO_ID(-1) */
+    private static final long FOOTER_STABLE_ID = Long.MIN_VALUE;
+
     // -------------------- 长按删除回调接口 --------------------
 
     /**
@@ -85,11 +94,32 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
      */
     private RecyclerView attachedRv;
 
+    /** 封面图加载器：按卡片展示尺寸解码 + 预加载（由 Fragment 创建后传进来） */
+    private final FeedImageLoader imageLoader;
+    /** 文字卡预排版缓存：命中时 bind 不再在主线程测量文字 */
+    private final TextLayoutCache textLayoutCache;
+
+    /** 每种卡片的 bind 耗时（完整 bind 和局部刷新都算），汇总在 FeedMetrics 里 */
+    private final LatencyHistogram textBindTime = FeedMetrics.get().bind("text");
+    private final LatencyHistogram imageBindTime = FeedMetrics.get().bind("image");
+    private final LatencyHistogram videoBindTime = FeedMetrics.get().bind("video");
+
+    /**
+     * 列表持有者 + 差异计算：
+     * 追加 / 删除一张直接发范围通知，只有整份列表被替换时才在后台跑 DiffUtil。
+     */
+    private final FeedListDiffer differ;
+
     // -------------------- 构造函数 --------------------
-    public FeedAdapter() {
-        // ListAdapter 需要传入一个 DiffUtil.ItemCallback，
-        // 用于在 submitList 时高效计算“新旧列表差异”，只刷新有变化的条目。
-        super(DIFF_CALLBACK);
+    public FeedAdapter(FeedImageLoader imageLoader, TextLayoutCache textLayoutCache) {
+        // FeedListDiffer 需要一个 DiffUtil.ItemCallback，
+        // 用于在 submitList 时计算“新旧列表差异”，只刷新有变化的条目。
+        this.differ = new FeedListDiffer(this, DIFF_CALLBACK);
+        this.imageLoader = imageLoader;
+        this.textLayoutCache = textLayoutCache;
+        // 稳定 id：同一张卡片在任何时候 getItemId 都一样，
+        // RecyclerView 据此复用已绑定的 ViewHolder，能跳过的 rebind 全部跳过。
+        setHasStableIds(true);
     }
     // -------------------- 对外接口：设置长按监听 --------------------
     public void setOnItemLongClickListener(OnItemLongClickListener listener) {
@@ -100,22 +130,48 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
 
     /**
      * 控制是否展示 Footer（加载更多的 loading 卡片）。
-     * 这里使用 notifyDataSetChanged() 简化实现。
+     *
+     * Footer 永远在最后一个位置（= 真实数据条数），所以只需要精确地通知这一项的插入 / 移除：
+     * - 不会让屏幕上其他卡片重新 bind（视频卡不会因此解绑 Player）；
+     * - FeedListDiffer 对真实数据的增删通知位置都 < Footer 位置，两者互不干扰。
      */
     public void setShowFooter(boolean show) {
-        if (showFooter != show) {
-            showFooter = show;
-            // 更精细的做法可以使用 notifyItemInserted/Removed，
-            // 但这里为了清晰起见，直接全量刷新一次。
-            notifyDataSetChanged();
+        if (showFooter == show) return;
+        showFooter = show;
+        int footerPosition = getRealItemCount();
+        if (show) {
+            notifyItemInserted(footerPosition);
+        } else {
+            notifyItemRemoved(footerPosition);
         }
     }
 
+    // -------------------- 列表数据 --------------------
+
+    /**
+     * 提交新的卡片列表（主线程调用）：
+     * - 加载更多 / 删除一张：立即生效，只通知变化的范围；
+     * - 下拉刷新等整份替换：后台 DiffUtil 算完后生效。
+     * 提交后不要再修改这个 List。
+     */
+    public void submitList(List<FeedCard> list) {
+        differ.submitList(list);
+    }
+
+    /** 当前正在展示的卡片列表（不可修改，不包含 Footer） */
+    public List<FeedCard> getCurrentList() {
+        return differ.getCurrentList();
+    }
+
+    private FeedCard getItem(int position) {
+        return differ.getCurrentList().get(position);
+    }
+
     /**
      * 真正的数据条目数量（不包含 Footer）。
      */
     private int getRealItemCount() {
-        return super.getItemCount();
+        return differ.getCurrentList().size();
     }
 
     /**
@@ -138,6 +194,64 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
         return getItem(position);
     }
 
+    // -------------------- 按列读取（不还原 FeedCard） --------------------
+    // Repository 给的列表是 FeedCardStore.Snapshot 时，类型 / 排版 / id 直接读列，
+    // getItemViewType / getItemId / SpanSizeLookup 这些每帧都会调用的地方不创建对象。
+
+    /** position 处卡片的 layoutType；越界（Footer / 负数）时返回 -1 */
+    public int getLayoutTypeAt(int position) {
+        if (position < 0 || position >= getRealItemCount()) return -1;
+        List<FeedCard> list = differ.getCurrentList();
+        if (list instanceof FeedCardStore.Snapshot) {
+            return ((FeedCardStore.Snapshot) list).layoutTypeAt(position);
+        }
+        return list.get(position).getLayoutType();
+    }
+
+    /** 卡片 id 当前所在的 position，不存在返回 -1（快照上是 O(1) 的索引查找） */
+    public int indexOfCard(String id) {
+        List<FeedCard> list = differ.getCurrentList();
+        if (list instanceof FeedCardStore.Snapshot) {
+            return ((FeedCardStore.Snapshot) list).indexOf(id);
+        }
+        for (int i = 0; i < list.size(); i++) {
+            String cardId = list.get(i).getId();
+            if (cardId != null && cardId.equals(id)) return i;
+        }
+        return -1;
+    }
+
+    private int cardTypeAt(int position) {
+        List<FeedCard> list = differ.getCurrentList();
+        if (list instanceof FeedCardStore.Snapshot) {
+            return ((FeedCardStore.Snapshot) list).cardTypeAt(position);
+        }
+        return list.get(position).getCardType();
+    }
+
+    private long stableIdAt(int position) {
+        List<FeedCard> list = differ.getCurrentList();
+        if (list instanceof FeedCardStore.Snapshot) {
+            return ((FeedCardStore.Snapshot) list).stableIdAt(position);
+        }
+        return list.get(position).getStableId();
+    }
+
+    /**
+     * 稳定 id：
+     * - Footer 使用固定的 FOOTER_STABLE_ID；
+     * - 卡片使用 FeedCard.getStableId()（id 的 64 位摘要），同一张卡片永远得到同一个值。
+     */
+    @Override
+    public long getItemId(int position) {
+        if (showFooter && position == getItemCount() - 1) {
+            return FOOTER_STABLE_ID;
+        }
+        long id = stableIdAt(position);
+        // 避开两个保留值：NO_ID(-1) 和 Footer 的 id
+        return (id == RecyclerView.NO_ID || id == FOOTER_STABLE_ID) ? 0 : id;
+    }
+
     /**
      * 告诉 RecyclerView 每个 position 应该使用哪种 ViewHolder。
      * 逻辑：
@@ -151,10 +265,7 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
             return VIEW_TYPE_FOOTER;
         }
         // 对于真实数据 item，根据 cardType 决定 ViewType
-        FeedCard card = getItem(position);
-        if (card == null) return VIEW_TYPE_TEXT;
-
-        switch (card.getCardType()) {
+        switch (cardTypeAt(position)) {
             case FeedCard.TYPE_IMAGE:
                 return VIEW_TYPE_IMAGE;
             case FeedCard.TYPE_VIDEO:
@@ -174,22 +285,27 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
             int viewType
     ) {
         LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            // ViewHolderPrewarmer 在后台线程预创建文字 / 图片卡的 ViewHolder（parent 是不挂在界面上的 DetachedParent）：
+            // LayoutInflater 内部 inflate 时会加锁，clone 一个独立实例，避免和主线程互相等待。
+            inflater = inflater.cloneInContext(parent.getContext());
+        }
 
         if (viewType == VIEW_TYPE_TEXT) {
             // 纯文字卡片：使用 item_feed_text.xml
             ItemFeedTextBinding binding =
                     ItemFeedTextBinding.inflate(inflater, parent, false);
-            return new TextViewHolder(binding);
+            return new TextViewHolder(binding, textLayoutCache);
         } else if (viewType == VIEW_TYPE_IMAGE) {
             // 图片卡片：使用 item_feed_image.xml
             ItemFeedImageBinding binding =
                     ItemFeedImageBinding.inflate(inflater, parent, false);
-            return new ImageViewHolder(binding);
+            return new ImageViewHolder(binding, imageLoader);
         } else if (viewType == VIEW_TYPE_VIDEO) {
             // 视频卡片：使用 item_feed_video.xml（内部是 PlayerView + 封面 + 标题 + 倒计时）
             ItemFeedVideoBinding binding =
                     ItemFeedVideoBinding.inflate(inflater, parent, false);
-            return new VideoViewHolder(binding);
+            return new VideoViewHolder(binding, imageLoader);
         } else {
             // Footer：加载更多中的 loading 卡片
             ItemFeedFooterLoadingBinding binding =
@@ -205,11 +321,13 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
             @NonNull RecyclerView.ViewHolder holder,
             int position
     ) {
+        applyFullSpan(holder, position);
         // Footer 不需要绑定数据，直接返回即可
         if (getItemViewType(position) == VIEW_TYPE_FOOTER) {
             return;
         }
 
+        long start = System.nanoTime();
         FeedCard card = getItem(position);
         if (card == null) return;
         // 根据具体 ViewHolder 类型调用对应的 bind(...)
@@ -220,7 +338,79 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
         } else if (holder instanceof VideoViewHolder) {
             ((VideoViewHolder) holder).bind(card);
         }
-        // 为所有普通 item 设置长按监听，用于“删卡操作”
+        bindLongClick(holder, card);
+        recordBindTime(holder, System.nanoTime() - start);
+    }
+
+    /**
+     * 带 payload 的局部刷新：
+     * - payloads 为空：走上面的完整 bind；
+     * - 否则 payloads 里是 DiffUtil 通过 getChangePayload 给出的 FeedCardChange flags，
+     *   可能有多个（同一帧内多次更新被合并），按位或起来，由 FeedCardChange.dispatch 决定
+     *   ViewHolder 上哪些动作需要执行（FeedCardChangeTest 覆盖了这段判断）。
+     */
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder,
+                                 int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.isEmpty() || getItemViewType(position) == VIEW_TYPE_FOOTER) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        int flags = FeedCardChange.merge(payloads);
+        long start = System.nanoTime();
+        FeedCard card = getItem(position);
+        if (card == null) return;
+        applyFullSpan(holder, position);
+        if (holder instanceof FeedCardChange.Target) {
+            FeedCardChange.dispatch(card, flags, (FeedCardChange.Target) holder);
+        }
+        // 卡片对象换成了新版本，长按回调也要拿到新对象
+        bindLongClick(holder, card);
+        recordBindTime(holder, System.nanoTime() - start);
+    }
+
+    /** 按 ViewHolder 类型记 bind 耗时（Footer 不记） */
+    private void recordBindTime(RecyclerView.ViewHolder holder, long elapsedNs) {
+        if (holder instanceof TextViewHolder) {
+            textBindTime.recordNanos(elapsedNs);
+        } else if (holder instanceof ImageViewHolder) {
+            imageBindTime.recordNanos(elapsedNs);
+        } else if (holder instanceof VideoViewHolder) {
+            videoBindTime.recordNanos(elapsedNs);
+        }
+    }
+
+    /**
+     * 瀑布流（StaggeredGridLayoutManager）下的单列 / 双列：
+     * - Footer 和 layoutType = SINGLE 的卡片 setFullSpan(true)，占满一行（和网格模式的 spanSize = 2 对应）；
+     * - 双列卡片落在当前最短的那一列。
+     * 网格模式下 LayoutParams 不是 StaggeredGridLayoutManager.LayoutParams，什么都不做（由 FeedSpanSizeLookup 决定）。
+     */
+    private void applyFullSpan(RecyclerView.ViewHolder holder, int position) {
+        ViewGroup.LayoutParams lp = holder.itemView.getLayoutParams();
+        if (!(lp instanceof StaggeredGridLayoutManager.LayoutParams)) return;
+        boolean fullSpan = getItemViewType(position) == VIEW_TYPE_FOOTER
+                || getLayoutTypeAt(position) == FeedCard.LAYOUT_SINGLE;
+        StaggeredGridLayoutManager.LayoutParams slp = (StaggeredGridLayoutManager.LayoutParams) lp;
+        if (slp.isFullSpan() != fullSpan) {
+            slp.setFullSpan(fullSpan);
+        }
+    }
+
+    /**
+     * bind 时把封面 View 的高度设成 FeedImageLoader（CardHeightPredictor）预先算好的值：
+     * 图片到达之后 item 尺寸不再变化，瀑布流不会因为重新测量而跳动；高度没变时不触发 requestLayout。
+     */
+    static void applyCoverHeight(View cover, int heightPx) {
+        ViewGroup.LayoutParams lp = cover.getLayoutParams();
+        if (lp == null || lp.height == heightPx) return;
+        lp.height = heightPx;
+        cover.setLayoutParams(lp);
+    }
+
+    /** 为所有普通 item 设置长按监听，用于“删卡操作” */
+    private void bindLongClick(RecyclerView.ViewHolder holder, FeedCard card) {
         holder.itemView.setOnLongClickListener(v -> {
             if (longClickListener != null) {
                 longClickListener.onItemLongClick(card);
@@ -234,46 +424,83 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
     /**
      * 文字卡片 ViewHolder：
      * - 对应 item_feed_text.xml；
-     * - 只负责把 title / subTitle / content 绑定到 TextView 上。
+     * - 只负责把 title / subTitle / content 绑定到 TextView 上；
+     * - 文字优先使用 TextLayoutCache 里后台预排版好的结果。
      */
-    static class TextViewHolder extends RecyclerView.ViewHolder {
+    static class TextViewHolder extends RecyclerView.ViewHolder implements FeedCardChange.Target {
         private final ItemFeedTextBinding binding;
+        private final TextLayoutCache textLayoutCache;
 
-        public TextViewHolder(ItemFeedTextBinding binding) {
+        public TextViewHolder(ItemFeedTextBinding binding, TextLayoutCache textLayoutCache) {
             super(binding.getRoot());
             this.binding = binding;
+            this.textLayoutCache = textLayoutCache;
         }
 
         public void bind(FeedCard card) {
-            binding.tvTitle.setText(card.getTitle());
-            binding.tvSubTitle.setText(card.getSubTitle());
-            binding.tvContent.setText(card.getContent());
+            textLayoutCache.bindText(card, binding.tvTitle, binding.tvSubTitle, binding.tvContent);
+        }
+
+        /** 局部刷新：文字卡只有文字，任何文字相关的变化都重新设置三段文字 */
+        @Override
+        public void updateText(FeedCard card, int flags) {
+            bind(card);
+        }
+
+        @Override
+        public void reloadCover(FeedCard card) {
+            // 文字卡没有封面
+        }
+
+        @Override
+        public void rebindPlayer(FeedCard card) {
+            // 文字卡没有 Player
         }
     }
 
     /**
      * 图片卡片 ViewHolder：
      * - 对应 item_feed_image.xml；
-     * - 除了标题，还会用 Glide 异步加载一张封面图。
+     * - 除了标题，还会通过 FeedImageLoader 异步加载一张封面图。
      */
-    static class ImageViewHolder extends RecyclerView.ViewHolder {
+    static class ImageViewHolder extends RecyclerView.ViewHolder implements FeedCardChange.Target {
         private final ItemFeedImageBinding binding;
+        private final FeedImageLoader imageLoader;
 
-        public ImageViewHolder(ItemFeedImageBinding binding) {
+        public ImageViewHolder(ItemFeedImageBinding binding, FeedImageLoader imageLoader) {
             super(binding.getRoot());
             this.binding = binding;
+            this.imageLoader = imageLoader;
         }
 
         public void bind(FeedCard card) {
             binding.tvTitle.setText(card.getTitle());
-            // 使用 Glide 从网络加载图片：
-            // - 异步下载；
-            // - 自动做缓存；
+            applyCoverHeight(binding.ivCover, imageLoader.targetHeight(card));
+            // 通过 FeedImageLoader 加载封面：
+            // - 异步下载 + 缓存（底层仍是 Glide）；
+            // - 直接按卡片展示尺寸解码（RGB_565），不用等 ImageView 测量；
             // - centerCrop 表示按比例裁剪填满 ImageView。
-            Glide.with(binding.ivCover.getContext())
-                    .load(card.getImageUrl())
-                    .centerCrop()
-                    .into(binding.ivCover);
+            imageLoader.load(binding.ivCover, card);
+        }
+
+        /** 局部刷新：标题和封面分开更新（FeedCardChange.dispatch 决定调哪个），只改标题时不会重新加载图片 */
+        @Override
+        public void updateText(FeedCard card, int flags) {
+            if ((flags & FeedCardChange.TITLE) != 0) {
+                binding.tvTitle.setText(card.getTitle());
+            }
+        }
+
+        @Override
+        public void reloadCover(FeedCard card) {
+            // 新封面的宽高比可能不同，先按新地址调整高度再加载
+            applyCoverHeight(binding.ivCover, imageLoader.targetHeight(card));
+            imageLoader.load(binding.ivCover, card);
+        }
+
+        @Override
+        public void rebindPlayer(FeedCard card) {
+            // 图片卡没有 Player
         }
     }
 
@@ -289,8 +516,9 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
      * - startCountdown(...) 里会根据 ExoPlayer 的 currentPosition / duration 计算剩余秒数，
      *   显示到右下角的小标签中。
      */
-    public static class VideoViewHolder extends RecyclerView.ViewHolder {
+    public static class VideoViewHolder extends RecyclerView.ViewHolder implements FeedCardChange.Target {
         private final ItemFeedVideoBinding binding;
+        private final FeedImageLoader imageLoader;
         /** 当前这条卡片要播放的本地视频资源 ID（R.raw.xxx） */
         private int videoResId = 0;
         /** 用于定时刷新倒计时的 Handler（绑定主线程 Looper） */
@@ -298,9 +526,10 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
         /** 倒计时任务引用，方便后续取消 */
         private Runnable countdownTask;
 
-        public VideoViewHolder(ItemFeedVideoBinding binding) {
+        public VideoViewHolder(ItemFeedVideoBinding binding, FeedImageLoader imageLoader) {
             super(binding.getRoot());
             this.binding = binding;
+            this.imageLoader = imageLoader;
         }
 
         /**
@@ -314,11 +543,9 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
             // 保存本地视频资源 ID
             videoResId = card.getVideoResId();
 
-            // 加载封面
-            Glide.with(binding.ivVideoCover.getContext())
-                    .load(card.getImageUrl())
-                    .centerCrop()
-                    .into(binding.ivVideoCover);
+            // 加载封面（按视频卡尺寸解码）；PlayerView 和封面都填满 videoFrame，一起跟着它的高度走
+            applyCoverHeight(binding.videoFrame, imageLoader.targetHeight(card));
+            imageLoader.load(binding.ivVideoCover, card);
 
             // 初始：显示封面，隐藏倒计时
             binding.ivVideoCover.setVisibility(android.view.View.VISIBLE);
@@ -330,6 +557,31 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
             cancelCountdown();
         }
 
+        /**
+         * 局部刷新（FeedCardChange.dispatch 按变化调用下面三个方法）：
+         * - 只改标题：只 setText，不动封面、不动 PlayerView（正在播放的视频不会被打断）；
+         * - 封面变了：只重新加载封面；
+         * - 视频资源变了：记录新的 resId，并解绑 Player（旧视频不能继续挂在这张卡上）。
+         */
+        @Override
+        public void updateText(FeedCard card, int flags) {
+            if ((flags & FeedCardChange.TITLE) != 0) {
+                binding.tvVideoTitle.setText(card.getTitle());
+            }
+        }
+
+        @Override
+        public void reloadCover(FeedCard card) {
+            applyCoverHeight(binding.videoFrame, imageLoader.targetHeight(card));
+            imageLoader.load(binding.ivVideoCover, card);
+        }
+
+        @Override
+        public void rebindPlayer(FeedCard card) {
+            videoResId = card.getVideoResId();
+            detachPlayer();
+        }
+
         /** 提供给 Fragment，用来拿到当前 item 的本地视频资源 ID */
         public int getVideoResId() {
             return videoResId;
@@ -431,7 +683,9 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
     /**
      * DiffUtil 的核心逻辑：
      * - areItemsTheSame：判断是不是“同一条数据”（用 id 比较）；
-     * - areContentsTheSame：判断内容是否完全一致，如果不一致则刷新 UI。
+     * - areContentsTheSame：判断内容是否完全一致，如果不一致则刷新 UI；
+     * - getChangePayload：内容不一致时，给出「哪些字段变了」（FeedCardChange flags），
+     *   onBindViewHolder(holder, position, payloads) 据此只做局部刷新。
      *
      * 注意：
      * - 这里假设 FeedCard.id 全局唯一（RemoteDataSource 用 UUID 生成）；
@@ -442,28 +696,30 @@ public class FeedAdapter extends ListAdapter<FeedCard, RecyclerView.ViewHolder>
                 @Override
                 public boolean areItemsTheSame(@NonNull FeedCard oldItem,
                                                @NonNull FeedCard newItem) {
-                    if (oldItem.getId() == null || newItem.getId() == null) return false;
-                    return oldItem.getId().equals(newItem.getId());
+                    return FeedDiffPlanner.isSameItem(oldItem, newItem);
                 }
 
                 @Override
                 public boolean areContentsTheSame(@NonNull FeedCard oldItem,
                                                   @NonNull FeedCard newItem) {
-                    return safeEquals(oldItem.getTitle(), newItem.getTitle())
-                            && safeEquals(oldItem.getSubTitle(), newItem.getSubTitle())
-                            && safeEquals(oldItem.getContent(), newItem.getContent())
-                            && oldItem.getCardType() == newItem.getCardType()
-                            && oldItem.getLayoutType() == newItem.getLayoutType()
-                            && safeEquals(oldItem.getImageUrl(), newItem.getImageUrl())
-                            && oldItem.getVideoResId() == newItem.getVideoResId();
+                    // 比较预先算好的内容 hash，不再逐字段比较长字符串
+                    return FeedDiffPlanner.isSameContent(oldItem, newItem);
                 }
 
-                private boolean safeEquals(String a, String b) {
-                    if (a == null) return b == null;
-                    return a.equals(b);
+                @Override
+                public Object getChangePayload(@NonNull FeedCard oldItem,
+                                               @NonNull FeedCard newItem) {
+                    // 卡片类型变了 ViewType 也会变，只能整张重新 bind，不给 payload
+                    if (oldItem.getCardType() != newItem.getCardType()) return null;
+                    return FeedCardChange.diff(oldItem, newItem);
                 }
             };
 
+    /** 包级可见：基准测试里拿同一套比较规则去跑完整 diff */
+    static DiffUtil.ItemCallback<FeedCard> diffCallback() {
+        return DIFF_CALLBACK;
+    }
+
     // -------------------- 生命周期回调：记录 RecyclerView 引用 --------------------
 
     @Override
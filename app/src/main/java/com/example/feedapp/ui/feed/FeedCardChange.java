@@ -0,0 +1,108 @@
+package com.example.feedapp.ui.feed;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import java.util.List;
+
+/**
+ * FeedCardChange：描述「同一张卡片（id 相同）新旧两个版本之间哪些字段变了」。
+ *
+ * DiffUtil 判断出某个 item 内容有变化时，会调用 getChangePayload(old, new)，
+ * 我们把这里算出的 flags 作为 payload 交给 onBindViewHolder(holder, position, payloads)，
+ * ViewHolder 只更新真正变化的部分：
+ * - 只改了标题：视频卡不重新加载封面、不把 Player 从 PlayerView 上摘下来；
+ * - 只改了图片：文字不动；
+ * - ……
+ *
+ * 纯 Java 逻辑，不依赖 View，方便单元测试：
+ * ViewHolder 只实现 Target 上的几个动作，「什么变化调用哪个动作」由 dispatch 决定。
+ */
+final class FeedCardChange {
+
+    static final int TITLE = 1;
+    static final int SUB_TITLE = 1 << 1;
+    static final int CONTENT = 1 << 2;
+    static final int IMAGE = 1 << 3;
+    static final int VIDEO = 1 << 4;
+    /** 单列 / 双列切换：展示宽度变了，封面需要按新尺寸解码、文字需要按新宽度排版 */
+    static final int LAYOUT = 1 << 5;
+
+    /**
+     * ViewHolder 局部刷新时能做的几个动作，调用哪几个由 dispatch 按 flags 决定。
+     */
+    interface Target {
+        /** 文字相关的字段变了（具体是哪几个看 flags） */
+        void updateText(FeedCard card, int flags);
+
+        /** 封面地址或展示尺寸变了：重新加载封面 */
+        void reloadCover(FeedCard card);
+
+        /** 视频资源变了：记录新的资源，并把 Player 从 PlayerView 上解绑 */
+        void rebindPlayer(FeedCard card);
+    }
+
+    private FeedCardChange() {
+    }
+
+    /**
+     * 计算两个版本之间的变化位图，没有变化时返回 0。
+     * cardType 不同的情况不在这里处理：ViewType 都变了，RecyclerView 会整体换一个 ViewHolder。
+     */
+    static int diff(FeedCard oldItem, FeedCard newItem) {
+        int flags = 0;
+        if (!safeEquals(oldItem.getTitle(), newItem.getTitle())) flags |= TITLE;
+        if (!safeEquals(oldItem.getSubTitle(), newItem.getSubTitle())) flags |= SUB_TITLE;
+        if (!safeEquals(oldItem.getContent(), newItem.getContent())) flags |= CONTENT;
+        if (!safeEquals(oldItem.getImageUrl(), newItem.getImageUrl())) flags |= IMAGE;
+        if (oldItem.getVideoResId() != newItem.getVideoResId()) flags |= VIDEO;
+        if (oldItem.getLayoutType() != newItem.getLayoutType()) flags |= LAYOUT;
+        return flags;
+    }
+
+    /** 是否需要重新加载封面图 */
+    static boolean affectsImage(int flags) {
+        return (flags & (IMAGE | LAYOUT)) != 0;
+    }
+
+    /** 是否需要重新设置文字（文字卡按新宽度排版也算） */
+    static boolean affectsText(int flags) {
+        return (flags & (TITLE | SUB_TITLE | CONTENT | LAYOUT)) != 0;
+    }
+
+    /** 是否需要把 Player 从 PlayerView 上解绑（视频资源换了） */
+    static boolean affectsPlayer(int flags) {
+        return (flags & VIDEO) != 0;
+    }
+
+    /**
+     * 把 onBindViewHolder 收到的 payloads 按位或成一个 flags：
+     * 同一帧内多次更新会被 RecyclerView 合并成多个 payload；不是 FeedCardChange flags 的 payload 忽略。
+     */
+    static int merge(List<Object> payloads) {
+        int flags = 0;
+        for (Object payload : payloads) {
+            if (payload instanceof Integer) {
+                flags |= (Integer) payload;
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * 按 flags 调用 target 上需要的动作：
+     * - 文字变了才 updateText；
+     * - 封面地址 / 排版变了才 reloadCover；
+     * - 视频资源变了才 rebindPlayer。
+     * 只改标题时后两个都不会被调用。
+     */
+    static void dispatch(FeedCard card, int flags, Target target) {
+        if (affectsText(flags)) target.updateText(card, flags);
+        if (affectsImage(flags)) target.reloadCover(card);
+        if (affectsPlayer(flags)) target.rebindPlayer(card);
+    }
+
+    private static boolean safeEquals(String a, String b) {
+        if (a == null) return b == null;
+        return a.equals(b);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.feedapp.ui.feed;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedCardStore;
+
+import java.util.List;
+
+/**
+ * FeedDiffPlanner：submitList 时先用 O(n) 的线性扫描判断「这次提交属于哪种变化」，
+ * 能用一条范围通知表达的就不做 Myers diff。
+ *
+ * 背景：
+ * - 加载更多：新列表 = 旧列表 + 一页新卡片（只在末尾追加）；
+ * - 长按删除：新列表 = 旧列表去掉一张卡片；
+ * - 只有下拉刷新 / 缓存回退这种「整份列表换掉」的情况才真正需要 DiffUtil。
+ * 列表有几万张卡片时，每页都做一次完整 diff 的代价随列表长度增长，而上面两种情况其实一眼就能看出来。
+ *
+ * 两份列表都是同一个 FeedCardStore 的快照时（正常情况），直接问快照「之间发生了什么」，O(1)；
+ * 否则逐项比较，规则和 FeedAdapter 的 DiffUtil.ItemCallback 保持一致：
+ * - 同一个对象直接认为相同（Repository 的快照复用同一批 FeedCard 对象，绝大多数比较走这里）；
+ * - 否则比较 id + FeedCard.getContentHash()，不逐字段比较长字符串。
+ *
+ * 纯 Java 逻辑，不依赖 View，方便单元测试和基准测试。
+ */
+final class FeedDiffPlanner {
+
+    /** 内容完全相同：只替换列表引用，不通知 RecyclerView */
+    static final int SAME = 0;
+    /** 末尾追加：notifyItemRangeInserted(position, count) */
+    static final int APPEND = 1;
+    /** 删除了一张：notifyItemRemoved(position) */
+    static final int REMOVE_ONE = 2;
+    /** 新列表为空：notifyItemRangeRemoved(0, count) */
+    static final int CLEAR = 3;
+    /** 其他情况：交给后台 DiffUtil 做完整 diff */
+    static final int FULL = 4;
+
+    /** 一次规划的结果 */
+    static final class Plan {
+        final int kind;
+        final int position;
+        final int count;
+
+        Plan(int kind, int position, int count) {
+            this.kind = kind;
+            this.position = position;
+            this.count = count;
+        }
+    }
+
+    private static final Plan SAME_PLAN = new Plan(SAME, 0, 0);
+    private static final Plan FULL_PLAN = new Plan(FULL, 0, 0);
+
+    private FeedDiffPlanner() {
+    }
+
+    /**
+     * 判断从 oldList 变到 newList 属于哪种变化。
+     * 最坏情况下扫描一遍两个列表，不分配额外内存。
+     */
+    static Plan plan(List<FeedCard> oldList, List<FeedCard> newList) {
+        int oldSize = oldList.size();
+        int newSize = newList.size();
+
+        if (newSize == 0) {
+            return oldSize == 0 ? SAME_PLAN : new Plan(CLEAR, 0, oldSize);
+        }
+
+        if (oldList instanceof FeedCardStore.Snapshot && newList instanceof FeedCardStore.Snapshot) {
+            Plan plan = planSnapshots((FeedCardStore.Snapshot) oldList, (FeedCardStore.Snapshot) newList);
+            if (plan != null) return plan;
+        }
+
+        if (newSize >= oldSize) {
+            // 旧列表必须是新列表的前缀
+            for (int i = 0; i < oldSize; i++) {
+                if (!isSameCard(oldList.get(i), newList.get(i))) return FULL_PLAN;
+            }
+            return newSize == oldSize ? SAME_PLAN : new Plan(APPEND, oldSize, newSize - oldSize);
+        }
+
+        if (newSize == oldSize - 1) {
+            // 找到第一个不一致的位置 k，之后的新列表应该整体等于旧列表向前挪一位
+            int k = 0;
+            while (k < newSize && isSameCard(oldList.get(k), newList.get(k))) {
+                k++;
+            }
+            for (int i = k; i < newSize; i++) {
+                if (!isSameCard(oldList.get(i + 1), newList.get(i))) return FULL_PLAN;
+            }
+            return new Plan(REMOVE_ONE, k, 1);
+        }
+
+        return FULL_PLAN;
+    }
+
+    /** 同一个 store 的两份快照：根据结构版本号直接判断，判断不了时返回 null，退回逐项比较 */
+    private static Plan planSnapshots(FeedCardStore.Snapshot oldList, FeedCardStore.Snapshot newList) {
+        int appendFrom = newList.appendedAfter(oldList);
+        if (appendFrom >= 0) {
+            int count = newList.size() - appendFrom;
+            return count == 0 ? SAME_PLAN : new Plan(APPEND, appendFrom, count);
+        }
+        int removed = newList.removedFrom(oldList);
+        if (removed >= 0) {
+            return new Plan(REMOVE_ONE, removed, 1);
+        }
+        return null;
+    }
+
+    // -------------------- 比较规则（DiffUtil.ItemCallback 也用这一套） --------------------
+
+    /** 是不是同一张卡片（id 相同，直接比较紧凑形式的 id，不格式化字符串） */
+    static boolean isSameItem(FeedCard oldItem, FeedCard newItem) {
+        return oldItem.isSameId(newItem);
+    }
+
+    /** 内容是否相同：比较预先算好的内容 hash */
+    static boolean isSameContent(FeedCard oldItem, FeedCard newItem) {
+        return oldItem.getContentHash() == newItem.getContentHash();
+    }
+
+    private static boolean isSameCard(FeedCard oldItem, FeedCard newItem) {
+        if (oldItem == newItem) return true;
+        if (oldItem == null || newItem == null) return false;
+        return isSameItem(oldItem, newItem) && isSameContent(oldItem, newItem);
+    }
+}
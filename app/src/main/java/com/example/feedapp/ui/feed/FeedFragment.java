@@ -11,15 +11,21 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
-import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.feedapp.data.model.FeedCard;
 import com.example.feedapp.databinding.FragmentFeedBinding;
 
 import com.example.feedapp.exposure.ExposureTracker;
+import com.example.feedapp.image.FeedImageLoader;
+import com.example.feedapp.perf.FeedMetrics;
+import com.example.feedapp.perf.ScrollFrameRecorder;
+import com.example.feedapp.perf.StartupTracer;
 
 import android.graphics.Rect;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.ViewTreeObserver;
 
 
 import androidx.media3.common.MediaItem;
@@ -44,6 +50,11 @@ import androidx.media3.exoplayer.ExoPlayer;
  */
 
 public class FeedFragment extends Fragment {
+    /** Fragment 参数：true 表示使用瀑布流排版（StaggeredGridLayoutManager），默认网格 */
+    private static final String ARG_WATERFALL = "feed.waterfall";
+    /** 一行分成几列（网格 / 瀑布流一样） */
+    private static final int SPAN_COUNT = 2;
+
     /** ViewBinding 对应 fragment_feed.xml，负责拿到界面上的所有控件引用 */
     private FragmentFeedBinding binding;
     /** ViewModel：负责拿数据 + 管理刷新/加载更多/错误状态等 */
@@ -56,6 +67,38 @@ public class FeedFragment extends Fragment {
     private int currentPlayingVideoPos = RecyclerView.NO_POSITION;
     /** 全局只有一个 ExoPlayer，多个视频卡片复用它（谁在中心就绑定给谁） */
     private ExoPlayer player;
+    /** 封面图加载器：按卡片尺寸解码 + 滚动时向后预加载 */
+    private FeedImageLoader imageLoader;
+    /** 文字卡预排版缓存：数据到达时在后台测量好文字，bind 时直接使用 */
+    private TextLayoutCache textLayoutCache;
+    /** 启动时在后台预创建各类型 ViewHolder，减少首次滑动时的 inflate 卡顿 */
+    private ViewHolderPrewarmer prewarmer;
+    /** 滑动期间的帧耗时采集（结果在 FeedMetrics，曝光调试面板上能看到） */
+    private ScrollFrameRecorder frameRecorder;
+    /** 上一次渲染的界面状态（每次重建视图时清空，第一次渲染全部字段） */
+    private FeedUiState renderedState;
+    /**
+     * 进程被杀之后重建页面时要滚回去的卡片 id 和偏移（null 表示不需要）：
+     * 本地缓存恢复出来的列表里一出现这张卡片就滚过去，恢复结束还没找到就放弃。
+     */
+    private String pendingAnchorId;
+    private int pendingAnchorOffset;
+
+    /**
+     * @param waterfall true：瀑布流（封面按宽高比错落排列）；false：网格（单列 / 双列混排，行高对齐）
+     */
+    public static FeedFragment newInstance(boolean waterfall) {
+        FeedFragment fragment = new FeedFragment();
+        Bundle args = new Bundle();
+        args.putBoolean(ARG_WATERFALL, waterfall);
+        fragment.setArguments(args);
+        return fragment;
+    }
+
+    private boolean isWaterfall() {
+        Bundle args = getArguments();
+        return args != null && args.getBoolean(ARG_WATERFALL, false);
+    }
 
     // -------------------- Fragment 生命周期：创建视图 --------------------
     @Nullable
@@ -80,18 +123,22 @@ public class FeedFragment extends Fragment {
         // 2. 拿到 ViewModel（生命周期与 Fragment 绑定）
         viewModel = new ViewModelProvider(this).get(FeedViewModel.class);
         // 3. 创建 Adapter，并设置长按回调 -> 弹出删除对话框
-        adapter = new FeedAdapter();
+        //    图片加载器需要知道 spanCount，才能算出双列卡片的封面宽度；
+        //    瀑布流下封面高度按宽高比提前算好（CardHeightPredictor），bind 时就定下 item 高度
+        boolean waterfall = isWaterfall();
+        imageLoader = new FeedImageLoader(requireContext(), SPAN_COUNT,
+                FeedImageLoader.DEFAULT_PRELOAD_AHEAD, waterfall);
+        //    文字预排版：Repository 每交出一页数据，就在后台线程里把文字卡测量好
+        textLayoutCache = new TextLayoutCache(requireContext());
+        viewModel.setPageListener(textLayoutCache::precompute);
+        adapter = new FeedAdapter(imageLoader, textLayoutCache);
         adapter.setOnItemLongClickListener(this::showDeleteDialog);
 
-        // 4. 使用 GridLayoutManager 实现「单列/双列混排」
-        // spanCount = 2：表示一行分成 2 份
-        GridLayoutManager layoutManager = new GridLayoutManager(requireContext(), 2);
-
-        // 预取优化：让 RecyclerView 提前预加载下面要出现的 item，滑动更流畅
-        layoutManager.setItemPrefetchEnabled(true);
-        layoutManager.setInitialPrefetchItemCount(6);
+        // 4. 「单列/双列混排」：默认 GridLayoutManager（行高对齐），瀑布流用 StaggeredGridLayoutManager，
+        //    两种都是一行分成 2 份，单列卡片占满一行（见 FeedLayouts）
         // 设置布局管理器与适配器
-        binding.recyclerView.setLayoutManager(layoutManager);
+        binding.recyclerView.setLayoutManager(
+                FeedLayouts.create(requireContext(), adapter, SPAN_COUNT, waterfall));
         binding.recyclerView.setAdapter(adapter);
 
         // RecyclerView 性能优化：
@@ -100,29 +147,22 @@ public class FeedFragment extends Fragment {
         binding.recyclerView.setHasFixedSize(true);
         binding.recyclerView.setItemViewCacheSize(20);
 
-        // spanSizeLookup 决定「每个 position 占几列」：
-        // - Footer 一定占满一行（2 列）；
-        // - layoutType = SINGLE：占 2 列（整行）；
-        // - layoutType = DOUBLE：占 1 列（半行，两张卡并排）。
-        layoutManager.setSpanSizeLookup(new GridLayoutManager.SpanSizeLookup() {
-            @Override
-            public int getSpanSize(int position) {
-                int viewType = adapter.getItemViewType(position);
-                if (viewType == FeedAdapter.VIEW_TYPE_FOOTER) {
-                    return 2; // Footer 占满一行
-                }
-                FeedCard card = adapter.getItemOrNull(position);
-                if (card == null) return 2;
-                // 单列：占两列；双列：占一列
-                return (card.getLayoutType() == FeedCard.LAYOUT_SINGLE) ? 2 : 1;
-            }
-        });
-        // 再次设置（虽然上面已经 set 过一次，但不会有问题）
-        binding.recyclerView.setLayoutManager(layoutManager);
-        binding.recyclerView.setAdapter(adapter);
+        // 共享回收池 + 预热：主线程空闲时在后台把文字 / 图片卡的 ViewHolder 先 inflate 好，
+        // 带 PlayerView 的视频卡不进后台线程，留在主线程空闲时逐个创建；
+        // 首页数据到达后第一次 fling 直接从池子里拿，不用现场 inflate。
+        RecyclerView.RecycledViewPool viewPool = new RecyclerView.RecycledViewPool();
+        binding.recyclerView.setRecycledViewPool(viewPool);
+        prewarmer = new ViewHolderPrewarmer(viewPool)
+                .setCount(FeedAdapter.VIEW_TYPE_TEXT, 4)
+                .setCount(FeedAdapter.VIEW_TYPE_IMAGE, 6)
+                .setMainThreadCount(FeedAdapter.VIEW_TYPE_VIDEO, 3);
+        prewarmer.start(binding.recyclerView, adapter);
 
         // 5. 绑定曝光跟踪器：内部会监听 RecyclerView 的滚动 / 布局变化
         exposureTracker = new ExposureTracker(binding.recyclerView, adapter);
+        //    帧耗时采集：只统计列表在动的帧
+        frameRecorder = new ScrollFrameRecorder(FeedMetrics.get());
+        frameRecorder.start(requireActivity(), binding.recyclerView);
 
         // 6. 下拉刷新：交给 ViewModel.refresh()
         binding.swipeRefresh.setOnRefreshListener(() -> {
@@ -131,7 +171,7 @@ public class FeedFragment extends Fragment {
 
         // 7. 滑动监听：负责两件事
         //    a) 滚动过程中自动寻找「中心视频卡片」进行播放
-        //    b) 滑到底部时触发 loadMore
+        //    b) 向下滑动时预加载封面，滑到底部时触发 loadMore
         binding.recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
             @Override
             public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
@@ -140,16 +180,22 @@ public class FeedFragment extends Fragment {
                 // a) 每次滚动都尝试锁定“中心视频”进行自动播放
                 autoPlayCenterVideo();
 
-                // b) 只有向下滑动（dy > 0）才尝试触发加载更多
-                if (dy <= 0) return;
-
+                // 网格 / 瀑布流都按「所有列里最小 / 最大的可见位置」算
                 RecyclerView.LayoutManager lm = rv.getLayoutManager();
-                if (!(lm instanceof GridLayoutManager)) return;
+                int firstVisible = FeedLayouts.findFirstVisible(lm);
+                int lastVisible = FeedLayouts.findLastVisible(lm);
+                // 一屏能放几张（单列 / 双列混排后的实际张数）+ 滑动位置，交给页大小策略
+                if (firstVisible != RecyclerView.NO_POSITION) {
+                    viewModel.onViewport(firstVisible, lastVisible - firstVisible + 1);
+                }
 
-                GridLayoutManager glm = (GridLayoutManager) lm;
-                int lastVisible = glm.findLastVisibleItemPosition();
+                // b) 只有向下滑动（dy > 0）才尝试预加载封面 / 触发加载更多
+                if (dy <= 0) return;
                 int total = adapter.getItemCount();
 
+                // 提前解码即将滑入屏幕的几张封面
+                imageLoader.preloadAfter(adapter.getCurrentList(), lastVisible);
+
                 // 当最后一个可见位置 >= 总数 - 3 时，说明接近底部，尝试加载更多
                 if (total > 3 && lastVisible >= total - 3) {
                     viewModel.loadMore();
@@ -161,68 +207,150 @@ public class FeedFragment extends Fragment {
 
         // 8. 监听 ViewModel 提供的各种 LiveData，更新 UI
 
-        // 8.1 列表数据变化：
-        // - submitList 会通过 DiffUtil 做高效局部刷新；
-        // - 数据更新完后，post 一个 autoPlayCenterVideo，保证视频联动。
-        viewModel.getCards().observe(getViewLifecycleOwner(), cards -> {
-            adapter.submitList(cards);
-
-            // 数据来到之后，等 RecyclerView 布局完，再尝试自动选择一个中心视频
-            binding.recyclerView.post(this::autoPlayCenterVideo);
-        });
-
-
-        // 8.2 下拉刷新状态：控制 SwipeRefreshLayout 的小圈圈
-        viewModel.getRefreshing().observe(getViewLifecycleOwner(), refreshing -> {
-            binding.swipeRefresh.setRefreshing(Boolean.TRUE.equals(refreshing));
-        });
-
-        // 8.3 加载更多状态：控制底部 Footer 显示 / 隐藏
-        viewModel.getLoadingMore().observe(getViewLifecycleOwner(), loadingMore -> {
-            adapter.setShowFooter(Boolean.TRUE.equals(loadingMore));
-        });
+        // 8.1 界面状态：列表 / 刷新中 / 加载更多中 / 空页面 / 错误层合在一个 FeedUiState 里，
+        //     一帧最多来一次，render 里只动真正变了的部分
+        renderedState = null;
+        viewModel.getUiState().observe(getViewLifecycleOwner(), this::render);
 
-        // 8.4 全局 Toast 提示：比如“网络失败，展示本地缓存”、“加载更多失败”等
+        // 8.2 全局 Toast 提示：比如“网络失败，展示本地缓存”、“加载更多失败”等
         viewModel.getToastMessage().observe(getViewLifecycleOwner(), msg -> {
             if (msg != null && !msg.isEmpty()) {
                 Toast.makeText(requireContext(), msg, Toast.LENGTH_SHORT).show();
             }
         });
 
-        // 8.5 首次进入页面时自动刷新一次（只在 savedInstanceState == null 时触发）
-        if (savedInstanceState == null) {
+        // 8.3 首次进入页面时自动刷新一次（savedInstanceState == null）；
+        //     进程被杀之后重建（有 savedInstanceState，但 ViewModel 是新的）：先从本地缓存恢复并滚回原来的卡片，
+        //     不等网络；旋转屏幕时 ViewModel 还在，start 什么都不做
+        FeedSavedState saved = FeedSavedState.readFrom(savedInstanceState);
+        if (saved == null) {
             binding.swipeRefresh.setRefreshing(true);
-            viewModel.refresh();
+        }
+        if (viewModel.start(saved == null ? null : saved.paging) && saved != null) {
+            pendingAnchorId = saved.anchorId;
+            pendingAnchorOffset = saved.anchorOffset;
         }
 
-        // 8.6 空页面显示控制：
-        // - 当列表为空时显示“空页面”占位；
-        // - 当列表有数据时隐藏。
-        viewModel.getShowEmptyView().observe(getViewLifecycleOwner(), showEmpty -> {
-            if (showEmpty != null && showEmpty) {
-                binding.emptyView.setVisibility(View.VISIBLE);
-            } else {
-                binding.emptyView.setVisibility(View.GONE);
-            }
-        });
+        // 8.4 冷启动打点：列表第一次 draw、第一次带着卡片 draw（time-to-first-draw）
+        watchFirstDraw();
 
-        // 8.7 错误覆盖层显示控制：
-        // - 网络失败且本地没有缓存时，显示一个全屏错误层 + 重试按钮。
-        viewModel.getShowErrorView().observe(getViewLifecycleOwner(), showError -> {
-            if (showError != null && showError) {
-                binding.errorView.setVisibility(View.VISIBLE);
-            } else {
-                binding.errorView.setVisibility(View.GONE);
-            }
-        });
-
-        // 8.8 错误页上的重试按钮，重新触发刷新
+        // 8.5 错误页上的重试按钮，重新触发刷新
         binding.btnRetry.setOnClickListener(v -> {
             viewModel.refresh();
         });
 
     }
 
+    // -------------------- 渲染界面状态 --------------------
+
+    /**
+     * 把一份 FeedUiState 渲染到界面上，和上一次渲染的状态比较，只改变了的部分：
+     * - 列表：submitList 会通过 FeedDiffPlanner / DiffUtil 做局部刷新，数据更新完后 post 一个 autoPlayCenterVideo；
+     * - 下拉刷新：SwipeRefreshLayout 的小圈圈；
+     * - 加载更多：底部 Footer 显示 / 隐藏；
+     * - 空页面：列表为空时的占位；
+     * - 错误层：网络失败且本地没有缓存时，全屏错误 + 重试按钮。
+     */
+    private void render(FeedUiState state) {
+        FeedUiState old = renderedState;
+        renderedState = state;
+        if (old != null && old.getVersion() == state.getVersion()) return;
+
+        if (old == null || old.getCards() != state.getCards()) {
+            adapter.submitList(state.getCards());
+            // 数据来到之后，等 RecyclerView 布局完，再尝试自动选择一个中心视频
+            binding.recyclerView.post(this::autoPlayCenterVideo);
+        }
+        if (pendingAnchorId != null) {
+            scrollToPendingAnchor(state);
+        }
+        if (old == null || old.isRefreshing() != state.isRefreshing()) {
+            binding.swipeRefresh.setRefreshing(state.isRefreshing());
+        }
+        if (old == null || old.isLoadingMore() != state.isLoadingMore()) {
+            adapter.setShowFooter(state.isLoadingMore());
+        }
+        if (old == null || old.isShowEmptyView() != state.isShowEmptyView()) {
+            binding.emptyView.setVisibility(state.isShowEmptyView() ? View.VISIBLE : View.GONE);
+        }
+        if (old == null || old.isShowErrorView() != state.isShowErrorView()) {
+            binding.errorView.setVisibility(state.isShowErrorView() ? View.VISIBLE : View.GONE);
+        }
+    }
+
+    // -------------------- 冷启动打点 --------------------
+
+    /**
+     * 在列表上挂一个 OnDrawListener，记录第一次 draw 和第一次带着卡片 draw 的时间，
+     * 都记到之后把 StartupTracer 的汇总打到 logcat，然后摘掉监听（draw 回调里不能直接 remove，post 一下）。
+     * 冷启动已经记录过（旋转屏幕 / 页面重建）就不再挂。
+     */
+    private void watchFirstDraw() {
+        StartupTracer tracer = StartupTracer.get();
+        if (tracer.isComplete()) return;
+        RecyclerView rv = binding.recyclerView;
+        ViewTreeObserver.OnDrawListener listener = new ViewTreeObserver.OnDrawListener() {
+            @Override
+            public void onDraw() {
+                long now = SystemClock.uptimeMillis();
+                tracer.mark(StartupTracer.FIRST_DRAW, now);
+                if (rv.getChildCount() == 0 || adapter.getItemOrNull(0) == null) return;
+                if (tracer.mark(StartupTracer.FIRST_CONTENT_DRAW, now)) {
+                    Log.i("FeedStartup", tracer.report());
+                }
+                ViewTreeObserver.OnDrawListener self = this;
+                rv.post(() -> rv.getViewTreeObserver().removeOnDrawListener(self));
+            }
+        };
+        rv.getViewTreeObserver().addOnDrawListener(listener);
+    }
+
+    // -------------------- 进程被杀之后恢复：保存 / 滚回锚点 --------------------
+
+    /**
+     * 恢复出来的列表里找到锚点卡片就滚过去（submitList 从空列表到有内容是同步生效的，这里马上就能找到）；
+     * 恢复结束了还没找到（卡片已经被删掉 / 缓存对不上改成了刷新），就放弃，停在顶部。
+     */
+    private void scrollToPendingAnchor(FeedUiState state) {
+        int position = adapter.indexOfCard(pendingAnchorId);
+        if (position >= 0) {
+            FeedLayouts.scrollToPositionWithOffset(
+                    binding.recyclerView.getLayoutManager(), position, pendingAnchorOffset);
+            pendingAnchorId = null;
+        } else if (!state.isRestoring()) {
+            pendingAnchorId = null;
+        }
+    }
+
+    /**
+     * 页面进入后台时保存锚点（屏幕最上面那张卡片的 id + 偏移）和分页状态。
+     * 只读几个字段，没有 IO；本地缓存的写入由 Repository 交给 writer 线程提前执行。
+     */
+    @Override
+    public void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (viewModel == null || binding == null) return;
+        String anchorId = null;
+        int anchorOffset = 0;
+        RecyclerView rv = binding.recyclerView;
+        RecyclerView.LayoutManager lm = rv.getLayoutManager();
+        if (lm != null) {
+            int first = FeedLayouts.findFirstVisible(lm);
+            View firstView = first == RecyclerView.NO_POSITION ? null : lm.findViewByPosition(first);
+            FeedCard card = adapter.getItemOrNull(first);
+            if (firstView != null && card != null) {
+                anchorId = card.getId();
+                anchorOffset = lm.getDecoratedTop(firstView) - rv.getPaddingTop();
+            }
+        }
+        if (anchorId == null && pendingAnchorId != null) {
+            // 还没来得及滚回去又被切到后台：沿用上一次的锚点
+            anchorId = pendingAnchorId;
+            anchorOffset = pendingAnchorOffset;
+        }
+        new FeedSavedState(anchorId, anchorOffset, viewModel.savePagingState()).writeTo(outState);
+    }
+
     // -------------------- 删除卡片：弹出确认框 --------------------
 
     /**
@@ -243,6 +371,16 @@ public class FeedFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        if (prewarmer != null) {
+            prewarmer.cancel();
+            prewarmer = null;
+        }
+        if (frameRecorder != null) {
+            frameRecorder.stop();
+            frameRecorder = null;
+        }
+        // ViewModel 活得比视图久，不要让它继续持有本页面的预排版缓存
+        viewModel.setPageListener(null);
         if (player != null) {
             player.release(); // 释放底层解码器、内存等资源
             player = null;
@@ -0,0 +1,95 @@
+package com.example.feedapp.ui.feed;
+
+import android.content.Context;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
+
+/**
+ * FeedLayouts：信息流两种排版的 LayoutManager 创建 + 可见范围 / 滚动定位的统一入口。
+ *
+ * - 网格（默认）：GridLayoutManager + FeedSpanSizeLookup，单列卡片占满一行，双列卡片两张并排、行高对齐；
+ * - 瀑布流：StaggeredGridLayoutManager，双列卡片依次落到当前最短的一列，单列卡片 / Footer setFullSpan
+ *   （见 FeedAdapter.applyFullSpan），封面高度按宽高比提前算好（见 CardHeightPredictor）。
+ *
+ * Fragment 里「第一个 / 最后一个可见位置」「滚到某个位置 + 偏移」这几处以前直接强转 GridLayoutManager /
+ * LinearLayoutManager，瀑布流下拿到的是每一列各自的位置，统一收在这里处理。
+ */
+final class FeedLayouts {
+
+    private FeedLayouts() {
+    }
+
+    /**
+     * 创建列表的 LayoutManager。
+     *
+     * @param waterfall 是否使用瀑布流
+     */
+    static RecyclerView.LayoutManager create(Context context, FeedAdapter adapter, int spanCount,
+                                             boolean waterfall) {
+        if (waterfall) {
+            StaggeredGridLayoutManager sglm =
+                    new StaggeredGridLayoutManager(spanCount, StaggeredGridLayoutManager.VERTICAL);
+            // 卡片高度在 bind 时就确定了，不会出现「前面的卡片变高 / 变矮留下空洞」的情况；
+            // 保留默认的 GAP_HANDLING_MOVE_ITEMS_BETWEEN_SPANS，只在删卡之后这种真正有空洞时才重新分配列
+            sglm.setItemPrefetchEnabled(true);
+            return sglm;
+        }
+        GridLayoutManager glm = new GridLayoutManager(context, spanCount);
+        // 预取优化：让 RecyclerView 提前预加载下面要出现的 item，滑动更流畅
+        glm.setItemPrefetchEnabled(true);
+        glm.setInitialPrefetchItemCount(6);
+        // spanSizeLookup 决定「每个 position 占几列」：
+        // - Footer 一定占满一行（2 列）；
+        // - layoutType = SINGLE：占 2 列（整行）；
+        // - layoutType = DOUBLE：占 1 列（半行，两张卡并排）。
+        // 每个位置的 span / 行内起始列 / 行号都预计算在数组里，跟着列表增量更新，深位置的 scrollToPosition 也是 O(1)。
+        glm.setSpanSizeLookup(new FeedSpanSizeLookup(adapter, spanCount));
+        return glm;
+    }
+
+    /** 第一个可见的 adapter position（瀑布流取各列里最小的），没有时返回 NO_POSITION */
+    static int findFirstVisible(RecyclerView.LayoutManager lm) {
+        if (lm instanceof LinearLayoutManager) {
+            return ((LinearLayoutManager) lm).findFirstVisibleItemPosition();
+        }
+        if (lm instanceof StaggeredGridLayoutManager) {
+            int[] positions = ((StaggeredGridLayoutManager) lm).findFirstVisibleItemPositions(null);
+            int min = RecyclerView.NO_POSITION;
+            for (int p : positions) {
+                if (p != RecyclerView.NO_POSITION && (min == RecyclerView.NO_POSITION || p < min)) min = p;
+            }
+            return min;
+        }
+        return RecyclerView.NO_POSITION;
+    }
+
+    /** 最后一个可见的 adapter position（瀑布流取各列里最大的），没有时返回 NO_POSITION */
+    static int findLastVisible(RecyclerView.LayoutManager lm) {
+        if (lm instanceof LinearLayoutManager) {
+            return ((LinearLayoutManager) lm).findLastVisibleItemPosition();
+        }
+        if (lm instanceof StaggeredGridLayoutManager) {
+            int[] positions = ((StaggeredGridLayoutManager) lm).findLastVisibleItemPositions(null);
+            int max = RecyclerView.NO_POSITION;
+            for (int p : positions) {
+                if (p > max) max = p;
+            }
+            return max;
+        }
+        return RecyclerView.NO_POSITION;
+    }
+
+    /** 滚到 position，并让它的顶部距离列表顶部 offset 像素 */
+    static void scrollToPositionWithOffset(RecyclerView.LayoutManager lm, int position, int offset) {
+        if (lm instanceof LinearLayoutManager) {
+            ((LinearLayoutManager) lm).scrollToPositionWithOffset(position, offset);
+        } else if (lm instanceof StaggeredGridLayoutManager) {
+            ((StaggeredGridLayoutManager) lm).scrollToPositionWithOffset(position, offset);
+        } else if (lm != null) {
+            lm.scrollToPosition(position);
+        }
+    }
+}
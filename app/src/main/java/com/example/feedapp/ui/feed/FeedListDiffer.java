@@ -0,0 +1,150 @@
+package com.example.feedapp.ui.feed;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedCardStore;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * FeedListDiffer：FeedAdapter 的列表持有者 + 差异计算，替代 ListAdapter 内部的 AsyncListDiffer。
+ *
+ * AsyncListDiffer 每次 submitList 都会在后台做一次完整的 Myers diff，
+ * 列表越长，每加载一页的代价越大。这里分两步：
+ * 1. 主线程先用 FeedDiffPlanner 线性扫描一遍：
+ *    - 末尾追加（加载更多）→ notifyItemRangeInserted；
+ *    - 删除一张（长按删除）→ notifyItemRemoved；
+ *    - 内容没变              → 只替换引用；
+ * 2. 其他情况（下拉刷新、缓存回退）才交给后台线程跑 DiffUtil，结果再 post 回主线程分发。
+ *
+ * 并发约定：
+ * - submitList / getCurrentList 只在主线程调用；
+ * - 每次提交都会递增 generation，后台 diff 算完时如果已经有更新的提交，结果直接丢弃
+ *   （和 AsyncListDiffer 的 maxScheduledGeneration 是同一个思路）；
+ * - 提交进来的 List 之后不能再被修改（Repository 每次给的都是新的快照，满足这个条件）。
+ */
+final class FeedListDiffer {
+
+    /** 完整 diff 用的后台线程：所有列表共用一个，按提交顺序执行 */
+    private static final ExecutorService DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final RecyclerView.Adapter<?> adapter;
+    private final DiffUtil.ItemCallback<FeedCard> itemCallback;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /** 当前 Adapter 展示的列表（不可修改） */
+    private List<FeedCard> currentList = Collections.emptyList();
+    /** 每次 submitList 递增，用来丢弃过期的后台 diff 结果 */
+    private int generation = 0;
+
+    FeedListDiffer(RecyclerView.Adapter<?> adapter, DiffUtil.ItemCallback<FeedCard> itemCallback) {
+        this.adapter = adapter;
+        this.itemCallback = itemCallback;
+    }
+
+    List<FeedCard> getCurrentList() {
+        return currentList;
+    }
+
+    /**
+     * 提交一份新列表。
+     * 能用范围通知表达的变化同步生效；需要完整 diff 的在后台算完后才生效。
+     */
+    void submitList(List<FeedCard> newList) {
+        final int runGeneration = ++generation;
+        if (newList == currentList) return;
+
+        final List<FeedCard> oldList = currentList;
+        // FeedCardStore.Snapshot 本身就不可修改，不再包一层：
+        // 包了之后 FeedDiffPlanner / getLayoutTypeAt / FeedSpanSizeLookup 就认不出快照，按列读取和增量计算全部失效
+        final List<FeedCard> snapshot = newList == null
+                ? Collections.emptyList()
+                : newList instanceof FeedCardStore.Snapshot ? newList : Collections.unmodifiableList(newList);
+
+        FeedDiffPlanner.Plan plan = FeedDiffPlanner.plan(oldList, snapshot);
+        switch (plan.kind) {
+            case FeedDiffPlanner.SAME:
+                currentList = snapshot;
+                return;
+            case FeedDiffPlanner.APPEND:
+                currentList = snapshot;
+                adapter.notifyItemRangeInserted(plan.position, plan.count);
+                return;
+            case FeedDiffPlanner.REMOVE_ONE:
+                currentList = snapshot;
+                adapter.notifyItemRemoved(plan.position);
+                return;
+            case FeedDiffPlanner.CLEAR:
+                currentList = snapshot;
+                adapter.notifyItemRangeRemoved(0, plan.count);
+                return;
+            default:
+                break;
+        }
+
+        // 完整 diff：后台计算，主线程分发
+        DIFF_EXECUTOR.execute(() -> {
+            DiffUtil.DiffResult result = calculateFullDiff(oldList, snapshot, itemCallback);
+            mainHandler.post(() -> {
+                if (generation != runGeneration) return; // 期间又有新的提交，这份结果已经过期
+                currentList = snapshot;
+                result.dispatchUpdatesTo(adapter);
+            });
+        });
+    }
+
+    /**
+     * 完整的 Myers diff（detectMoves = true，和 AsyncListDiffer 默认行为一致）。
+     * 包级可见：基准测试里直接调用它和 FeedDiffPlanner 对比耗时。
+     */
+    static DiffUtil.DiffResult calculateFullDiff(List<FeedCard> oldList,
+                                                 List<FeedCard> newList,
+                                                 DiffUtil.ItemCallback<FeedCard> itemCallback) {
+        // 快照的 get(i) 需要把列存还原成 FeedCard，Myers diff 会反复访问同一位置，
+        // 先各自完整还原一遍，之后只是数组读取
+        final List<FeedCard> oldCards = Arrays.asList(oldList.toArray(new FeedCard[0]));
+        final List<FeedCard> newCards = Arrays.asList(newList.toArray(new FeedCard[0]));
+        return DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldCards.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newCards.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                FeedCard oldItem = oldCards.get(oldItemPosition);
+                FeedCard newItem = newCards.get(newItemPosition);
+                if (oldItem == null || newItem == null) return oldItem == newItem;
+                return itemCallback.areItemsTheSame(oldItem, newItem);
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                FeedCard oldItem = oldCards.get(oldItemPosition);
+                FeedCard newItem = newCards.get(newItemPosition);
+                if (oldItem == null || newItem == null) return oldItem == newItem;
+                return itemCallback.areContentsTheSame(oldItem, newItem);
+            }
+
+            @Override
+            public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                return itemCallback.getChangePayload(
+                        oldCards.get(oldItemPosition), newCards.get(newItemPosition));
+            }
+        }, true);
+    }
+}
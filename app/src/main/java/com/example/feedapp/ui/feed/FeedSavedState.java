@@ -0,0 +1,58 @@
+package com.example.feedapp.ui.feed;
+
+import android.os.Bundle;
+
+import com.example.feedapp.data.repository.FeedPagingState;
+
+/**
+ * FeedSavedState：FeedFragment 放进 onSaveInstanceState 的那一小份状态。
+ *
+ * - 锚点：屏幕最上面那张卡片的 id + 它的顶边离列表顶部多少像素。
+ *   按 id 而不是按 position 记，恢复出来的列表就算有增删，也能滚回同一张卡片；
+ * - 分页状态：FeedPagingState（游标 + 张数 + 最后一张的 id），卡片本身不进 Bundle。
+ *
+ * 总共几个短字符串和整数，远小于 Bundle 的大小限制，onSaveInstanceState 里也没有任何 IO。
+ */
+final class FeedSavedState {
+
+    private static final String KEY_ANCHOR_ID = "feed.anchorId";
+    private static final String KEY_ANCHOR_OFFSET = "feed.anchorOffset";
+    private static final String KEY_CURSOR = "feed.nextCursor";
+    private static final String KEY_HAS_MORE = "feed.hasMore";
+    private static final String KEY_COUNT = "feed.count";
+    private static final String KEY_TAIL_ID = "feed.tailId";
+
+    /** 锚点卡片的 id；null 表示保存时列表是空的 */
+    final String anchorId;
+    /** 锚点卡片的顶边相对列表顶部的偏移（像素，可以是负数：卡片上半截已经滑出屏幕） */
+    final int anchorOffset;
+    final FeedPagingState paging;
+
+    FeedSavedState(String anchorId, int anchorOffset, FeedPagingState paging) {
+        this.anchorId = anchorId;
+        this.anchorOffset = anchorOffset;
+        this.paging = paging;
+    }
+
+    void writeTo(Bundle out) {
+        out.putString(KEY_ANCHOR_ID, anchorId);
+        out.putInt(KEY_ANCHOR_OFFSET, anchorOffset);
+        out.putString(KEY_CURSOR, paging.getNextCursor());
+        out.putBoolean(KEY_HAS_MORE, paging.isHasMore());
+        out.putInt(KEY_COUNT, paging.getCount());
+        out.putString(KEY_TAIL_ID, paging.getTailId());
+    }
+
+    /**
+     * 从 savedInstanceState 读回来；in 为 null 或者里面没有这份状态时返回 null。
+     */
+    static FeedSavedState readFrom(Bundle in) {
+        if (in == null || !in.containsKey(KEY_COUNT)) return null;
+        FeedPagingState paging = new FeedPagingState(
+                in.getString(KEY_CURSOR),
+                in.getBoolean(KEY_HAS_MORE),
+                in.getInt(KEY_COUNT),
+                in.getString(KEY_TAIL_ID));
+        return new FeedSavedState(in.getString(KEY_ANCHOR_ID), in.getInt(KEY_ANCHOR_OFFSET), paging);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.feedapp.ui.feed;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+
+/**
+ * FeedSpanSizeLookup：信息流「单列 / 双列混排」的 SpanSizeLookup。
+ *
+ * 以前是 Fragment 里的匿名类，每次 getSpanSize 都要问一遍 adapter.getItemViewType + getLayoutTypeAt；
+ * 更大的开销在 GridLayoutManager 默认的 getSpanIndex / getSpanGroupIndex：每次都从位置 0 累加到目标位置，
+ * scrollToPosition 到很深的位置、或者每次布局找锚点所在的行，都是 O(position) 次回调。
+ *
+ * 现在：
+ * - span 大小、行内起始列、行号都在 SpanSizeTable 里预计算成基本类型数组，三个查询都是 O(1)；
+ * - 表和 Adapter 当前的列表按引用同步：加载更多只算追加的部分，删除一张只重算后面的部分，刷新才整表重建；
+ * - Footer（最后一个位置）永远占满一行，行号接在最后一张卡片后面。
+ *
+ * 为什么不打开 setSpanIndexCacheEnabled / setSpanGroupIndexCacheEnabled：
+ * - 这两个缓存在每次 notifyItemXxx（包括 Footer 显示 / 隐藏）时被 GridLayoutManager 整个清空，
+ *   加载更多之后第一次深位置查询又要从 0 累加；
+ * - getSpanIndex / getSpanGroupIndex 已经被这里覆盖成 O(1) 的数组读，再套一层 SparseIntArray 只会更慢
+ *   （SpanLookupBenchmarkTest 里有三种方式的对比）。
+ */
+final class FeedSpanSizeLookup extends GridLayoutManager.SpanSizeLookup {
+
+    private final FeedAdapter adapter;
+    private final int spanCount;
+    private final SpanSizeTable table;
+
+    FeedSpanSizeLookup(FeedAdapter adapter, int spanCount) {
+        this.adapter = adapter;
+        this.spanCount = spanCount;
+        this.table = new SpanSizeTable(spanCount);
+    }
+
+    @Override
+    public int getSpanSize(int position) {
+        if (!syncAndContains(position)) return spanCount;
+        return table.spanSizeAt(position);
+    }
+
+    /**
+     * GridLayoutManager 传进来的 spanCount 和构造时的不一致（比如以后改成按屏幕宽度动态列数）时，
+     * 退回默认的逐个累加算法，保证结果总是对的。
+     */
+    @Override
+    public int getSpanIndex(int position, int spanCount) {
+        if (spanCount != this.spanCount) return super.getSpanIndex(position, spanCount);
+        if (!syncAndContains(position)) return 0;
+        return table.spanIndexAt(position);
+    }
+
+    @Override
+    public int getSpanGroupIndex(int adapterPosition, int spanCount) {
+        if (spanCount != this.spanCount) return super.getSpanGroupIndex(adapterPosition, spanCount);
+        if (!syncAndContains(adapterPosition)) return table.groupIndexAfterEnd();
+        return table.spanGroupIndexAt(adapterPosition);
+    }
+
+    /** 先和 Adapter 当前的列表同步（同一份列表时是一次引用比较），再判断 position 是不是一张卡片 */
+    private boolean syncAndContains(int position) {
+        table.sync(adapter.getCurrentList());
+        return position >= 0 && position < table.size();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.feedapp.ui.feed;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * FeedUiState：信息流页面在某一时刻的完整状态（不可变）。
+ *
+ * 以前 ViewModel 为每个字段各开一个 LiveData（列表 / 刷新中 / 加载更多中 / 空页面 / 错误层），
+ * 一次刷新成功要 post 四五次，每次 post 都是一条单独的主线程消息，Fragment 也要为每个字段注册一个观察者。
+ * 现在合成一个对象，由 FeedUiStateHolder 按帧合并：同一帧里改了多少次，只把最新的一份交给 UI。
+ *
+ * - version：每次状态真正发生变化加一，UI 可以用它判断「是不是已经渲染过这一份」；
+ * - cards：FeedCardStore 的只读快照，比较时只比引用（同一份快照 = 列表没变）；
+ * - Toast 不在这里：它是一次性的事件，跟着状态一起在旋转屏幕后重新投递会弹两次。
+ */
+public final class FeedUiState {
+
+    /** 页面刚创建时的状态：空列表，什么都不显示 */
+    public static final FeedUiState INITIAL = new Builder().build();
+
+    private final long version;
+    private final List<FeedCard> cards;
+    private final boolean refreshing;
+    private final boolean restoring;
+    private final boolean loadingMore;
+    private final boolean showEmptyView;
+    private final boolean showErrorView;
+
+    private FeedUiState(Builder builder) {
+        this.version = builder.version;
+        this.cards = builder.cards;
+        this.refreshing = builder.refreshing;
+        this.restoring = builder.restoring;
+        this.loadingMore = builder.loadingMore;
+        this.showEmptyView = builder.showEmptyView;
+        this.showErrorView = builder.showErrorView;
+    }
+
+    // -------------------- Getter --------------------
+
+    public long getVersion() {
+        return version;
+    }
+
+    /** 当前列表（只读） */
+    public List<FeedCard> getCards() {
+        return cards;
+    }
+
+    /** 下拉刷新是否在进行（SwipeRefreshLayout 的 loading 圈） */
+    public boolean isRefreshing() {
+        return refreshing;
+    }
+
+    /**
+     * 是否正在从本地缓存恢复（进程被杀之后重建页面）：
+     * 恢复期间列表一块一块到达，UI 等恢复结束再判断要滚到的那张卡片还在不在。
+     */
+    public boolean isRestoring() {
+        return restoring;
+    }
+
+    /** 是否在加载更多（底部 Footer） */
+    public boolean isLoadingMore() {
+        return loadingMore;
+    }
+
+    /** 是否显示“空页面”占位 */
+    public boolean isShowEmptyView() {
+        return showEmptyView;
+    }
+
+    /** 是否显示“错误覆盖层”（全屏错误 + 重试按钮） */
+    public boolean isShowErrorView() {
+        return showErrorView;
+    }
+
+    /** 除了 version 以外是否完全相同（列表按引用比较） */
+    boolean sameContent(FeedUiState other) {
+        return cards == other.cards
+                && refreshing == other.refreshing
+                && restoring == other.restoring
+                && loadingMore == other.loadingMore
+                && showEmptyView == other.showEmptyView
+                && showErrorView == other.showErrorView;
+    }
+
+    /** 以当前状态为基础修改几个字段 */
+    public Builder newBuilder() {
+        return new Builder(this);
+    }
+
+    @Override
+    public String toString() {
+        return "FeedUiState{v" + version + " cards=" + cards.size()
+                + " refreshing=" + refreshing + " restoring=" + restoring + " loadingMore=" + loadingMore
+                + " empty=" + showEmptyView + " error=" + showErrorView + "}";
+    }
+
+    public static final class Builder {
+        private long version;
+        private List<FeedCard> cards = Collections.emptyList();
+        private boolean refreshing;
+        private boolean restoring;
+        private boolean loadingMore;
+        private boolean showEmptyView;
+        private boolean showErrorView;
+
+        public Builder() {
+        }
+
+        private Builder(FeedUiState state) {
+            version = state.version;
+            cards = state.cards;
+            refreshing = state.refreshing;
+            restoring = state.restoring;
+            loadingMore = state.loadingMore;
+            showEmptyView = state.showEmptyView;
+            showErrorView = state.showErrorView;
+        }
+
+        /** 一般不用手动设置：FeedUiStateHolder 每次更新时自动加一 */
+        public Builder version(long version) {
+            this.version = version;
+            return this;
+        }
+
+        public Builder cards(List<FeedCard> cards) {
+            this.cards = cards == null ? Collections.emptyList() : cards;
+            return this;
+        }
+
+        public Builder refreshing(boolean refreshing) {
+            this.refreshing = refreshing;
+            return this;
+        }
+
+        public Builder restoring(boolean restoring) {
+            this.restoring = restoring;
+            return this;
+        }
+
+        public Builder loadingMore(boolean loadingMore) {
+            this.loadingMore = loadingMore;
+            return this;
+        }
+
+        public Builder showEmptyView(boolean showEmptyView) {
+            this.showEmptyView = showEmptyView;
+            return this;
+        }
+
+        public Builder showErrorView(boolean showErrorView) {
+            this.showErrorView = showErrorView;
+            return this;
+        }
+
+        public FeedUiState build() {
+            return new FeedUiState(this);
+        }
+    }
+}
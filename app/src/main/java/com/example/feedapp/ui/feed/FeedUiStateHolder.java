@@ -0,0 +1,91 @@
+package com.example.feedapp.ui.feed;
+
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * FeedUiStateHolder：持有当前的 FeedUiState，按帧合并后交给 UI。
+ *
+ * - update 可以在任意线程调用，立即生效（current() 马上能读到），但不会立即通知 UI；
+ * - 第一次 update 时向 FrameScheduler 预约下一帧，同一帧内后续的 update 只改状态、不再预约；
+ * - 到了那一帧只把最新的一份交给 sink（App 里是 LiveData.setValue，Fragment 再一次性渲染）。
+ * 这样一次刷新成功（列表 + 刷新结束 + 空页面 + 错误层）只交给 UI 一次、渲染一次
+ * （以前四个 LiveData 各 post 一条消息、各通知一次；对比见 FeedUiStateHolderTest）。
+ *
+ * 没有实际变化的 update（新状态和旧状态内容相同）直接忽略：不加版本号，也不预约。
+ *
+ * 纯 Java：App 里 FrameScheduler 用 Choreographer 实现，测试里手动「走帧」。
+ */
+final class FeedUiStateHolder {
+
+    /** 预约在下一帧执行（App 里：切到主线程后 Choreographer.postFrameCallback） */
+    interface FrameScheduler {
+        void postFrame(Runnable frame);
+    }
+
+    private final FrameScheduler scheduler;
+    private final Consumer<FeedUiState> sink;
+    private final Runnable dispatchTask = this::dispatch;
+    private FeedUiState state;
+    /** 已经预约了下一帧、还没执行 */
+    private boolean scheduled;
+    private boolean closed;
+    private long lastDispatchedVersion = -1;
+    private int updateCount;
+    private int dispatchCount;
+
+    FeedUiStateHolder(FeedUiState initial, FrameScheduler scheduler, Consumer<FeedUiState> sink) {
+        this.state = initial;
+        this.scheduler = scheduler;
+        this.sink = sink;
+    }
+
+    /** 当前最新的状态（可能还没交给 UI） */
+    synchronized FeedUiState current() {
+        return state;
+    }
+
+    /**
+     * 修改状态：change 拿到当前状态的 Builder，改完后版本号自动加一。
+     */
+    void update(UnaryOperator<FeedUiState.Builder> change) {
+        boolean schedule;
+        synchronized (this) {
+            if (closed) return;
+            FeedUiState next = change.apply(state.newBuilder()).version(state.getVersion() + 1).build();
+            if (next.sameContent(state)) return;
+            state = next;
+            updateCount++;
+            schedule = !scheduled;
+            scheduled = true;
+        }
+        if (schedule) scheduler.postFrame(dispatchTask);
+    }
+
+    /** 不再通知 UI（ViewModel.onCleared 时调用；已经预约的那一帧到了也什么都不做） */
+    synchronized void close() {
+        closed = true;
+    }
+
+    /** 累计的状态变化次数 */
+    synchronized int getUpdateCount() {
+        return updateCount;
+    }
+
+    /** 累计交给 UI 的次数（= 主线程消息数 = 渲染次数） */
+    synchronized int getDispatchCount() {
+        return dispatchCount;
+    }
+
+    private void dispatch() {
+        FeedUiState latest;
+        synchronized (this) {
+            scheduled = false;
+            if (closed || state.getVersion() == lastDispatchedVersion) return;
+            latest = state;
+            lastDispatchedVersion = latest.getVersion();
+            dispatchCount++;
+        }
+        sink.accept(latest);
+    }
+}
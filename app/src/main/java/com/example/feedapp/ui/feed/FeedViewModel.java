@@ -1,8 +1,7 @@
 //UI 不直接接触 Repository，而是走 ViewModel
-//LiveData 列表：cardsLiveData
-//刷新状态：refreshingLiveData
-//加载更多状态：loadingMoreLiveData
+//界面状态：uiStateLiveData（列表 + 刷新 / 加载更多 / 空页面 / 错误层，按帧合并）
 //提示消息：toastLiveData
+//start(saved) → 第一次进入刷新 / 进程被杀之后从本地缓存恢复
 //refresh() → 调 Repository.refresh()
 //loadMore() → 调 Repository.loadMore()
 //deleteCard(card) → 调 Repository.deleteCard()
@@ -10,6 +9,10 @@
 package com.example.feedapp.ui.feed;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
@@ -17,7 +20,11 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.repository.FeedDelta;
+import com.example.feedapp.data.repository.FeedPagingState;
 import com.example.feedapp.data.repository.FeedRepository;
+import com.example.feedapp.data.repository.PageSizePolicy;
+import com.example.feedapp.perf.StartupTracer;
 
 import java.util.List;
 
@@ -26,18 +33,23 @@ import java.util.List;
  *
  * 职责：
  * - 持有一个 FeedRepository 实例；
- * - 暴露各种 LiveData 给 Fragment 使用：
- *      - cardsLiveData：列表数据（List<FeedCard>）
- *      - refreshingLiveData：下拉刷新是否在进行
- *      - loadingMoreLiveData：是否在加载更多
- *      - toastLiveData：给 UI 用于弹 Toast 的消息
- *      - showEmptyViewLiveData：是否显示“空页面占位”
- *      - showErrorViewLiveData：是否显示“错误覆盖层”
- * - 提供三类对外操作：
+ * - 暴露两个 LiveData 给 Fragment 使用：
+ *      - uiStateLiveData：FeedUiState（列表、下拉刷新中、加载更多中、空页面、错误层），一帧最多更新一次
+ *      - toastLiveData：给 UI 用于弹 Toast 的消息（一次性事件，不放进状态）
+ * - 提供几类对外操作：
+ *      - start()：页面第一次拿到这个 ViewModel 时调用，决定是刷新还是从本地缓存恢复
  *      - refresh()：刷新列表
  *      - loadMore()：加载更多
  *      - deleteCard()：删除某条卡片
  *
+ * 列表数据和请求结果都来自 Repository 的变化流（FeedDeltaQueue）：
+ * - 一批变化一次 drain 完，取最后一个列表变化带的快照作为当前列表；
+ * - 快照是 FeedCardStore 的只读视图，折叠时不复制任何卡片；
+ * - 同一批里的 COMPLETE / ERROR 决定 loading 状态、空页面、错误层和 Toast，和列表一起折叠成一次 update。
+ *
+ * 所有字段的修改都经过 FeedUiStateHolder：同一帧里改多少次，都只在下一帧开始时 setValue 最新的一份，
+ * 一次刷新成功只通知 UI 一次（以前是四五个 LiveData 各 post 一次、各通知一次）。
+ *
  * 这样 Fragment 不需要关心 Repository 的细节，只管调这几个方法 + 观察 LiveData。
  */
 public class FeedViewModel extends AndroidViewModel {
@@ -46,93 +58,116 @@ public class FeedViewModel extends AndroidViewModel {
 
     // -------- 暴露给 UI 的 LiveData --------
 
-    /** 当前列表数据（UI 只观察这个，不自己持有列表） */
-    private final MutableLiveData<List<FeedCard>> cardsLiveData = new MutableLiveData<>();
-    /** 下拉刷新进行中？用于控制 SwipeRefreshLayout 的 loading 圈 */
-    private final MutableLiveData<Boolean> refreshingLiveData = new MutableLiveData<>(false);
-    /** 加载更多进行中？用于控制底部 Footer 的显示 */
-    private final MutableLiveData<Boolean> loadingMoreLiveData = new MutableLiveData<>(false);
+    /** 界面状态（UI 只观察这个，不自己持有列表） */
+    private final MutableLiveData<FeedUiState> uiStateLiveData = new MutableLiveData<>(FeedUiState.INITIAL);
     /** 需要给用户弹出的文本提示（Toast 内容） */
     private final MutableLiveData<String> toastLiveData = new MutableLiveData<>();
-    /** 是否显示“空页面”占位 View */
-    private final MutableLiveData<Boolean> showEmptyViewLiveData = new MutableLiveData<>(false);
-    /** 是否显示“错误覆盖层”（全屏错误 + 重试按钮） */
-    private final MutableLiveData<Boolean> showErrorViewLiveData = new MutableLiveData<>(false);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    /** start() 是否已经调用过：旋转屏幕时 ViewModel 还在，不需要再刷新 / 恢复 */
+    private boolean started;
+    /** 按帧合并状态：任意线程修改，下一帧开始时在主线程 setValue 最新的一份 */
+    private final FeedUiStateHolder uiState =
+            new FeedUiStateHolder(FeedUiState.INITIAL, this::postFrame, uiStateLiveData::setValue);
     // -------------------- 构造函数：创建 Repository --------------------
     public FeedViewModel(@NonNull Application application) {
         super(application);
         // Repository 需要一个 Context 来创建 LocalDataSource（写入缓存文件）
         repository = new FeedRepository(application);
+        // 订阅列表变化流：在发出变化的线程上直接折叠进状态，状态自己会按帧合并
+        repository.getDeltas().setListener(this::applyDeltas);
     }
-    // -------------------- 各种 LiveData 的 Getter（供 UI 观察） --------------------
-    public LiveData<List<FeedCard>> getCards() {
-        return cardsLiveData;
+    // -------------------- LiveData 的 Getter（供 UI 观察） --------------------
+    public LiveData<FeedUiState> getUiState() {
+        return uiStateLiveData;
     }
 
-    public LiveData<Boolean> getRefreshing() {
-        return refreshingLiveData;
+    public LiveData<String> getToastMessage() {
+        return toastLiveData;
     }
 
-    public LiveData<Boolean> getLoadingMore() {
-        return loadingMoreLiveData;
+    /**
+     * 设置「一页数据到达」时的后台预处理（例如文字预排版），传 null 取消。
+     * Fragment 在 onViewCreated 设置、onDestroyView 清空，避免 ViewModel 持有旧页面的对象。
+     */
+    public void setPageListener(FeedRepository.PageListener listener) {
+        repository.setPageListener(listener);
     }
 
-    public LiveData<String> getToastMessage() {
-        return toastLiveData;
+    /**
+     * 上报当前视口（第一个可见位置、可见张数），Repository 据此调整每页张数。
+     * Fragment 在 onScrolled 里调用（布局完成后也会回调一次 dy = 0）。
+     */
+    public void onViewport(int firstVisible, int visibleCount) {
+        repository.getPageSizePolicy().onViewport(firstVisible, visibleCount, SystemClock.uptimeMillis());
     }
 
+    /** 当前页大小及其输入（一屏张数 / 请求耗时 / 滑动速度），调试 / 上报用 */
+    public PageSizePolicy.Metrics getPageSizeMetrics() {
+        return repository.getPageSizePolicy().getMetrics();
+    }
+
+
+    // -------------------- 首次加载 / 进程被杀之后恢复 --------------------
 
-    public LiveData<Boolean> getShowEmptyView() {return showEmptyViewLiveData;}
+    /**
+     * Fragment 在 onViewCreated 里调用，决定这个页面的数据从哪来：
+     * - ViewModel 已经开始过（旋转屏幕等配置变化，ViewModel 活了下来）：什么都不做，列表还在；
+     * - saved == null（第一次进入）：先同步读首屏快照放进状态（第一帧就有内容），再从网络刷新；
+     * - saved != null（进程被杀之后重建）：先不走网络，从本地缓存恢复列表和游标，
+     *   UI 就能在第一帧滚回原来的位置；恢复不了（没缓存 / 缓存和游标对不上）再从网络刷新。
+     *
+     * @return true 表示这次真的开始加载了（Fragment 据此决定要不要等着滚回锚点）
+     */
+    public boolean start(FeedPagingState saved) {
+        if (started) return false;
+        started = true;
+        if (saved == null || saved.getCount() == 0) {
+            showFirstScreen();
+            refresh();
+            return true;
+        }
+        uiState.update(b -> b.restoring(true).showErrorView(false));
+        // 结果（COMPLETE / ERROR(RESTORE)）在 applyDeltas 里处理
+        repository.restore(saved);
+        return true;
+    }
 
-    public LiveData<Boolean> getShowErrorView() {return showErrorViewLiveData;}
+    /**
+     * 冷启动：同步读首屏快照（最多 10 张的小文件）。Repository 在后台把它的文字排好版之后作为 RESET 放进变化流，
+     * 和其他列表变化一样折叠进状态；随后的刷新结果（或者刷新失败时的本地缓存）作为 RESET 到达时整体替换它。
+     */
+    private void showFirstScreen() {
+        long start = SystemClock.uptimeMillis();
+        List<FeedCard> cards = repository.loadFirstScreen();
+        long now = SystemClock.uptimeMillis();
+        StartupTracer tracer = StartupTracer.get();
+        if (tracer.mark(StartupTracer.FIRST_SCREEN_READ, now)) {
+            tracer.note(StartupTracer.FIRST_SCREEN_READ, cards.size() + " cards in " + (now - start) + "ms");
+        }
+    }
 
+    /**
+     * 页面进入后台时（onSaveInstanceState）保存分页状态：只有游标等几个小值，卡片本身留在本地缓存里。
+     * 同时提前写掉还在防抖的本地缓存，让缓存尽快和这个状态对上。
+     */
+    public FeedPagingState savePagingState() {
+        return repository.savePagingState();
+    }
 
     // -------------------- 下拉刷新 --------------------
 
     /**
      * 下拉刷新入口：
      * - Fragment 的 SwipeRefreshLayout 调用 viewModel.refresh()；
-     * - 这里再调用 repository.refresh(...)；
-     * - 成功 / 失败后，通过回调更新各个 LiveData。
+     * - 这里再调用 repository.refresh()；
+     * - 成功 / 失败的结果作为 COMPLETE / ERROR 从变化流到达，在 applyDeltas 里更新界面状态。
      */
     public void refresh() {
-        // 1. 先把刷新状态设为 true，UI 会立刻看到小圈圈转起来
-        refreshingLiveData.setValue(true);
+        // 1. 先把刷新状态设为 true，下一帧 UI 就会看到小圈圈转起来
         // 2. 刷新前先隐藏错误层（用户点了“重试”之后，先把错误罩层收起来）
-        showErrorViewLiveData.setValue(false);
+        uiState.update(b -> b.refreshing(true).showErrorView(false));
         // 3. 调用 Repository 的刷新逻辑（后台线程执行）
-        repository.refresh(new FeedRepository.Callback() {
-            @Override
-            public void onSuccess(List<FeedCard> list, boolean hasMore, int nextPage) {
-                // 刷新结束 -> 关闭下拉刷新 loading
-                refreshingLiveData.postValue(false);
-                // 更新列表数据
-                cardsLiveData.postValue(list);
-                // 成功时：若列表为空 -> 显示空页面，否则隐藏空页面
-                boolean isEmpty = (list == null || list.isEmpty());
-                showEmptyViewLiveData.postValue(isEmpty);
-                // 成功时一定不显示错误层
-                showErrorViewLiveData.postValue(false);
-            }
-
-            @Override
-            public void onError(Throwable t, List<FeedCard> cache) {
-                // 无论如何刷新结束
-                refreshingLiveData.postValue(false);
-                if (cache != null && !cache.isEmpty()) {
-                    // 情况 1：有本地缓存 -> 用缓存填充列表
-                    cardsLiveData.postValue(cache);
-                    showEmptyViewLiveData.postValue(false);
-                    showErrorViewLiveData.postValue(false);
-                    toastLiveData.postValue("网络失败，展示本地缓存");
-                } else {
-                    // 情况 2：既没网络也没缓存 -> 显示错误覆盖层
-                    showErrorViewLiveData.postValue(true);
-                    showEmptyViewLiveData.postValue(false);
-                    toastLiveData.postValue("刷新失败：" + t.getMessage());
-                }
-            }
-        });
+        repository.refresh();
     }
 
 
@@ -141,39 +176,19 @@ public class FeedViewModel extends AndroidViewModel {
     /**
      * 滑到底部触发加载更多：
      * - Fragment 在 onScrolled 接近底部时调用 viewModel.loadMore()；
-     * - 这里先询问 repository.canLoadMore()，避免无意义请求；
-     * - 然后调用 repository.loadMore(...)；
-     * - 成功后更新列表，失败则只弹 Toast，不动已有列表。
+     * - 这里先询问 repository.canLoadMore()，已经到底就不再请求；
+     * - 同一页正在加载时重复调用没关系：Repository 会合并成一次请求，结束时放一个 COMPLETE / ERROR；
+     * - 然后调用 repository.loadMore()；
+     * - 成功后更新列表，失败则只弹 Toast，不动已有列表（见 applyDeltas）。
      */
     public void loadMore() {
-        // 如果 Repository 判断不能加载更多（比如已经到底 / 正在加载中），直接 return
+        // 如果 Repository 判断不能加载更多（已经到底），直接 return
         if (!repository.canLoadMore()) {
             return;
         }
-        // 标记“正在加载更多”，UI 底部 Footer 会显示 loading
-        loadingMoreLiveData.setValue(true);
-
-        repository.loadMore(new FeedRepository.Callback() {
-            @Override
-            public void onSuccess(List<FeedCard> list, boolean hasMore, int nextPage) {
-                // 加载更多结束
-                loadingMoreLiveData.postValue(false);
-                // 更新最新列表
-                cardsLiveData.postValue(list);
-                // 如果列表为空，说明可能是服务器返回空数据，也可以显示空页面
-                showEmptyViewLiveData.postValue(list == null || list.isEmpty());
-                // 成功时不显示错误层
-                showErrorViewLiveData.postValue(false);
-            }
-
-            @Override
-            public void onError(Throwable t, List<FeedCard> cache) {
-                // 加载更多失败：不改变已有列表，只提示用户一下
-                loadingMoreLiveData.postValue(false);
-                toastLiveData.postValue("加载更多失败");
-                // 不显示错误覆盖层，用户还能看到已加载的数据
-            }
-        });
+        // 标记“正在加载更多”，UI 底部 Footer 会显示 loading（已经在加载时这是一次空操作，不会再通知 UI）
+        uiState.update(b -> b.loadingMore(true));
+        repository.loadMore();
     }
 
 
@@ -182,12 +197,113 @@ public class FeedViewModel extends AndroidViewModel {
     /**
      * 删除一条卡片：
      * - Fragment 在删除确认对话框点击“删除”后，会调用 viewModel.deleteCard(card)；
-     * - 这里再转发到 Repository.deleteCard(id)，让数据层去删；
-     * - 删完之后，再从 Repository 拿一份最新快照，更新列表 LiveData。
+     * - 这里再转发到 Repository.deleteCard(id)，让数据层去删（内存里 O(1) 打墓碑，落盘交给 writer 线程）；
+     * - 删完之后 REMOVE 已经在变化流里（Listener 已经把它折叠进状态），下一帧列表就会更新。
      */
     public void deleteCard(FeedCard card) {
         if (card == null) return;
         repository.deleteCard(card.getId());
-        cardsLiveData.setValue(repository.getCurrentSnapshot());
+    }
+
+    // -------------------- 折叠列表变化 --------------------
+
+    /**
+     * 取走积压的全部变化，折叠成界面状态（在发出变化的线程上调用：Repository 后台线程，或删除时的主线程）：
+     * - 每个列表变化都带着「变化之后的完整列表」（只读快照），最后一个就是现在的列表，中间的不用逐个回放；
+     *   Adapter 按帧拿到的只是最新的列表，局部刷新的区间由 FeedDiffPlanner 按快照的血缘关系得出
+     *   （一帧里可能折叠了好几个变化，单个变化的 position / count 对不上 Adapter 手里的旧列表）；
+     * - COMPLETE / ERROR 结束对应的 loading 状态，决定空页面 / 错误层，失败时弹 Toast；
+     * - 整批只 update 一次；drain 和更新状态放在同一把锁里，两个线程同时折叠时不会让旧的列表覆盖新的。
+     */
+    private void applyDeltas() {
+        synchronized (uiState) {
+            List<FeedDelta> batch = repository.getDeltas().drain();
+            if (batch.isEmpty()) return;
+            List<FeedCard> cards = latestList(batch);
+            uiState.update(b -> {
+                if (cards != null) b.cards(cards);
+                for (FeedDelta delta : batch) {
+                    if (delta.getType() == FeedDelta.Type.COMPLETE) {
+                        onComplete(b, delta, cards != null ? cards : uiState.current().getCards());
+                    } else if (delta.getType() == FeedDelta.Type.ERROR) {
+                        onError(b, delta);
+                    }
+                }
+                return b;
+            });
+        }
+    }
+
+    /** 这一批里最后一个列表变化带的列表；只有请求结束事件时为 null */
+    private static List<FeedCard> latestList(List<FeedDelta> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (!batch.get(i).isStatus()) return batch.get(i).getList();
+        }
+        return null;
+    }
+
+    /** 请求成功结束：关掉对应的 loading；列表为空显示空页面，一定不显示错误层 */
+    private static void onComplete(FeedUiState.Builder b, FeedDelta delta, List<FeedCard> cards) {
+        switch (delta.getRequest()) {
+            case REFRESH:
+                b.refreshing(false);
+                break;
+            case LOAD_MORE:
+                b.loadingMore(false);
+                break;
+            case RESTORE:
+                // 列表和游标都恢复了：不需要网络请求，之后滑到底部照常加载更多
+                b.restoring(false);
+                break;
+        }
+        b.showEmptyView(cards.isEmpty()).showErrorView(false);
+    }
+
+    /** 请求失败：关掉对应的 loading，按情况显示错误层 / 弹 Toast / 重新刷新 */
+    private void onError(FeedUiState.Builder b, FeedDelta delta) {
+        Throwable t = delta.getError();
+        switch (delta.getRequest()) {
+            case REFRESH:
+                // 情况 1：有本地缓存 -> 缓存的第一屏已经作为 RESET 进了变化流，剩下的陆续作为 APPEND 到达
+                // 情况 2：既没网络也没缓存 -> 显示错误覆盖层
+                b.refreshing(false).showEmptyView(false).showErrorView(!delta.isShowingCache());
+                toastLiveData.postValue(delta.isShowingCache()
+                        ? "网络失败，展示本地缓存" : "刷新失败：" + t.getMessage());
+                break;
+            case LOAD_MORE:
+                // 加载更多失败：不改变已有列表，只提示用户一下；不显示错误覆盖层，用户还能看到已加载的数据
+                b.loadingMore(false);
+                toastLiveData.postValue("加载更多失败");
+                break;
+            case RESTORE:
+                // 没有缓存，或者缓存落后于保存的游标：缓存（如果有）先留在屏幕上，再从网络刷新
+                t.printStackTrace();
+                b.restoring(false);
+                mainHandler.post(this::refresh);
+                break;
+        }
+    }
+
+    /**
+     * FeedUiStateHolder 的 FrameScheduler：切到主线程，在下一帧开始（布局之前）执行，
+     * 这样一帧里的所有状态变化只触发一次渲染、一次布局。
+     */
+    private void postFrame(Runnable frame) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            Choreographer.getInstance().postFrameCallback(frameTimeNanos -> frame.run());
+        } else {
+            mainHandler.post(() -> Choreographer.getInstance().postFrameCallback(frameTimeNanos -> frame.run()));
+        }
+    }
+
+    /**
+     * ViewModel 销毁时释放 Repository：还在防抖的本地缓存立即写入，后台线程随后退出。
+     */
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        repository.getDeltas().setListener(null);
+        uiState.close();
+        repository.close();
     }
 }
@@ -0,0 +1,147 @@
+package com.example.feedapp.ui.feed;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedCardStore;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SpanSizeTable：当前列表每个位置「占几列、从第几列开始、在第几行」的预计算表（纯 Java，FeedSpanSizeLookup 用）。
+ *
+ * GridLayoutManager 的默认算法：
+ * - getSpanIndex / getSpanGroupIndex(position) 都是从 0 开始把前面每个位置的 span 累加一遍，O(position)；
+ * - scrollToPosition 到第 1 万张时，光算锚点在第几行就要回调 1 万次 getSpanSize；
+ * - 自带的 SparseIntArray 缓存在每次 notifyItemXxx 时被整个清空，追加一页之后又要从 0 算起。
+ *
+ * 这里用三个基本类型数组保存结果，查询都是 O(1)，并且跟着列表的变化增量维护：
+ * - 加载更多（新快照是旧快照追加得到的）：只算新追加的部分，O(追加张数)；
+ * - 删除一张（新快照是旧快照删一张得到的）：从删除位置往后重算，前面的不动；
+ * - 其他情况（刷新、缓存回退、非快照列表）：整表重建，O(n) 次数组写，不创建对象。
+ *
+ * 规则和 GridLayoutManager 默认的 getSpanIndex / getSpanGroupIndex 完全一致：
+ * 当前行放不下就换行，正好放满就换到下一行。
+ *
+ * 非线程安全：只在主线程（布局过程中）使用。
+ */
+final class SpanSizeTable {
+
+    private final int spanCount;
+
+    /** 和哪份列表同步过（按引用比较；快照不可变，引用相同内容就相同） */
+    private List<FeedCard> syncedList;
+    private int size;
+    private byte[] spanSizes = new byte[0];
+    private int[] spanIndices = new int[0];
+    private int[] groupIndices = new int[0];
+
+    SpanSizeTable(int spanCount) {
+        if (spanCount <= 0 || spanCount > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("spanCount=" + spanCount);
+        }
+        this.spanCount = spanCount;
+    }
+
+    /** 单列卡片占满一行，其余（双列）占一列（和以前 Fragment 里的规则一样） */
+    static int spanSizeOf(int layoutType, int spanCount) {
+        return layoutType == FeedCard.LAYOUT_SINGLE ? spanCount : 1;
+    }
+
+    // -------------------- 同步 --------------------
+
+    /**
+     * 让表和 list 保持一致。同一份列表重复调用是 O(1)。
+     *
+     * @return 从哪个位置开始重算了（没有变化时返回 list.size()）
+     */
+    int sync(List<FeedCard> list) {
+        if (list == syncedList) return size;
+        int from = 0;
+        if (syncedList instanceof FeedCardStore.Snapshot && list instanceof FeedCardStore.Snapshot) {
+            FeedCardStore.Snapshot older = (FeedCardStore.Snapshot) syncedList;
+            FeedCardStore.Snapshot newer = (FeedCardStore.Snapshot) list;
+            int appendedAt = newer.appendedAfter(older);
+            if (appendedAt >= 0) {
+                from = appendedAt;
+            } else {
+                int removedAt = newer.removedFrom(older);
+                if (removedAt >= 0) from = removedAt;
+            }
+        }
+        recompute(list, from);
+        syncedList = list;
+        return from;
+    }
+
+    private void recompute(List<FeedCard> list, int from) {
+        int n = list.size();
+        ensureCapacity(n);
+        FeedCardStore.Snapshot snapshot = list instanceof FeedCardStore.Snapshot
+                ? (FeedCardStore.Snapshot) list : null;
+
+        // 位置 from 之前的状态：当前行已经占了几列、当前是第几行
+        int span = 0;
+        int group = 0;
+        if (from > 0) {
+            span = spanIndices[from - 1] + spanSizes[from - 1];
+            group = groupIndices[from - 1];
+            if (span == spanCount) {
+                span = 0;
+                group++;
+            }
+        }
+        for (int i = from; i < n; i++) {
+            int layoutType = snapshot != null ? snapshot.layoutTypeAt(i) : list.get(i).getLayoutType();
+            int s = spanSizeOf(layoutType, spanCount);
+            if (span + s > spanCount) {
+                // 当前行放不下：换行
+                span = 0;
+                group++;
+            }
+            spanSizes[i] = (byte) s;
+            spanIndices[i] = span;
+            groupIndices[i] = group;
+            span += s;
+            if (span == spanCount) {
+                span = 0;
+                group++;
+            }
+        }
+        size = n;
+    }
+
+    private void ensureCapacity(int n) {
+        if (spanSizes.length >= n) return;
+        int capacity = Math.max(n, spanSizes.length + (spanSizes.length >> 1));
+        spanSizes = Arrays.copyOf(spanSizes, capacity);
+        spanIndices = Arrays.copyOf(spanIndices, capacity);
+        groupIndices = Arrays.copyOf(groupIndices, capacity);
+    }
+
+    // -------------------- 查询（调用前先 sync） --------------------
+
+    /** 已同步的张数 */
+    int size() {
+        return size;
+    }
+
+    int spanSizeAt(int position) {
+        return spanSizes[position];
+    }
+
+    int spanIndexAt(int position) {
+        return spanIndices[position];
+    }
+
+    int spanGroupIndexAt(int position) {
+        return groupIndices[position];
+    }
+
+    /**
+     * 列表之后紧跟一个占满整行的 item（Footer）时，它在第几行：
+     * 最后一行没放满时 Footer 放不下要换行，放满了本来就是下一行，所以总是最后一张的行号 + 1。
+     */
+    int groupIndexAfterEnd() {
+        return size == 0 ? 0 : groupIndices[size - 1] + 1;
+    }
+}
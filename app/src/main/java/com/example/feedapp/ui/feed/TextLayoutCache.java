@@ -0,0 +1,115 @@
+package com.example.feedapp.ui.feed;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.widget.TextView;
+
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.databinding.ItemFeedTextBinding;
+
+import java.util.List;
+
+/**
+ * TextLayoutCache：文字卡片的「预排版」缓存。
+ *
+ * 问题：
+ * - TextViewHolder.bind 直接 setText(title / subTitle / content)，
+ *   文字测量（字形宽度、断行）都发生在主线程的 bind / layout 阶段，也就是 fling 的关键路径上。
+ *
+ * 做法：
+ * - 一页数据到达时，FeedRepository 通过 PageListener 回调到 precompute(...)：前一屏在交给 UI 之前、
+ *   在 Repository 线程上同步处理（RESET / APPEND 之后第一次 bind 就能命中），剩下的交给 UI 之后在单独的后台线程上处理；
+ * - 用 PrecomputedTextCompat 在后台把三段文字提前测量好，按卡片内容 hash 缓存（key 和 LRU 见 TextLayoutLru）；
+ * - bind 时命中缓存就用 TextViewCompat.setPrecomputedText(...)，主线程不再做测量。
+ *
+ * 测量参数（字号、粗细、断行策略）来自一份离屏 inflate 的 item_feed_text.xml，
+ * 保证和真正展示时的 TextView 完全一致；否则 setPrecomputedText 会拒绝使用（此时退回 setText）。
+ */
+public class TextLayoutCache {
+
+    /** 最多缓存的卡片数：超过后按 LRU 丢弃最久没用到的 */
+    private static final int MAX_ENTRIES = 600;
+
+    /** 一张卡片预排版后的三段文字 */
+    static final class Entry {
+        final PrecomputedTextCompat title;
+        final PrecomputedTextCompat subTitle;
+        final PrecomputedTextCompat content;
+
+        Entry(PrecomputedTextCompat title, PrecomputedTextCompat subTitle, PrecomputedTextCompat content) {
+            this.title = title;
+            this.subTitle = subTitle;
+            this.content = content;
+        }
+    }
+
+    private final PrecomputedTextCompat.Params titleParams;
+    private final PrecomputedTextCompat.Params subTitleParams;
+    private final PrecomputedTextCompat.Params contentParams;
+
+    private final TextLayoutLru<Entry> entries = new TextLayoutLru<>(MAX_ENTRIES);
+
+    public TextLayoutCache(Context context) {
+        // 离屏 inflate 一份文字卡模板，只为了拿到和真实 TextView 一致的测量参数
+        ItemFeedTextBinding template = ItemFeedTextBinding.inflate(LayoutInflater.from(context));
+        titleParams = TextViewCompat.getTextMetricsParams(template.tvTitle);
+        subTitleParams = TextViewCompat.getTextMetricsParams(template.tvSubTitle);
+        contentParams = TextViewCompat.getTextMetricsParams(template.tvContent);
+    }
+
+    // -------------------- 后台：预排版 --------------------
+
+    /**
+     * 对一页卡片中的文字卡做预排版。
+     * 由 FeedRepository 在后台线程上调用（Repository 线程和 PageListener 专用线程可能同时调用，
+     * entries 自己是同步的；同一张卡片偶尔算两次也没关系），不要在主线程调用。
+     */
+    public void precompute(List<FeedCard> page) {
+        if (page == null) return;
+        for (FeedCard card : page) {
+            if (card == null || card.getCardType() != FeedCard.TYPE_TEXT) continue;
+            if (entries.contains(card)) continue;
+            Entry entry = new Entry(
+                    create(card.getTitle(), titleParams),
+                    create(card.getSubTitle(), subTitleParams),
+                    create(card.getContent(), contentParams));
+            entries.put(card, entry);
+        }
+    }
+
+    // -------------------- 主线程：bind 时取用 --------------------
+
+    /**
+     * 把卡片文字设置到三个 TextView 上：命中缓存用预排版结果，否则退回普通 setText。
+     */
+    void bindText(FeedCard card, TextView title, TextView subTitle, TextView content) {
+        Entry entry = entries.get(card);
+        if (entry == null) {
+            title.setText(card.getTitle());
+            subTitle.setText(card.getSubTitle());
+            content.setText(card.getContent());
+            return;
+        }
+        setPrecomputed(title, entry.title, card.getTitle());
+        setPrecomputed(subTitle, entry.subTitle, card.getSubTitle());
+        setPrecomputed(content, entry.content, card.getContent());
+    }
+
+    // -------------------- 工具方法 --------------------
+
+    private static PrecomputedTextCompat create(String text, PrecomputedTextCompat.Params params) {
+        return PrecomputedTextCompat.create(text == null ? "" : text, params);
+    }
+
+    private static void setPrecomputed(TextView tv, PrecomputedTextCompat text, String raw) {
+        try {
+            TextViewCompat.setPrecomputedText(tv, text);
+        } catch (IllegalArgumentException e) {
+            // 测量参数和 TextView 当前参数不一致（比如系统字体缩放刚改过），退回普通 setText
+            tv.setText(raw);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.feedapp.ui.feed;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * TextLayoutLru：TextLayoutCache 的 key 和 LRU 部分，纯 Java，方便在 JVM 上测试。
+ *
+ * - key = 卡片内容 hash（已包含 id、排版和三段文字）：同一张卡片文字被更新后（局部刷新），
+ *   不会错误地命中旧文字的排版结果；
+ * - key 里不带宽度：PrecomputedText 只测量字形宽度，断行在 setPrecomputedText 之后按 TextView 的实际宽度做，
+ *   同一份结果在旋转屏幕 / 分屏之后照样能用；
+ * - 条目数超过上限时丢弃最久没用到的；后台线程 put、主线程 get，全部方法在 this 上同步。
+ */
+final class TextLayoutLru<V> {
+
+    private final int maxEntries;
+
+    /** accessOrder = true 的 LinkedHashMap 就是一个简单的 LRU */
+    private final LinkedHashMap<Long, V> entries;
+
+    TextLayoutLru(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<Long, V>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                return size() > TextLayoutLru.this.maxEntries;
+            }
+        };
+    }
+
+    static long keyOf(FeedCard card) {
+        return card.getContentHash();
+    }
+
+    /** 只看有没有，不刷新 LRU 顺序（预排版时用来跳过已经算过的卡片） */
+    synchronized boolean contains(FeedCard card) {
+        return entries.containsKey(keyOf(card));
+    }
+
+    /** 取出这张卡片的结果并刷新 LRU 顺序；没有时返回 null */
+    synchronized V get(FeedCard card) {
+        return entries.get(keyOf(card));
+    }
+
+    synchronized void put(FeedCard card, V value) {
+        entries.put(keyOf(card), value);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.feedapp.ui.feed;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AttributeSet;
+import android.util.SparseIntArray;
+import android.view.ViewGroup;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.feedapp.perf.FeedMetrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ViewHolderPrewarmer：启动后趁主线程空闲，提前把各类型卡片的 ViewHolder 创建好。
+ *
+ * 问题：
+ * - FeedAdapter.onCreateViewHolder 在主线程同步 inflate 布局；
+ * - 视频卡里有 PlayerView（SurfaceView + 一堆子 View），inflate 很重；
+ * - 首页数据到达后的第一次 fling，RecyclerView 需要连续创建十几个 ViewHolder，容易掉帧。
+ *
+ * 做法：
+ * 1. 在主线程第一次空闲（IdleHandler）时开始预热，不和首帧抢时间；
+ * 2. setCount 的类型（文字 / 图片卡，只有普通 View）在后台单线程里调用 adapter.createViewHolder(...) 完成 inflate
+ *    （FeedAdapter 在非主线程会用 cloneInContext 出来的 LayoutInflater，避免和主线程抢锁）；
+ *    parent 用一个不挂在界面上的 DetachedParent，不碰正在布局 / 滚动的 RecyclerView，
+ *    它按 RecyclerView 的 LayoutManager 生成 LayoutParams，inflate 出来的 item 和 RecyclerView 自己创建的一样；
+ * 3. 创建好的 ViewHolder post 回主线程，放进和 RecyclerView 共享的 RecycledViewPool；
+ * 4. setMainThreadCount 的类型（视频卡：PlayerView 里的 SurfaceView 等不保证能在后台线程构造）
+ *    不进后台线程，直接在主线程 IdleHandler 中每次空闲创建一个，依然不阻塞正在进行的滚动；
+ * 5. 某个布局在后台 inflate 失败时，剩下的数量也退回到第 4 步，并计入 FeedMetrics.prewarmFallbacks。
+ *
+ * RecyclerView 之后真正需要 ViewHolder 时，会先从 pool 里拿，直接跳过 onCreateViewHolder。
+ */
+public class ViewHolderPrewarmer {
+
+    /**
+     * 调试 / 基准测试开关：关闭后 start(...) 什么都不做，方便对比开关前后的首次滑动帧耗时。
+     */
+    private static volatile boolean enabled = true;
+
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** 和 RecyclerView 共享的回收池 */
+    private final RecyclerView.RecycledViewPool pool;
+    /** viewType -> 需要在后台预热的数量 */
+    private final SparseIntArray counts = new SparseIntArray();
+    /** viewType -> 只能在主线程预热的数量 */
+    private final SparseIntArray mainThreadCounts = new SparseIntArray();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    /** 后台 inflate 线程：单线程，按顺序一个个创建，不和其他后台任务抢 CPU */
+    private ExecutorService inflateExecutor;
+    /** 后台 inflate 失败、需要回到主线程空闲时再创建的 viewType 队列 */
+    private final Deque<Integer> mainThreadFallback = new ArrayDeque<>();
+    private volatile boolean cancelled = false;
+
+    public ViewHolderPrewarmer(RecyclerView.RecycledViewPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 配置某个 viewType 在后台预热的数量，同时把 pool 中该类型的容量调整到至少这么大
+     * （RecycledViewPool 默认每种类型只保留 5 个，多出来的会被直接丢掉）。
+     * 只用于布局里全是普通 View、可以在后台线程 inflate 的类型。
+     */
+    public ViewHolderPrewarmer setCount(int viewType, int count) {
+        counts.put(viewType, Math.max(0, count));
+        pool.setMaxRecycledViews(viewType, Math.max(count, 5));
+        return this;
+    }
+
+    /**
+     * 配置某个 viewType 只在主线程空闲时预热的数量：布局里有 SurfaceView / PlayerView 这类
+     * 不保证能在后台线程构造的 View 时用这个。
+     */
+    public ViewHolderPrewarmer setMainThreadCount(int viewType, int count) {
+        mainThreadCounts.put(viewType, Math.max(0, count));
+        pool.setMaxRecycledViews(viewType, Math.max(count, 5));
+        return this;
+    }
+
+    /**
+     * 开始预热：等主线程第一次空闲再把任务交给后台线程。
+     * 需要在 recyclerView.setAdapter(adapter) 之后、首屏数据到达之前调用。
+     */
+    public void start(RecyclerView recyclerView, FeedAdapter adapter) {
+        if (!enabled || (counts.size() == 0 && mainThreadCounts.size() == 0)) return;
+        cancelled = false;
+        Looper.myQueue().addIdleHandler(() -> {
+            if (!cancelled) {
+                for (int i = 0; i < mainThreadCounts.size(); i++) {
+                    scheduleOnMainIdle(recyclerView, adapter,
+                            mainThreadCounts.keyAt(i), mainThreadCounts.valueAt(i));
+                }
+                if (counts.size() > 0) {
+                    inflateInBackground(recyclerView, adapter);
+                }
+            }
+            return false; // 只执行一次
+        });
+    }
+
+    /**
+     * 页面销毁时调用：停止尚未开始的预热任务。
+     */
+    public void cancel() {
+        cancelled = true;
+        if (inflateExecutor != null) {
+            inflateExecutor.shutdownNow();
+            inflateExecutor = null;
+        }
+        mainHandler.removeCallbacksAndMessages(null);
+        mainThreadFallback.clear();
+    }
+
+    // -------------------- 内部实现 --------------------
+
+    private void inflateInBackground(RecyclerView recyclerView, FeedAdapter adapter) {
+        // 在主线程创建好，之后只在 inflate 线程上用
+        DetachedParent parent = new DetachedParent(recyclerView);
+        inflateExecutor = Executors.newSingleThreadExecutor();
+        for (int i = 0; i < counts.size(); i++) {
+            final int viewType = counts.keyAt(i);
+            final int count = counts.valueAt(i);
+            inflateExecutor.execute(() -> {
+                for (int n = 0; n < count && !cancelled; n++) {
+                    RecyclerView.ViewHolder holder;
+                    try {
+                        holder = adapter.createViewHolder(parent, viewType);
+                    } catch (RuntimeException e) {
+                        // 这个布局不能在后台 inflate：剩下的数量交给主线程空闲时处理
+                        e.printStackTrace();
+                        int remaining = count - n;
+                        mainHandler.post(() -> {
+                            FeedMetrics.get().recordPrewarmFallbacks(remaining);
+                            scheduleOnMainIdle(recyclerView, adapter, viewType, remaining);
+                        });
+                        return;
+                    }
+                    mainHandler.post(() -> {
+                        if (!cancelled) pool.putRecycledView(holder);
+                    });
+                }
+            });
+        }
+        // 任务都已提交：执行完后线程自动退出
+        inflateExecutor.shutdown();
+    }
+
+    private void scheduleOnMainIdle(RecyclerView recyclerView, FeedAdapter adapter,
+                                    int viewType, int remaining) {
+        if (cancelled) return;
+        boolean wasEmpty = mainThreadFallback.isEmpty();
+        for (int n = 0; n < remaining; n++) {
+            mainThreadFallback.add(viewType);
+        }
+        if (!wasEmpty) return; // 已经有 IdleHandler 在消费队列了
+        Looper.myQueue().addIdleHandler(() -> {
+            Integer type = mainThreadFallback.poll();
+            if (cancelled || type == null) return false;
+            // 每次空闲只创建一个，避免一次占用主线程太久
+            pool.putRecycledView(adapter.createViewHolder(recyclerView, type));
+            return !mainThreadFallback.isEmpty();
+        });
+    }
+
+    /**
+     * 后台 inflate 用的 parent：不挂在任何界面上，只负责给 item 生成 LayoutParams。
+     * LayoutInflater.inflate(..., parent, false) 只调用 generateLayoutParams(AttributeSet)，
+     * 这里交给 RecyclerView 当前的 LayoutManager，得到和 RecyclerView 自己 inflate 时同一种 LayoutParams
+     * （GridLayoutManager / StaggeredGridLayoutManager 各自的 LayoutParams）。
+     */
+    private static final class DetachedParent extends ViewGroup {
+        private final RecyclerView.LayoutManager layoutManager;
+
+        DetachedParent(RecyclerView recyclerView) {
+            super(recyclerView.getContext());
+            this.layoutManager = recyclerView.getLayoutManager();
+        }
+
+        @Override
+        public ViewGroup.LayoutParams generateLayoutParams(AttributeSet attrs) {
+            Context context = getContext();
+            return layoutManager != null
+                    ? layoutManager.generateLayoutParams(context, attrs)
+                    : new RecyclerView.LayoutParams(context, attrs);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int l, int t, int r, int b) {
+            // 从不参与布局
+        }
+    }
+}
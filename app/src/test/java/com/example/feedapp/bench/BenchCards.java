@@ -0,0 +1,24 @@
+package com.example.feedapp.bench;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.remote.SyntheticFeedGenerator;
+
+import java.util.List;
+
+/**
+ * 基准测试用的卡片数据：SyntheticFeedGenerator 的默认种子，
+ * 标题 / 文案长短、类型 / 排版比例接近线上数据，同样的 count 每次生成的卡片完全一样，不同次运行的结果可以直接比。
+ */
+public final class BenchCards {
+
+    private static final int[] VIDEO_RES_IDS = {1, 2, 3, 4, 5};
+
+    private BenchCards() {
+    }
+
+    /** 前 count 张卡片（从最新的往旧的翻） */
+    public static List<FeedCard> cards(int count) {
+        return new SyntheticFeedGenerator(SyntheticFeedGenerator.DEFAULT_SEED,
+                SyntheticFeedGenerator.DEFAULT_CARD_COUNT, VIDEO_RES_IDS).first(count);
+    }
+}
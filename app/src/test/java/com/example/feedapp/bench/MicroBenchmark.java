@@ -0,0 +1,219 @@
+package com.example.feedapp.bench;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * MicroBenchmark：JVM 单元测试里用的小型微基准工具（思路和 JMH 的 AverageTime 模式一样）。
+ *
+ * 为什么不直接上 JMH：
+ * - JMH 要单独的 Gradle 插件 + 注解处理器，而且只能测纯 Java 模块；
+ *   我们要测的类（FeedLocalDataSource / FeedAdapter 的 DiffUtil 回调等）都在 app 模块里，
+ *   拆模块的代价比收益大；
+ * - 这里只做 JMH 里我们真正用到的几件事：预热、多轮测量、防止结果被 JIT 优化掉、输出机器可读的结果。
+ *
+ * 一次 run：
+ * 1. 先跑 warmupIterations 轮（不计时），让 JIT 编译完；
+ * 2. 再跑 measureIterations 轮，每轮调用 op 共 opsPerIteration 次，算出这一轮的平均 ns/op；
+ * 3. 每轮开始前可以跑一次 setup（不计时），比如重新建一个空的 store；
+ * 4. op 的返回值交给 consume()（相当于 JMH 的 Blackhole），避免整段调用被当成死代码删掉。
+ *
+ * 结果：
+ * - 每条打印一行到 stdout，例如 store.snapshot[size=100000] 85.2 ns/op (p50=80.1 p90=97.3)；
+ * - writeResults() 把整组结果写成 JSON（字段名沿用 JMH 的 -rf json：benchmark / params / primaryMetric），
+ *   默认写到 build/benchmark-results/套件名.json，目录可以用系统属性 feed.bench.out 指定（见 app/build.gradle）。
+ *   CI 里和上一次的结果比对 score，就能发现性能回退。
+ */
+public final class MicroBenchmark {
+
+    /** 结果目录的系统属性名 */
+    public static final String OUT_DIR_PROPERTY = "feed.bench.out";
+    private static final String DEFAULT_OUT_DIR = "build/benchmark-results";
+
+    /** 被测的一次操作；返回值会被 consume，不需要返回值时返回 null */
+    public interface Op {
+        Object run() throws Exception;
+    }
+
+    /**
+     * 「Blackhole」：把每次结果的 identityHashCode 折叠进一个 volatile 字段，JIT 就没法证明结果没人用。
+     * 不用 hashCode()：List 的 hashCode 会遍历所有元素，把被测的开销淹没掉。
+     */
+    private static volatile int sink;
+
+    private final String suite;
+    private final List<Result> results = new ArrayList<>();
+    private int warmupIterations = 5;
+    private int measureIterations = 10;
+
+    public MicroBenchmark(String suite) {
+        this.suite = suite;
+    }
+
+    public MicroBenchmark warmup(int iterations) {
+        this.warmupIterations = iterations;
+        return this;
+    }
+
+    public MicroBenchmark measure(int iterations) {
+        this.measureIterations = iterations;
+        return this;
+    }
+
+    // -------------------- 运行 --------------------
+
+    public Result run(String name, String params, int opsPerIteration, Op op) throws Exception {
+        return run(name, params, opsPerIteration, null, op);
+    }
+
+    /**
+     * 跑一个基准。
+     *
+     * @param name            基准名，例如 "saveCache"（结果里是「套件名.基准名」）
+     * @param params          参数描述，例如 "cards=1000"（写进结果，比对时按 name + params 对应）
+     * @param opsPerIteration 每轮调用 op 多少次（单次很快的操作要调大，让一轮至少有几毫秒）
+     * @param setup           每轮开始前执行一次，不计时；可以为 null
+     */
+    public Result run(String name, String params, int opsPerIteration, Runnable setup, Op op)
+            throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(opsPerIteration, setup, op);
+        }
+        double[] nsPerOp = new double[measureIterations];
+        for (int i = 0; i < measureIterations; i++) {
+            nsPerOp[i] = iteration(opsPerIteration, setup, op);
+        }
+        Result result = new Result(suite + "." + name, params, opsPerIteration, nsPerOp);
+        results.add(result);
+        System.out.println(result);
+        return result;
+    }
+
+    private static double iteration(int ops, Runnable setup, Op op) throws Exception {
+        if (setup != null) setup.run();
+        int local = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            Object value = op.run();
+            local += System.identityHashCode(value);
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += local;
+        return (double) elapsed / ops;
+    }
+
+    /** 手动交给 Blackhole（op 里有多个中间结果时用） */
+    public static void consume(Object value) {
+        sink += System.identityHashCode(value);
+    }
+
+    // -------------------- 输出 --------------------
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * 把这一组结果写成 JSON 文件，返回写到的文件。
+     * 写失败不影响测试结果（基准测试的主要输出是数字本身），只打印异常。
+     */
+    public File writeResults() {
+        File dir = new File(System.getProperty(OUT_DIR_PROPERTY, DEFAULT_OUT_DIR));
+        File file = new File(dir, suite + ".json");
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            System.err.println("cannot create " + dir);
+            return file;
+        }
+        List<Map<String, Object>> json = new ArrayList<>();
+        for (Result result : results) {
+            json.add(result.toJson());
+        }
+        Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            gson.toJson(json, writer);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        System.out.println("benchmark results -> " + file.getAbsolutePath());
+        return file;
+    }
+
+    /**
+     * 一个基准的结果（单位 ns/op，取的是每一轮的平均值在各轮之间的分布）。
+     */
+    public static final class Result {
+        public final String benchmark;
+        public final String params;
+        public final int opsPerIteration;
+        public final double meanNs;
+        public final double p50Ns;
+        public final double p90Ns;
+        public final double minNs;
+        public final double maxNs;
+        /** 每一轮的 ns/op（按测量顺序） */
+        public final double[] rawNs;
+
+        Result(String benchmark, String params, int opsPerIteration, double[] rawNs) {
+            this.benchmark = benchmark;
+            this.params = params;
+            this.opsPerIteration = opsPerIteration;
+            this.rawNs = rawNs;
+            double[] sorted = rawNs.clone();
+            Arrays.sort(sorted);
+            double sum = 0;
+            for (double v : sorted) sum += v;
+            this.meanNs = sum / sorted.length;
+            this.p50Ns = sorted[sorted.length / 2];
+            this.p90Ns = sorted[Math.min(sorted.length - 1, sorted.length * 9 / 10)];
+            this.minNs = sorted[0];
+            this.maxNs = sorted[sorted.length - 1];
+        }
+
+        /** JMH -rf json 的子集：benchmark / mode / params / primaryMetric */
+        Map<String, Object> toJson() {
+            Map<String, Object> percentiles = new LinkedHashMap<>();
+            percentiles.put("0.0", minNs);
+            percentiles.put("50.0", p50Ns);
+            percentiles.put("90.0", p90Ns);
+            percentiles.put("100.0", maxNs);
+
+            Map<String, Object> metric = new LinkedHashMap<>();
+            metric.put("score", meanNs);
+            metric.put("scoreUnit", "ns/op");
+            metric.put("scorePercentiles", percentiles);
+            metric.put("rawData", rawNs);
+
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("benchmark", benchmark);
+            json.put("mode", "avgt");
+            json.put("params", params);
+            json.put("measurementIterations", rawNs.length);
+            json.put("opsPerIteration", opsPerIteration);
+            json.put("primaryMetric", metric);
+            return json;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s[%s] %s ns/op (p50=%s p90=%s)",
+                    benchmark, params, format(meanNs), format(p50Ns), format(p90Ns));
+        }
+
+        private static String format(double ns) {
+            return ns < 10 ? String.format(Locale.US, "%.2f", ns) : String.format(Locale.US, "%.1f", ns);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.feedapp.data.local;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FeedCacheReader 的单元测试：分块交付、尾部截断 / 损坏时保留已解析部分，
+ * 以及第一块交付时只读了文件开头的一小段（解析耗时见 FeedLocalDataSourceBenchmark.cacheFirstChunk）。
+ */
+public class FeedCacheReaderTest {
+
+    private static final int LARGE_SIZE = 20_000;
+
+    private final Gson gson = new Gson();
+
+    private static List<FeedCard> cards(int count) {
+        List<FeedCard> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new FeedCard.Builder()
+                    .id(UUID.randomUUID())
+                    .cardType(i % 3)
+                    .title("标题 " + i)
+                    .content("这是第 " + i + " 条卡片的内容")
+                    .imageUrl("https://picsum.photos/seed/" + i + "/400/300")
+                    .build());
+        }
+        return list;
+    }
+
+    /** 读完整个 json，记录每一块的大小和所有卡片 */
+    private List<Integer> readChunks(String json, List<FeedCard> out) {
+        List<Integer> sizes = new ArrayList<>();
+        new FeedCacheReader(gson, 20, 100).read(new StringReader(json), chunk -> {
+            sizes.add(chunk.size());
+            out.addAll(chunk);
+        });
+        return sizes;
+    }
+
+    @Test
+    public void read_deliversFirstScreenThenLargerChunks() {
+        List<FeedCard> cards = cards(250);
+        List<FeedCard> read = new ArrayList<>();
+
+        List<Integer> sizes = readChunks(gson.toJson(cards), read);
+
+        assertEquals(List.of(20, 100, 100, 30), sizes);
+        assertEquals(cards.size(), read.size());
+        for (int i = 0; i < cards.size(); i++) {
+            assertTrue(cards.get(i).isSameId(read.get(i)));
+            assertEquals(cards.get(i).getContentHash(), read.get(i).getContentHash());
+        }
+    }
+
+    @Test
+    public void truncatedTail_keepsParsedCards() {
+        List<FeedCard> cards = cards(50);
+        String json = gson.toJson(cards);
+        // 从第 38 张卡片的中间截断
+        int cut = json.indexOf(cards.get(37).getId()) + 10;
+        List<FeedCard> read = new ArrayList<>();
+
+        List<Integer> sizes = readChunks(json.substring(0, cut), read);
+
+        assertEquals(List.of(20, 17), sizes);
+        assertTrue(cards.get(36).isSameId(read.get(36)));
+    }
+
+    @Test
+    public void corruptedTail_keepsParsedCards() {
+        List<FeedCard> cards = cards(30);
+        String json = gson.toJson(cards);
+        String corrupted = json.substring(0, json.length() - 1) + ",{\"id\":12x}, ###";
+        List<FeedCard> read = new ArrayList<>();
+
+        readChunks(corrupted, read);
+
+        assertEquals(30, read.size());
+    }
+
+    @Test
+    public void emptyOrInvalidFile_deliversNothing() {
+        List<FeedCard> read = new ArrayList<>();
+        FeedCacheReader reader = new FeedCacheReader(gson);
+
+        assertEquals(0, reader.read(new StringReader(""), read::addAll));
+        assertEquals(0, reader.read(new StringReader("{\"id\":\"x\"}"), read::addAll));
+        assertEquals(0, reader.read(new StringReader("[]"), read::addAll));
+        assertEquals(1, reader.read(new StringReader("[null,{\"id\":\"item-1\"}]"), read::addAll));
+        assertEquals("item-1", read.get(0).getId());
+    }
+
+    /** 记录已经从底层读走了多少字符 */
+    private static final class CountingReader extends FilterReader {
+        long consumed;
+
+        CountingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c >= 0) consumed++;
+            return c;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) consumed += n;
+            return n;
+        }
+    }
+
+    /** 2 万张卡片：第一块（20 张）交付时只读了文件开头的一小段，不用等整个文件解析完 */
+    @Test
+    public void firstChunk_arrivesBeforeReadingWholeFile() {
+        String json = gson.toJson(cards(LARGE_SIZE));
+        CountingReader in = new CountingReader(new StringReader(json));
+        long[] consumedAtFirstChunk = {-1};
+        int[] firstChunkSize = {-1};
+
+        int total = new FeedCacheReader(gson).read(in, chunk -> {
+            if (consumedAtFirstChunk[0] < 0) {
+                consumedAtFirstChunk[0] = in.consumed;
+                firstChunkSize[0] = chunk.size();
+            }
+        });
+
+        assertEquals(LARGE_SIZE, total);
+        assertEquals(FeedCacheReader.DEFAULT_FIRST_CHUNK_SIZE, firstChunkSize[0]);
+        assertEquals(json.length(), in.consumed);
+        assertTrue("consumed " + consumedAtFirstChunk[0], consumedAtFirstChunk[0] * 100 < json.length());
+    }
+}
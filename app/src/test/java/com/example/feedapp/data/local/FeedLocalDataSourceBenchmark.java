@@ -0,0 +1,111 @@
+package com.example.feedapp.data.local;
+
+import com.example.feedapp.bench.BenchCards;
+import com.example.feedapp.bench.MicroBenchmark;
+import com.example.feedapp.data.model.FeedCard;
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FeedLocalDataSource 的基准：整列表写缓存（Gson + fsync + rename）和流式读回，
+ * 200 张（正常刷几页）/ 2000 张（滑了很久）两档；
+ * 另外量冷启动首帧前同步读的首屏快照（FirstScreenStore，10 张），
+ * 以及 2 万张的完整缓存流式解析到第一块（20 张）/ 解析完的耗时（FeedCacheReader，数据在内存里，不含磁盘 IO）。
+ * 结果写到 build/benchmark-results/local.json。
+ */
+public class FeedLocalDataSourceBenchmark {
+
+    private static final int[] SIZES = {200, 2000};
+    private static final int LARGE_CACHE_SIZE = 20_000;
+    private static final MicroBenchmark BENCH = new MicroBenchmark("local").warmup(3).measure(8);
+
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = File.createTempFile("feed-cache-bench", "");
+        assertTrue(dir.delete() && dir.mkdir());
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
+    }
+
+    @AfterClass
+    public static void writeResults() {
+        BENCH.writeResults();
+    }
+
+    @Test
+    public void saveCache() throws Exception {
+        FeedLocalDataSource local = new FeedLocalDataSource(dir);
+        for (int size : SIZES) {
+            List<FeedCard> cards = BenchCards.cards(size);
+            BENCH.run("saveCache", "cards=" + size, 5, () -> {
+                local.saveCache(cards);
+                return null;
+            });
+        }
+        assertEquals(SIZES[SIZES.length - 1], local.loadCache().size());
+    }
+
+    @Test
+    public void loadCache() throws Exception {
+        FeedLocalDataSource local = new FeedLocalDataSource(dir);
+        for (int size : SIZES) {
+            local.saveCache(BenchCards.cards(size));
+            BENCH.run("loadCache", "cards=" + size, 5, local::loadCache);
+            assertEquals(size, local.loadCache().size());
+        }
+    }
+
+    @Test
+    public void firstScreenLoad() throws Exception {
+        FirstScreenStore store = new FirstScreenStore(new File(dir, "feed_first_screen.json"));
+        assertTrue(store.save(BenchCards.cards(SIZES[SIZES.length - 1])));
+        BENCH.run("firstScreenLoad", "cards=" + FirstScreenStore.MAX_CARDS, 200, store::load);
+        assertEquals(FirstScreenStore.MAX_CARDS, store.load().size());
+    }
+
+    @Test
+    public void cacheFirstChunk() throws Exception {
+        Gson gson = new Gson();
+        String json = gson.toJson(BenchCards.cards(LARGE_CACHE_SIZE));
+        BENCH.run("cacheFirstChunk", "cards=" + LARGE_CACHE_SIZE, 200, () -> {
+            try {
+                // 第一块到了就抛出去结束读取
+                new FeedCacheReader(gson).read(new StringReader(json), chunk -> {
+                    throw new StopReading(chunk);
+                });
+            } catch (StopReading stop) {
+                return stop.chunk;
+            }
+            return null;
+        });
+        BENCH.run("cacheReadAll", "cards=" + LARGE_CACHE_SIZE, 1, () ->
+                new FeedCacheReader(gson).read(new StringReader(json), MicroBenchmark::consume));
+    }
+
+    private static final class StopReading extends RuntimeException {
+        final List<FeedCard> chunk;
+
+        StopReading(List<FeedCard> chunk) {
+            super(null, null, false, false);
+            this.chunk = chunk;
+        }
+    }
+}
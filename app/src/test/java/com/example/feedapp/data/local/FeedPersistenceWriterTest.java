@@ -0,0 +1,132 @@
+package com.example.feedapp.data.local;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FeedPersistenceWriter 的单元测试：防抖合并、flush 屏障、shutdown 写掉最后一份、写入失败不卡住屏障。
+ */
+public class FeedPersistenceWriterTest {
+
+    /** 足够长的防抖窗口：测试里的多次 save 一定落在同一个窗口内 */
+    private static final long LONG_DEBOUNCE_MS = 10_000;
+    private static final long FLUSH_TIMEOUT_MS = 5_000;
+
+    /** 记录每次写入的 Sink */
+    private static final class RecordingSink implements FeedPersistenceWriter.Sink {
+        final List<List<FeedCard>> writes = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void write(List<FeedCard> cards) {
+            writes.add(cards);
+        }
+    }
+
+    private static List<FeedCard> cards(int count) {
+        List<FeedCard> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new FeedCard.Builder().id(UUID.randomUUID()).title("标题 " + i).build());
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    @Test
+    public void savesWithinWindow_collapseIntoOneWrite() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        FeedPersistenceWriter writer = new FeedPersistenceWriter(sink, LONG_DEBOUNCE_MS);
+
+        List<FeedCard> last = null;
+        for (int i = 1; i <= 10; i++) {
+            last = cards(i);
+            writer.save(last);
+        }
+        assertEquals(0, sink.writes.size());
+
+        assertTrue(writer.flush(FLUSH_TIMEOUT_MS));
+        assertEquals(1, sink.writes.size());
+        assertSame(last, sink.writes.get(0));
+        assertEquals(1, writer.getWriteCount());
+        writer.shutdown();
+    }
+
+    @Test
+    public void debounceElapses_writesWithoutFlush() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        FeedPersistenceWriter writer = new FeedPersistenceWriter(cards -> written.countDown(), 20);
+
+        writer.save(cards(3));
+
+        assertTrue(written.await(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        writer.shutdown();
+    }
+
+    @Test
+    public void flush_coversSavesDuringSlowWrite() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink();
+        FeedPersistenceWriter writer = new FeedPersistenceWriter(cards -> {
+            sink.write(cards);
+            if (sink.writes.size() == 1) {
+                firstStarted.countDown();
+                releaseFirst.await();
+            }
+        }, 0);
+
+        writer.save(cards(1));
+        assertTrue(firstStarted.await(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        // 第一次写入还没结束时又来了两次保存：合并成第二次写入
+        List<FeedCard> second = cards(2);
+        writer.save(cards(5));
+        writer.save(second);
+        releaseFirst.countDown();
+
+        assertTrue(writer.flush(FLUSH_TIMEOUT_MS));
+        assertEquals(2, sink.writes.size());
+        assertSame(second, sink.writes.get(1));
+        writer.shutdown();
+    }
+
+    @Test
+    public void shutdown_writesPendingSnapshot() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        FeedPersistenceWriter writer = new FeedPersistenceWriter(sink, LONG_DEBOUNCE_MS);
+        List<FeedCard> pending = cards(4);
+        writer.save(pending);
+
+        writer.shutdown();
+        assertTrue(writer.flush(FLUSH_TIMEOUT_MS));
+
+        assertEquals(1, sink.writes.size());
+        assertSame(pending, sink.writes.get(0));
+        // shutdown 之后的保存直接丢弃
+        writer.save(cards(1));
+        assertTrue(writer.flush(FLUSH_TIMEOUT_MS));
+        assertEquals(1, sink.writes.size());
+    }
+
+    @Test
+    public void failingSink_doesNotBlockFlush() throws Exception {
+        FeedPersistenceWriter writer = new FeedPersistenceWriter(cards -> {
+            throw new java.io.IOException("disk full");
+        }, LONG_DEBOUNCE_MS);
+
+        writer.save(cards(1));
+
+        assertTrue(writer.flush(FLUSH_TIMEOUT_MS));
+        assertEquals(1, writer.getWriteCount());
+        writer.shutdown();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.feedapp.data.local;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FirstScreenStore 的单元测试：只存前 10 张、前几张没变就不写、损坏时不崩，
+ * 以及首屏快照和完整缓存的文件大小对比（读取耗时见 FeedLocalDataSourceBenchmark.firstScreenLoad）。
+ */
+public class FirstScreenStoreTest {
+
+    private File dir;
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = File.createTempFile("first-screen", "");
+        assertTrue(dir.delete() && dir.mkdir());
+        file = new File(dir, "feed_first_screen.json");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
+    }
+
+    private static List<FeedCard> cards(int count) {
+        List<FeedCard> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new FeedCard.Builder()
+                    .id(UUID.randomUUID())
+                    .cardType(i % 3)
+                    .layoutType(i % 4 == 0 ? FeedCard.LAYOUT_SINGLE : FeedCard.LAYOUT_DOUBLE)
+                    .title("标题 " + i)
+                    .content("这是第 " + i + " 条卡片的内容")
+                    .imageUrl("https://picsum.photos/seed/" + i + "/400/300")
+                    .build());
+        }
+        return list;
+    }
+
+    // 和 FeedLocalDataSource 一样的文件格式 / 读法（它需要 Context，这里直接用 Gson + FeedCacheReader）
+
+    private static void writeJson(File target, List<FeedCard> cards) throws Exception {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(target), StandardCharsets.UTF_8)) {
+            new Gson().toJson(cards, writer);
+        }
+    }
+
+    private static int readAll(File source) throws Exception {
+        try (Reader in = new BufferedReader(new InputStreamReader(new FileInputStream(source), StandardCharsets.UTF_8))) {
+            return new FeedCacheReader(new Gson()).read(in, chunk -> { });
+        }
+    }
+
+    @Test
+    public void save_keepsOnlyFirstScreen() {
+        FirstScreenStore store = new FirstScreenStore(file);
+        List<FeedCard> cards = cards(50);
+        assertTrue(store.save(cards));
+
+        List<FeedCard> loaded = new FirstScreenStore(file).load();
+        assertEquals(FirstScreenStore.MAX_CARDS, loaded.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertTrue(cards.get(i).isSameId(loaded.get(i)));
+            assertEquals(cards.get(i).getLayoutType(), loaded.get(i).getLayoutType());
+            assertEquals(cards.get(i).getContentHash(), loaded.get(i).getContentHash());
+        }
+    }
+
+    @Test
+    public void unchangedHead_skipsWrite() {
+        FirstScreenStore store = new FirstScreenStore(file);
+        List<FeedCard> cards = cards(30);
+        assertTrue(store.save(cards));
+        // 加载更多：前 10 张没变
+        List<FeedCard> more = new ArrayList<>(cards);
+        more.addAll(cards(20));
+        assertFalse(store.save(more));
+        // 删掉了第 3 张：前 10 张变了
+        more.remove(2);
+        assertTrue(store.save(more));
+        assertTrue(more.get(2).isSameId(store.load().get(2)));
+    }
+
+    @Test
+    public void emptyList_removesStaleSnapshot() {
+        assertTrue(new FirstScreenStore(file).save(cards(30)));
+        // 新进程（还没写过）里卡片全删光了：旧快照不能留下来
+        FirstScreenStore store = new FirstScreenStore(file);
+        assertTrue(store.save(new ArrayList<>()));
+        assertFalse(file.exists());
+        assertTrue(store.load().isEmpty());
+        assertFalse(store.save(new ArrayList<>()));
+        // 再有卡片时照常写入
+        assertTrue(store.save(cards(5)));
+        assertEquals(5, store.load().size());
+    }
+
+    @Test
+    public void missingOrCorruptFile_loadsEmpty() throws Exception {
+        assertTrue(new FirstScreenStore(file).load().isEmpty());
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("{not a list".getBytes(StandardCharsets.UTF_8));
+        }
+        assertTrue(new FirstScreenStore(file).load().isEmpty());
+    }
+
+    /** 冷启动首帧要等的那次读取只读首屏快照：10 张卡片，比完整缓存（2 万张）小两个数量级以上 */
+    @Test
+    public void firstScreenSnapshot_isTinyComparedToFullCache() throws Exception {
+        List<FeedCard> all = cards(20_000);
+        FirstScreenStore firstScreen = new FirstScreenStore(file);
+        firstScreen.save(all);
+        File cacheFile = new File(dir, "feed_cache.json");
+        writeJson(cacheFile, all);
+
+        List<FeedCard> head = firstScreen.load();
+        assertEquals(FirstScreenStore.MAX_CARDS, head.size());
+        assertEquals(all.get(0).getId(), head.get(0).getId());
+        assertEquals(all.size(), readAll(cacheFile));
+        assertTrue(file.length() * 100 < cacheFile.length());
+    }
+}
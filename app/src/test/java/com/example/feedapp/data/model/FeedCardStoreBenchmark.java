@@ -0,0 +1,103 @@
+package com.example.feedapp.data.model;
+
+import com.example.feedapp.bench.BenchCards;
+import com.example.feedapp.bench.MicroBenchmark;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * FeedCardStore 的基准：Repository 每次数据变化都会「改 store + 取快照」交给 UI，
+ * 这里在 1 万 / 20 万张卡片（SyntheticFeedGenerator 生成）下量：
+ * - snapshot：只取快照（列表没变时的开销）；
+ * - appendPage：追加一页（20 张）+ 取快照 + 判断是不是纯追加（加载更多）；
+ * - removeOne：删一张 + 取快照 + 判断删了哪一行（长按删除，主线程上要远小于一帧 16ms），另外加量 5 万张；
+ * - readVisible：从快照里读一屏（20 张）卡片（bind 时的读取）。
+ * 结果写到 build/benchmark-results/store.json。
+ */
+public class FeedCardStoreBenchmark {
+
+    private static final int[] SIZES = {10_000, 200_000};
+    private static final int[] REMOVE_SIZES = {10_000, 50_000, 200_000};
+    private static final int PAGE_SIZE = 20;
+    private static final MicroBenchmark BENCH = new MicroBenchmark("store");
+
+    @AfterClass
+    public static void writeResults() {
+        BENCH.writeResults();
+    }
+
+    @Test
+    public void snapshot() throws Exception {
+        for (int size : SIZES) {
+            FeedCardStore store = new FeedCardStore();
+            store.replaceAll(BenchCards.cards(size));
+            BENCH.run("snapshot", "size=" + size, 10_000, store::snapshot);
+        }
+    }
+
+    @Test
+    public void appendPage() throws Exception {
+        for (int size : SIZES) {
+            List<FeedCard> all = BenchCards.cards(size + 100 * PAGE_SIZE);
+            List<FeedCard> base = all.subList(0, size);
+            FeedCardStore[] store = new FeedCardStore[1];
+            int[] next = new int[1];
+            // 每轮从 size 张重新开始，追加 100 页
+            BENCH.run("appendPage", "size=" + size, 100, () -> {
+                store[0] = new FeedCardStore();
+                store[0].replaceAll(base);
+                next[0] = size;
+            }, () -> {
+                FeedCardStore.Snapshot before = store[0].snapshot();
+                store[0].appendAll(all.subList(next[0], next[0] + PAGE_SIZE));
+                next[0] += PAGE_SIZE;
+                return store[0].snapshot().appendedAfter(before);
+            });
+            assertEquals(size + 100 * PAGE_SIZE, store[0].size());
+        }
+    }
+
+    @Test
+    public void removeOne() throws Exception {
+        for (int size : REMOVE_SIZES) {
+            List<FeedCard> cards = BenchCards.cards(size);
+            FeedCardStore[] store = new FeedCardStore[1];
+            int[] next = new int[1];
+            BENCH.run("removeOne", "size=" + size, 200, () -> {
+                store[0] = new FeedCardStore();
+                store[0].replaceAll(cards);
+                next[0] = 0;
+            }, () -> {
+                FeedCardStore.Snapshot before = store[0].snapshot();
+                store[0].remove(cards.get((next[0]++ * 7919) % size).getId());
+                int removedAt = store[0].snapshot().removedFrom(before);
+                // 和 Repository 一样：后台线程上惰性整理
+                store[0].compactIfNeeded();
+                return removedAt;
+            });
+        }
+    }
+
+    @Test
+    public void readVisible() throws Exception {
+        for (int size : SIZES) {
+            FeedCardStore store = new FeedCardStore();
+            store.replaceAll(BenchCards.cards(size));
+            FeedCardStore.Snapshot snapshot = store.snapshot();
+            int[] next = new int[1];
+            BENCH.run("readVisible", "size=" + size, 2_000, () -> {
+                int first = (next[0]++ * 7919) % (size - PAGE_SIZE);
+                long hash = 0;
+                for (int i = first; i < first + PAGE_SIZE; i++) {
+                    hash += snapshot.get(i).getContentHash();
+                }
+                return hash;
+            });
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.feedapp.data.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FeedCardStore 的单元测试：列存读写、id 索引（快照不加锁查询）、快照隔离、快照之间的「追加 / 删除一行」判断，
+ * 以及墓碑删除 / 整理和 5 万张卡片时连续删除的正确性（耗时见 FeedCardStoreBenchmark.removeOne）。
+ */
+public class FeedCardStoreTest {
+
+    private static final int LARGE_SIZE = 50_000;
+    private static final int DELETE_ROUNDS = 200;
+
+    private static List<FeedCard> page(int from, int count) {
+        List<FeedCard> list = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            list.add(new FeedCard.Builder()
+                    .id(UUID.randomUUID())
+                    .cardType(i % 3)
+                    .layoutType(i % 5 == 0 ? FeedCard.LAYOUT_SINGLE : FeedCard.LAYOUT_DOUBLE)
+                    .title("标题 " + i)
+                    .content("内容 " + i)
+                    .videoResId(i)
+                    .build());
+        }
+        return list;
+    }
+
+    @Test
+    public void snapshot_readsBackSameCards() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> cards = page(0, 100);
+        store.replaceAll(cards);
+
+        FeedCardStore.Snapshot snapshot = store.snapshot();
+
+        assertEquals(100, snapshot.size());
+        for (int i = 0; i < cards.size(); i++) {
+            FeedCard expected = cards.get(i);
+            FeedCard actual = snapshot.get(i);
+            assertTrue(expected.isSameId(actual));
+            assertEquals(expected.getContentHash(), actual.getContentHash());
+            assertEquals(expected.getTitle(), actual.getTitle());
+            assertEquals(expected.getCardType(), snapshot.cardTypeAt(i));
+            assertEquals(expected.getLayoutType(), snapshot.layoutTypeAt(i));
+            assertEquals(expected.getStableId(), snapshot.stableIdAt(i));
+        }
+    }
+
+    @Test
+    public void get_returnsSameObjectForRepeatedReads() {
+        FeedCardStore store = new FeedCardStore();
+        store.replaceAll(page(0, 10));
+        FeedCardStore.Snapshot snapshot = store.snapshot();
+        assertSame(snapshot.get(3), snapshot.get(3));
+    }
+
+    @Test
+    public void indexOf_findsRowsAfterGrowthAndRemoval() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> all = new ArrayList<>();
+        for (int p = 0; p < 50; p++) {
+            List<FeedCard> page = page(p * 20, 20);
+            all.addAll(page);
+            store.appendAll(page);
+        }
+        assertEquals(1000, store.size());
+        assertEquals(537, store.indexOf(all.get(537).getId()));
+
+        assertTrue(store.remove(all.get(10).getId()));
+        assertFalse(store.remove(all.get(10).getId()));
+
+        assertEquals(-1, store.indexOf(all.get(10).getId()));
+        assertEquals(9, store.indexOf(all.get(9).getId()));
+        assertEquals(536, store.indexOf(all.get(537).getId()));
+        assertEquals(998, store.indexOf(all.get(999).getId()));
+        // SeenIdFilter 的精确核对：删掉的不算
+        assertTrue(store.containsStableId(all.get(9).getStableId()));
+        assertFalse(store.containsStableId(all.get(10).getStableId()));
+    }
+
+    @Test
+    public void nonUuidIds_areIndexed() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> cards = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            cards.add(new FeedCard.Builder().id("item-" + i).build());
+        }
+        store.replaceAll(cards);
+        assertEquals(42, store.indexOf("item-42"));
+        assertEquals(-1, store.indexOf("item-100"));
+        assertTrue(store.remove("item-0"));
+        assertEquals(41, store.snapshot().indexOf("item-42"));
+    }
+
+    @Test
+    public void snapshots_areIsolatedFromLaterChanges() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> cards = page(0, 30);
+        store.replaceAll(cards);
+        FeedCardStore.Snapshot before = store.snapshot();
+
+        store.remove(cards.get(0).getId());
+        store.appendAll(page(30, 100));
+        store.replaceAll(page(500, 5));
+
+        assertEquals(30, before.size());
+        assertTrue(cards.get(0).isSameId(before.get(0)));
+        assertTrue(cards.get(29).isSameId(before.get(29)));
+    }
+
+    @Test
+    public void snapshots_reportAppendAndRemoval() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> cards = page(0, 20);
+        store.replaceAll(cards);
+        FeedCardStore.Snapshot first = store.snapshot();
+
+        store.appendAll(page(20, 10));
+        FeedCardStore.Snapshot appended = store.snapshot();
+        assertEquals(20, appended.appendedAfter(first));
+        assertEquals(-1, appended.removedFrom(first));
+
+        store.remove(cards.get(5).getId());
+        FeedCardStore.Snapshot removed = store.snapshot();
+        assertEquals(5, removed.removedFrom(appended));
+        assertEquals(-1, removed.appendedAfter(appended));
+        // 中间隔了一次追加，就不再是「正好删掉一行」
+        assertEquals(-1, removed.removedFrom(first));
+
+        store.replaceAll(page(100, 20));
+        FeedCardStore.Snapshot refreshed = store.snapshot();
+        assertEquals(-1, refreshed.appendedAfter(removed));
+        assertEquals(-1, refreshed.removedFrom(removed));
+    }
+
+    @Test
+    public void tombstones_keepPositionsAndSurviveCompaction() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> cards = page(0, 200);
+        store.replaceAll(cards);
+        List<FeedCard> expected = new ArrayList<>(cards);
+
+        // 删掉 COMPACT_THRESHOLD 张（从后往前隔一张删一张），墓碑还没整理
+        for (int i = 0; i < FeedCardStore.COMPACT_THRESHOLD; i++) {
+            FeedCard victim = cards.get(199 - i * 2);
+            assertTrue(store.remove(victim.getId()));
+            expected.remove(victim);
+        }
+        FeedCardStore.Snapshot beforeCompact = store.snapshot();
+        assertEquals(FeedCardStore.COMPACT_THRESHOLD, store.tombstoneCount());
+        assertSameCards(expected, beforeCompact);
+
+        assertTrue(store.compactIfNeeded());
+        assertEquals(0, store.tombstoneCount());
+        assertFalse(store.compactIfNeeded());
+
+        FeedCardStore.Snapshot afterCompact = store.snapshot();
+        assertSameCards(expected, afterCompact);
+        // 整理不改变内容：两份快照之间「什么都没变」
+        assertEquals(beforeCompact.size(), afterCompact.appendedAfter(beforeCompact));
+        // 整理前的快照查的是它自己那份列数组的索引，结果一样
+        for (int i = 0; i < expected.size(); i += 7) {
+            assertEquals(i, beforeCompact.indexOf(expected.get(i).getId()));
+            assertEquals(i, afterCompact.indexOf(expected.get(i).getId()));
+        }
+    }
+
+    @Test
+    public void tombstones_removedFromReportsVisiblePosition() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> cards = page(0, 50);
+        store.replaceAll(cards);
+        store.remove(cards.get(3).getId());
+        FeedCardStore.Snapshot before = store.snapshot();
+
+        // 行号 10 前面有一个墓碑，对 Adapter 来说是位置 9
+        store.remove(cards.get(10).getId());
+        FeedCardStore.Snapshot after = store.snapshot();
+
+        assertEquals(9, after.removedFrom(before));
+        assertEquals(48, after.size());
+        assertTrue(cards.get(11).isSameId(after.get(9)));
+        assertEquals(-1, after.indexOf(cards.get(10).getId()));
+        // 快照之后才删掉的卡片：在那份快照里还在原来的位置，和 get(i) 一致
+        assertEquals(9, before.indexOf(cards.get(10).getId()));
+        assertTrue(cards.get(10).isSameId(before.get(9)));
+        assertEquals(8, before.indexOf(cards.get(9).getId()));
+    }
+
+    @Test
+    public void appendAfterTombstones_growsAndCompacts() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> expected = new ArrayList<>(page(0, 64));
+        store.replaceAll(expected);
+        for (int i = 0; i < 5; i++) {
+            store.remove(expected.remove(i * 3).getId());
+        }
+        FeedCardStore.Snapshot before = store.snapshot();
+
+        // 超过容量，扩容时顺便去掉墓碑
+        List<FeedCard> more = page(64, 100);
+        store.appendAll(more);
+        expected.addAll(more);
+
+        assertEquals(0, store.tombstoneCount());
+        assertSameCards(expected, store.snapshot());
+        assertEquals(before.size(), store.snapshot().appendedAfter(before));
+        assertEquals(100, store.indexOf(expected.get(100).getId()));
+    }
+
+    @Test
+    public void duplicates_keepFirstCopyOnly() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> cards = page(0, 10);
+        store.replaceAll(cards);
+        FeedCard dup = cards.get(3).toBuilder().title("后来的一份").build();
+
+        // 同一页内重复、和已有列表重复，都只留先到的那一份
+        List<FeedCard> more = page(10, 2);
+        more.add(dup);
+        more.add(more.get(0));
+        store.appendAll(more);
+
+        FeedCardStore.Snapshot snapshot = store.snapshot();
+        assertEquals(12, snapshot.size());
+        assertEquals(cards.get(3).getTitle(), snapshot.get(3).getTitle());
+        assertEquals(10, snapshot.indexOf(more.get(0).getId()));
+
+        // 删一次就真的没了，不会再冒出第二份
+        assertTrue(store.remove(dup.getId()));
+        assertEquals(-1, store.indexOf(dup.getId()));
+        assertFalse(store.containsStableId(dup.getStableId()));
+        assertEquals(11, store.size());
+    }
+
+    @Test
+    public void readdedAfterRemove_isFoundAndRemovable() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> cards = page(0, 10);
+        store.replaceAll(cards);
+        FeedCard card = cards.get(2);
+        assertTrue(store.remove(card.getId()));
+        FeedCardStore.Snapshot before = store.snapshot();
+
+        // 删掉之后又出现：追加到末尾，按 id 能找到、能再删
+        store.appendAll(Collections.singletonList(card));
+
+        assertEquals(0, store.tombstoneCount());
+        assertEquals(9, store.indexOf(card.getId()));
+        assertEquals(before.size(), store.snapshot().appendedAfter(before));
+        assertEquals(-1, before.indexOf(card.getId()));
+        assertTrue(store.remove(card.getId()));
+        assertEquals(-1, store.indexOf(card.getId()));
+    }
+
+    @Test
+    public void remove_neverCompactsByItself() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> cards = page(0, 3000);
+        store.replaceAll(cards);
+        // 远超整理阈值也只打墓碑：整理只在 compactIfNeeded（后台线程）里发生
+        for (int i = 0; i < 2000; i++) {
+            assertTrue(store.remove(cards.get(i).getId()));
+        }
+        assertEquals(2000, store.tombstoneCount());
+        assertSameCards(cards.subList(2000, 3000), store.snapshot());
+
+        assertTrue(store.compactIfNeeded());
+        assertEquals(0, store.tombstoneCount());
+        assertSameCards(cards.subList(2000, 3000), store.snapshot());
+    }
+
+    /**
+     * 快照按 id 查位置不拿 store 的锁：另一个线程一直占着锁时也能马上返回；
+     * 之后的追加（写进同一份列数组）、删除、整理都不影响旧快照的结果。
+     */
+    @Test
+    public void snapshotIndexOf_lockFreeAndStable() throws Exception {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> cards = page(0, 40);
+        store.replaceAll(cards);
+        store.remove(cards.get(5).getId());
+        FeedCardStore.Snapshot snapshot = store.snapshot();
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            synchronized (store) {
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        holder.start();
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+            Future<Integer> position = reader.submit(() -> snapshot.indexOf(cards.get(30).getId()));
+            assertEquals(29, (int) position.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            holder.join();
+            reader.shutdownNow();
+        }
+
+        List<FeedCard> more = page(40, 10);
+        store.appendAll(more);
+        store.remove(cards.get(30).getId());
+        for (int i = 0; i < FeedCardStore.COMPACT_THRESHOLD; i++) {
+            store.remove(cards.get(i + 6).getId());
+        }
+        assertTrue(store.compactIfNeeded());
+
+        assertEquals(-1, snapshot.indexOf(cards.get(5).getId()));
+        assertEquals(-1, snapshot.indexOf(more.get(0).getId()));
+        for (int i = 0; i < snapshot.size(); i++) {
+            assertEquals(i, snapshot.indexOf(snapshot.get(i).getId()));
+        }
+        assertEquals(29, snapshot.indexOf(cards.get(30).getId()));
+        assertEquals(-1, store.indexOf(cards.get(30).getId()));
+    }
+
+    /**
+     * 5 万张卡片，从中间随机删一张并取快照（主线程 deleteCard 的全部内存工作），
+     * 每次删除后快照给出的行号、id 索引都要和一份普通 ArrayList 的结果一致，中间穿插后台线程的惰性整理。
+     */
+    @Test
+    public void delete_at50kCards_matchesArrayList() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> cards = page(0, LARGE_SIZE);
+        store.replaceAll(cards);
+        List<FeedCard> expected = new ArrayList<>(cards);
+
+        for (int i = 0; i < DELETE_ROUNDS; i++) {
+            FeedCard target = cards.get((i * 7919) % LARGE_SIZE);
+            int position = expected.indexOf(target);
+            FeedCardStore.Snapshot before = store.snapshot();
+            assertTrue(store.remove(target.getId()));
+            expected.remove(position);
+            assertEquals(position, store.snapshot().removedFrom(before));
+            assertEquals(-1, store.indexOf(target.getId()));
+            // 模拟 Repository 后台线程的惰性整理
+            store.compactIfNeeded();
+        }
+        assertEquals(LARGE_SIZE - DELETE_ROUNDS, store.size());
+        FeedCard last = expected.get(expected.size() - 1);
+        assertEquals(expected.size() - 1, store.indexOf(last.getId()));
+        assertSameCards(expected, store.snapshot());
+    }
+
+    private static void assertSameCards(List<FeedCard> expected, FeedCardStore.Snapshot actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertTrue(expected.get(i).isSameId(actual.get(i)));
+            assertEquals(expected.get(i).getStableId(), actual.stableIdAt(i));
+            assertEquals(expected.get(i).getCardType(), actual.cardTypeAt(i));
+        }
+    }
+}
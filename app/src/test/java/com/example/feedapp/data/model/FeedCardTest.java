@@ -0,0 +1,162 @@
+package com.example.feedapp.data.model;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FeedCard 的单元测试：
+ * - 紧凑 id 的往返（UUID / 非 UUID 字符串），UUID 字符串只格式化一次；
+ * - feed_cache.json 格式和旧版本（Gson 反射 Java Bean）兼容；
+ * - 10 万张卡片、文案反复出现时，字符串实例被去重池共享（堆内存占用的对比见 FeedCardBenchmark）。
+ */
+public class FeedCardTest {
+
+    private static final int CARD_COUNT = 100_000;
+
+    // -------------------- id --------------------
+
+    @Test
+    public void uuidId_roundTrips() {
+        String id = UUID.randomUUID().toString();
+        FeedCard card = new FeedCard.Builder().id(id).build();
+        assertEquals(id, card.getId());
+        // 格式化一次之后缓存在卡片上：再调用拿到的是同一个 String
+        assertSame(card.getId(), card.getId());
+    }
+
+    @Test
+    public void nonUuidId_keptAsIs() {
+        String upper = UUID.randomUUID().toString().toUpperCase(Locale.US);
+        assertEquals("item-42", new FeedCard.Builder().id("item-42").build().getId());
+        assertEquals(upper, new FeedCard.Builder().id(upper).build().getId());
+    }
+
+    @Test
+    public void sameId_comparesCompactForm() {
+        UUID uuid = UUID.randomUUID();
+        FeedCard a = new FeedCard.Builder().id(uuid).title("a").build();
+        FeedCard b = new FeedCard.Builder().id(uuid.toString()).title("b").build();
+        FeedCard c = new FeedCard.Builder().id(UUID.randomUUID()).title("a").build();
+
+        assertTrue(a.isSameId(b));
+        assertEquals(a.getStableId(), b.getStableId());
+        assertNotEquals(a.getContentHash(), b.getContentHash());
+        assertTrue(!a.isSameId(c));
+    }
+
+    @Test
+    public void toBuilder_copiesEverything() {
+        FeedCard card = sampleCard(UUID.randomUUID().toString(), 7);
+        assertEquals(card.getContentHash(), card.toBuilder().build().getContentHash());
+    }
+
+    @Test
+    public void internedStrings_areShared() {
+        FeedCard a = new FeedCard.Builder().subTitle(new String("来自：推荐")).build();
+        FeedCard b = new FeedCard.Builder().subTitle(new String("来自：推荐")).build();
+        assertSame(a.getSubTitle(), b.getSubTitle());
+    }
+
+    // -------------------- JSON 兼容 --------------------
+
+    @Test
+    public void json_readsLegacyBeanFormat() {
+        LegacyFeedCard legacy = legacyCard(UUID.randomUUID().toString(), 3);
+        String json = new Gson().toJson(Collections.singletonList(legacy));
+
+        List<FeedCard> cards = new Gson().fromJson(json, new TypeToken<List<FeedCard>>() {}.getType());
+
+        FeedCard card = cards.get(0);
+        assertEquals(legacy.id, card.getId());
+        assertEquals(legacy.title, card.getTitle());
+        assertEquals(legacy.imageUrl, card.getImageUrl());
+        assertEquals(legacy.videoResId, card.getVideoResId());
+        assertEquals(legacy.layoutType, card.getLayoutType());
+    }
+
+    @Test
+    public void json_writesLegacyBeanFormat() {
+        FeedCard card = sampleCard(UUID.randomUUID().toString(), 3);
+        String json = new Gson().toJson(card);
+
+        LegacyFeedCard legacy = new Gson().fromJson(json, LegacyFeedCard.class);
+
+        assertEquals(card.getId(), legacy.id);
+        assertEquals(card.getContent(), legacy.content);
+        assertEquals(card.getCardType(), legacy.cardType);
+    }
+
+    // -------------------- 字符串去重 --------------------
+
+    /**
+     * 10 万张卡片，文案按 1000 条循环（模拟下拉刷新 / 读缓存时反复出现相同文案），
+     * 每个字段都是新的 String 实例（和 JSON 反序列化的结果一样）；
+     * 去重池是直接映射表，撞槽的文案会互相覆盖，所以只要求留下来的实例不到字段总数（4 × 卡片数）的一半。
+     */
+    @Test
+    public void repeatedText_100kCards_sharesStrings() {
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < CARD_COUNT; i++) {
+            FeedCard card = sampleCard(UUID.randomUUID().toString(), i % 1000);
+            instances.add(card.getTitle());
+            instances.add(card.getSubTitle());
+            instances.add(card.getContent());
+            instances.add(card.getImageUrl());
+        }
+        assertTrue("instances=" + instances.size(), instances.size() < 2 * CARD_COUNT);
+    }
+
+    // -------------------- 工具方法 --------------------
+
+    static FeedCard sampleCard(String id, int i) {
+        return new FeedCard.Builder()
+                .id(id)
+                .cardType(FeedCard.TYPE_VIDEO)
+                .layoutType(i % 5 == 0 ? FeedCard.LAYOUT_SINGLE : FeedCard.LAYOUT_DOUBLE)
+                .title(new String("标题 " + i))
+                .subTitle(new String("副标题 " + i))
+                .content(new String("这是第 " + i + " 条卡片的内容，用来模拟服务端返回的文案。"))
+                .imageUrl(new String("https://picsum.photos/seed/" + i + "/400/300"))
+                .videoResId(i % 5)
+                .build();
+    }
+
+    static LegacyFeedCard legacyCard(String id, int i) {
+        LegacyFeedCard card = new LegacyFeedCard();
+        card.id = id;
+        card.cardType = FeedCard.TYPE_VIDEO;
+        card.layoutType = i % 5 == 0 ? FeedCard.LAYOUT_SINGLE : FeedCard.LAYOUT_DOUBLE;
+        card.title = new String("标题 " + i);
+        card.subTitle = new String("副标题 " + i);
+        card.content = new String("这是第 " + i + " 条卡片的内容，用来模拟服务端返回的文案。");
+        card.imageUrl = new String("https://picsum.photos/seed/" + i + "/400/300");
+        card.videoResId = i % 5;
+        return card;
+    }
+
+    /** 改造前的 FeedCard：可变 Java Bean，字段名和 JSON 格式的基准 */
+    static class LegacyFeedCard {
+        String id;
+        int cardType;
+        int layoutType;
+        String title;
+        String subTitle;
+        String content;
+        String imageUrl;
+        int videoResId;
+    }
+}
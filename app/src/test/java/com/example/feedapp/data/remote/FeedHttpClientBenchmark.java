@@ -0,0 +1,36 @@
+package com.example.feedapp.data.remote;
+
+import com.example.feedapp.bench.MicroBenchmark;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+/**
+ * FeedHttpClient 的端到端基准：请求本地 FeedTestServer（快速网络：延迟几毫秒到几十毫秒，不限带宽），
+ * 连续加载下一页（每页 20 张），量的是「模拟延迟 + HTTP 往返 + JSON 解析」的总耗时。
+ * 结果写到 build/benchmark-results/http.json。
+ */
+public class FeedHttpClientBenchmark {
+
+    private static final NetworkProfile FAST = new NetworkProfile("test-fast", 5, 15, 30, 2, 0);
+    private static final long SEED = 42;
+    private static final int PAGE_SIZE = 20;
+    private static final MicroBenchmark BENCH = new MicroBenchmark("http").warmup(2).measure(10);
+
+    @AfterClass
+    public static void writeResults() {
+        BENCH.writeResults();
+    }
+
+    @Test
+    public void pageLoad() throws Exception {
+        try (FeedTestServer server = new FeedTestServer(FAST, SEED)) {
+            FeedHttpClient client = new FeedHttpClient(server.baseUrl());
+            String[] cursor = {client.loadFeedPage(null, PAGE_SIZE).getNextCursor()};
+            BENCH.run("pageLoad", "profile=" + FAST.getName() + ",pageSize=" + PAGE_SIZE, 5, () -> {
+                cursor[0] = client.loadFeedPage(cursor[0], PAGE_SIZE).getNextCursor();
+                return cursor[0];
+            });
+        }
+    }
+}
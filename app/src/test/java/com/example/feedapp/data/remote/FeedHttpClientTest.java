@@ -0,0 +1,178 @@
+package com.example.feedapp.data.remote;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedPageResult;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 端到端测试：FeedHttpClient 请求本地 FeedTestServer，覆盖正常解析、各种失败模式、带宽限制；
+ * 另外验证 NetworkProfile 的抽样分布和百分位一致。一页数据的加载耗时分布见 FeedHttpClientBenchmark。
+ */
+public class FeedHttpClientTest {
+
+    /** 测试用的快速网络：延迟在几毫秒到几十毫秒之间，不限带宽 */
+    private static final NetworkProfile FAST = new NetworkProfile("test-fast", 5, 15, 30, 2, 0);
+    private static final long SEED = 42;
+
+    @Test
+    public void loadsAndParsesPage() throws Exception {
+        try (FeedTestServer server = new FeedTestServer(FAST, SEED)) {
+            FeedHttpClient client = new FeedHttpClient(server.baseUrl());
+
+            FeedPageResult first = client.loadFeedPage(null, 20);
+            FeedPageResult result = client.loadFeedPage(first.getNextCursor(), 20);
+
+            assertEquals(20, result.getCards().size());
+            assertNotNull(result.getNextCursor());
+            assertTrue(result.isHasMore());
+            // 和直接调生成规则拿到的卡片完全一样（同一个序号 → 同一张卡片）
+            FeedCard card = result.getCards().get(0);
+            long ordinal = Long.parseLong(card.getTitle().substring("标题 ".length()));
+            FeedCard expected = new FeedPageGenerator(new int[]{1, 2, 3, 4, 5}).cardAt(ordinal);
+            assertEquals(expected.getId(), card.getId());
+            assertEquals(expected.getCardType(), card.getCardType());
+            assertEquals(expected.getLayoutType(), card.getLayoutType());
+            assertEquals(expected.getVideoResId(), card.getVideoResId());
+            // 服务端夹带的重新推荐内容一定出现在 dedupHints 里
+            Set<String> ids = new HashSet<>();
+            for (FeedCard c : first.getCards()) ids.add(c.getId());
+            for (FeedCard c : result.getCards()) {
+                if (!ids.add(c.getId())) assertTrue(result.getDedupHints().contains(c.getId()));
+            }
+        }
+    }
+
+    @Test
+    public void http500_throwsStatusException() throws Exception {
+        try (FeedTestServer server = new FeedTestServer(FAST, SEED)) {
+            server.setFailMode(FeedRemoteDataSource.FailMode.HTTP_500);
+            try {
+                new FeedHttpClient(server.baseUrl()).loadFeedPage(null, 20);
+                fail("expected HTTP 500");
+            } catch (FeedHttpException e) {
+                assertEquals(500, e.getStatusCode());
+            }
+        }
+    }
+
+    @Test
+    public void refreshAlwaysFail_onlyFailsFirstPage() throws Exception {
+        try (FeedTestServer server = new FeedTestServer(FAST, SEED)) {
+            FeedHttpClient client = new FeedHttpClient(server.baseUrl());
+            String cursor = client.loadFeedPage(null, 20).getNextCursor();
+            server.setFailMode(FeedRemoteDataSource.FailMode.REFRESH_ALWAYS_FAIL);
+            assertEquals(20, client.loadFeedPage(cursor, 20).getCards().size());
+            try {
+                client.loadFeedPage(null, 20);
+                fail("expected HTTP 500");
+            } catch (FeedHttpException expected) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void badCursor_rejectedWith400() throws Exception {
+        try (FeedTestServer server = new FeedTestServer(FAST, SEED)) {
+            try {
+                new FeedHttpClient(server.baseUrl()).loadFeedPage("page=3", 20);
+                fail("expected HTTP 400");
+            } catch (FeedHttpException e) {
+                assertEquals(400, e.getStatusCode());
+            }
+        }
+    }
+
+    @Test
+    public void malformedJson_throwsIOException() throws Exception {
+        try (FeedTestServer server = new FeedTestServer(FAST, SEED)) {
+            server.setFailMode(FeedRemoteDataSource.FailMode.MALFORMED_JSON);
+            try {
+                new FeedHttpClient(server.baseUrl()).loadFeedPage(null, 20);
+                fail("expected malformed page");
+            } catch (FeedHttpException e) {
+                fail("should not be a status error");
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage().startsWith("malformed page"));
+            }
+        }
+    }
+
+    @Test
+    public void hangingServer_timesOut() throws Exception {
+        try (FeedTestServer server = new FeedTestServer(FAST, SEED)) {
+            server.setFailMode(FeedRemoteDataSource.FailMode.TIMEOUT);
+            FeedHttpClient client = new FeedHttpClient(server.baseUrl(), 1000, 200);
+            try {
+                client.loadFeedPage(null, 20);
+                fail("expected timeout");
+            } catch (SocketTimeoutException expected) {
+                // 读超时（200ms）先到，不会一直挂着
+            }
+        }
+    }
+
+    @Test
+    public void bandwidthLimit_slowsLargePages() throws Exception {
+        // 200KB/s：一页 100 张卡片大约 30KB，至少要 100ms 以上
+        NetworkProfile narrow = new NetworkProfile("test-narrow", 1, 1, 1, 0, 200_000);
+        try (FeedTestServer server = new FeedTestServer(narrow, SEED)) {
+            FeedHttpClient client = new FeedHttpClient(server.baseUrl());
+            String cursor = client.loadFeedPage(null, 5).getNextCursor();
+
+            long start = System.nanoTime();
+            FeedPageResult result = client.loadFeedPage(cursor, 100);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            int bytes = new FeedPageCodec().encode(result).length;
+            assertEquals(100, result.getCards().size());
+            assertTrue("elapsed=" + elapsedMs + "ms bytes=" + bytes,
+                    elapsedMs >= narrow.transferTimeMs(bytes) * 8 / 10);
+        }
+    }
+
+    // -------------------- NetworkProfile --------------------
+
+    @Test
+    public void networkProfile_samplesMatchPercentiles() {
+        NetworkProfile profile = NetworkProfile.LTE;
+        Random random = new Random(SEED);
+        long[] samples = new long[20_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = profile.sampleLatencyMs(random);
+        }
+        Arrays.sort(samples);
+
+        assertNear(profile.getP50Ms(), samples[samples.length / 2], profile.getJitterMs() + 10);
+        assertNear(profile.getP90Ms(), samples[samples.length * 9 / 10], profile.getJitterMs() + 20);
+        assertNear(profile.getP99Ms(), samples[samples.length * 99 / 100], profile.getJitterMs() + 60);
+    }
+
+    @Test
+    public void networkProfile_fixedProfileIsConstant() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(2000, NetworkProfile.FIXED_2S.sampleLatencyMs(random));
+        }
+        assertEquals(0, NetworkProfile.FIXED_2S.transferTimeMs(1_000_000));
+        assertEquals(1000, NetworkProfile.SLOW_3G.transferTimeMs(50_000));
+    }
+
+    private static void assertNear(long expected, long actual, long tolerance) {
+        assertTrue("expected " + expected + " ± " + tolerance + " but was " + actual,
+                Math.abs(expected - actual) <= tolerance);
+    }
+}
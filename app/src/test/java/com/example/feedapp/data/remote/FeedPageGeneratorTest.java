@@ -0,0 +1,114 @@
+package com.example.feedapp.data.remote;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedPageResult;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * FeedPageGenerator / FeedCursor 的单元测试：一直有新内容发布时，按游标翻页不重叠也不漏；
+ * 按旧的 page * pageSize 偏移翻页会重叠；重新推荐的旧内容一定带 dedupHints。
+ */
+public class FeedPageGeneratorTest {
+
+    private static final int[] VIDEOS = {1, 2, 3, 4, 5};
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGES = 50;
+
+    @Test
+    public void cursorPaging_noOverlapWhileHeadGrows() {
+        FeedPageGenerator generator = new FeedPageGenerator(VIDEOS, 3, false);
+        Set<String> ids = new HashSet<>();
+        FeedPageResult page = generator.load(null, PAGE_SIZE);
+        long firstOrdinal = ordinalOf(page.getCards().get(0));
+        for (int i = 0; i < PAGES; i++) {
+            for (FeedCard card : page.getCards()) {
+                assertTrue("duplicate " + card.getTitle(), ids.add(card.getId()));
+            }
+            page = generator.load(page.getNextCursor(), PAGE_SIZE);
+        }
+        assertEquals(PAGES * PAGE_SIZE, ids.size());
+        // 中途服务端新发布了 150 条以上内容，但这一轮翻到的是刷新时那一刻往旧的方向连续的一段
+        assertTrue(generator.head() >= firstOrdinal + PAGES * 3);
+        for (long ordinal = firstOrdinal; ordinal > firstOrdinal - PAGES * PAGE_SIZE; ordinal--) {
+            assertTrue(ids.contains(generator.cardAt(ordinal).getId()));
+        }
+    }
+
+    @Test
+    public void offsetPaging_overlapsWhileHeadGrows() {
+        // 对照组：旧的 page * pageSize 偏移，每一页都按「当前最新」往回数
+        FeedPageGenerator generator = new FeedPageGenerator(VIDEOS, 3, false);
+        Set<String> ids = new HashSet<>();
+        int duplicates = 0;
+        for (int page = 0; page < PAGES; page++) {
+            // 用第一页的请求推进 head，模拟「每个请求之间都有新内容发布」
+            generator.load(null, 1);
+            long start = generator.head() - (long) page * PAGE_SIZE;
+            for (long ordinal = start; ordinal > start - PAGE_SIZE; ordinal--) {
+                if (!ids.add(generator.cardAt(ordinal).getId())) duplicates++;
+            }
+        }
+        assertEquals((PAGES - 1) * 3, duplicates);
+    }
+
+    @Test
+    public void resurfacedCards_areAlwaysHinted() {
+        FeedPageGenerator generator = new FeedPageGenerator(VIDEOS);
+        Set<String> ids = new HashSet<>();
+        FeedPageResult page = generator.load(null, PAGE_SIZE);
+        assertTrue(page.getDedupHints().isEmpty());
+        int resurfaced = 0;
+        for (int i = 0; i < PAGES; i++) {
+            for (FeedCard card : page.getCards()) {
+                if (!ids.add(card.getId())) {
+                    assertTrue(page.getDedupHints().contains(card.getId()));
+                    resurfaced++;
+                }
+            }
+            page = generator.load(page.getNextCursor(), PAGE_SIZE);
+        }
+        assertEquals(PAGES - 1, resurfaced);
+    }
+
+    @Test
+    public void sameOrdinal_sameCard() {
+        FeedPageGenerator a = new FeedPageGenerator(VIDEOS);
+        FeedPageGenerator b = new FeedPageGenerator(VIDEOS);
+        for (long ordinal = 0; ordinal < 100; ordinal++) {
+            FeedCard x = a.cardAt(ordinal);
+            FeedCard y = b.cardAt(ordinal);
+            assertEquals(x.getId(), y.getId());
+            assertEquals(x.getCardType(), y.getCardType());
+            assertEquals(x.getLayoutType(), y.getLayoutType());
+        }
+        assertFalse(a.cardAt(1).getId().equals(a.cardAt(2).getId()));
+    }
+
+    @Test
+    public void cursor_roundTripsAndRejectsGarbage() {
+        FeedCursor cursor = FeedCursor.decode(new FeedCursor(100_123, 99_000).encode());
+        assertEquals(100_123, cursor.sessionHead);
+        assertEquals(99_000, cursor.next);
+        for (String bad : new String[]{"", "3", "v2.abc.abc", "v1.zz", "v1.1.2", "v1.!.1"}) {
+            try {
+                FeedCursor.decode(bad);
+                fail("expected bad cursor: " + bad);
+            } catch (IllegalArgumentException expected) {
+                // ok
+            }
+        }
+    }
+
+    private static long ordinalOf(FeedCard card) {
+        return Long.parseLong(card.getTitle().substring("标题 ".length()));
+    }
+}
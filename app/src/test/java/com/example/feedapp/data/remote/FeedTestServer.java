@@ -0,0 +1,178 @@
+package com.example.feedapp.data.remote;
+
+import com.example.feedapp.data.model.FeedPageResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FeedTestServer：测试用的本地 HTTP 服务（JDK 自带的 com.sun.net.httpserver，只监听 127.0.0.1 的随机端口）。
+ *
+ * GET /feed?pageSize=20[&cursor=...] 返回 FeedPageCodec 格式的一页 JSON：
+ * - 按 NetworkProfile 抽样首包延迟（百分位 + 抖动），再按带宽分块写响应体；
+ * - 按 FailMode 模拟失败：TIMEOUT 一直不回包、HTTP_500 / 旧的几种失败返回 500、MALFORMED_JSON 只发一半响应体。
+ */
+final class FeedTestServer implements AutoCloseable {
+
+    /** 按带宽写响应体时每一块的大小 */
+    private static final int WRITE_CHUNK_BYTES = 4096;
+    /** TIMEOUT 模式下服务端「卡住」多久（要比客户端读超时长） */
+    private static final long HANG_MS = 3000;
+
+    static {
+        // 关掉 Nagle：否则响应头和响应体分两次发，在 loopback 上会被延迟确认多卡 40ms，测出来的延迟不准
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final FeedPageGenerator generator = new FeedPageGenerator(new int[]{1, 2, 3, 4, 5});
+    private final FeedPageCodec codec = new FeedPageCodec();
+    private final NetworkProfile profile;
+    private final Random random;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile FeedRemoteDataSource.FailMode failMode = FeedRemoteDataSource.FailMode.NONE;
+
+    FeedTestServer(NetworkProfile profile, long seed) throws IOException {
+        this.profile = profile;
+        this.random = new Random(seed);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/feed", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    void setFailMode(FeedRemoteDataSource.FailMode mode) {
+        failMode = mode;
+    }
+
+    int requestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // -------------------- 处理请求 --------------------
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requestCount.incrementAndGet();
+            String cursor = query(exchange, "cursor");
+            int pageSize = queryInt(exchange, "pageSize", 20);
+            long latencyMs;
+            synchronized (random) {
+                latencyMs = profile.sampleLatencyMs(random);
+            }
+            sleep(latencyMs);
+
+            FeedRemoteDataSource.FailMode mode = failMode;
+            if (mode == FeedRemoteDataSource.FailMode.TIMEOUT) {
+                sleep(HANG_MS);
+                return;
+            }
+            if (failsWithStatus(mode, cursor == null)) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+
+            FeedPageResult result;
+            try {
+                result = generator.load(cursor, pageSize);
+            } catch (IllegalArgumentException badCursor) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            byte[] body = codec.encode(result);
+            if (mode == FeedRemoteDataSource.FailMode.MALFORMED_JSON) {
+                body = Arrays.copyOf(body, body.length / 2);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            writeThrottled(exchange.getResponseBody(), body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean failsWithStatus(FeedRemoteDataSource.FailMode mode, boolean firstPage) {
+        switch (mode) {
+            case HTTP_500:
+                return true;
+            case REFRESH_ALWAYS_FAIL:
+                return firstPage;
+            case LOAD_MORE_ALWAYS_FAIL:
+                return !firstPage;
+            case RANDOM_FAIL:
+                synchronized (random) {
+                    return random.nextBoolean();
+                }
+            default:
+                return false;
+        }
+    }
+
+    /** 按带宽分块写出：每写一块就 sleep 这一块的传输时间；不限速时一次写完 */
+    private void writeThrottled(OutputStream out, byte[] body) throws IOException {
+        if (profile.getBytesPerSecond() == 0) {
+            out.write(body);
+            return;
+        }
+        for (int offset = 0; offset < body.length; offset += WRITE_CHUNK_BYTES) {
+            int length = Math.min(WRITE_CHUNK_BYTES, body.length - offset);
+            out.write(body, offset, length);
+            out.flush();
+            sleep(profile.transferTimeMs(length));
+        }
+    }
+
+    private static int queryInt(HttpExchange exchange, String name, int fallback) throws IOException {
+        String value = query(exchange, name);
+        if (value == null) return fallback;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /** 取一个查询参数（已 URL 解码），没有就返回 null */
+    private static String query(HttpExchange exchange, String name) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+            }
+        }
+        return null;
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) return;
+        try {
+            TimeUnit.MILLISECONDS.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.feedapp.data.remote;
+
+import com.example.feedapp.bench.MicroBenchmark;
+import com.example.feedapp.data.model.FeedPageResult;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * 合成数据 + 分页编解码的基准：
+ * - cardAt：随机访问生成一张卡片（100 万张的流里任意位置）；
+ * - page：生成一页 20 张；另外按每页 1000 张往下翻（大批量生成的吞吐，翻到底就从头再来）；
+ * - decode：一页 20 张的 JSON 流式解析（FeedRemoteDataSource 每次请求在 Repository 线程上都要做一次）。
+ * 结果写到 build/benchmark-results/remote.json。
+ */
+public class SyntheticFeedGeneratorBenchmark {
+
+    private static final int[] VIDEOS = {1, 2, 3, 4, 5};
+    private static final int PAGE_SIZE = 20;
+    private static final int LARGE_PAGE_SIZE = 1_000;
+    private static final MicroBenchmark BENCH = new MicroBenchmark("remote");
+
+    @AfterClass
+    public static void writeResults() {
+        BENCH.writeResults();
+    }
+
+    @Test
+    public void cardAt() throws Exception {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(SyntheticFeedGenerator.DEFAULT_SEED,
+                SyntheticFeedGenerator.DEFAULT_CARD_COUNT, VIDEOS);
+        long[] next = new long[1];
+        BENCH.run("cardAt", "cards=" + generator.getCardCount(), 20_000, () ->
+                generator.cardAt((next[0]++ * 7919) % generator.getCardCount()));
+    }
+
+    @Test
+    public void page() throws Exception {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(SyntheticFeedGenerator.DEFAULT_SEED,
+                SyntheticFeedGenerator.DEFAULT_CARD_COUNT, VIDEOS);
+        for (int pageSize : new int[]{PAGE_SIZE, LARGE_PAGE_SIZE}) {
+            String[] cursor = new String[1];
+            BENCH.run("page", "pageSize=" + pageSize, 20_000 / pageSize, () -> {
+                FeedPageResult page = generator.load(cursor[0], pageSize);
+                cursor[0] = page.isHasMore() ? page.getNextCursor() : null;
+                return page;
+            });
+        }
+    }
+
+    @Test
+    public void decode() throws Exception {
+        SyntheticFeedGenerator generator = new SyntheticFeedGenerator(SyntheticFeedGenerator.DEFAULT_SEED,
+                SyntheticFeedGenerator.DEFAULT_CARD_COUNT, VIDEOS);
+        FeedPageCodec codec = new FeedPageCodec();
+        byte[] body = codec.encode(generator.load(null, PAGE_SIZE));
+        BENCH.run("decode", "pageSize=" + PAGE_SIZE, 1_000, () ->
+                codec.decode(new ByteArrayInputStream(body)));
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.feedapp.data.repository;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedCardStore;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FeedDeltaQueue / FeedDelta 的单元测试（纯 JVM）：
+ * 按 Repository 的写法对 FeedCardStore 做刷新 / 追加 / 删除并放入变化流，
+ * 消费方逐个回放变化维护一份镜像列表，镜像必须始终和快照一致；另外覆盖通知合并、积压合并成 RESET，
+ * 以及请求结束事件（COMPLETE / ERROR）不会被 RESET / 合并丢掉。
+ */
+public class FeedDeltaQueueTest {
+
+    private static List<FeedCard> page(int count) {
+        List<FeedCard> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new FeedCard.Builder().id(UUID.randomUUID()).title("标题 " + i).build());
+        }
+        return list;
+    }
+
+    /** 逐个回放变化的消费方：自己维护一份镜像列表，用来验证变化描述的准确性 */
+    private static final class Mirror {
+        final List<String> ids = new ArrayList<>();
+        List<FeedCard> latest;
+
+        void apply(List<FeedDelta> batch) {
+            for (FeedDelta delta : batch) {
+                if (delta.isStatus()) continue;
+                List<FeedCard> list = delta.getList();
+                switch (delta.getType()) {
+                    case RESET:
+                        ids.clear();
+                        for (FeedCard card : list) ids.add(card.getId());
+                        break;
+                    case APPEND:
+                        assertEquals(ids.size(), delta.getPosition());
+                        for (int i = delta.getPosition(); i < delta.getPosition() + delta.getCount(); i++) {
+                            ids.add(list.get(i).getId());
+                        }
+                        break;
+                    case REMOVE:
+                        assertEquals(delta.getCardId(), ids.remove(delta.getPosition()));
+                        break;
+                    default:
+                        break;
+                }
+                latest = list;
+            }
+        }
+
+        void assertMatches(List<FeedCard> expected) {
+            assertEquals(expected.size(), ids.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getId(), ids.get(i));
+            }
+        }
+    }
+
+    // -------------------- 和 FeedRepository 一样的生产方式 --------------------
+
+    private static void refresh(FeedCardStore store, FeedDeltaQueue queue, List<FeedCard> cards) {
+        FeedCardStore.Snapshot snapshot;
+        synchronized (store) {
+            store.replaceAll(cards);
+            snapshot = store.snapshot();
+        }
+        queue.offer(FeedDelta.reset(snapshot));
+    }
+
+    private static void append(FeedCardStore store, FeedDeltaQueue queue, List<FeedCard> cards) {
+        FeedCardStore.Snapshot snapshot;
+        int from;
+        synchronized (store) {
+            from = store.size();
+            store.appendAll(cards);
+            snapshot = store.snapshot();
+        }
+        if (snapshot.size() > from) queue.offer(FeedDelta.append(snapshot, from));
+    }
+
+    private static void delete(FeedCardStore store, FeedDeltaQueue queue, String id) {
+        FeedCardStore.Snapshot snapshot;
+        int position;
+        synchronized (store) {
+            position = store.indexOf(id);
+            if (position < 0 || !store.remove(id)) return;
+            snapshot = store.snapshot();
+        }
+        queue.offer(FeedDelta.remove(snapshot, position, id));
+    }
+
+    @Test
+    public void replayedDeltas_matchSnapshot() {
+        FeedCardStore store = new FeedCardStore();
+        FeedDeltaQueue queue = new FeedDeltaQueue();
+        Mirror mirror = new Mirror();
+
+        refresh(store, queue, page(20));
+        append(store, queue, page(20));
+        mirror.apply(queue.drain());
+        mirror.assertMatches(store.snapshot());
+
+        delete(store, queue, store.snapshot().get(3).getId());
+        delete(store, queue, store.snapshot().get(30).getId());
+        append(store, queue, page(15));
+        delete(store, queue, store.snapshot().get(0).getId());
+        mirror.apply(queue.drain());
+        mirror.assertMatches(store.snapshot());
+        assertEquals(52, mirror.ids.size());
+        // 折叠：最后一个变化带的就是当前列表
+        assertEquals(store.snapshot().size(), mirror.latest.size());
+        assertEquals(0, queue.getCollapsedCount());
+    }
+
+    @Test
+    public void oneSignalPerBatch() {
+        FeedCardStore store = new FeedCardStore();
+        FeedDeltaQueue queue = new FeedDeltaQueue();
+        AtomicInteger signals = new AtomicInteger();
+        queue.setListener(signals::incrementAndGet);
+
+        refresh(store, queue, page(20));
+        for (int i = 0; i < 10; i++) append(store, queue, page(5));
+        assertEquals(1, signals.get());
+        assertEquals(11, queue.drain().size());
+
+        append(store, queue, page(5));
+        assertEquals(2, signals.get());
+        assertTrue(queue.drain().size() == 1 && queue.drain().isEmpty());
+    }
+
+    @Test
+    public void reset_supersedesPending() {
+        FeedCardStore store = new FeedCardStore();
+        FeedDeltaQueue queue = new FeedDeltaQueue();
+        refresh(store, queue, page(20));
+        append(store, queue, page(20));
+        delete(store, queue, store.snapshot().get(0).getId());
+        refresh(store, queue, page(10));
+
+        List<FeedDelta> batch = queue.drain();
+        assertEquals(1, batch.size());
+        assertSame(FeedDelta.Type.RESET, batch.get(0).getType());
+        assertEquals(10, batch.get(0).getList().size());
+    }
+
+    @Test
+    public void overflow_collapsesToReset() {
+        FeedCardStore store = new FeedCardStore();
+        FeedDeltaQueue queue = new FeedDeltaQueue(8);
+        Mirror mirror = new Mirror();
+        refresh(store, queue, page(20));
+        mirror.apply(queue.drain());
+
+        for (int i = 0; i < 20; i++) append(store, queue, page(3));
+        List<FeedDelta> batch = queue.drain();
+        assertTrue("size=" + batch.size(), batch.size() <= 8);
+        assertSame(FeedDelta.Type.RESET, batch.get(0).getType());
+        assertEquals(2, queue.getCollapsedCount());
+        mirror.apply(batch);
+        mirror.assertMatches(store.snapshot());
+    }
+
+    @Test
+    public void statusEvents_surviveResetAndOverflow() {
+        FeedCardStore store = new FeedCardStore();
+        FeedDeltaQueue queue = new FeedDeltaQueue(8);
+        Mirror mirror = new Mirror();
+        refresh(store, queue, page(20));
+        queue.offer(FeedDelta.complete(FeedDelta.Request.REFRESH, true));
+        append(store, queue, page(5));
+        queue.offer(FeedDelta.error(FeedDelta.Request.LOAD_MORE, new RuntimeException("first"), false));
+        // RESET 作废之前的列表变化，但两个请求结束事件都要留着
+        refresh(store, queue, page(10));
+        for (int i = 0; i < 20; i++) {
+            append(store, queue, page(1));
+            queue.offer(FeedDelta.error(FeedDelta.Request.LOAD_MORE, new RuntimeException("#" + i), false));
+        }
+
+        List<FeedDelta> batch = queue.drain();
+        assertTrue("size=" + batch.size(), batch.size() <= 8 + FeedDelta.Request.values().length);
+        int refreshDone = 0;
+        FeedDelta lastLoadMore = null;
+        for (FeedDelta delta : batch) {
+            if (delta.getRequest() == FeedDelta.Request.REFRESH) refreshDone++;
+            if (delta.getRequest() == FeedDelta.Request.LOAD_MORE) lastLoadMore = delta;
+        }
+        assertEquals(1, refreshDone);
+        // 合并时同一种请求只留最新的一个
+        assertEquals("#19", lastLoadMore.getError().getMessage());
+        assertTrue(queue.getCollapsedCount() > 0);
+        mirror.apply(batch);
+        mirror.assertMatches(store.snapshot());
+    }
+
+    /** 生产方（后台线程）一直追加 / 删除，消费方（另一个线程）收到通知就 drain：镜像最终和 store 一致 */
+    @Test
+    public void concurrentProducer_consumerStaysConsistent() throws Exception {
+        FeedCardStore store = new FeedCardStore();
+        FeedDeltaQueue queue = new FeedDeltaQueue(16);
+        Mirror mirror = new Mirror();
+        Semaphore available = new Semaphore(0);
+        queue.setListener(available::release);
+
+        Thread producer = new Thread(() -> {
+            refresh(store, queue, page(20));
+            for (int i = 0; i < 2000; i++) {
+                append(store, queue, page(2));
+                if (i % 3 == 0) delete(store, queue, store.snapshot().get(i % 7).getId());
+            }
+        });
+        producer.start();
+        while (producer.isAlive() || available.availablePermits() > 0) {
+            if (available.tryAcquire(10, TimeUnit.MILLISECONDS)) mirror.apply(queue.drain());
+        }
+        producer.join();
+        mirror.apply(queue.drain());
+        mirror.assertMatches(store.snapshot());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.feedapp.data.repository;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedCardStore;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FeedPagingState 的单元测试：本地缓存和保存时的列表一致才接上游标，
+ * 缓存落后一页 / 还留着刚删掉的卡片 / 为空时都对不上。
+ */
+public class FeedPagingStateTest {
+
+    private static List<FeedCard> cards(int count) {
+        List<FeedCard> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new FeedCard.Builder().id(UUID.randomUUID()).title("标题 " + i).build());
+        }
+        return list;
+    }
+
+    @Test
+    public void sameList_matches() {
+        FeedCardStore store = new FeedCardStore();
+        store.replaceAll(cards(40));
+        FeedPagingState state = FeedPagingState.of(store.snapshot(), "v1.a.b", true);
+        assertEquals(40, state.getCount());
+        assertEquals("v1.a.b", state.getNextCursor());
+        assertTrue(state.isHasMore());
+
+        // 缓存读回来的是新对象，只按 id 核对
+        FeedCardStore restored = new FeedCardStore();
+        restored.replaceAll(new ArrayList<>(store.snapshot()));
+        assertTrue(state.matches(restored.snapshot()));
+    }
+
+    @Test
+    public void cacheMissingLastPage_doesNotMatch() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> firstPage = cards(20);
+        store.replaceAll(firstPage);
+        store.appendAll(cards(20));
+        FeedPagingState state = FeedPagingState.of(store.snapshot(), "v1.c.d", true);
+        // 进程死在防抖窗口里：缓存里只有第一页
+        assertFalse(state.matches(firstPage));
+    }
+
+    @Test
+    public void cacheStillHasDeletedCard_doesNotMatch() {
+        FeedCardStore store = new FeedCardStore();
+        List<FeedCard> page = cards(20);
+        store.replaceAll(page);
+        store.remove(page.get(19).getId());
+        FeedPagingState state = FeedPagingState.of(store.snapshot(), null, false);
+        assertEquals(19, state.getCount());
+        assertFalse(state.matches(page));
+    }
+
+    @Test
+    public void emptyList_neverMatches() {
+        FeedPagingState state = FeedPagingState.of(Collections.emptyList(), null, true);
+        assertEquals(0, state.getCount());
+        assertNull(state.getTailId());
+        assertFalse(state.matches(Collections.emptyList()));
+        assertFalse(state.matches(null));
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.feedapp.data.repository;
+
+import com.example.feedapp.data.local.FeedLocalDataSource;
+import com.example.feedapp.data.local.FirstScreenStore;
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedPageResult;
+import com.example.feedapp.data.remote.FeedRemoteDataSource;
+import com.example.feedapp.image.CardImageDiskCache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FeedRepository 的单元测试（Remote 换成计数的假实现，本地缓存放在临时目录）：
+ * - 滑到底部时 1000 次并发的 loadMore 只发一次远程请求，变化流里只有一个 APPEND（带区间）和一个 COMPLETE；
+ * - 已经没有更多时 loadMore 也会放一个 COMPLETE(hasMore = false)，UI 的 loading 状态能结束；
+ * - 刷新失败、又没有本地缓存时放一个 ERROR(showingCache = false)；
+ * - PageListener 在 RESET 之前拿到第一屏、之后拿到剩下的；冷启动的首屏快照也是先排版、再作为 RESET 交给 UI；
+ * - 冷启动首屏快照显示期间删掉的卡片，刷新结果到达之后也不会回来。
+ */
+public class FeedRepositoryTest {
+
+    private static final int BURST = 1000;
+    private static final int PAGE_SIZE = 20;
+
+    private File dir;
+    private CountingRemote remote;
+    private FeedRepository repository;
+    private Recorder recorder;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = File.createTempFile("feed-repository", "");
+        assertTrue(dir.delete() && dir.mkdir());
+        remote = new CountingRemote();
+        repository = new FeedRepository(remote,
+                new FeedLocalDataSource(dir),
+                new FirstScreenStore(new File(dir, "feed_first_screen.json")),
+                new CardImageDiskCache(new File(dir, "card_images"), CardImageDiskCache.DEFAULT_MAX_BYTES,
+                        Runnable::run));
+        recorder = new Recorder(repository.getDeltas());
+        repository.getDeltas().setListener(recorder);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        // 本地缓存写完之后再删文件
+        assertTrue(repository.flushPersistence(5_000));
+        repository.close();
+        delete(dir);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) for (File child : children) delete(child);
+        file.delete();
+    }
+
+    /**
+     * 第一页直接返回（每次都是同一批卡片）；加载更多的请求等 release 之后才返回最后一页（hasMore = false）。
+     */
+    private static final class CountingRemote extends FeedRemoteDataSource {
+        final List<FeedCard> firstPage = cards();
+        final AtomicInteger refreshCalls = new AtomicInteger();
+        final AtomicInteger loadMoreCalls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean failRefresh;
+
+        @Override
+        public FeedPageResult loadFeedPage(String cursor, int pageSize) throws IOException {
+            if (cursor == null) {
+                if (failRefresh) throw new IOException("HTTP 500");
+                refreshCalls.incrementAndGet();
+                return page(firstPage, true, "cursor-1");
+            }
+            loadMoreCalls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return page(cards(), false, null);
+        }
+
+        private static List<FeedCard> cards() {
+            List<FeedCard> cards = new ArrayList<>(PAGE_SIZE);
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                cards.add(new FeedCard.Builder()
+                        .id(UUID.randomUUID())
+                        .cardType(FeedCard.TYPE_TEXT)
+                        .layoutType(FeedCard.LAYOUT_DOUBLE)
+                        .title("标题 " + i)
+                        .content("内容 " + i)
+                        .build());
+            }
+            return cards;
+        }
+
+        private static FeedPageResult page(List<FeedCard> cards, boolean hasMore, String nextCursor) {
+            FeedPageResult result = new FeedPageResult();
+            result.setCards(cards);
+            result.setHasMore(hasMore);
+            result.setNextCursor(nextCursor);
+            result.setDedupHints(Collections.emptyList());
+            return result;
+        }
+    }
+
+    /** 变化流的消费方：收到通知就 drain，按顺序记下所有事件 */
+    private static final class Recorder implements FeedDeltaQueue.Listener {
+        final FeedDeltaQueue queue;
+        final List<FeedDelta> events = new ArrayList<>();
+
+        Recorder(FeedDeltaQueue queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public synchronized void onDeltasAvailable() {
+            events.addAll(queue.drain());
+            notifyAll();
+        }
+
+        /** 等到第 n 个（从 1 开始）request 的 COMPLETE / ERROR */
+        synchronized FeedDelta awaitStatus(FeedDelta.Request request, int n) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (true) {
+                List<FeedDelta> found = statuses(request);
+                if (found.size() >= n) return found.get(n - 1);
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) throw new AssertionError("no " + request + " #" + n + " in " + events);
+                wait(left);
+            }
+        }
+
+        synchronized List<FeedDelta> statuses(FeedDelta.Request request) {
+            List<FeedDelta> found = new ArrayList<>();
+            for (FeedDelta delta : events) {
+                if (delta.isStatus() && delta.getRequest() == request) found.add(delta);
+            }
+            return found;
+        }
+
+        synchronized List<FeedDelta> ofType(FeedDelta.Type type) {
+            List<FeedDelta> found = new ArrayList<>();
+            for (FeedDelta delta : events) {
+                if (delta.getType() == type) found.add(delta);
+            }
+            return found;
+        }
+    }
+
+    private void refreshAndWait() throws Exception {
+        int before = recorder.statuses(FeedDelta.Request.REFRESH).size();
+        repository.refresh();
+        FeedDelta done = recorder.awaitStatus(FeedDelta.Request.REFRESH, before + 1);
+        assertEquals(FeedDelta.Type.COMPLETE, done.getType());
+    }
+
+    @Test
+    public void loadMoreBurst_singleRemoteCall() throws Exception {
+        refreshAndWait();
+        assertEquals(PAGE_SIZE, repository.getCurrentSnapshot().size());
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch submitted = new CountDownLatch(BURST);
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        try {
+            for (int i = 0; i < BURST; i++) {
+                callers.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    repository.loadMore();
+                    submitted.countDown();
+                });
+            }
+            start.countDown();
+            assertTrue(submitted.await(5, TimeUnit.SECONDS));
+            // 所有调用方都挂上去之后，才让远程请求返回
+            remote.release.countDown();
+            FeedDelta done = recorder.awaitStatus(FeedDelta.Request.LOAD_MORE, 1);
+
+            assertEquals(1, remote.refreshCalls.get());
+            assertEquals(1, remote.loadMoreCalls.get());
+            // 合并成一次请求：只有一个结束事件，之后已经没有更多
+            assertEquals(FeedDelta.Type.COMPLETE, done.getType());
+            assertFalse(done.isHasMore());
+            assertEquals(1, recorder.statuses(FeedDelta.Request.LOAD_MORE).size());
+            // APPEND 带着新增的区间
+            List<FeedDelta> appends = recorder.ofType(FeedDelta.Type.APPEND);
+            assertEquals(1, appends.size());
+            assertEquals(PAGE_SIZE, appends.get(0).getPosition());
+            assertEquals(PAGE_SIZE, appends.get(0).getCount());
+            assertEquals(2 * PAGE_SIZE, repository.getCurrentSnapshot().size());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void loadMoreAfterLastPage_stillCompletes() throws Exception {
+        refreshAndWait();
+        remote.release.countDown();
+        repository.loadMore();
+        assertEquals(FeedDelta.Type.COMPLETE, recorder.awaitStatus(FeedDelta.Request.LOAD_MORE, 1).getType());
+        assertFalse(repository.canLoadMore());
+
+        // 已经到底：不再请求，但结束事件要到（同步放进变化流，不用等）
+        repository.loadMore();
+        List<FeedDelta> done = recorder.statuses(FeedDelta.Request.LOAD_MORE);
+        assertEquals(2, done.size());
+        assertEquals(FeedDelta.Type.COMPLETE, done.get(1).getType());
+        assertFalse(done.get(1).isHasMore());
+        assertEquals(1, remote.loadMoreCalls.get());
+    }
+
+    @Test
+    public void refreshFailure_withoutCache_reportsError() throws Exception {
+        remote.failRefresh = true;
+        repository.refresh();
+        FeedDelta done = recorder.awaitStatus(FeedDelta.Request.REFRESH, 1);
+
+        assertEquals(FeedDelta.Type.ERROR, done.getType());
+        assertFalse(done.isShowingCache());
+        assertTrue(done.getError() instanceof IOException);
+        assertTrue(recorder.ofType(FeedDelta.Type.RESET).isEmpty());
+    }
+
+    @Test
+    public void pageListener_firstScreenBeforeReset_restAfter() throws Exception {
+        List<Integer> sizes = new ArrayList<>();
+        List<Integer> resetsSeen = new ArrayList<>();
+        CountDownLatch bothHalves = new CountDownLatch(2);
+        repository.setPageListener(page -> {
+            synchronized (sizes) {
+                sizes.add(page.size());
+                resetsSeen.add(recorder.ofType(FeedDelta.Type.RESET).size());
+            }
+            bothHalves.countDown();
+        });
+        refreshAndWait();
+        assertTrue(bothHalves.await(5, TimeUnit.SECONDS));
+
+        synchronized (sizes) {
+            // 还没上报过视口：一屏按 MIN_PAGE_SIZE 算；这一屏在 RESET 放进变化流之前就处理完了
+            assertEquals(PageSizePolicy.MIN_PAGE_SIZE, (int) sizes.get(0));
+            assertEquals(0, (int) resetsSeen.get(0));
+            assertEquals(PAGE_SIZE - PageSizePolicy.MIN_PAGE_SIZE, (int) sizes.get(1));
+            assertEquals(1, (int) resetsSeen.get(1));
+        }
+    }
+
+    @Test
+    public void firstScreen_precomputedBeforeReset() throws Exception {
+        assertTrue(new FirstScreenStore(new File(dir, "feed_first_screen.json")).save(remote.firstPage));
+        List<Integer> resetsSeen = new ArrayList<>();
+        repository.setPageListener(page -> {
+            synchronized (resetsSeen) {
+                resetsSeen.add(recorder.ofType(FeedDelta.Type.RESET).size());
+            }
+        });
+        List<FeedCard> shown = repository.loadFirstScreen();
+        // 首屏快照排好版之后才作为 RESET 交给 UI；随后的刷新排在它后面
+        refreshAndWait();
+
+        List<FeedDelta> resets = recorder.ofType(FeedDelta.Type.RESET);
+        assertEquals(2, resets.size());
+        assertEquals(shown.size(), resets.get(0).getList().size());
+        assertEquals(shown.get(0).getId(), resets.get(0).getList().get(0).getId());
+        synchronized (resetsSeen) {
+            assertEquals(0, (int) resetsSeen.get(0));
+        }
+    }
+
+    @Test
+    public void deleteDuringFirstScreen_staysDeletedAfterRefresh() throws Exception {
+        // 上一次运行留下的首屏快照：就是网络第一页的前 10 张
+        assertTrue(new FirstScreenStore(new File(dir, "feed_first_screen.json")).save(remote.firstPage));
+        List<FeedCard> shown = repository.loadFirstScreen();
+        assertEquals(FirstScreenStore.MAX_CARDS, shown.size());
+
+        // 刷新结果到达之前删掉第 2 张：界面马上少一张
+        String deleted = shown.get(1).getId();
+        repository.deleteCard(deleted);
+        List<FeedDelta> removed = recorder.ofType(FeedDelta.Type.REMOVE);
+        assertEquals(1, removed.size());
+        assertEquals(1, removed.get(0).getPosition());
+        assertEquals(deleted, removed.get(0).getCardId());
+        assertFalse(deleted.equals(removed.get(0).getList().get(1).getId()));
+        assertEquals(FirstScreenStore.MAX_CARDS - 1, removed.get(0).getList().size());
+
+        // 网络第一页里还有这张卡片：RESET 之后也不能回来
+        refreshAndWait();
+        List<FeedCard> current = repository.getCurrentSnapshot();
+        assertEquals(PAGE_SIZE - 1, current.size());
+        for (FeedCard card : current) {
+            assertFalse(deleted.equals(card.getId()));
+        }
+        List<FeedDelta> resets = recorder.ofType(FeedDelta.Type.RESET);
+        assertEquals(PAGE_SIZE - 1, resets.get(resets.size() - 1).getList().size());
+
+        // 之后的删除照常作用在 store 上
+        repository.deleteCard(current.get(0).getId());
+        assertEquals(PAGE_SIZE - 2, repository.getCurrentSnapshot().size());
+        assertEquals(0, recorder.ofType(FeedDelta.Type.REMOVE).get(1).getPosition());
+    }
+}
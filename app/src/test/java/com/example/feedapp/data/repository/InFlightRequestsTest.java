@@ -0,0 +1,107 @@
+package com.example.feedapp.data.repository;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * InFlightRequests 的单元测试：1000 个并发的同一页请求只发一次「远程调用」，每个调用方都收到同一个结果；
+ * 不同的 key 互不影响；一次请求结束后同一个 key 会重新发起。
+ *
+ * fetch(...) 和 FeedRepository 里 refresh / loadMore 的写法一致：join 成功才提交任务，任务结束时 complete 取走等待者。
+ */
+public class InFlightRequestsTest {
+
+    private static final int BURST = 1000;
+
+    private final InFlightRequests<String, Consumer<String>> inFlight = new InFlightRequests<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+
+    private void fetch(String key, CountDownLatch release, Consumer<String> callback) {
+        if (!inFlight.join(key, callback)) return;
+        executor.execute(() -> {
+            remoteCalls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String result = "page:" + key;
+            for (Consumer<String> waiter : inFlight.complete(key)) waiter.accept(result);
+        });
+    }
+
+    @Test
+    public void concurrentBurst_singleRemoteCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch submitted = new CountDownLatch(BURST);
+        CountDownLatch delivered = new CountDownLatch(BURST);
+        AtomicInteger wrongResults = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        try {
+            for (int i = 0; i < BURST; i++) {
+                callers.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    fetch("g0/cursorA", release, result -> {
+                        if (!"page:g0/cursorA".equals(result)) wrongResults.incrementAndGet();
+                        delivered.countDown();
+                    });
+                    submitted.countDown();
+                });
+            }
+            start.countDown();
+            assertTrue(submitted.await(5, TimeUnit.SECONDS));
+            // 所有调用方都登记完了，才让「远程调用」返回
+            release.countDown();
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+
+            assertEquals(1, remoteCalls.get());
+            assertEquals(0, wrongResults.get());
+            assertEquals(0, inFlight.size());
+        } finally {
+            callers.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void differentKeys_fetchIndependently() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(3);
+        fetch("refresh@0", release, r -> delivered.countDown());
+        fetch("more@0/a", release, r -> delivered.countDown());
+        fetch("more@0/a", release, r -> delivered.countDown());
+        assertEquals(2, inFlight.size());
+        release.countDown();
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(2, remoteCalls.get());
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void completedKey_fetchesAgain() {
+        assertTrue(inFlight.join("k", r -> { }));
+        assertFalse(inFlight.join("k", r -> { }));
+        List<Consumer<String>> waiters = inFlight.complete("k");
+        assertEquals(2, waiters.size());
+        assertTrue(inFlight.complete("k").isEmpty());
+        assertTrue(inFlight.join("k", r -> { }));
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.feedapp.data.repository;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PageSizePolicy 的单元测试：没有测量时保持 20、首页按一屏半、慢链路 / 快速滑动时加大、始终夹在上下限之间。
+ */
+public class PageSizePolicyTest {
+
+    @Test
+    public void noMeasurements_keepsDefault() {
+        PageSizePolicy policy = new PageSizePolicy();
+        assertEquals(PageSizePolicy.DEFAULT_PAGE_SIZE, policy.firstPageSize());
+        assertEquals(PageSizePolicy.DEFAULT_PAGE_SIZE, policy.nextPageSize());
+        assertEquals(PageSizePolicy.DEFAULT_PAGE_SIZE, policy.getMetrics().pageSize);
+        assertEquals(PageSizePolicy.MIN_PAGE_SIZE, policy.itemsPerScreen());
+    }
+
+    @Test
+    public void firstPage_coversOneAndAHalfScreens() {
+        PageSizePolicy policy = new PageSizePolicy();
+        // 双列为主：一屏 12 张
+        policy.onViewport(0, 12, 0);
+        assertEquals(18, policy.firstPageSize());
+        assertEquals(12, policy.itemsPerScreen());
+        // 单列大卡：一屏 3 张，夹到下限
+        policy.onViewport(0, 3, 0);
+        assertEquals(PageSizePolicy.MIN_PAGE_SIZE, policy.firstPageSize());
+    }
+
+    @Test
+    public void slowLink_fetchesMoreScreensPerRequest() {
+        PageSizePolicy fast = new PageSizePolicy();
+        PageSizePolicy slow = new PageSizePolicy();
+        for (PageSizePolicy policy : new PageSizePolicy[]{fast, slow}) {
+            policy.onViewport(0, 10, 0);
+        }
+        for (int i = 0; i < 20; i++) {
+            fast.onRequestFinished(50);
+            slow.onRequestFinished(2000);
+        }
+        assertEquals(21, fast.nextPageSize());
+        assertEquals(40, slow.nextPageSize());
+        assertEquals(2000, slow.getMetrics().latencyMs, 1);
+    }
+
+    @Test
+    public void fastScroll_coversItemsScrolledDuringRequest() {
+        PageSizePolicy policy = new PageSizePolicy();
+        policy.onViewport(0, 10, 0);
+        for (int i = 0; i < 20; i++) policy.onRequestFinished(1000);
+        int idle = policy.nextPageSize();
+
+        // 每 200ms 滑过 5 张：25 张/秒，请求 1 秒期间会滑过 25 张
+        for (int i = 1; i <= 30; i++) {
+            policy.onViewport(i * 5, 10, i * 200L);
+        }
+        assertEquals(25, policy.getMetrics().scrollItemsPerSecond, 1);
+        int scrolling = policy.nextPageSize();
+        assertTrue("idle=" + idle + " scrolling=" + scrolling, scrolling > idle);
+        assertEquals(50, scrolling, 2);
+    }
+
+    @Test
+    public void scrollSpeed_decaysAfterIdle() {
+        PageSizePolicy policy = new PageSizePolicy();
+        for (int i = 1; i <= 30; i++) policy.onViewport(i * 5, 10, i * 200L);
+        double moving = policy.getMetrics().scrollItemsPerSecond;
+        // 停了 5 秒后又滑了几下，但几乎没动
+        for (int i = 0; i < 10; i++) policy.onViewport(150, 10, 11_000L + i * 200L);
+        assertTrue(policy.getMetrics().scrollItemsPerSecond < moving / 10);
+    }
+
+    @Test
+    public void pageSize_alwaysClamped() {
+        PageSizePolicy policy = new PageSizePolicy();
+        policy.onViewport(0, 50, 0);
+        for (int i = 0; i < 20; i++) policy.onRequestFinished(10_000);
+        assertEquals(PageSizePolicy.MAX_PAGE_SIZE, policy.nextPageSize());
+        assertEquals(PageSizePolicy.MAX_PAGE_SIZE, policy.firstPageSize());
+        assertEquals(PageSizePolicy.MAX_PAGE_SIZE, policy.getMetrics().pageSize);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.feedapp.data.repository;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongPredicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SeenIdFilter 的单元测试：没有漏判、误判率和设计值一致、布隆命中经过精确核对才剔除（不漏掉没标提示的重复，也不误丢新卡片）。
+ */
+public class SeenIdFilterTest {
+
+    private static List<FeedCard> cards(int count) {
+        List<FeedCard> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new FeedCard.Builder().id(UUID.randomUUID()).title("标题 " + i).build());
+        }
+        return list;
+    }
+
+    @Test
+    public void noFalseNegatives() {
+        SeenIdFilter filter = new SeenIdFilter();
+        List<FeedCard> seen = cards(SeenIdFilter.DEFAULT_EXPECTED_IDS);
+        for (FeedCard card : seen) filter.put(card.getStableId());
+        for (FeedCard card : seen) {
+            assertTrue(filter.mightContain(card.getStableId()));
+        }
+    }
+
+    /**
+     * 放满设计容量后，再拿 10 万个没见过的 id 去查，误判率应该在 0.1% 附近。
+     * id 用固定种子生成，每次运行查到的误判数完全一样。
+     */
+    @Test
+    public void falsePositiveRate_nearDesign() {
+        Random random = new Random(39);
+        SeenIdFilter filter = new SeenIdFilter();
+        for (int i = 0; i < SeenIdFilter.DEFAULT_EXPECTED_IDS; i++) {
+            filter.put(seededCard(random).getStableId());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < SeenIdFilter.DEFAULT_EXPECTED_IDS; i++) {
+            if (filter.mightContain(seededCard(random).getStableId())) falsePositives++;
+        }
+        double rate = (double) falsePositives / SeenIdFilter.DEFAULT_EXPECTED_IDS;
+        assertTrue("fpp=" + rate, rate < SeenIdFilter.DEFAULT_FALSE_POSITIVE_RATE * 3);
+    }
+
+    private static FeedCard seededCard(Random random) {
+        return new FeedCard.Builder().id(new UUID(random.nextLong(), random.nextLong())).build();
+    }
+
+    /** 和 Repository 一样的精确核对：这一轮放进列表的 id */
+    private static LongPredicate seenIn(List<FeedCard> cards) {
+        Set<Long> ids = new HashSet<>();
+        for (FeedCard card : cards) ids.add(card.getStableId());
+        return ids::contains;
+    }
+
+    @Test
+    public void admit_rejectsConfirmedDuplicates() {
+        SeenIdFilter filter = new SeenIdFilter();
+        List<FeedCard> first = cards(20);
+        assertEquals(20, filter.admit(first, id -> false).size());
+
+        // 服务端没有标出来（以前带提示时会被直接放行）的重复卡片也要拦下
+        List<FeedCard> second = cards(20);
+        FeedCard resurfaced = first.get(5);
+        second.set(10, resurfaced);
+        second.add(first.get(19));
+        List<FeedCard> admitted = filter.admit(second, seenIn(first));
+
+        assertEquals(19, admitted.size());
+        assertFalse(admitted.contains(resurfaced));
+        assertFalse(admitted.contains(first.get(19)));
+        assertEquals(2, filter.getRejectedCount());
+    }
+
+    @Test
+    public void admit_rejectsDuplicatesWithinPage() {
+        SeenIdFilter filter = new SeenIdFilter();
+        List<FeedCard> page = cards(10);
+        page.add(page.get(3));
+        assertEquals(10, filter.admit(page, id -> false).size());
+    }
+
+    /** 布隆过滤器严重超载（误判很多）时，精确核对说没见过的卡片一张都不会丢 */
+    @Test
+    public void admit_keepsBloomFalsePositives() {
+        SeenIdFilter filter = new SeenIdFilter(16, 0.5);
+        List<FeedCard> first = cards(500);
+        filter.admit(first, id -> false);
+
+        List<FeedCard> second = cards(500);
+        int bloomHits = 0;
+        for (FeedCard card : second) {
+            if (filter.mightContain(card.getStableId())) bloomHits++;
+        }
+        assertTrue("hits=" + bloomHits, bloomHits > 0);
+        assertEquals(500, filter.admit(second, seenIn(first)).size());
+    }
+
+    @Test
+    public void clear_forgetsEverything() {
+        SeenIdFilter filter = new SeenIdFilter();
+        List<FeedCard> first = cards(20);
+        filter.admit(first, id -> false);
+        filter.clear();
+        assertEquals(0, filter.size());
+        assertEquals(20, filter.admit(first, id -> false).size());
+    }
+}
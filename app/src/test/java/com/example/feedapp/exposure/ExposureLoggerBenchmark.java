@@ -0,0 +1,67 @@
+package com.example.feedapp.exposure;
+
+import com.example.feedapp.bench.MicroBenchmark;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * ExposureLogger.log 的基准：每次曝光（滑动时主线程上）都会调用一次。
+ * 先记满 MAX_LOGS 条再测，量的是稳定状态下「格式化 + 入队 + 挤掉最老一条」的开销，
+ * 有 / 没有监听器（调试面板开着 / 关着）各一档。结果写到 build/benchmark-results/exposure.json。
+ */
+public class ExposureLoggerBenchmark {
+
+    private static final int OPS = 20_000;
+    private static final MicroBenchmark BENCH = new MicroBenchmark("exposure");
+
+    @AfterClass
+    public static void writeResults() {
+        BENCH.writeResults();
+    }
+
+    private static ExposureEvent[] events() {
+        ExposureEvent[] events = new ExposureEvent[256];
+        ExposureStage[] stages = ExposureStage.values();
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new ExposureEvent("id-" + i, i, stages[i % stages.length],
+                    1_700_000_000_000L + i * 16L, "标题 " + i, i % 3);
+        }
+        return events;
+    }
+
+    private static void fill(ExposureEvent[] events) {
+        for (int i = 0; i < ExposureLogger.MAX_LOGS; i++) {
+            ExposureLogger.log(events[i % events.length]);
+        }
+    }
+
+    @Test
+    public void log() throws Exception {
+        ExposureEvent[] events = events();
+        int[] next = {0};
+        BENCH.run("log", "listeners=0", OPS, () -> fill(events), () -> {
+            ExposureLogger.log(events[next[0]++ & 255]);
+            return null;
+        });
+        assertEquals(ExposureLogger.MAX_LOGS, ExposureLogger.getAllLogs().size());
+    }
+
+    @Test
+    public void log_withListener() throws Exception {
+        ExposureEvent[] events = events();
+        int[] next = {0};
+        ExposureLogger.Listener listener = (event, formatted) -> MicroBenchmark.consume(formatted);
+        ExposureLogger.addListener(listener);
+        try {
+            BENCH.run("log", "listeners=1", OPS, () -> fill(events), () -> {
+                ExposureLogger.log(events[next[0]++ & 255]);
+                return null;
+            });
+        } finally {
+            ExposureLogger.removeListener(listener);
+        }
+    }
+}
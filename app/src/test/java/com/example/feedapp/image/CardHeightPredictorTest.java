@@ -0,0 +1,89 @@
+package com.example.feedapp.image;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * CardHeightPredictor 的单元测试：
+ * - 从封面地址末尾的「/宽/高」解析宽高比，解析不了时返回 -1；
+ * - 网格模式高度固定（和以前的 dimens 一样）；
+ * - 瀑布流按宽高比算高度，并按单列 / 双列分别限制范围。
+ */
+public class CardHeightPredictorTest {
+
+    private static final int SINGLE = 1000;
+    private static final int COLUMN = 480;
+    private static final int IMAGE_H = 400;
+    private static final int VIDEO_H = 540;
+
+    private static FeedCard card(int cardType, int layoutType, String url) {
+        return new FeedCard.Builder()
+                .id(UUID.randomUUID())
+                .cardType(cardType)
+                .layoutType(layoutType)
+                .imageUrl(url)
+                .build();
+    }
+
+    @Test
+    public void aspectOf_parsesTrailingWidthHeight() {
+        assertEquals(0.75f, CardHeightPredictor.aspectOf("https://picsum.photos/seed/12/400/300"), 1e-6);
+        assertEquals(1.4f, CardHeightPredictor.aspectOf("https://picsum.photos/seed/12/400/560?blur=1"), 1e-6);
+        assertEquals(-1f, CardHeightPredictor.aspectOf("file:///sdcard/cover.jpg"), 0);
+        assertEquals(-1f, CardHeightPredictor.aspectOf("https://picsum.photos/400"), 0);
+        assertEquals(-1f, CardHeightPredictor.aspectOf("https://picsum.photos/0/300"), 0);
+        assertEquals(-1f, CardHeightPredictor.aspectOf(null), 0);
+    }
+
+    @Test
+    public void grid_keepsFixedHeights() {
+        CardHeightPredictor grid = new CardHeightPredictor(false, SINGLE, COLUMN, IMAGE_H, VIDEO_H);
+        String tall = "https://picsum.photos/seed/1/400/560";
+        assertEquals(IMAGE_H, grid.coverHeight(card(FeedCard.TYPE_IMAGE, FeedCard.LAYOUT_DOUBLE, tall)));
+        assertEquals(VIDEO_H, grid.coverHeight(card(FeedCard.TYPE_VIDEO, FeedCard.LAYOUT_SINGLE, tall)));
+        assertEquals(COLUMN, grid.coverWidth(card(FeedCard.TYPE_IMAGE, FeedCard.LAYOUT_DOUBLE, tall)));
+        assertEquals(SINGLE, grid.coverWidth(card(FeedCard.TYPE_IMAGE, FeedCard.LAYOUT_SINGLE, tall)));
+        assertEquals(VIDEO_H, grid.maxCoverHeight());
+    }
+
+    @Test
+    public void staggered_heightFollowsAspectWithinBounds() {
+        CardHeightPredictor waterfall = new CardHeightPredictor(true, SINGLE, COLUMN, IMAGE_H, VIDEO_H);
+        // 双列：宽 × 高宽比
+        assertEquals(672, waterfall.coverHeight(
+                card(FeedCard.TYPE_IMAGE, FeedCard.LAYOUT_DOUBLE, "https://picsum.photos/seed/1/400/560")));
+        assertEquals(270, waterfall.coverHeight(
+                card(FeedCard.TYPE_VIDEO, FeedCard.LAYOUT_DOUBLE, "https://picsum.photos/seed/2/400/225")));
+        // 超长竖图 / 超扁横图被限制在 [0.5, 1.5]
+        assertEquals(720, waterfall.coverHeight(
+                card(FeedCard.TYPE_IMAGE, FeedCard.LAYOUT_DOUBLE, "https://picsum.photos/seed/3/400/1200")));
+        assertEquals(240, waterfall.coverHeight(
+                card(FeedCard.TYPE_IMAGE, FeedCard.LAYOUT_DOUBLE, "https://picsum.photos/seed/4/1200/100")));
+        // 单列（占满一行）最高 4:3
+        assertEquals(750, waterfall.coverHeight(
+                card(FeedCard.TYPE_IMAGE, FeedCard.LAYOUT_SINGLE, "https://picsum.photos/seed/5/400/560")));
+        // 地址里没有尺寸：退回固定高度
+        assertEquals(IMAGE_H, waterfall.coverHeight(
+                card(FeedCard.TYPE_IMAGE, FeedCard.LAYOUT_DOUBLE, "file:///sdcard/cover.jpg")));
+    }
+
+    @Test
+    public void staggered_maxCoverHeightBoundsEveryCard() {
+        CardHeightPredictor waterfall = new CardHeightPredictor(true, SINGLE, COLUMN, IMAGE_H, VIDEO_H);
+        int max = waterfall.maxCoverHeight();
+        for (int h = 50; h <= 2000; h += 50) {
+            String url = "https://picsum.photos/seed/" + h + "/400/" + h;
+            for (int layout : new int[]{FeedCard.LAYOUT_SINGLE, FeedCard.LAYOUT_DOUBLE}) {
+                for (int type : new int[]{FeedCard.TYPE_IMAGE, FeedCard.TYPE_VIDEO}) {
+                    assertTrue(waterfall.coverHeight(card(type, layout, url)) <= max);
+                }
+            }
+        }
+    }
+}
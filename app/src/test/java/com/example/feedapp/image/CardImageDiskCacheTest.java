@@ -0,0 +1,172 @@
+package com.example.feedapp.image;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * CardImageDiskCache 的单元测试：
+ * - 超过字节上限时按 LRU 淘汰（命中会刷新顺序），被淘汰的文件从磁盘上删掉；
+ * - 钉住的条目不被淘汰，pinOnly 换一批 id 后旧的重新参与淘汰；
+ * - 重启（新建实例）后从目录和 pins.txt 重建索引；
+ * - get 计入命中率，peek（预加载）不计入。
+ * io 线程用 Runnable::run 代替，所有磁盘操作都在调用线程上同步完成。
+ */
+public class CardImageDiskCacheTest {
+
+    private static final int SIZE = 100;
+
+    private File dir;
+    private File sources;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = File.createTempFile("card-images", "");
+        assertTrue(dir.delete() && dir.mkdir());
+        sources = File.createTempFile("card-sources", "");
+        assertTrue(sources.delete() && sources.mkdir());
+    }
+
+    @After
+    public void tearDown() {
+        for (File d : new File[]{dir, sources}) {
+            File[] files = d.listFiles();
+            if (files != null) for (File f : files) f.delete();
+            d.delete();
+        }
+    }
+
+    private CardImageDiskCache open(long maxBytes) {
+        return new CardImageDiskCache(dir, maxBytes, Runnable::run);
+    }
+
+    /** 一个 SIZE 字节的源文件 */
+    private File source(String name) throws IOException {
+        File file = new File(sources, name);
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[SIZE]);
+        }
+        return file;
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedByBytes() throws Exception {
+        CardImageDiskCache cache = open(3 * SIZE);
+        cache.put("a", source("a"));
+        cache.put("b", source("b"));
+        cache.put("c", source("c"));
+        // 命中 a：a 变成最近使用，下一个被淘汰的是 b
+        assertNotNull(cache.get("a"));
+        cache.put("d", source("d"));
+
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        assertTrue(cache.contains("d"));
+        assertFalse(new File(dir, "b").exists());
+        assertEquals(3L * SIZE, cache.getMetrics().bytesOnDisk);
+        assertEquals(3, cache.getMetrics().entryCount);
+    }
+
+    @Test
+    public void pinnedEntries_surviveEviction() throws Exception {
+        CardImageDiskCache cache = open(2 * SIZE);
+        cache.put("a", source("a"));
+        cache.put("b", source("b"));
+        cache.pinOnly(Arrays.asList("a", "b"));
+        cache.put("c", source("c"));
+        cache.put("d", source("d"));
+
+        // 钉住的 a / b 已经占满上限：之后写入的没钉住的条目只能被淘汰
+        assertTrue(cache.contains("a"));
+        assertTrue(cache.contains("b"));
+        assertFalse(cache.contains("c"));
+        assertFalse(cache.contains("d"));
+        assertEquals(2, cache.getMetrics().pinnedCount);
+        assertEquals(2L * SIZE, cache.getMetrics().bytesOnDisk);
+    }
+
+    @Test
+    public void pinOnly_unpinsPreviousIds() throws Exception {
+        CardImageDiskCache cache = open(2 * SIZE);
+        cache.pinOnly(Arrays.asList("a", "b", "c"));
+        cache.put("a", source("a"));
+        cache.put("b", source("b"));
+        cache.put("c", source("c"));
+        // 全部钉住：允许暂时超出上限
+        assertEquals(3, cache.getMetrics().entryCount);
+
+        // 快照换成只有 c：a / b 重新变成普通条目，按 LRU 淘汰到上限以内
+        cache.pinOnly(Collections.singletonList("c"));
+        assertFalse(cache.contains("a"));
+        assertTrue(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        assertEquals(1, cache.getMetrics().pinnedCount);
+        assertEquals(2L * SIZE, cache.getMetrics().bytesOnDisk);
+    }
+
+    @Test
+    public void restoreIndex_afterRestart() throws Exception {
+        CardImageDiskCache cache = open(10 * SIZE);
+        cache.put("a", source("a"));
+        cache.put("b", source("b"));
+        cache.pinOnly(Collections.singletonList("a"));
+        // 上次进程复制到一半被杀留下的临时文件
+        assertTrue(new File(dir, "c.tmp").createNewFile());
+
+        CardImageDiskCache restarted = open(10 * SIZE);
+        assertNotNull(restarted.get("a"));
+        assertNotNull(restarted.get("b"));
+        assertNull(restarted.get("c"));
+        assertFalse(new File(dir, "c.tmp").exists());
+
+        CardImageDiskCache.Metrics metrics = restarted.getMetrics();
+        assertEquals(2, metrics.entryCount);
+        assertEquals(1, metrics.pinnedCount);
+        assertEquals(2L * SIZE, metrics.bytesOnDisk);
+    }
+
+    @Test
+    public void metrics_countGetsButNotPeeks() throws Exception {
+        CardImageDiskCache cache = open(10 * SIZE);
+        cache.put("a", source("a"));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("missing"));
+        assertNotNull(cache.peek("a"));
+        assertNull(cache.peek("missing"));
+
+        CardImageDiskCache.Metrics metrics = cache.getMetrics();
+        assertEquals(1, metrics.hitCount);
+        assertEquals(1, metrics.missCount);
+        assertEquals(0.5, metrics.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    public void get_dropsEntryWhoseFileWasDeleted() throws Exception {
+        CardImageDiskCache cache = open(10 * SIZE);
+        cache.put("a", source("a"));
+        cache.put("b", source("b"));
+        assertTrue(new File(dir, "a").delete());
+
+        // 第一次命中只看内存索引，同时在 io 线程上核对文件；发现不在就把条目去掉
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+        assertEquals(1, cache.getMetrics().entryCount);
+        assertEquals(SIZE, cache.getMetrics().bytesOnDisk);
+    }
+}
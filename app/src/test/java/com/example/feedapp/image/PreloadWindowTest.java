@@ -0,0 +1,83 @@
+package com.example.feedapp.image;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PreloadWindow 的单元测试：
+ * - 预算：按最大封面 × RGB_565 估算，最多占内存预算的 1/4，且不超过配置的张数；
+ * - 水位线：同一份列表不重复预加载，追到列表末尾为止；
+ * - 换了列表对象（刷新 / RESET）就重新开始，即使新列表不比旧列表短。
+ */
+public class PreloadWindowTest {
+
+    private static List<Integer> list(int size) {
+        return new ArrayList<>(Collections.nCopies(size, 0));
+    }
+
+    @Test
+    public void budgetCount_limitedByConfigAndMemory() {
+        PreloadWindow window = new PreloadWindow(6);
+        // 1000 x 500 x 2 = 1MB 一张；预算 16MB 的 1/4 = 4 张
+        assertEquals(4, window.budgetCount(16L * 1000 * 1000, 1000, 500));
+        // 预算充足时按配置的上限
+        assertEquals(6, window.budgetCount(1000L * 1000 * 1000, 1000, 500));
+        // 一张都放不下
+        assertEquals(0, window.budgetCount(1000, 1000, 500));
+        assertEquals(0, new PreloadWindow(-3).budgetCount(1000L * 1000 * 1000, 1000, 500));
+    }
+
+    @Test
+    public void advance_skipsAlreadyPreloadedPositions() {
+        PreloadWindow window = new PreloadWindow(6);
+        List<Integer> cards = list(100);
+
+        assertTrue(window.advance(cards, 9, 6));
+        assertEquals(10, window.from());
+        assertEquals(16, window.to());
+
+        // 往下滑了两张：只补新露出来的两张
+        assertTrue(window.advance(cards, 11, 6));
+        assertEquals(16, window.from());
+        assertEquals(18, window.to());
+
+        // 没动 / 往回滑：不再发起
+        assertFalse(window.advance(cards, 11, 6));
+        assertFalse(window.advance(cards, 5, 6));
+    }
+
+    @Test
+    public void advance_clampsToListEnd() {
+        PreloadWindow window = new PreloadWindow(6);
+        List<Integer> cards = list(12);
+        assertTrue(window.advance(cards, 9, 6));
+        assertEquals(10, window.from());
+        assertEquals(12, window.to());
+        assertFalse(window.advance(cards, 11, 6));
+        assertFalse(window.advance(null, 3, 6));
+        assertFalse(window.advance(cards, -1, 6));
+    }
+
+    @Test
+    public void newList_resetsWatermarkEvenWhenNotShorter() {
+        PreloadWindow window = new PreloadWindow(6);
+        assertTrue(window.advance(list(100), 30, 6));
+        assertEquals(37, window.to());
+
+        // 下拉刷新：新列表一样长，用户回到顶部
+        assertTrue(window.advance(list(100), 3, 6));
+        assertEquals(4, window.from());
+        assertEquals(10, window.to());
+
+        // 追加一页（新的列表对象，更长）：从当前位置之后重新开始
+        assertTrue(window.advance(list(120), 3, 6));
+        assertEquals(4, window.from());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.feedapp.perf;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FeedMetrics 的单元测试：掉帧按预算计数、bind 按卡片类型分开、分页失败 / 预热退回主线程单独计数、reset 清空全部。
+ */
+public class FeedMetricsTest {
+
+    private static final long BUDGET_NS = 16_666_667L;
+
+    @Test
+    public void frames_countJankAgainstBudget() {
+        FeedMetrics metrics = new FeedMetrics();
+        for (int i = 0; i < 97; i++) metrics.recordFrame(8_000_000L, BUDGET_NS);
+        metrics.recordFrame(20_000_000L, BUDGET_NS);
+        metrics.recordFrame(33_000_000L, BUDGET_NS);
+        metrics.recordFrame(BUDGET_NS, BUDGET_NS);
+
+        assertEquals(100, metrics.frames().count);
+        assertEquals(2, metrics.jankyFrames());
+        assertEquals(33_000, metrics.frames().maxUs);
+    }
+
+    @Test
+    public void binds_separatedByKind() {
+        FeedMetrics metrics = new FeedMetrics();
+        LatencyHistogram text = metrics.bind("text");
+        assertSame(text, metrics.bind("text"));
+        text.recordNanos(120_000);
+        metrics.bind("image").recordNanos(450_000);
+        metrics.bind("image").recordNanos(350_000);
+
+        List<LatencyHistogram.Metrics> binds = metrics.binds();
+        assertEquals(2, binds.size());
+        assertEquals("bind.text", binds.get(0).name);
+        assertEquals(1, binds.get(0).count);
+        assertEquals("bind.image", binds.get(1).name);
+        assertEquals(2, binds.get(1).count);
+    }
+
+    @Test
+    public void summary_andReset() {
+        FeedMetrics metrics = new FeedMetrics();
+        metrics.recordFrame(10_000_000L, BUDGET_NS);
+        metrics.recordFrame(40_000_000L, BUDGET_NS);
+        metrics.bind("video").recordNanos(900_000);
+        metrics.recordPageLoad(1_950);
+        metrics.recordPageFailure();
+        metrics.recordPrewarmFallbacks(2);
+
+        String summary = metrics.summary();
+        String[] lines = summary.split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0], lines[0].startsWith("frame n=2 "));
+        assertTrue(lines[0], lines[0].endsWith("jank=1 (50.0%)"));
+        assertTrue(lines[1], lines[1].startsWith("bind.video n=1 p50=900µs"));
+        assertTrue(lines[2], lines[2].startsWith("page n=1 "));
+        assertTrue(lines[2], lines[2].endsWith("fail=1"));
+        assertEquals("prewarm fallback=2", lines[3]);
+
+        metrics.reset();
+        assertEquals(0, metrics.frames().count);
+        assertEquals(0, metrics.jankyFrames());
+        assertEquals(0, metrics.pageLoads().count);
+        assertEquals(0, metrics.pageFailures());
+        assertEquals(0, metrics.prewarmFallbacks());
+        assertEquals(0, metrics.binds().get(0).count);
+    }
+}
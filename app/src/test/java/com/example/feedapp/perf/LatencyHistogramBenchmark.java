@@ -0,0 +1,38 @@
+package com.example.feedapp.perf;
+
+import com.example.feedapp.bench.MicroBenchmark;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+/**
+ * LatencyHistogram 的基准：每一帧 / 每次 bind 都会在主线程上记录一次，
+ * 量 recordNanos 的开销（值在各个桶之间分散）和取一次快照（算百分位）的开销。
+ * 结果写到 build/benchmark-results/histogram.json。
+ */
+public class LatencyHistogramBenchmark {
+
+    private static final MicroBenchmark BENCH = new MicroBenchmark("histogram");
+
+    @AfterClass
+    public static void writeResults() {
+        BENCH.writeResults();
+    }
+
+    @Test
+    public void record() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram("bench");
+        long[] next = new long[1];
+        BENCH.run("record", "step=97ns", 1_000_000, () -> {
+            histogram.recordNanos(next[0]++ * 97L);
+            return null;
+        });
+    }
+
+    @Test
+    public void snapshot() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram("bench");
+        for (int i = 0; i < 200_000; i++) histogram.recordNanos(i * 97L);
+        BENCH.run("snapshot", "records=200000", 1_000, histogram::snapshot);
+    }
+}
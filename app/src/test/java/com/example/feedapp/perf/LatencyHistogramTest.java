@@ -0,0 +1,102 @@
+package com.example.feedapp.perf;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * LatencyHistogram 的单元测试：
+ * - 分桶边界（每个值都落在自己桶的范围里，相邻桶首尾相接）；
+ * - 百分位和排序后精确值的相对误差不超过 1/64；
+ * - 多线程并发记录不丢计数。
+ * 记录开销见 LatencyHistogramBenchmark。
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void buckets_coverValuesContiguously() {
+        long previousHigh = -1;
+        for (int index = 0; index <= LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE_US); index++) {
+            long high = LatencyHistogram.highestValueAt(index);
+            assertEquals(index, LatencyHistogram.indexOf(previousHigh + 1));
+            assertEquals(index, LatencyHistogram.indexOf(high));
+            previousHigh = high;
+        }
+        assertEquals(LatencyHistogram.MAX_VALUE_US, previousHigh);
+    }
+
+    @Test
+    public void smallValues_areExact() {
+        LatencyHistogram histogram = new LatencyHistogram("t");
+        for (int us = 1; us <= 100; us++) histogram.recordMicros(us);
+        LatencyHistogram.Metrics m = histogram.snapshot();
+        assertEquals(100, m.count);
+        assertEquals(50, m.p50Us);
+        assertEquals(90, m.p90Us);
+        assertEquals(99, m.p99Us);
+        assertEquals(100, m.maxUs);
+        assertEquals(50.5, m.meanUs, 1e-9);
+    }
+
+    @Test
+    public void percentiles_withinRelativeError() {
+        // 帧耗时形状：大部分 6~12ms，少量 20~80ms 的长尾
+        Random random = new Random(48);
+        long[] values = new long[50_000];
+        LatencyHistogram histogram = new LatencyHistogram("frame");
+        for (int i = 0; i < values.length; i++) {
+            long us = random.nextInt(20) == 0
+                    ? 20_000 + random.nextInt(60_000)
+                    : 6_000 + random.nextInt(6_000);
+            values[i] = us;
+            histogram.recordMicros(us);
+        }
+        Arrays.sort(values);
+        LatencyHistogram.Metrics m = histogram.snapshot();
+        assertClose(values[(int) Math.ceil(0.50 * values.length) - 1], m.p50Us);
+        assertClose(values[(int) Math.ceil(0.90 * values.length) - 1], m.p90Us);
+        assertClose(values[(int) Math.ceil(0.99 * values.length) - 1], m.p99Us);
+        assertEquals(values[values.length - 1], m.maxUs);
+    }
+
+    private static void assertClose(long exact, long reported) {
+        // 报告的是桶上界：不会比真实值小，最多大 1/64
+        assertTrue(exact + " vs " + reported, reported >= exact);
+        assertTrue(exact + " vs " + reported, reported - exact <= exact / 64 + 1);
+    }
+
+    @Test
+    public void outOfRangeValues_areClamped() {
+        LatencyHistogram histogram = new LatencyHistogram("t");
+        histogram.recordMicros(-5);
+        histogram.recordMicros(Long.MAX_VALUE);
+        LatencyHistogram.Metrics m = histogram.snapshot();
+        assertEquals(2, m.count);
+        assertEquals(0, m.p50Us);
+        assertEquals(LatencyHistogram.MAX_VALUE_US, m.maxUs);
+    }
+
+    @Test
+    public void concurrentRecords_keepEveryCount() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram("bind");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 100_000; i++) histogram.recordMicros(random.nextInt(5_000));
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(400_000, histogram.snapshot().count);
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().count);
+        assertEquals(0, histogram.snapshot().maxUs);
+    }
+}
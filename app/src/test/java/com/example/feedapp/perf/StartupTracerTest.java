@@ -0,0 +1,50 @@
+package com.example.feedapp.perf;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * StartupTracer 的单元测试：以进程启动为 0 点、每个阶段只记第一次、begin 之前的打点被忽略。
+ */
+public class StartupTracerTest {
+
+    @Test
+    public void marksRelativeToProcessStart() {
+        StartupTracer tracer = new StartupTracer();
+        tracer.begin(1_000);
+        tracer.mark(StartupTracer.ACTIVITY_CREATE, 1_180);
+        tracer.mark(StartupTracer.FIRST_SCREEN_READ, 1_230);
+        tracer.note(StartupTracer.FIRST_SCREEN_READ, "10 cards in 3ms");
+        tracer.mark(StartupTracer.FIRST_DRAW, 1_300);
+        assertFalse(tracer.isComplete());
+        tracer.mark(StartupTracer.FIRST_CONTENT_DRAW, 1_300);
+
+        assertTrue(tracer.isComplete());
+        assertEquals(180, tracer.elapsedMs(StartupTracer.ACTIVITY_CREATE));
+        assertEquals(300, tracer.elapsedMs(StartupTracer.FIRST_CONTENT_DRAW));
+        assertEquals("startup: activity_create +180ms, first_screen_read +230ms (10 cards in 3ms),"
+                + " first_draw +300ms, first_content_draw +300ms", tracer.report());
+    }
+
+    @Test
+    public void onlyFirstMarkCounts() {
+        StartupTracer tracer = new StartupTracer();
+        tracer.begin(0);
+        assertTrue(tracer.mark(StartupTracer.FIRST_DRAW, 50));
+        // 旋转屏幕后页面重建，又 draw 了一次
+        assertFalse(tracer.mark(StartupTracer.FIRST_DRAW, 5_000));
+        tracer.begin(4_000);
+        assertEquals(50, tracer.elapsedMs(StartupTracer.FIRST_DRAW));
+    }
+
+    @Test
+    public void marksBeforeBegin_ignored() {
+        StartupTracer tracer = new StartupTracer();
+        assertFalse(tracer.mark(StartupTracer.ACTIVITY_CREATE, 10));
+        assertEquals(-1, tracer.elapsedMs(StartupTracer.ACTIVITY_CREATE));
+        assertEquals("startup: (no marks)", tracer.report());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.feedapp.ui.feed;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.feedapp.bench.BenchCards;
+import com.example.feedapp.bench.MicroBenchmark;
+import com.example.feedapp.data.model.FeedCard;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * FeedAdapter 的 DiffUtil 回调基准：
+ * - callback：对一对卡片依次调用 areItemsTheSame / areContentsTheSame / getChangePayload
+ *   （Myers diff 里每一对都会走前两个，内容变了的再走第三个），每 10 对里有 1 对标题变了；
+ * - fullDiff：1k / 10k / 50k 张卡片、中间每 50 张改一张标题时，FeedListDiffer 的完整 diff；
+ * - planAppend / appendFullDiff：同样三档，「追加一页」这种提交用 FeedDiffPlanner 识别（普通列表，没有快照血缘）
+ *   和走完整 DiffUtil 各要多久。
+ * 结果写到 build/benchmark-results/diff.json。
+ */
+public class DiffCallbackBenchmark {
+
+    private static final int[] SIZES = {1_000, 10_000, 50_000};
+    private static final int PAGE_SIZE = 20;
+    private static final MicroBenchmark BENCH = new MicroBenchmark("diff");
+
+    @AfterClass
+    public static void writeResults() {
+        BENCH.writeResults();
+    }
+
+    /** 每 every 张改一张标题（id 不变、内容 hash 变了） */
+    private static List<FeedCard> edited(List<FeedCard> cards, int every) {
+        List<FeedCard> list = new ArrayList<>(cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            FeedCard card = cards.get(i);
+            list.add(i % every == 0 ? card.toBuilder().title(card.getTitle() + "（已编辑）").build() : card);
+        }
+        return list;
+    }
+
+    @Test
+    public void callback() throws Exception {
+        DiffUtil.ItemCallback<FeedCard> callback = FeedAdapter.diffCallback();
+        List<FeedCard> oldList = BenchCards.cards(4096);
+        List<FeedCard> newList = edited(oldList, 10);
+        int[] next = new int[1];
+        BENCH.run("callback", "changed=10%", 100_000, () -> {
+            int i = next[0]++ & 4095;
+            FeedCard oldItem = oldList.get(i);
+            FeedCard newItem = newList.get(i);
+            if (!callback.areItemsTheSame(oldItem, newItem)) return null;
+            if (callback.areContentsTheSame(oldItem, newItem)) return Boolean.TRUE;
+            return callback.getChangePayload(oldItem, newItem);
+        });
+    }
+
+    @Test
+    public void fullDiff() throws Exception {
+        for (int size : SIZES) {
+            List<FeedCard> oldList = BenchCards.cards(size);
+            List<FeedCard> newList = edited(oldList, 50);
+            BENCH.run("fullDiff", "size=" + size, 3, () ->
+                    FeedListDiffer.calculateFullDiff(oldList, newList, FeedAdapter.diffCallback()));
+        }
+    }
+
+    @Test
+    public void planAppend() throws Exception {
+        for (int size : SIZES) {
+            List<FeedCard> all = BenchCards.cards(size + PAGE_SIZE);
+            List<FeedCard> oldList = new ArrayList<>(all.subList(0, size));
+            List<FeedCard> newList = new ArrayList<>(all);
+            BENCH.run("planAppend", "size=" + size, 20, () -> FeedDiffPlanner.plan(oldList, newList));
+            assertEquals(FeedDiffPlanner.APPEND, FeedDiffPlanner.plan(oldList, newList).kind);
+        }
+    }
+
+    @Test
+    public void appendFullDiff() throws Exception {
+        for (int size : SIZES) {
+            List<FeedCard> all = BenchCards.cards(size + PAGE_SIZE);
+            List<FeedCard> oldList = new ArrayList<>(all.subList(0, size));
+            List<FeedCard> newList = new ArrayList<>(all);
+            BENCH.run("appendFullDiff", "size=" + size, 3, () ->
+                    FeedListDiffer.calculateFullDiff(oldList, newList, FeedAdapter.diffCallback()));
+        }
+    }
+}
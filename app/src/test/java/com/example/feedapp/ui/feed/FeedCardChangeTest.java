@@ -0,0 +1,163 @@
+package com.example.feedapp.ui.feed;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FeedCardChange 的单元测试：验证局部刷新时「哪些字段变了」的判断，
+ * 以及 payload 合并 + dispatch 之后 ViewHolder 上真正被调用的动作：
+ * 尤其是只改标题时，视频卡不会重新加载封面、也不会解绑 Player。
+ */
+public class FeedCardChangeTest {
+
+    private static FeedCard videoCard() {
+        return new FeedCard.Builder()
+                .id("id-1")
+                .cardType(FeedCard.TYPE_VIDEO)
+                .layoutType(FeedCard.LAYOUT_DOUBLE)
+                .title("标题 1")
+                .subTitle("副标题 1")
+                .content("内容 1")
+                .imageUrl("https://picsum.photos/seed/1/400/300")
+                .videoResId(42)
+                .build();
+    }
+
+    /** 记录 dispatch 调了哪些动作的 ViewHolder 替身 */
+    private static final class RecordingTarget implements FeedCardChange.Target {
+        int textUpdates;
+        int textFlags;
+        int coverReloads;
+        int playerRebinds;
+
+        @Override
+        public void updateText(FeedCard card, int flags) {
+            textUpdates++;
+            textFlags = flags;
+        }
+
+        @Override
+        public void reloadCover(FeedCard card) {
+            coverReloads++;
+        }
+
+        @Override
+        public void rebindPlayer(FeedCard card) {
+            playerRebinds++;
+        }
+    }
+
+    /** 按 FeedAdapter.onBindViewHolder(holder, position, payloads) 的路径走一遍 */
+    private static RecordingTarget rebind(Object... payloads) {
+        RecordingTarget target = new RecordingTarget();
+        FeedCardChange.dispatch(videoCard(), FeedCardChange.merge(Arrays.asList(payloads)), target);
+        return target;
+    }
+
+    @Test
+    public void identicalCards_noChange() {
+        assertEquals(0, FeedCardChange.diff(videoCard(), videoCard()));
+    }
+
+    @Test
+    public void titleOnlyUpdate_doesNotReloadImageOrDetachPlayer() {
+        FeedCard oldCard = videoCard();
+        FeedCard newCard = videoCard().toBuilder().title("新标题").build();
+
+        int flags = FeedCardChange.diff(oldCard, newCard);
+
+        assertEquals(FeedCardChange.TITLE, flags);
+        assertFalse(FeedCardChange.affectsImage(flags));
+        assertFalse(FeedCardChange.affectsPlayer(flags));
+        assertTrue(FeedCardChange.affectsText(flags));
+    }
+
+    @Test
+    public void imageOnlyUpdate_reloadsImageOnly() {
+        FeedCard oldCard = videoCard();
+        FeedCard newCard = videoCard().toBuilder()
+                .imageUrl("https://picsum.photos/seed/2/400/300")
+                .build();
+
+        int flags = FeedCardChange.diff(oldCard, newCard);
+
+        assertEquals(FeedCardChange.IMAGE, flags);
+        assertTrue(FeedCardChange.affectsImage(flags));
+        assertFalse(FeedCardChange.affectsText(flags));
+        assertFalse(FeedCardChange.affectsPlayer(flags));
+    }
+
+    @Test
+    public void layoutChange_affectsImageAndText() {
+        FeedCard oldCard = videoCard();
+        FeedCard newCard = videoCard().toBuilder().layoutType(FeedCard.LAYOUT_SINGLE).build();
+
+        int flags = FeedCardChange.diff(oldCard, newCard);
+
+        assertTrue(FeedCardChange.affectsImage(flags));
+        assertTrue(FeedCardChange.affectsText(flags));
+        assertFalse(FeedCardChange.affectsPlayer(flags));
+    }
+
+    @Test
+    public void videoChange_detachesPlayer() {
+        FeedCard oldCard = videoCard();
+        FeedCard newCard = videoCard().toBuilder().videoResId(43).build();
+
+        int flags = FeedCardChange.diff(oldCard, newCard);
+
+        assertEquals(FeedCardChange.VIDEO, flags);
+        assertTrue(FeedCardChange.affectsPlayer(flags));
+        assertFalse(FeedCardChange.affectsImage(flags));
+    }
+
+    // -------------------- merge + dispatch --------------------
+
+    @Test
+    public void titleOnlyRebind_noCoverReloadNoPlayerDetach() {
+        int payload = FeedCardChange.diff(videoCard(), videoCard().toBuilder().title("新标题").build());
+
+        RecordingTarget holder = rebind(payload);
+
+        assertEquals(1, holder.textUpdates);
+        assertEquals(FeedCardChange.TITLE, holder.textFlags);
+        assertEquals(0, holder.coverReloads);
+        assertEquals(0, holder.playerRebinds);
+    }
+
+    @Test
+    public void mergedPayloads_unionOfActions() {
+        // 同一帧里先改标题、再换封面：两个 payload 合并，文字和封面各更新一次，Player 不动
+        RecordingTarget holder = rebind(FeedCardChange.TITLE, FeedCardChange.IMAGE, "unknown");
+
+        assertEquals(1, holder.textUpdates);
+        assertEquals(1, holder.coverReloads);
+        assertEquals(0, holder.playerRebinds);
+    }
+
+    @Test
+    public void videoSwapRebind_onlyRebindsPlayer() {
+        int payload = FeedCardChange.diff(videoCard(), videoCard().toBuilder().videoResId(43).build());
+
+        RecordingTarget holder = rebind(payload);
+
+        assertEquals(0, holder.textUpdates);
+        assertEquals(0, holder.coverReloads);
+        assertEquals(1, holder.playerRebinds);
+    }
+
+    @Test
+    public void noKnownPayload_noActions() {
+        assertEquals(0, FeedCardChange.merge(Collections.singletonList("unknown")));
+        RecordingTarget holder = rebind();
+        assertEquals(0, holder.textUpdates + holder.coverReloads + holder.playerRebinds);
+    }
+}
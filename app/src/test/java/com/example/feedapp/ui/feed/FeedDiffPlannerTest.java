@@ -0,0 +1,152 @@
+package com.example.feedapp.ui.feed;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedCardStore;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * FeedDiffPlanner 的单元测试：
+ * - 加载更多 / 删除一张 / 刷新 分别被识别成 APPEND / REMOVE_ONE / FULL；
+ * - 1k / 10k / 50k 张卡片的普通列表（没有快照血缘）追加一页也能识别成 APPEND。
+ * 和完整 DiffUtil 的耗时对比见 DiffCallbackBenchmark（planAppend / appendFullDiff）。
+ */
+public class FeedDiffPlannerTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    private static FeedCard card(String id, String title) {
+        return new FeedCard.Builder()
+                .id(id)
+                .cardType(FeedCard.TYPE_TEXT)
+                .layoutType(FeedCard.LAYOUT_DOUBLE)
+                .title(title)
+                .subTitle("副标题 " + id)
+                .content("这是一段比较长的正文内容，用来模拟真实卡片里的 content 字段 " + id)
+                .build();
+    }
+
+    private static List<FeedCard> cards(int from, int count) {
+        List<FeedCard> list = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            list.add(card("id-" + i, "标题 " + i));
+        }
+        return list;
+    }
+
+    // -------------------- 正确性 --------------------
+
+    @Test
+    public void firstSubmission_isAppendFromZero() {
+        FeedDiffPlanner.Plan plan = FeedDiffPlanner.plan(Collections.emptyList(), cards(0, 10));
+        assertEquals(FeedDiffPlanner.APPEND, plan.kind);
+        assertEquals(0, plan.position);
+        assertEquals(10, plan.count);
+    }
+
+    @Test
+    public void loadMore_isAppend() {
+        List<FeedCard> oldList = cards(0, 20);
+        List<FeedCard> newList = new ArrayList<>(oldList);
+        newList.addAll(cards(20, PAGE_SIZE));
+
+        FeedDiffPlanner.Plan plan = FeedDiffPlanner.plan(oldList, newList);
+
+        assertEquals(FeedDiffPlanner.APPEND, plan.kind);
+        assertEquals(20, plan.position);
+        assertEquals(PAGE_SIZE, plan.count);
+    }
+
+    @Test
+    public void deleteOne_isRemoveOne() {
+        List<FeedCard> oldList = cards(0, 20);
+        List<FeedCard> newList = new ArrayList<>(oldList);
+        newList.remove(7);
+
+        FeedDiffPlanner.Plan plan = FeedDiffPlanner.plan(oldList, newList);
+
+        assertEquals(FeedDiffPlanner.REMOVE_ONE, plan.kind);
+        assertEquals(7, plan.position);
+    }
+
+    @Test
+    public void deleteLast_isRemoveOne() {
+        List<FeedCard> oldList = cards(0, 20);
+        List<FeedCard> newList = new ArrayList<>(oldList.subList(0, 19));
+
+        FeedDiffPlanner.Plan plan = FeedDiffPlanner.plan(oldList, newList);
+
+        assertEquals(FeedDiffPlanner.REMOVE_ONE, plan.kind);
+        assertEquals(19, plan.position);
+    }
+
+    @Test
+    public void refresh_isFull() {
+        FeedDiffPlanner.Plan plan = FeedDiffPlanner.plan(cards(0, 20), cards(100, 10));
+        assertEquals(FeedDiffPlanner.FULL, plan.kind);
+    }
+
+    @Test
+    public void contentChangeInPrefix_isFull() {
+        List<FeedCard> oldList = cards(0, 20);
+        List<FeedCard> newList = new ArrayList<>(oldList);
+        newList.set(3, card("id-3", "改过的标题"));
+        newList.addAll(cards(20, PAGE_SIZE));
+
+        assertEquals(FeedDiffPlanner.FULL, FeedDiffPlanner.plan(oldList, newList).kind);
+    }
+
+    @Test
+    public void equalContentDifferentObjects_isSame() {
+        // 例如从本地缓存反序列化出来的同一批卡片：对象不同，但 id 和内容 hash 都相同
+        assertEquals(FeedDiffPlanner.SAME, FeedDiffPlanner.plan(cards(0, 20), cards(0, 20)).kind);
+    }
+
+    @Test
+    public void emptyNewList_isClear() {
+        FeedDiffPlanner.Plan plan = FeedDiffPlanner.plan(cards(0, 20), Collections.emptyList());
+        assertEquals(FeedDiffPlanner.CLEAR, plan.kind);
+        assertEquals(20, plan.count);
+    }
+
+    @Test
+    public void storeSnapshots_appendAndRemoveWithoutScanning() {
+        FeedCardStore store = new FeedCardStore();
+        store.replaceAll(cards(0, 50_000));
+        List<FeedCard> first = store.snapshot();
+
+        store.appendAll(cards(50_000, PAGE_SIZE));
+        List<FeedCard> appended = store.snapshot();
+        FeedDiffPlanner.Plan append = FeedDiffPlanner.plan(first, appended);
+        assertEquals(FeedDiffPlanner.APPEND, append.kind);
+        assertEquals(50_000, append.position);
+        assertEquals(PAGE_SIZE, append.count);
+
+        store.remove("id-123");
+        FeedDiffPlanner.Plan remove = FeedDiffPlanner.plan(appended, store.snapshot());
+        assertEquals(FeedDiffPlanner.REMOVE_ONE, remove.kind);
+        assertEquals(123, remove.position);
+    }
+
+    // -------------------- 大列表：追加一页 --------------------
+
+    @Test
+    public void append_detectedAtLargeSizes() {
+        for (int size : new int[]{1_000, 10_000, 50_000}) {
+            List<FeedCard> oldList = cards(0, size);
+            List<FeedCard> newList = new ArrayList<>(oldList);
+            newList.addAll(cards(size, PAGE_SIZE));
+
+            FeedDiffPlanner.Plan plan = FeedDiffPlanner.plan(oldList, newList);
+            assertEquals(FeedDiffPlanner.APPEND, plan.kind);
+            assertEquals(size, plan.position);
+            assertEquals(PAGE_SIZE, plan.count);
+        }
+    }
+}
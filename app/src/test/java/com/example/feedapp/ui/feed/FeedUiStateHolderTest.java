@@ -0,0 +1,281 @@
+package com.example.feedapp.ui.feed;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FeedUiStateHolder 的单元测试：同一帧里的多次修改只交给 UI 一次、没有变化的修改被忽略、版本号递增；
+ * 并让同一串刷新 / 加载更多事件分别走「每个字段一个 LiveData」和 FeedUiStateHolder，对比两边实际的分发次数和主线程消息数。
+ */
+public class FeedUiStateHolderTest {
+
+    /** 手动走帧的 FrameScheduler：postFrame 只是记下来，frame() 时统一执行（相当于 Choreographer 的一帧） */
+    private static final class ManualFrames implements FeedUiStateHolder.FrameScheduler {
+        final List<Runnable> pending = new ArrayList<>();
+        int posted;
+
+        @Override
+        public synchronized void postFrame(Runnable frame) {
+            pending.add(frame);
+            posted++;
+        }
+
+        void frame() {
+            List<Runnable> run;
+            synchronized (this) {
+                run = new ArrayList<>(pending);
+                pending.clear();
+            }
+            for (Runnable r : run) r.run();
+        }
+    }
+
+    private final ManualFrames frames = new ManualFrames();
+    private final List<FeedUiState> rendered = new ArrayList<>();
+    private final FeedUiStateHolder holder = new FeedUiStateHolder(FeedUiState.INITIAL, frames, rendered::add);
+
+    private static List<FeedCard> page(int count) {
+        List<FeedCard> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new FeedCard.Builder().id(UUID.randomUUID()).title("标题 " + i).build());
+        }
+        return list;
+    }
+
+    @Test
+    public void updatesInOneFrame_deliveredOnce() {
+        List<FeedCard> cards = page(20);
+        holder.update(b -> b.refreshing(true));
+        holder.update(b -> b.cards(cards));
+        holder.update(b -> b.refreshing(false).showEmptyView(false));
+        assertEquals(1, frames.posted);
+        assertTrue(rendered.isEmpty());
+
+        frames.frame();
+        assertEquals(1, rendered.size());
+        FeedUiState state = rendered.get(0);
+        assertSame(cards, state.getCards());
+        assertFalse(state.isRefreshing());
+        assertEquals(3, state.getVersion());
+    }
+
+    @Test
+    public void unchangedUpdate_ignored() {
+        holder.update(b -> b.loadingMore(true));
+        frames.frame();
+        for (int i = 0; i < 30; i++) holder.update(b -> b.loadingMore(true));
+        frames.frame();
+        assertEquals(1, rendered.size());
+        assertEquals(1, holder.getUpdateCount());
+        assertEquals(1, holder.current().getVersion());
+    }
+
+    @Test
+    public void closed_stopsDelivery() {
+        holder.update(b -> b.refreshing(true));
+        holder.close();
+        frames.frame();
+        holder.update(b -> b.refreshing(false));
+        frames.frame();
+        assertTrue(rendered.isEmpty());
+    }
+
+    @Test
+    public void updatesFromManyThreads_conflated() throws Exception {
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    List<FeedCard> cards = page(1);
+                    holder.update(b -> b.cards(cards));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        frames.frame();
+        assertEquals(4000, holder.getUpdateCount());
+        assertEquals(1, rendered.size());
+        assertEquals(4000, rendered.get(0).getVersion());
+    }
+
+    // -------------------- 合并前后：一次刷新 + 一次加载更多 --------------------
+
+    /**
+     * 假的主线程：记录 Handler 消息和 Choreographer 帧回调的条数，pump() 时按顺序执行。
+     * onMain 表示「当前代码跑在主线程上」。
+     */
+    private static final class FakeMainThread {
+        final List<Runnable> queue = new ArrayList<>();
+        boolean onMain = true;
+        int handlerMessages;
+        int frameCallbacks;
+
+        void post(Runnable r) {
+            handlerMessages++;
+            queue.add(r);
+        }
+
+        void postFrameCallback(Runnable r) {
+            frameCallbacks++;
+            queue.add(r);
+        }
+
+        /** 切回主线程，把积压的消息 / 帧回调执行完 */
+        void pump() {
+            onMain = true;
+            while (!queue.isEmpty()) queue.remove(0).run();
+        }
+    }
+
+    /**
+     * MutableLiveData 的分发规则：setValue 在主线程上直接通知观察者；
+     * postValue 只在「没有待处理的值」时往主线程 post 一条消息，消息执行时通知一次（同一个 LiveData 的多次 post 合并）。
+     */
+    private static final class CountingLiveData<T> {
+        private static final Object NOT_SET = new Object();
+        private final FakeMainThread main;
+        private final int[] dispatches;
+        private Object pending = NOT_SET;
+
+        CountingLiveData(FakeMainThread main, int[] dispatches) {
+            this.main = main;
+            this.dispatches = dispatches;
+        }
+
+        void setValue(T value) {
+            assertTrue(main.onMain);
+            dispatches[0]++;
+        }
+
+        void postValue(T value) {
+            boolean post = pending == NOT_SET;
+            pending = value;
+            if (post) {
+                main.post(() -> {
+                    pending = NOT_SET;
+                    dispatches[0]++;
+                });
+            }
+        }
+    }
+
+    /**
+     * 合并之前的 FeedViewModel：每个字段一个 LiveData，refresh / loadMore 的调用顺序照搬原来的代码
+     * （loadMore 在上一页还在路上时 canLoadMore() == false，直接 return）。
+     */
+    private static final class PerFieldViewModel {
+        final int[] dispatches = new int[1];
+        final CountingLiveData<List<FeedCard>> cards;
+        final CountingLiveData<Boolean> refreshing;
+        final CountingLiveData<Boolean> loadingMore;
+        final CountingLiveData<Boolean> showEmptyView;
+        final CountingLiveData<Boolean> showErrorView;
+        boolean loadMoreInFlight;
+
+        PerFieldViewModel(FakeMainThread main) {
+            cards = new CountingLiveData<>(main, dispatches);
+            refreshing = new CountingLiveData<>(main, dispatches);
+            loadingMore = new CountingLiveData<>(main, dispatches);
+            showEmptyView = new CountingLiveData<>(main, dispatches);
+            showErrorView = new CountingLiveData<>(main, dispatches);
+        }
+
+        void refresh() {
+            refreshing.setValue(true);
+            showErrorView.setValue(false);
+        }
+
+        void onRefreshSuccess(List<FeedCard> list) {
+            refreshing.postValue(false);
+            cards.postValue(list);
+            showEmptyView.postValue(list.isEmpty());
+            showErrorView.postValue(false);
+        }
+
+        void loadMore() {
+            if (loadMoreInFlight) return;
+            loadMoreInFlight = true;
+            loadingMore.setValue(true);
+        }
+
+        void onLoadMoreSuccess(List<FeedCard> list) {
+            loadMoreInFlight = false;
+            loadingMore.postValue(false);
+            cards.postValue(list);
+            showEmptyView.postValue(list.isEmpty());
+            showErrorView.postValue(false);
+        }
+    }
+
+    /**
+     * 同一串事件分别走合并前后的两条路径，数的都是实际发生的分发 / 主线程消息：
+     * 主线程下拉刷新 → 一帧 → 后台刷新成功 → 一帧 → 滑到底部 onScrolled 连续触发 20 次 loadMore → 一帧
+     * → 后台加载更多成功 → 一帧。
+     *
+     * - 合并前：2 次 setValue + 4 次 postValue（刷新）、1 次 setValue + 4 次 postValue（加载更多），
+     *   共 11 次观察者回调（= Fragment 改 11 次 View），8 条 Handler 消息；
+     * - 合并后（FrameScheduler 和 FeedViewModel.postFrame 一样：主线程直接预约帧回调，后台先 post 一条消息）：
+     *   4 次分发，2 条 Handler 消息 + 4 个帧回调。
+     * 布局次数取决于真实的 View 树，JVM 上量不到，这里不下结论。
+     */
+    @Test
+    public void pageLoad_fewerDispatchesThanPerFieldLiveData() {
+        List<FeedCard> first = page(20);
+        List<FeedCard> second = page(40);
+
+        FakeMainThread before = new FakeMainThread();
+        PerFieldViewModel perField = new PerFieldViewModel(before);
+        perField.refresh();
+        before.pump();
+        before.onMain = false;
+        perField.onRefreshSuccess(first);
+        before.pump();
+        for (int i = 0; i < 20; i++) perField.loadMore();
+        before.pump();
+        before.onMain = false;
+        perField.onLoadMoreSuccess(second);
+        before.pump();
+
+        FakeMainThread after = new FakeMainThread();
+        List<FeedUiState> delivered = new ArrayList<>();
+        FeedUiStateHolder conflated = new FeedUiStateHolder(FeedUiState.INITIAL, frame -> {
+            if (after.onMain) {
+                after.postFrameCallback(frame);
+            } else {
+                after.post(() -> after.postFrameCallback(frame));
+            }
+        }, delivered::add);
+        conflated.update(b -> b.refreshing(true).showErrorView(false));
+        after.pump();
+        after.onMain = false;
+        conflated.update(b -> b.cards(first));
+        conflated.update(b -> b.refreshing(false).showEmptyView(false).showErrorView(false));
+        after.pump();
+        for (int i = 0; i < 20; i++) conflated.update(b -> b.loadingMore(true));
+        after.pump();
+        after.onMain = false;
+        conflated.update(b -> b.cards(second));
+        conflated.update(b -> b.loadingMore(false).showEmptyView(false).showErrorView(false));
+        after.pump();
+
+        assertEquals(11, perField.dispatches[0]);
+        assertEquals(8, before.handlerMessages);
+
+        assertEquals(4, conflated.getDispatchCount());
+        assertEquals(4, delivered.size());
+        assertEquals(2, after.handlerMessages);
+        assertEquals(4, after.frameCallbacks);
+        assertSame(second, delivered.get(delivered.size() - 1).getCards());
+    }
+}
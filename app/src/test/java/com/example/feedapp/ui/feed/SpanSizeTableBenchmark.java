@@ -0,0 +1,76 @@
+package com.example.feedapp.ui.feed;
+
+import com.example.feedapp.bench.BenchCards;
+import com.example.feedapp.bench.MicroBenchmark;
+import com.example.feedapp.data.model.FeedCardStore;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * SpanSizeTable 的基准：scrollToPosition 到深位置时 GridLayoutManager 要先算锚点在第几行，
+ * 在 2 万张卡片的后半段随机取位置量：
+ * - defaultGroupIndex：SpanSizeLookup 默认的逐个累加（SpanSizeTableTest 里的参照实现，未开缓存）；
+ * - tableGroupIndex：预计算表查一次；
+ * - build：整表重建（换一份列表时的开销）。
+ * 结果写到 build/benchmark-results/span.json。
+ */
+public class SpanSizeTableBenchmark {
+
+    private static final int SPAN_COUNT = 2;
+    private static final int SIZE = 20_000;
+    private static final MicroBenchmark BENCH = new MicroBenchmark("span");
+
+    @AfterClass
+    public static void writeResults() {
+        BENCH.writeResults();
+    }
+
+    private static FeedCardStore.Snapshot snapshot() {
+        FeedCardStore store = new FeedCardStore();
+        store.replaceAll(BenchCards.cards(SIZE));
+        return store.snapshot();
+    }
+
+    /** 后半段的随机位置（固定种子，两种算法查的是同一批位置） */
+    private static int[] targets() {
+        Random random = new Random(46);
+        int[] targets = new int[256];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = SIZE / 2 + random.nextInt(SIZE / 2);
+        }
+        return targets;
+    }
+
+    @Test
+    public void defaultGroupIndex() throws Exception {
+        FeedCardStore.Snapshot list = snapshot();
+        int[] targets = targets();
+        int[] next = new int[1];
+        BENCH.run("defaultGroupIndex", "size=" + SIZE, 50, () ->
+                SpanSizeTableTest.defaultSpanGroupIndex(list, targets[next[0]++ & 255]));
+    }
+
+    @Test
+    public void tableGroupIndex() throws Exception {
+        FeedCardStore.Snapshot list = snapshot();
+        SpanSizeTable table = new SpanSizeTable(SPAN_COUNT);
+        table.sync(list);
+        int[] targets = targets();
+        int[] next = new int[1];
+        BENCH.run("tableGroupIndex", "size=" + SIZE, 100_000, () ->
+                table.spanGroupIndexAt(targets[next[0]++ & 255]));
+    }
+
+    @Test
+    public void build() throws Exception {
+        FeedCardStore.Snapshot list = snapshot();
+        BENCH.run("build", "size=" + SIZE, 20, () -> {
+            SpanSizeTable table = new SpanSizeTable(SPAN_COUNT);
+            table.sync(list);
+            return table;
+        });
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.feedapp.ui.feed;
+
+import com.example.feedapp.data.model.FeedCard;
+import com.example.feedapp.data.model.FeedCardStore;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * SpanSizeTable 的单元测试：
+ * - 和 GridLayoutManager.SpanSizeLookup 默认的 getSpanIndex / getSpanGroupIndex（逐个累加）逐位置对比；
+ * - 追加一页只重算追加的部分，删除一张从删除位置重算，结果仍然和整表重建一致；
+ * - 2 万张卡片里查深位置的行号，和默认算法的结果一致（耗时对比见 SpanSizeTableBenchmark）。
+ */
+public class SpanSizeTableTest {
+
+    private static final int SPAN_COUNT = 2;
+    private static final int LARGE_SIZE = 20_000;
+
+    private final Random random = new Random(46);
+
+    private List<FeedCard> cards(int count) {
+        List<FeedCard> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // 大约 1/4 单列、3/4 双列，和 FeedRemoteDataSource 生成的比例差不多
+            list.add(new FeedCard.Builder()
+                    .id(UUID.randomUUID())
+                    .layoutType(random.nextInt(4) == 0 ? FeedCard.LAYOUT_SINGLE : FeedCard.LAYOUT_DOUBLE)
+                    .title("标题 " + i)
+                    .build());
+        }
+        return list;
+    }
+
+    // -------------------- GridLayoutManager 默认算法（androidx.recyclerview 1.4.0，未开缓存） --------------------
+
+    static int spanSize(List<FeedCard> list, int position) {
+        return position < list.size()
+                ? SpanSizeTable.spanSizeOf(list.get(position).getLayoutType(), SPAN_COUNT)
+                : SPAN_COUNT;
+    }
+
+    private static int defaultSpanIndex(List<FeedCard> list, int position) {
+        int positionSpanSize = spanSize(list, position);
+        if (positionSpanSize == SPAN_COUNT) return 0;
+        int span = 0;
+        for (int i = 0; i < position; i++) {
+            int size = spanSize(list, i);
+            span += size;
+            if (span == SPAN_COUNT) {
+                span = 0;
+            } else if (span > SPAN_COUNT) {
+                span = size;
+            }
+        }
+        return span + positionSpanSize <= SPAN_COUNT ? span : 0;
+    }
+
+    static int defaultSpanGroupIndex(List<FeedCard> list, int position) {
+        int span = 0;
+        int group = 0;
+        int positionSpanSize = spanSize(list, position);
+        for (int i = 0; i < position; i++) {
+            int size = spanSize(list, i);
+            span += size;
+            if (span == SPAN_COUNT) {
+                span = 0;
+                group++;
+            } else if (span > SPAN_COUNT) {
+                span = size;
+                group++;
+            }
+        }
+        if (span + positionSpanSize > SPAN_COUNT) group++;
+        return group;
+    }
+
+    private static void assertSameAsDefault(SpanSizeTable table, List<FeedCard> list) {
+        assertEquals(list.size(), table.size());
+        // 逐个累加是 O(n²)，只抽查一部分位置 + 头尾
+        int step = Math.max(1, list.size() / 300);
+        for (int i = 0; i < list.size(); i += step) {
+            assertPosition(table, list, i);
+        }
+        if (!list.isEmpty()) assertPosition(table, list, list.size() - 1);
+        // Footer：紧跟在最后一张后面、占满一行
+        assertEquals(defaultSpanGroupIndex(list, list.size()), table.groupIndexAfterEnd());
+    }
+
+    private static void assertPosition(SpanSizeTable table, List<FeedCard> list, int i) {
+        assertEquals("span size @" + i, spanSize(list, i), table.spanSizeAt(i));
+        assertEquals("span index @" + i, defaultSpanIndex(list, i), table.spanIndexAt(i));
+        assertEquals("group index @" + i, defaultSpanGroupIndex(list, i), table.spanGroupIndexAt(i));
+    }
+
+    // -------------------- 测试 --------------------
+
+    @Test
+    public void fullBuild_matchesDefaultAlgorithm() {
+        List<FeedCard> list = cards(2_000);
+        SpanSizeTable table = new SpanSizeTable(SPAN_COUNT);
+        table.sync(list);
+        assertSameAsDefault(table, list);
+    }
+
+    @Test
+    public void singleAfterHalfRow_startsNewRow() {
+        FeedCard d1 = new FeedCard.Builder().id(UUID.randomUUID()).layoutType(FeedCard.LAYOUT_DOUBLE).build();
+        FeedCard s = new FeedCard.Builder().id(UUID.randomUUID()).layoutType(FeedCard.LAYOUT_SINGLE).build();
+        FeedCard d2 = new FeedCard.Builder().id(UUID.randomUUID()).layoutType(FeedCard.LAYOUT_DOUBLE).build();
+        List<FeedCard> list = List.of(d1, s, d2, d2);
+        SpanSizeTable table = new SpanSizeTable(SPAN_COUNT);
+        table.sync(list);
+        // 第 0 行：d1 + 空位；第 1 行：s；第 2 行：d2 d2；Footer 第 3 行
+        assertEquals(0, table.spanGroupIndexAt(0));
+        assertEquals(1, table.spanGroupIndexAt(1));
+        assertEquals(2, table.spanGroupIndexAt(2));
+        assertEquals(1, table.spanIndexAt(3));
+        assertEquals(3, table.groupIndexAfterEnd());
+        assertSameAsDefault(table, list);
+    }
+
+    @Test
+    public void appendAndRemove_incrementalMatchesFullBuild() {
+        FeedCardStore store = new FeedCardStore();
+        SpanSizeTable table = new SpanSizeTable(SPAN_COUNT);
+        store.replaceAll(cards(500));
+        assertEquals(0, table.sync(store.snapshot()));
+
+        // 加载更多：只算追加的部分
+        store.appendAll(cards(300));
+        FeedCardStore.Snapshot appended = store.snapshot();
+        assertEquals(500, table.sync(appended));
+        assertSameAsDefault(table, appended);
+
+        // 删除一张：从删除位置往后重算
+        String victim = appended.get(123).getId();
+        store.remove(victim);
+        FeedCardStore.Snapshot removed = store.snapshot();
+        assertEquals(123, table.sync(removed));
+        assertSameAsDefault(table, removed);
+
+        // 同一份列表：不重算
+        assertEquals(removed.size(), table.sync(removed));
+
+        // 刷新：整表重建，列表变短也没问题
+        store.replaceAll(cards(40));
+        assertEquals(0, table.sync(store.snapshot()));
+        assertSameAsDefault(table, store.snapshot());
+    }
+
+    @Test
+    public void emptyList_footerOnFirstRow() {
+        SpanSizeTable table = new SpanSizeTable(SPAN_COUNT);
+        table.sync(new ArrayList<>());
+        assertEquals(0, table.size());
+        assertEquals(0, table.groupIndexAfterEnd());
+    }
+
+    /** scrollToPosition 到深位置时 GridLayoutManager 要先算锚点在第几行：预计算表给出的行号和默认算法一致 */
+    @Test
+    public void deepGroupIndex_matchesDefault() {
+        FeedCardStore store = new FeedCardStore();
+        store.replaceAll(cards(LARGE_SIZE));
+        FeedCardStore.Snapshot list = store.snapshot();
+        SpanSizeTable table = new SpanSizeTable(SPAN_COUNT);
+        table.sync(list);
+        for (int i = 0; i < 200; i++) {
+            int target = LARGE_SIZE / 2 + random.nextInt(LARGE_SIZE / 2);
+            assertEquals("group index @" + target, defaultSpanGroupIndex(list, target), table.spanGroupIndexAt(target));
+        }
+    }
+}
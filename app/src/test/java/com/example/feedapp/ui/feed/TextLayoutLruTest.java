@@ -0,0 +1,94 @@
+package com.example.feedapp.ui.feed;
+
+import com.example.feedapp.data.model.FeedCard;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * TextLayoutLru 的单元测试：
+ * - 同样内容的卡片（包括从 Builder 重新构造的）落在同一个 key 上，文字改了就换 key；
+ * - 超过上限时丢弃最久没用到的条目，get 会刷新顺序，contains 不会。
+ */
+public class TextLayoutLruTest {
+
+    private static FeedCard card(UUID id, String title) {
+        return new FeedCard.Builder()
+                .id(id)
+                .cardType(FeedCard.TYPE_TEXT)
+                .layoutType(FeedCard.LAYOUT_DOUBLE)
+                .title(title)
+                .subTitle("副标题")
+                .content("内容")
+                .build();
+    }
+
+    @Test
+    public void keyOf_followsContentNotInstance() {
+        UUID id = UUID.randomUUID();
+        FeedCard card = card(id, "标题");
+
+        assertEquals(TextLayoutLru.keyOf(card), TextLayoutLru.keyOf(card(id, "标题")));
+        assertEquals(TextLayoutLru.keyOf(card), TextLayoutLru.keyOf(card.toBuilder().build()));
+        // 局部刷新改了文字：不能命中旧文字的排版结果
+        assertNotEquals(TextLayoutLru.keyOf(card), TextLayoutLru.keyOf(card(id, "新标题")));
+        // 文字一样、卡片不同
+        assertNotEquals(TextLayoutLru.keyOf(card), TextLayoutLru.keyOf(card(UUID.randomUUID(), "标题")));
+    }
+
+    @Test
+    public void get_missesAfterTextChanges() {
+        UUID id = UUID.randomUUID();
+        TextLayoutLru<String> lru = new TextLayoutLru<>(10);
+        lru.put(card(id, "标题"), "layout");
+
+        assertEquals("layout", lru.get(card(id, "标题")));
+        assertNull(lru.get(card(id, "新标题")));
+        assertFalse(lru.contains(card(id, "新标题")));
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsed() {
+        TextLayoutLru<String> lru = new TextLayoutLru<>(3);
+        FeedCard a = card(UUID.randomUUID(), "a");
+        FeedCard b = card(UUID.randomUUID(), "b");
+        FeedCard c = card(UUID.randomUUID(), "c");
+        FeedCard d = card(UUID.randomUUID(), "d");
+        lru.put(a, "a");
+        lru.put(b, "b");
+        lru.put(c, "c");
+        // 命中 a：a 变成最近使用，下一个被丢弃的是 b
+        assertEquals("a", lru.get(a));
+        lru.put(d, "d");
+
+        assertEquals(3, lru.size());
+        assertTrue(lru.contains(a));
+        assertFalse(lru.contains(b));
+        assertTrue(lru.contains(c));
+        assertTrue(lru.contains(d));
+    }
+
+    @Test
+    public void contains_doesNotRefreshOrder() {
+        TextLayoutLru<String> lru = new TextLayoutLru<>(2);
+        FeedCard a = card(UUID.randomUUID(), "a");
+        FeedCard b = card(UUID.randomUUID(), "b");
+        FeedCard c = card(UUID.randomUUID(), "c");
+        lru.put(a, "a");
+        lru.put(b, "b");
+        // 预排版时的「算过没有」检查不算一次使用：a 仍然是最久没用到的
+        assertTrue(lru.contains(a));
+        lru.put(c, "c");
+
+        assertFalse(lru.contains(a));
+        assertTrue(lru.contains(b));
+        assertTrue(lru.contains(c));
+    }
+}